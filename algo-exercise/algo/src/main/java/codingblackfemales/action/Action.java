@@ -6,4 +6,19 @@ public interface Action {
 
     void apply(final Sequencer sequencer);
 
+    /**
+     * Applies the action for a particular instrument, actions which do not create anything for an instrument (i.e.
+     * a cancel, which only needs the orderId) ignore it.
+     */
+    default void apply(final Sequencer sequencer, final long instrumentId) {
+        apply(sequencer);
+    }
+
+    /**
+     * Applies the action by writing it into the caller's order entry rather than encoders of its own, this is how
+     * the Actioner sends orders without allocating.
+     */
+    default void apply(final Sequencer sequencer, final long instrumentId, final OrderEntry orderEntry) {
+        apply(sequencer, instrumentId);
+    }
 }
@@ -0,0 +1,108 @@
+package codingblackfemales.action;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sotw.ChildOrder;
+import messages.order.Side;
+import messages.order.TimeInForce;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several actions from one evaluation of an algo, i.e. placing a few layers or cancelling every stale child order at
+ * once, rather than one action per tick. Some features of this:
+ *
+ * 1) The Actioner writes the whole batch into one frame and sends it to the sequencer in one call, and the container
+ *    does not evaluate the algo on the batch's own orders until all of them have gone.
+ * 2) An algo can keep one batch and clear it on each evaluation, the child orders and cancels it creates are pooled so
+ *    it stops allocating once it has reached its largest size.
+ * 3) Actions which do not write into the OrderEntry are sent as they are applied, ahead of the frame.
+ */
+public class ActionBatch implements Action {
+
+    private final List<Action> actions = new ArrayList<>();
+
+    private final List<CreateChildOrder> createPool = new ArrayList<>();
+    private final List<CancelChildOrder> cancelPool = new ArrayList<>();
+    private int createsUsed = 0;
+    private int cancelsUsed = 0;
+
+    public ActionBatch clear() {
+        actions.clear();
+        createsUsed = 0;
+        cancelsUsed = 0;
+        return this;
+    }
+
+    public ActionBatch add(final Action action) {
+        actions.add(action);
+        return this;
+    }
+
+    public ActionBatch createChildOrder(final Side side, final long quantity, final long price) {
+        return add(nextCreate().reset(side, quantity, price));
+    }
+
+    public ActionBatch createChildOrder(final Side side, final long quantity, final long price, final TimeInForce timeInForce) {
+        return add(nextCreate().reset(side, quantity, price, timeInForce));
+    }
+
+    private CreateChildOrder nextCreate() {
+        if (createsUsed == createPool.size()) {
+            createPool.add(new CreateChildOrder());
+        }
+        return createPool.get(createsUsed++);
+    }
+
+    public ActionBatch cancelChildOrder(final ChildOrder orderToCancel) {
+        if (cancelsUsed == cancelPool.size()) {
+            cancelPool.add(new CancelChildOrder());
+        }
+        return add(cancelPool.get(cancelsUsed++).reset(orderToCancel));
+    }
+
+    public int size() {
+        return actions.size();
+    }
+
+    public boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    public Action get(final int index) {
+        return actions.get(index);
+    }
+
+    @Override
+    public String toString() {
+        return "ActionBatch(" + actions + ")";
+    }
+
+    @Override
+    public void apply(final Sequencer sequencer) {
+        apply(sequencer, 0L, new OrderEntry());
+    }
+
+    @Override
+    public void apply(final Sequencer sequencer, final long instrumentId, final OrderEntry orderEntry) {
+        //a batch within a batch goes into the outer one's frame
+        if (!orderEntry.beginFrame()) {
+            applyEach(sequencer, instrumentId, orderEntry);
+            return;
+        }
+
+        try {
+            applyEach(sequencer, instrumentId, orderEntry);
+        } catch (RuntimeException e) {
+            orderEntry.discardFrame();
+            throw e;
+        }
+        orderEntry.sendFrame(sequencer);
+    }
+
+    private void applyEach(final Sequencer sequencer, final long instrumentId, final OrderEntry orderEntry) {
+        for (int i = 0; i < actions.size(); i++) {
+            actions.get(i).apply(sequencer, instrumentId, orderEntry);
+        }
+    }
+}
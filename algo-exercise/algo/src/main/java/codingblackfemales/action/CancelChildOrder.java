@@ -2,20 +2,30 @@ package codingblackfemales.action;
 
 import codingblackfemales.sequencer.Sequencer;
 import codingblackfemales.sotw.ChildOrder;
-import messages.order.CancelOrderEncoder;
-import messages.order.MessageHeaderEncoder;
-import org.agrona.concurrent.UnsafeBuffer;
-
-import java.nio.ByteBuffer;
 
+/**
+ * Cancels a child order. Like CreateChildOrder an algo can keep one of these and reset it for each cancel.
+ */
 public class CancelChildOrder implements Action{
 
-    private final ChildOrder orderToCancel;
+    private ChildOrder orderToCancel;
+
+    public CancelChildOrder() {
+    }
 
     public CancelChildOrder(ChildOrder orderToCancel) {
         this.orderToCancel = orderToCancel;
     }
 
+    public CancelChildOrder reset(final ChildOrder orderToCancel) {
+        this.orderToCancel = orderToCancel;
+        return this;
+    }
+
+    public ChildOrder getOrderToCancel() {
+        return orderToCancel;
+    }
+
     @Override
     public String toString() {
         return "CancelChildOrder(" + orderToCancel + ")";
@@ -23,18 +33,11 @@ public class CancelChildOrder implements Action{
 
     @Override
     public void apply(final Sequencer sequencer) {
+        apply(sequencer, 0L, new OrderEntry());
+    }
 
-        final CancelOrderEncoder encoder = new CancelOrderEncoder();
-        final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(1024);
-        final UnsafeBuffer directBuffer = new UnsafeBuffer(byteBuffer);
-        final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
-
-        encoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
-        headerEncoder.schemaId(CancelOrderEncoder.SCHEMA_ID);
-        headerEncoder.version(CancelOrderEncoder.SCHEMA_VERSION);
-
-        encoder.orderId(orderToCancel.getOrderId());
-
-        sequencer.onCommand(directBuffer);
+    @Override
+    public void apply(final Sequencer sequencer, final long instrumentId, final OrderEntry orderEntry) {
+        orderEntry.cancelOrder(sequencer, orderToCancel.getOrderId());
     }
 }
@@ -1,49 +1,103 @@
 package codingblackfemales.action;
 
 import codingblackfemales.sequencer.Sequencer;
-import messages.order.CreateOrderEncoder;
-import messages.order.MessageHeaderEncoder;
+import messages.order.OrderType;
 import messages.order.Side;
-import org.agrona.concurrent.UnsafeBuffer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.nio.ByteBuffer;
+import messages.order.TimeInForce;
 
+/**
+ * Creates a child order. An algo can keep one of these and reset it for each order it creates rather than
+ * allocating a new one per decision, the Actioner has finished with it by the time the algo is evaluated again.
+ *
+ * Orders are DAY limit orders unless given an OrderType and TimeInForce. IOC and FOK orders never rest on the book,
+ * whatever does not fill straight away is cancelled and comes back as a CancelAckedOrder. A MARKET order takes
+ * whatever price it can get, its price is ignored, and it is always IOC.
+ */
 public class CreateChildOrder implements Action {
 
-    private static final Logger logger = LoggerFactory.getLogger(CreateChildOrder.class);
-    private final long quantity;
-    private final long price;
-
-    private final Side side;
+    private long quantity;
+    private long price;
 
+    private Side side;
+    private OrderType orderType = OrderType.LIMIT;
+    private TimeInForce timeInForce = TimeInForce.DAY;
 
+    public CreateChildOrder() {
+    }
 
     public CreateChildOrder(final Side side, final long quantity, final long price) {
+        reset(side, quantity, price);
+    }
+
+    public CreateChildOrder(final Side side, final long quantity, final long price, final TimeInForce timeInForce) {
+        reset(side, quantity, price, timeInForce);
+    }
+
+    public CreateChildOrder reset(final Side side, final long quantity, final long price) {
+        return reset(side, quantity, price, OrderType.LIMIT, TimeInForce.DAY);
+    }
+
+    public CreateChildOrder reset(final Side side, final long quantity, final long price, final TimeInForce timeInForce) {
+        return reset(side, quantity, price, OrderType.LIMIT, timeInForce);
+    }
+
+    /**
+     * A market order for the quantity, taking whatever the other side of the book has.
+     */
+    public CreateChildOrder resetMarket(final Side side, final long quantity) {
+        return reset(side, quantity, 0L, OrderType.MARKET, TimeInForce.IOC);
+    }
+
+    public CreateChildOrder reset(final Side side, final long quantity, final long price, final OrderType orderType, final TimeInForce timeInForce) {
         this.quantity = quantity;
         this.price = price;
         this.side = side;
+        this.orderType = orderType;
+        this.timeInForce = timeInForce;
+        return this;
+    }
+
+    public Side getSide() {
+        return side;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public OrderType getOrderType() {
+        return orderType;
+    }
+
+    public TimeInForce getTimeInForce() {
+        return timeInForce;
     }
 
     @Override
     public String toString() {
-        return "CreateChildOrder(side=" + side + ",quantity=" + quantity + ",price=" + price + ")";
+        if (orderType == OrderType.LIMIT && timeInForce == TimeInForce.DAY) {
+            return "CreateChildOrder(side=" + side + ",quantity=" + quantity + ",price=" + price + ")";
+        }
+        return "CreateChildOrder(side=" + side + ",quantity=" + quantity + ",price=" + price + ",orderType=" + orderType
+                + ",timeInForce=" + timeInForce + ")";
     }
 
     @Override
     public void apply(Sequencer sequencer) {
-        final CreateOrderEncoder encoder = new CreateOrderEncoder();
-        final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(1024);
-        final UnsafeBuffer directBuffer = new UnsafeBuffer(byteBuffer);
-        final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
-
-        encoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
-        headerEncoder.schemaId(CreateOrderEncoder.SCHEMA_ID);
-        headerEncoder.version(CreateOrderEncoder.SCHEMA_VERSION);
-        encoder.price(price);
-        encoder.quantity(quantity);
-        encoder.side(side);
-        sequencer.onCommand(directBuffer);
+        apply(sequencer, 0L);
+    }
+
+    @Override
+    public void apply(final Sequencer sequencer, final long instrumentId) {
+        apply(sequencer, instrumentId, new OrderEntry());
+    }
+
+    @Override
+    public void apply(final Sequencer sequencer, final long instrumentId, final OrderEntry orderEntry) {
+        orderEntry.createOrder(sequencer, instrumentId, side, quantity, price, orderType, timeInForce);
     }
 }
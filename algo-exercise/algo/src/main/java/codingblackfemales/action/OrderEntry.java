@@ -0,0 +1,155 @@
+package codingblackfemales.action;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.eventlog.EventLog;
+import codingblackfemales.sequencer.util.NestedBuffers;
+import messages.order.CancelOrderEncoder;
+import messages.order.CreateOrderEncoder;
+import messages.order.MessageHeaderEncoder;
+import messages.order.OrderType;
+import messages.order.Side;
+import messages.order.TimeInForce;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * The encoders and buffers the Actioner writes child orders and cancels into, so sending an order does not allocate.
+ *
+ * An order is sent into the sequencer synchronously, and the algo can be evaluated again and send another while the
+ * first is still being dispatched, so each level of that nesting writes into its own buffer, see NestedBuffers.
+ *
+ * Between beginFrame and sendFrame the orders are written back to back into one frame rather than sent, so that an
+ * ActionBatch reaches the sequencer as one contiguous batch.
+ */
+public class OrderEntry {
+
+    private static final EventLog.Event SENDING_CREATE = EventLog.event(OrderEntry.class,
+            "[ALGO] Actioner, sending action:CreateChildOrder(instrumentId={},side={},quantity={},price={},orderType={},timeInForce={})",
+            null, EventLog.SIDE, null, null, EventLog.ORDER_TYPE, EventLog.TIME_IN_FORCE);
+    private static final EventLog.Event SENDING_CANCEL = EventLog.event(OrderEntry.class,
+            "[ALGO] Actioner, sending action:CancelChildOrder(orderId={})");
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final CreateOrderEncoder createOrderEncoder = new CreateOrderEncoder();
+    private final CancelOrderEncoder cancelOrderEncoder = new CancelOrderEncoder();
+
+    //a frame grows its buffer if a batch does not fit
+    private final NestedBuffers<MutableDirectBuffer> buffers = new NestedBuffers<>(() -> new ExpandableDirectByteBuffer(1024));
+    private int depth = 0;
+
+    private boolean framing = false;
+    private int frameLength = 0;
+    private int framesBeingSent = 0;
+
+    private MutableDirectBuffer buffer() {
+        return buffers.at(depth);
+    }
+
+    /**
+     * Starts writing the orders which follow into a frame.
+     *
+     * @return false when a frame had already been started, in which case the orders go into that one and only its
+     * outermost caller should send it.
+     */
+    public boolean beginFrame() {
+        if (framing) {
+            return false;
+        }
+        framing = true;
+        frameLength = 0;
+        return true;
+    }
+
+    /**
+     * Sends everything written since beginFrame to the sequencer in one call.
+     */
+    public void sendFrame(final Sequencer sequencer) {
+        framing = false;
+        if (frameLength == 0) {
+            return;
+        }
+
+        final MutableDirectBuffer buffer = buffer();
+        depth++;
+        framesBeingSent++;
+        try {
+            sequencer.onCommandFrame(buffer, 0, frameLength);
+        } finally {
+            framesBeingSent--;
+            depth--;
+        }
+    }
+
+    /**
+     * Drops everything written since beginFrame, i.e. when a batch fails part way through being written.
+     */
+    public void discardFrame() {
+        framing = false;
+        frameLength = 0;
+    }
+
+    /**
+     * @return true while a frame is being dispatched, including anything the sequencer dispatches nested within it.
+     */
+    public boolean isSendingFrame() {
+        return framesBeingSent > 0;
+    }
+
+    public void createOrder(final Sequencer sequencer, final long instrumentId, final Side side, final long quantity, final long price) {
+        createOrder(sequencer, instrumentId, side, quantity, price, OrderType.LIMIT, TimeInForce.DAY);
+    }
+
+    public void createOrder(final Sequencer sequencer, final long instrumentId, final Side side, final long quantity, final long price,
+                            final OrderType orderType, final TimeInForce timeInForce) {
+        if (SENDING_CREATE.isEnabled()) {
+            SENDING_CREATE.log(instrumentId, side.value(), quantity, price, orderType.value(), timeInForce.value());
+        }
+
+        final MutableDirectBuffer buffer = buffer();
+        final int offset = offset();
+
+        createOrderEncoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        createOrderEncoder.instrumentId(instrumentId);
+        createOrderEncoder.price(price);
+        createOrderEncoder.quantity(quantity);
+        createOrderEncoder.side(side);
+        createOrderEncoder.orderId(0L);
+        createOrderEncoder.orderType(orderType);
+        createOrderEncoder.timeInForce(timeInForce);
+
+        send(sequencer, buffer, offset, headerEncoder.encodedLength() + createOrderEncoder.encodedLength());
+    }
+
+    public void cancelOrder(final Sequencer sequencer, final long orderId) {
+        if (SENDING_CANCEL.isEnabled()) {
+            SENDING_CANCEL.log(orderId);
+        }
+
+        final MutableDirectBuffer buffer = buffer();
+        final int offset = offset();
+
+        cancelOrderEncoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        cancelOrderEncoder.orderId(orderId);
+
+        send(sequencer, buffer, offset, headerEncoder.encodedLength() + cancelOrderEncoder.encodedLength());
+    }
+
+    private int offset() {
+        return framing ? frameLength + Sequencer.FRAME_LENGTH_PREFIX : 0;
+    }
+
+    private void send(final Sequencer sequencer, final MutableDirectBuffer buffer, final int offset, final int length) {
+        if (framing) {
+            buffer.putInt(frameLength, length);
+            frameLength = offset + length;
+            return;
+        }
+
+        depth++;
+        try {
+            sequencer.onCommand(buffer);
+        } finally {
+            depth--;
+        }
+    }
+}
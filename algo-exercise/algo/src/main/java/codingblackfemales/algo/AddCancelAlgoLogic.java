@@ -4,6 +4,7 @@ import codingblackfemales.action.Action;
 import codingblackfemales.action.CancelChildOrder;
 import codingblackfemales.action.CreateChildOrder;
 import codingblackfemales.action.NoAction;
+import codingblackfemales.sequencer.eventlog.EventLog;
 import codingblackfemales.sotw.SimpleAlgoState;
 import codingblackfemales.sotw.marketdata.BidLevel;
 import codingblackfemales.util.Util;
@@ -15,14 +16,24 @@ public class AddCancelAlgoLogic implements AlgoLogic {
 
     private static final Logger logger = LoggerFactory.getLogger(AddCancelAlgoLogic.class);
 
-    @Override
-    public Action evaluate(SimpleAlgoState state) {
+    private static final EventLog.Event IN_ALGO_LOGIC = EventLog.event(AddCancelAlgoLogic.class, "[ADDCANCELALGO] In Algo Logic....");
+    private static final EventLog.Event CANCELLING = EventLog.event(AddCancelAlgoLogic.class, "[ADDCANCELALGO] Cancelling order:{} {} {} @ {}", null, EventLog.SIDE);
+    private static final EventLog.Event ADDING = EventLog.event(AddCancelAlgoLogic.class, "[ADDCANCELALGO] Adding order for {} @ {}");
+    private static final EventLog.Event SEES_BOOK = EventLog.event(AddCancelAlgoLogic.class, "[ADDCANCELALGO]" + Util.TOP_OF_BOOK_FORMAT);
 
-        logger.info("[ADDCANCELALGO] In Algo Logic....");
+    private final CreateChildOrder createChildOrder = new CreateChildOrder();
+    private final CancelChildOrder cancelChildOrder = new CancelChildOrder();
 
-        final String book = Util.orderBookToString(state);
+    @Override
+    public Action evaluate(SimpleAlgoState state) {
 
-        logger.info("[ADDCANCELALGO] Algo Sees Book as:\n" + book);
+        if (IN_ALGO_LOGIC.isEnabled()) {
+            IN_ALGO_LOGIC.log();
+            Util.topOfBook(SEES_BOOK, state);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("[ADDCANCELALGO] Algo Sees Book as:\n" + Util.orderBookToString(state));
+        }
 
         var totalOrderCount = state.getChildOrders().size();
 
@@ -39,8 +50,10 @@ public class AddCancelAlgoLogic implements AlgoLogic {
 
             if (option.isPresent()) {
                 var childOrder = option.get();
-                logger.info("[ADDCANCELALGO] Cancelling order:" + childOrder);
-                return new CancelChildOrder(childOrder);
+                if (CANCELLING.isEnabled()) {
+                    CANCELLING.log(childOrder.getOrderId(), childOrder.getSide().value(), childOrder.getQuantity(), childOrder.getPrice());
+                }
+                return cancelChildOrder.reset(childOrder);
             }
             else{
                 return NoAction.NoAction;
@@ -49,8 +62,10 @@ public class AddCancelAlgoLogic implements AlgoLogic {
             BidLevel level = state.getBidAt(0);
             final long price = level.price;
             final long quantity = level.quantity;
-            logger.info("[ADDCANCELALGO] Adding order for" + quantity + "@" + price);
-            return new CreateChildOrder(Side.BUY, quantity, price);
+            if (ADDING.isEnabled()) {
+                ADDING.log(quantity, price);
+            }
+            return createChildOrder.reset(Side.BUY, quantity, price);
         }
     }
 }
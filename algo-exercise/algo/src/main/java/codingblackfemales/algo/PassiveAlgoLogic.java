@@ -2,6 +2,7 @@ package codingblackfemales.algo;
 
 import codingblackfemales.action.Action;
 import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.sequencer.eventlog.EventLog;
 import codingblackfemales.sotw.SimpleAlgoState;
 import codingblackfemales.sotw.marketdata.BidLevel;
 import codingblackfemales.util.Util;
@@ -15,14 +16,23 @@ public class PassiveAlgoLogic implements AlgoLogic{
 
     private static final Logger logger = LoggerFactory.getLogger(PassiveAlgoLogic.class);
 
-    @Override
-    public Action evaluate(SimpleAlgoState state) {
+    private static final EventLog.Event IN_ALGO_LOGIC = EventLog.event(PassiveAlgoLogic.class, "[PASSIVEALGO] In Algo Logic....");
+    private static final EventLog.Event JOINING = EventLog.event(PassiveAlgoLogic.class, "[PASSIVEALGO] Have:{} children, want 3, joining passive side of book with: {} @ {}");
+    private static final EventLog.Event DONE = EventLog.event(PassiveAlgoLogic.class, "[PASSIVEALGO] Have:{} children, want 3, done.");
+    private static final EventLog.Event SEES_BOOK = EventLog.event(PassiveAlgoLogic.class, "[PASSIVEALGO]" + Util.TOP_OF_BOOK_FORMAT);
 
-        logger.info("[PASSIVEALGO] In Algo Logic....");
+    private final CreateChildOrder createChildOrder = new CreateChildOrder();
 
-        final String book = Util.orderBookToString(state);
+    @Override
+    public Action evaluate(SimpleAlgoState state) {
 
-        logger.info("[PASSIVEALGO] Algo Sees Book as:\n" + book);
+        if (IN_ALGO_LOGIC.isEnabled()) {
+            IN_ALGO_LOGIC.log();
+            Util.topOfBook(SEES_BOOK, state);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("[PASSIVEALGO] Algo Sees Book as:\n" + Util.orderBookToString(state));
+        }
 
         final BidLevel nearTouch = state.getBidAt(0);
 
@@ -32,10 +42,14 @@ public class PassiveAlgoLogic implements AlgoLogic{
         //until we have three child orders....
         if(state.getChildOrders().size() < 3){
             //then keep creating a new one
-            logger.info("[PASSIVEALGO] Have:" + state.getChildOrders().size() + " children, want 3, joining passive side of book with: " + quantity + " @ " + price);
-            return new CreateChildOrder(Side.BUY, quantity, price);
+            if (JOINING.isEnabled()) {
+                JOINING.log(state.getChildOrders().size(), quantity, price);
+            }
+            return createChildOrder.reset(Side.BUY, quantity, price);
         }else{
-            logger.info("[PASSIVEALGO] Have:" + state.getChildOrders().size() + " children, want 3, done.");
+            if (DONE.isEnabled()) {
+                DONE.log(state.getChildOrders().size());
+            }
             return NoAction;
         }
 
@@ -2,10 +2,12 @@ package codingblackfemales.algo;
 
 import codingblackfemales.action.Action;
 import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.sequencer.eventlog.EventLog;
 import codingblackfemales.sotw.SimpleAlgoState;
 import codingblackfemales.sotw.marketdata.AskLevel;
 import codingblackfemales.util.Util;
 import messages.order.Side;
+import messages.order.TimeInForce;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,14 +17,23 @@ public class SniperAlgoLogic implements AlgoLogic {
 
     private static final Logger logger = LoggerFactory.getLogger(SniperAlgoLogic.class);
 
-    @Override
-    public Action evaluate(SimpleAlgoState state) {
+    private static final EventLog.Event IN_ALGO_LOGIC = EventLog.event(SniperAlgoLogic.class, "[SNIPERALGO] In Algo Logic....");
+    private static final EventLog.Event SNIPING = EventLog.event(SniperAlgoLogic.class, "[SNIPERALGO] Have:{} children, want 5, sniping far touch of book with: {} @ {}");
+    private static final EventLog.Event DONE = EventLog.event(SniperAlgoLogic.class, "[SNIPERALGO] Have:{} children, want 5, done.");
+    private static final EventLog.Event SEES_BOOK = EventLog.event(SniperAlgoLogic.class, "[SNIPERALGO]" + Util.TOP_OF_BOOK_FORMAT);
 
-        logger.info("[SNIPERALGO] In Algo Logic....");
+    private final CreateChildOrder createChildOrder = new CreateChildOrder();
 
-        final String book = Util.orderBookToString(state);
+    @Override
+    public Action evaluate(SimpleAlgoState state) {
 
-        logger.info("[SNIPERALGO] Algo Sees Book as:\n" + book);
+        if (IN_ALGO_LOGIC.isEnabled()) {
+            IN_ALGO_LOGIC.log();
+            Util.topOfBook(SEES_BOOK, state);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("[SNIPERALGO] Algo Sees Book as:\n" + Util.orderBookToString(state));
+        }
 
         final AskLevel farTouch = state.getAskAt(0);
 
@@ -33,10 +44,15 @@ public class SniperAlgoLogic implements AlgoLogic {
         //until we have three child orders....
         if (state.getChildOrders().size() < 5) {
             //then keep creating a new one
-            logger.info("[SNIPERALGO] Have:" + state.getChildOrders().size() + " children, want 5, sniping far touch of book with: " + quantity + " @ " + price);
-            return new CreateChildOrder(Side.BUY, quantity, price);
+            if (SNIPING.isEnabled()) {
+                SNIPING.log(state.getChildOrders().size(), quantity, price);
+            }
+            //IOC, so whatever is not there by the time it reaches the book is cancelled rather than left resting
+            return createChildOrder.reset(Side.BUY, quantity, price, TimeInForce.IOC);
         } else {
-            logger.info("[SNIPERALGO] Have:" + state.getChildOrders().size() + " children, want 5, done.");
+            if (DONE.isEnabled()) {
+                DONE.log(state.getChildOrders().size());
+            }
             return NoAction;
         }
     }
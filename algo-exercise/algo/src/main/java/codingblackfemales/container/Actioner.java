@@ -1,6 +1,7 @@
 package codingblackfemales.container;
 
 import codingblackfemales.action.Action;
+import codingblackfemales.action.OrderEntry;
 import codingblackfemales.sequencer.Sequencer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,13 +11,33 @@ public class Actioner {
     private static final Logger logger = LoggerFactory.getLogger(Actioner.class);
 
     private final Sequencer sequencer;
+    private final long instrumentId;
+    private final OrderEntry orderEntry = new OrderEntry();
 
     public Actioner(Sequencer sequencer) {
+        this(sequencer, 0L);
+    }
+
+    /**
+     * An actioner which stamps the instrument onto the orders it creates, for a container running more than one.
+     */
+    public Actioner(final Sequencer sequencer, final long instrumentId) {
         this.sequencer = sequencer;
+        this.instrumentId = instrumentId;
     }
 
     public void processAction(final Action action){
-        logger.info("[ALGO] Actioner, sending action:" + action);
-        action.apply(sequencer);
+        //the orders themselves are logged by the OrderEntry, without building a string
+        if (logger.isDebugEnabled()) {
+            logger.debug("[ALGO] Actioner, sending action:" + action);
+        }
+        action.apply(sequencer, instrumentId, orderEntry);
+    }
+
+    /**
+     * @return true while an ActionBatch is being sent, the container holds off evaluating the algo until it has gone.
+     */
+    public boolean isSendingBatch() {
+        return orderEntry.isSendingFrame();
     }
 }
@@ -2,6 +2,7 @@ package codingblackfemales.container;
 
 import codingblackfemales.action.NoAction;
 import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.sequencer.latency.Latency;
 import codingblackfemales.sequencer.net.Consumer;
 import codingblackfemales.service.MarketDataService;
 import codingblackfemales.service.OrderService;
@@ -45,7 +46,7 @@ public class AlgoContainer implements Consumer {
 
     @Override
     public void onMessage(DirectBuffer buffer){
-        if(runTrigger.shouldRun()){
+        if(runTrigger.shouldRun() && !actioner.isSendingBatch()){
             runAlgoLogic();
 
         }else {
@@ -53,14 +54,42 @@ public class AlgoContainer implements Consumer {
         }
     }
 
+    /**
+     * Evaluates anything a coalescing run trigger held back, with a plain RunTrigger the algo has already run.
+     */
+    @Override
+    public void onEndOfBatch(){
+        if(runTrigger.shouldRunAtEndOfBatch()){
+            runAlgoLogic();
+        }
+    }
+
+    /**
+     * The algo is not evaluated on the orders of a batch while it is being sent, so it runs again on them afterwards.
+     */
     private void runAlgoLogic(){
-        final var action = logic.evaluate(state);
+        runAlgoLogic(logic, state, marketDataService, runTrigger, actioner);
+    }
 
-        runTrigger.hasRun();
+    /**
+     * The evaluate loop, shared with each instrument of a MultiInstrumentAlgoContainer so that they record the same
+     * latency.
+     */
+    static void runAlgoLogic(final AlgoLogic logic, final SimpleAlgoState state, final MarketDataService marketDataService,
+                             final RunTrigger runTrigger, final Actioner actioner){
+        do {
+            final var action = logic.evaluate(state);
 
-        if(action !=null && (!action.equals(NoAction.NoAction))){
-            actioner.processAction(action);
-        }
+            if(Latency.isEnabled()){
+                Latency.record(Latency.Stage.EVALUATE, marketDataService.getTickTimestamp());
+            }
+
+            runTrigger.hasRun();
+
+            if(action !=null && (!action.equals(NoAction.NoAction))){
+                actioner.processAction(action);
+            }
+        } while (runTrigger.shouldRun());
     }
 
     public SimpleAlgoState getState() {
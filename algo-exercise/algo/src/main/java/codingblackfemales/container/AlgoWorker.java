@@ -0,0 +1,144 @@
+package codingblackfemales.container;
+
+import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.sequencer.Sequencer;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * One of the ParallelAlgoEngine's single threaded loops. It owns a MultiInstrumentAlgoContainer for the instruments
+ * hashed onto it, so their books, orders and run triggers are only ever touched by this worker's thread. Some
+ * features of this:
+ *
+ * 1) Sequenced messages arrive as copies on the inbound ring buffer, written by the engine's dispatching thread.
+ * 2) The algos' commands go out on the outbound ring buffer rather than into the sequencer, which is not thread safe,
+ *    the engine drains them into the sequencer on its own thread. A batch's frame is written as one record.
+ */
+public class AlgoWorker implements Agent {
+
+    public static final int MESSAGE = 1;
+    public static final int FRAME = 2;
+
+    private final int index;
+    private final OneToOneRingBuffer inbound;
+    private final OneToOneRingBuffer outbound;
+    private final MultiInstrumentAlgoContainer container;
+
+    private final UnsafeBuffer message = new UnsafeBuffer(0, 0);
+    private final MessageHandler onMessage = this::onMessage;
+
+    private final AtomicLong processed = new AtomicLong();
+    private int read = 0;
+
+    public AlgoWorker(final int index, final int ringCapacity, final LongFunction<AlgoLogic> logicFactory) {
+        this(index, ringCapacity, logicFactory, RunTrigger::new);
+    }
+
+    public AlgoWorker(final int index, final int ringCapacity, final LongFunction<AlgoLogic> logicFactory, final Supplier<RunTrigger> runTriggerFactory) {
+        this.index = index;
+        this.inbound = new OneToOneRingBuffer(ringBuffer(ringCapacity));
+        this.outbound = new OneToOneRingBuffer(ringBuffer(ringCapacity));
+        this.container = new MultiInstrumentAlgoContainer(new OutboundSequencer(outbound), logicFactory, runTriggerFactory);
+    }
+
+    private static UnsafeBuffer ringBuffer(final int capacity) {
+        return new UnsafeBuffer(ByteBuffer.allocateDirect(capacity + RingBufferDescriptor.TRAILER_LENGTH));
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    OneToOneRingBuffer inbound() {
+        return inbound;
+    }
+
+    OneToOneRingBuffer outbound() {
+        return outbound;
+    }
+
+    /**
+     * @return how many messages this worker has handled, readable from any thread.
+     */
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * The container is owned by the worker's thread, only read it once the engine has been closed.
+     */
+    public MultiInstrumentAlgoContainer getContainer() {
+        return container;
+    }
+
+    /**
+     * Everything on the inbound ring buffer is one batch. Its messages only count as processed once the end of the
+     * batch has run, as a CoalescingRunTrigger sends the algo's commands from there.
+     */
+    @Override
+    public int doWork() {
+        read = 0;
+        try {
+            inbound.read(onMessage, Integer.MAX_VALUE);
+            if (read > 0) {
+                container.onEndOfBatch();
+            }
+        } finally {
+            processed.lazySet(processed.get() + read);
+        }
+        return read;
+    }
+
+    private void onMessage(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length) {
+        //counted even if the algo throws, so the engine does not wait on it forever
+        read++;
+        message.wrap(buffer, index, length);
+        container.onMessage(message);
+    }
+
+    @Override
+    public String roleName() {
+        return "algo-worker-" + index;
+    }
+
+    /**
+     * Stands in for the sequencer on the worker's thread, the commands an algo sends have no groups so their length
+     * comes from the header.
+     */
+    private static final class OutboundSequencer implements Sequencer {
+
+        private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        private final OneToOneRingBuffer outbound;
+
+        private OutboundSequencer(final OneToOneRingBuffer outbound) {
+            this.outbound = outbound;
+        }
+
+        @Override
+        public void onCommand(final DirectBuffer command) {
+            header.wrap(command, 0);
+            final int length = header.encodedLength() + header.blockLength();
+            while (!outbound.write(MESSAGE, command, 0, length)) {
+                Thread.onSpinWait();
+            }
+        }
+
+        @Override
+        public void onCommandFrame(final DirectBuffer frame, final int offset, final int length) {
+            while (!outbound.write(FRAME, frame, offset, length)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package codingblackfemales.container;
+
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+
+/**
+ * A RunTrigger which holds the algo back until the end of the batch, so a burst of market data or fills is evaluated
+ * once on the latest state rather than once per message on each stale step of it. Some features of this:
+ *
+ * 1) The bounds cap how long an event can wait: once maxEvents have been triggered, or maxLatencyNanos has passed
+ *    since the first of them, the algo is evaluated on the next message even mid batch.
+ * 2) The bounds are checked as each message arrives, nothing evaluates on a timer, so an idle batch end is still
+ *    what runs the last event of a burst.
+ */
+public class CoalescingRunTrigger extends RunTrigger {
+
+    private final int maxEvents;
+    private final long maxLatencyNanos;
+    private final NanoClock clock;
+
+    private int events = 0;
+    private long firstEventNanos;
+
+    /**
+     * Coalesces everything up to the end of the batch, however long the batch is.
+     */
+    public CoalescingRunTrigger() {
+        this(Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public CoalescingRunTrigger(final int maxEvents, final long maxLatencyNanos) {
+        this(maxEvents, maxLatencyNanos, SystemNanoClock.INSTANCE);
+    }
+
+    public CoalescingRunTrigger(final int maxEvents, final long maxLatencyNanos, final NanoClock clock) {
+        if (maxEvents < 1) {
+            throw new IllegalArgumentException(String.format("Must coalesce at least one event maxEvents=[%d]", maxEvents));
+        }
+        this.maxEvents = maxEvents;
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.clock = clock;
+    }
+
+    @Override
+    public void triggerRun() {
+        if (events == 0 && maxLatencyNanos != Long.MAX_VALUE) {
+            firstEventNanos = clock.nanoTime();
+        }
+        events++;
+        super.triggerRun();
+    }
+
+    @Override
+    public boolean shouldRun() {
+        return super.shouldRun() && (events >= maxEvents || (maxLatencyNanos != Long.MAX_VALUE && clock.nanoTime() - firstEventNanos >= maxLatencyNanos));
+    }
+
+    @Override
+    public void hasRun() {
+        events = 0;
+        super.hasRun();
+    }
+
+    /**
+     * @return how many events are waiting to be evaluated.
+     */
+    public int getPendingEvents() {
+        return events;
+    }
+}
@@ -0,0 +1,152 @@
+package codingblackfemales.container;
+
+import messages.marketdata.AskBookUpdateDecoder;
+import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.IncrementalBookUpdateDecoder;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.order.*;
+import org.agrona.DirectBuffer;
+
+/**
+ * Reads just enough of a sequenced message to say which instrument, or which order, it is for. Market data and
+ * CreateOrder carry the instrumentId, the other order events only carry the orderId so whoever routes them needs
+ * to remember which instrument each CreateOrder was for, and can forget it once isTerminal() says the order is done.
+ */
+public class InstrumentRouting {
+
+    public static final int OTHER = 0;
+    public static final int MARKET_DATA = 1;
+    public static final int CREATE_ORDER = 2;
+    public static final int ORDER_EVENT = 3;
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final BookUpdateDecoder book = new BookUpdateDecoder();
+    private final AskBookUpdateDecoder ask = new AskBookUpdateDecoder();
+    private final BidBookUpdateDecoder bid = new BidBookUpdateDecoder();
+    private final IncrementalBookUpdateDecoder incremental = new IncrementalBookUpdateDecoder();
+    private final CreateOrderDecoder createOrder = new CreateOrderDecoder();
+    private final CancelOrderDecoder cancelOrder = new CancelOrderDecoder();
+    private final AckedOrderDecoder ackedOrder = new AckedOrderDecoder();
+    private final CancelAckedOrderDecoder cancelAckedOrder = new CancelAckedOrderDecoder();
+    private final PendingOrderDecoder pendingOrder = new PendingOrderDecoder();
+    private final PartialFillOrderDecoder partialFillOrder = new PartialFillOrderDecoder();
+    private final FillOrderDecoder fillOrder = new FillOrderDecoder();
+
+    private int kind;
+    private long instrumentId;
+    private long orderId;
+    private boolean terminal;
+    private int encodedLength;
+
+    /**
+     * @return MARKET_DATA, CREATE_ORDER, ORDER_EVENT or OTHER.
+     */
+    public int wrap(final DirectBuffer buffer) {
+        header.wrap(buffer, 0);
+        terminal = false;
+
+        final int templateId = header.templateId();
+        final int offset = header.encodedLength();
+        final int blockLength = header.blockLength();
+        final int version = header.version();
+
+        if (header.schemaId() == BookUpdateDecoder.SCHEMA_ID) {
+            if (templateId == BookUpdateDecoder.TEMPLATE_ID) {
+                book.wrap(buffer, offset, blockLength, version);
+                instrumentId = book.instrumentId();
+            } else if (templateId == AskBookUpdateDecoder.TEMPLATE_ID) {
+                ask.wrap(buffer, offset, blockLength, version);
+                instrumentId = ask.instrumentId();
+            } else if (templateId == BidBookUpdateDecoder.TEMPLATE_ID) {
+                bid.wrap(buffer, offset, blockLength, version);
+                instrumentId = bid.instrumentId();
+            } else if (templateId == IncrementalBookUpdateDecoder.TEMPLATE_ID) {
+                incremental.wrap(buffer, offset, blockLength, version);
+                instrumentId = incremental.instrumentId();
+            } else {
+                return kind = OTHER;
+            }
+            //only walked through the groups if someone asks for the length
+            encodedLength = -1;
+            return kind = MARKET_DATA;
+        }
+
+        if (header.schemaId() == CreateOrderDecoder.SCHEMA_ID) {
+            //none of the order messages have groups
+            encodedLength = offset + blockLength;
+
+            if (templateId == CreateOrderDecoder.TEMPLATE_ID) {
+                createOrder.wrap(buffer, offset, blockLength, version);
+                instrumentId = createOrder.instrumentId();
+                orderId = createOrder.orderId();
+                return kind = CREATE_ORDER;
+            } else if (templateId == CancelOrderDecoder.TEMPLATE_ID) {
+                orderId = cancelOrder.wrap(buffer, offset, blockLength, version).orderId();
+                terminal = true;
+            } else if (templateId == AckedOrderDecoder.TEMPLATE_ID) {
+                orderId = ackedOrder.wrap(buffer, offset, blockLength, version).orderId();
+            } else if (templateId == CancelAckedOrderDecoder.TEMPLATE_ID) {
+                orderId = cancelAckedOrder.wrap(buffer, offset, blockLength, version).orderId();
+                terminal = true;
+            } else if (templateId == PendingOrderDecoder.TEMPLATE_ID) {
+                orderId = pendingOrder.wrap(buffer, offset, blockLength, version).orderId();
+            } else if (templateId == PartialFillOrderDecoder.TEMPLATE_ID) {
+                orderId = partialFillOrder.wrap(buffer, offset, blockLength, version).orderId();
+            } else if (templateId == FillOrderDecoder.TEMPLATE_ID) {
+                orderId = fillOrder.wrap(buffer, offset, blockLength, version).orderId();
+                terminal = true;
+            } else {
+                return kind = OTHER;
+            }
+            return kind = ORDER_EVENT;
+        }
+
+        return kind = OTHER;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the instrument of MARKET_DATA or CREATE_ORDER.
+     */
+    public long getInstrumentId() {
+        return instrumentId;
+    }
+
+    /**
+     * @return the order of CREATE_ORDER or ORDER_EVENT.
+     */
+    public long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * @return whether an ORDER_EVENT ends its order, a FillOrder, CancelOrder or CancelAckedOrder, after which the
+     * OrderService takes no more notice of it, so nothing more needs routing for it.
+     */
+    public boolean isTerminal() {
+        return terminal;
+    }
+
+    /**
+     * @return the length of the message, header included, for anything other than OTHER.
+     */
+    public int getEncodedLength() {
+        if (encodedLength == -1) {
+            final int templateId = header.templateId();
+            if (templateId == BookUpdateDecoder.TEMPLATE_ID) {
+                encodedLength = header.encodedLength() + book.sbeDecodedLength();
+            } else if (templateId == AskBookUpdateDecoder.TEMPLATE_ID) {
+                encodedLength = header.encodedLength() + ask.sbeDecodedLength();
+            } else if (templateId == IncrementalBookUpdateDecoder.TEMPLATE_ID) {
+                encodedLength = header.encodedLength() + incremental.sbeDecodedLength();
+            } else {
+                encodedLength = header.encodedLength() + bid.sbeDecodedLength();
+            }
+        }
+        return encodedLength;
+    }
+}
@@ -0,0 +1,193 @@
+package codingblackfemales.container;
+
+import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.collection.extrusive.LongToObjMap;
+import codingblackfemales.collection.extrusive.Map;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.service.MarketDataService;
+import codingblackfemales.service.OrderService;
+import codingblackfemales.sotw.ChildOrder;
+import codingblackfemales.sotw.OrderState;
+import codingblackfemales.sotw.SimpleAlgoState;
+import codingblackfemales.sotw.SimpleAlgoStateImpl;
+import org.agrona.DirectBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs an algo per instrument, each with its own market data, orders and run trigger, in place of the services and
+ * AlgoContainer wired onto the network for a single instrument. Some features of this:
+ *
+ * 1) Market data and child orders are routed by instrumentId, the order events which only carry an orderId are
+ *    routed through the instrument their CreateOrder was for, until the child is FILLED or CANCELLED.
+ * 2) Only the instrument the message was for is evaluated, so the cost of a tick does not grow with the number of
+ *    instruments being traded.
+ * 3) An instrument is set up the first time it ticks, with the algo logic from the factory.
+ * 4) With a CoalescingRunTrigger the instruments which were held back during a batch are evaluated at its end.
+ */
+public class MultiInstrumentAlgoContainer implements Consumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiInstrumentAlgoContainer.class);
+
+    private final InstrumentRouting routing = new InstrumentRouting();
+
+    private final LongToObjMap<InstrumentAlgo> instruments = Map.longToObjMap();
+    private final LongToObjMap<InstrumentAlgo> instrumentsByOrderId = Map.longToObjMap();
+    private final List<InstrumentAlgo> heldBack = new ArrayList<>();
+
+    private final Sequencer sequencer;
+    private final LongFunction<AlgoLogic> logicFactory;
+    private final Supplier<RunTrigger> runTriggerFactory;
+
+    public MultiInstrumentAlgoContainer(final Sequencer sequencer, final LongFunction<AlgoLogic> logicFactory) {
+        this(sequencer, logicFactory, RunTrigger::new);
+    }
+
+    /**
+     * @param runTriggerFactory creates each instrument's run trigger, i.e. a CoalescingRunTrigger to evaluate once per batch.
+     */
+    public MultiInstrumentAlgoContainer(final Sequencer sequencer, final LongFunction<AlgoLogic> logicFactory, final Supplier<RunTrigger> runTriggerFactory) {
+        this.sequencer = sequencer;
+        this.logicFactory = logicFactory;
+        this.runTriggerFactory = runTriggerFactory;
+    }
+
+    /**
+     * @return the algo for that instrument, or null when it has not ticked yet.
+     */
+    public InstrumentAlgo getInstrument(final long instrumentId) {
+        return instruments.get(instrumentId);
+    }
+
+    public int getInstrumentCount() {
+        return instruments.size();
+    }
+
+    /**
+     * @return how many child orders are still routed to their instrument, i.e. are neither filled nor cancelled.
+     */
+    public int getRoutedOrderCount() {
+        return instrumentsByOrderId.size();
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer) {
+        final InstrumentAlgo instrument;
+        switch (routing.wrap(buffer)) {
+            case InstrumentRouting.MARKET_DATA:
+                instrument = getOrCreateInstrument(routing.getInstrumentId());
+                instrument.marketDataService.onMessage(buffer);
+                break;
+            case InstrumentRouting.CREATE_ORDER:
+                instrument = instruments.get(routing.getInstrumentId());
+                if (instrument == null) {
+                    return;
+                }
+                instrumentsByOrderId.put(routing.getOrderId(), instrument);
+                instrument.orderService.onMessage(buffer);
+                break;
+            case InstrumentRouting.ORDER_EVENT:
+                instrument = instrumentsByOrderId.get(routing.getOrderId());
+                if (instrument == null) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("[ALGO] Ignoring order message for orderId:" + routing.getOrderId() + " which none of our instruments created");
+                    }
+                    return;
+                }
+                instrument.orderService.onMessage(buffer);
+                //nothing more is routed for a child which is done
+                final ChildOrder child = instrument.orderService.find(routing.getOrderId());
+                if (child == null || OrderState.isTerminal(child.getState())) {
+                    instrumentsByOrderId.remove(routing.getOrderId());
+                }
+                break;
+            default:
+                return;
+        }
+
+        if (instrument.runTrigger.shouldRun()) {
+            //runs again once it has finished sending a batch
+            if (!instrument.actioner.isSendingBatch()) {
+                instrument.runAlgoLogic();
+            }
+        } else if (!instrument.heldBack && instrument.runTrigger.shouldRunAtEndOfBatch()) {
+            instrument.heldBack = true;
+            heldBack.add(instrument);
+        }
+    }
+
+    @Override
+    public void onEndOfBatch() {
+        //an instrument's algo can hold another back while this runs, so the size is read on each pass
+        for (int i = 0; i < heldBack.size(); i++) {
+            final InstrumentAlgo instrument = heldBack.get(i);
+            instrument.heldBack = false;
+            if (instrument.runTrigger.shouldRunAtEndOfBatch()) {
+                instrument.runAlgoLogic();
+            }
+        }
+        heldBack.clear();
+    }
+
+    private InstrumentAlgo getOrCreateInstrument(final long instrumentId) {
+        InstrumentAlgo instrument = instruments.get(instrumentId);
+        if (instrument == null) {
+            instrument = new InstrumentAlgo(instrumentId, logicFactory.apply(instrumentId), new Actioner(sequencer, instrumentId), runTriggerFactory.get());
+            instruments.put(instrumentId, instrument);
+            logger.info("[ALGO] Started algo for instrumentId:" + instrumentId);
+        }
+        return instrument;
+    }
+
+    /**
+     * One instrument's view of the world and the algo trading it.
+     */
+    public static final class InstrumentAlgo {
+
+        private final long instrumentId;
+        private final RunTrigger runTrigger;
+        private final MarketDataService marketDataService;
+        private final OrderService orderService;
+        private final SimpleAlgoState state;
+        private final AlgoLogic logic;
+        private final Actioner actioner;
+
+        private boolean heldBack = false;
+
+        private InstrumentAlgo(final long instrumentId, final AlgoLogic logic, final Actioner actioner, final RunTrigger runTrigger) {
+            this.instrumentId = instrumentId;
+            this.logic = logic;
+            this.actioner = actioner;
+            this.runTrigger = runTrigger;
+            this.marketDataService = new MarketDataService(runTrigger);
+            this.orderService = new OrderService(runTrigger);
+            this.state = new SimpleAlgoStateImpl(marketDataService, orderService);
+        }
+
+        private void runAlgoLogic() {
+            AlgoContainer.runAlgoLogic(logic, state, marketDataService, runTrigger, actioner);
+        }
+
+        public long getInstrumentId() {
+            return instrumentId;
+        }
+
+        public MarketDataService getMarketDataService() {
+            return marketDataService;
+        }
+
+        public OrderService getOrderService() {
+            return orderService;
+        }
+
+        public SimpleAlgoState getState() {
+            return state;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package codingblackfemales.container;
+
+import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.collection.extrusive.LongToObjMap;
+import codingblackfemales.collection.extrusive.Map;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.util.NestedBuffers;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs the algos for many instruments across a fixed number of worker threads, in place of a
+ * MultiInstrumentAlgoContainer on the network. Some features of this:
+ *
+ * 1) Each instrument is hashed onto one AlgoWorker, which owns its market data, orders and run trigger, so nothing
+ *    is shared between the workers and nothing needs a lock.
+ * 2) onMessage is called on the network's thread, it reads the instrumentId (or for order events the orderId) from
+ *    the message and copies it onto that worker's ring buffer. The orderId of each CreateOrder is remembered so
+ *    that its acks, fills and cancels go to the same worker, until its fill or cancel.
+ * 3) The sequencer is not thread safe, so the workers' child orders and cancels wait on their outbound ring buffers
+ *    until drainCommands is called, which must be from the thread that owns the sequencer.
+ * 4) A worker whose outbound ring buffer is full stops reading its inbound one, so when onMessage finds a worker's
+ *    inbound ring buffer full it drains the commands itself while it waits, rather than waiting on a worker which is
+ *    waiting on it. The commands are copied off the ring buffers before they are sequenced, as sequencing one of them
+ *    can come straight back into onMessage and drain again.
+ */
+public class ParallelAlgoEngine implements Consumer, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelAlgoEngine.class);
+
+    public static final int DEFAULT_RING_CAPACITY = 1 << 20;
+
+    private final InstrumentRouting routing = new InstrumentRouting();
+    private final LongToObjMap<AlgoWorker> workersByOrderId = Map.longToObjMap();
+
+    private final Sequencer sequencer;
+    private final AlgoWorker[] workers;
+    private final AgentRunner[] runners;
+    private final long[] published;
+
+    private final UnsafeBuffer command = new UnsafeBuffer(0, 0);
+    private final MessageHandler onDrained = this::onDrained;
+
+    //a record is its msgTypeId, its length and then the command
+    private static final int DRAINED_HEADER_LENGTH = 2 * Integer.BYTES;
+    private final NestedBuffers<MutableDirectBuffer> drainedBuffers = new NestedBuffers<>(() -> new ExpandableDirectByteBuffer(4096));
+    private MutableDirectBuffer drained;
+    private int drainedLength;
+    private int depth = 0;
+
+    public ParallelAlgoEngine(final Sequencer sequencer, final int workerCount, final LongFunction<AlgoLogic> logicFactory) {
+        this(sequencer, workerCount, DEFAULT_RING_CAPACITY, logicFactory);
+    }
+
+    /**
+     * @param ringCapacity the size in bytes of each worker's inbound and outbound ring buffers, a power of two.
+     */
+    public ParallelAlgoEngine(final Sequencer sequencer, final int workerCount, final int ringCapacity, final LongFunction<AlgoLogic> logicFactory) {
+        this(sequencer, workerCount, ringCapacity, logicFactory, RunTrigger::new);
+    }
+
+    /**
+     * @param runTriggerFactory creates each instrument's run trigger, a CoalescingRunTrigger evaluates an instrument
+     *                          once for everything its worker read in one go.
+     */
+    public ParallelAlgoEngine(final Sequencer sequencer, final int workerCount, final int ringCapacity,
+                              final LongFunction<AlgoLogic> logicFactory, final Supplier<RunTrigger> runTriggerFactory) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException(String.format("Need at least one worker workerCount=[%d]", workerCount));
+        }
+        this.sequencer = sequencer;
+        this.workers = new AlgoWorker[workerCount];
+        this.runners = new AgentRunner[workerCount];
+        this.published = new long[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new AlgoWorker(i, ringCapacity, logicFactory, runTriggerFactory);
+            runners[i] = new AgentRunner(new BackoffIdleStrategy(), this::onWorkerError, null, workers[i]);
+        }
+    }
+
+    public ParallelAlgoEngine start() {
+        for (AgentRunner runner : runners) {
+            AgentRunner.startOnThread(runner);
+        }
+        return this;
+    }
+
+    public int getWorkerCount() {
+        return workers.length;
+    }
+
+    public AlgoWorker getWorker(final int index) {
+        return workers[index];
+    }
+
+    /**
+     * @return how many orders are still routed to the worker which created them, i.e. are neither filled nor cancelled.
+     */
+    public int getRoutedOrderCount() {
+        return workersByOrderId.size();
+    }
+
+    /**
+     * @return the worker an instrument's messages are sent to.
+     */
+    public int workerFor(final long instrumentId) {
+        final long h = instrumentId * 0x9E3779B97F4A7C15L;
+        return (int) ((h ^ (h >>> 32)) & Integer.MAX_VALUE) % workers.length;
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer) {
+        final int worker;
+        switch (routing.wrap(buffer)) {
+            case InstrumentRouting.MARKET_DATA:
+                worker = workerFor(routing.getInstrumentId());
+                break;
+            case InstrumentRouting.CREATE_ORDER:
+                worker = workerFor(routing.getInstrumentId());
+                workersByOrderId.put(routing.getOrderId(), workers[worker]);
+                break;
+            case InstrumentRouting.ORDER_EVENT:
+                final AlgoWorker owner = workersByOrderId.get(routing.getOrderId());
+                if (owner == null) {
+                    return;
+                }
+                worker = owner.getIndex();
+                //the order is done, nothing more will be routed for it
+                if (routing.isTerminal()) {
+                    workersByOrderId.remove(routing.getOrderId());
+                }
+                break;
+            default:
+                return;
+        }
+
+        final int length = routing.getEncodedLength();
+        while (!workers[worker].inbound().write(AlgoWorker.MESSAGE, buffer, 0, length)) {
+            //the worker may be waiting for room to send its commands, which only this thread makes
+            if (drainCommands() == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        published[worker]++;
+    }
+
+    /**
+     * Sends the workers' commands into the sequencer, from the thread which owns it.
+     *
+     * @return how many commands were sent.
+     */
+    public int drainCommands() {
+        int commands = 0;
+        for (AlgoWorker worker : workers) {
+            drained = drainedBuffers.at(depth);
+            drainedLength = 0;
+            final int read = worker.outbound().read(onDrained);
+            if (read > 0) {
+                commands += read;
+                sequence(drained, drainedLength);
+            }
+        }
+        return commands;
+    }
+
+    private void onDrained(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length) {
+        drained.putInt(drainedLength, msgTypeId);
+        drained.putInt(drainedLength + Integer.BYTES, length);
+        drained.putBytes(drainedLength + DRAINED_HEADER_LENGTH, buffer, index, length);
+        drainedLength += DRAINED_HEADER_LENGTH + length;
+    }
+
+    private void sequence(final MutableDirectBuffer records, final int length) {
+        depth++;
+        try {
+            int position = 0;
+            while (position < length) {
+                final int msgTypeId = records.getInt(position);
+                final int commandLength = records.getInt(position + Integer.BYTES);
+                onCommand(msgTypeId, records, position + DRAINED_HEADER_LENGTH, commandLength);
+                position += DRAINED_HEADER_LENGTH + commandLength;
+            }
+        } finally {
+            depth--;
+        }
+    }
+
+    private void onCommand(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length) {
+        if (msgTypeId == AlgoWorker.FRAME) {
+            sequencer.onCommandFrame(buffer, index, length);
+            return;
+        }
+        command.wrap(buffer, index, length);
+        sequencer.onCommand(command);
+    }
+
+    /**
+     * @return true once every worker has handled everything sent to it and there are no commands left to drain.
+     */
+    public boolean isIdle() {
+        for (int i = 0; i < workers.length; i++) {
+            if (workers[i].getProcessed() != published[i] || workers[i].outbound().size() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drains commands until the workers and the sequencer have nothing left to do, for tests and benchmarks which
+     * publish a batch and then want to see its result.
+     */
+    public void drainUntilIdle() {
+        while (!isIdle()) {
+            if (drainCommands() == 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void onWorkerError(final Throwable throwable) {
+        logger.error("[ALGO] Algo worker failed", throwable);
+    }
+
+    /**
+     * Stops the workers, after which their containers can be read from any thread.
+     */
+    @Override
+    public void close() {
+        for (AgentRunner runner : runners) {
+            runner.close();
+        }
+    }
+}
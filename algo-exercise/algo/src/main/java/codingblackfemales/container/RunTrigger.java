@@ -8,10 +8,20 @@ public class RunTrigger {
         shouldRun = true;
     }
 
+    /**
+     * @return true when the algo should be evaluated on the message which is being handled.
+     */
     public boolean shouldRun(){
         return shouldRun;
     }
 
+    /**
+     * @return true when an event is still waiting to be evaluated once the current batch of messages has been handled.
+     */
+    public boolean shouldRunAtEndOfBatch(){
+        return shouldRun;
+    }
+
     public void hasRun(){
         this.shouldRun = false;
     }
@@ -0,0 +1,60 @@
+package codingblackfemales.marketdata.api;
+
+import messages.marketdata.BookSide;
+import messages.marketdata.UpdateAction;
+
+public class BookChange {
+    BookSide side;
+    UpdateAction action;
+    long price;
+    long size;
+
+    public BookChange() {
+    }
+
+    public BookSide side() {
+        return side;
+    }
+
+    public UpdateAction action() {
+        return action;
+    }
+
+    public long price() {
+        return price;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public BookChange setSide(BookSide side) {
+        this.side = side;
+        return this;
+    }
+
+    public BookChange setAction(UpdateAction action) {
+        this.action = action;
+        return this;
+    }
+
+    public BookChange setPrice(long price) {
+        this.price = price;
+        return this;
+    }
+
+    public BookChange setSize(long size) {
+        this.size = size;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "BookChange{" +
+                "side=" + side +
+                ", action=" + action +
+                ", price=" + price +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package codingblackfemales.marketdata.api;
+
+import messages.marketdata.InstrumentStatus;
+
+import java.util.List;
+
+/**
+ * The levels which have been added, changed or deleted since the last update, applied on top of the last BookUpdate.
+ */
+public interface IncrementalBookUpdate extends MarketDataMessage {
+
+    default UpdateType updateType() {
+        return UpdateType.IncrementalUpdate;
+    }
+
+    InstrumentStatus instrumentStatus();
+
+    List<BookChange> changes();
+}
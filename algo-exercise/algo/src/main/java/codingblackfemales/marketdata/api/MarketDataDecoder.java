@@ -0,0 +1,85 @@
+package codingblackfemales.marketdata.api;
+
+import codingblackfemales.marketdata.impl.AskBookUpdateImpl;
+import codingblackfemales.marketdata.impl.BidBookUpdateImpl;
+import codingblackfemales.marketdata.impl.BookUpdateImpl;
+import codingblackfemales.marketdata.impl.IncrementalBookUpdateImpl;
+import messages.marketdata.*;
+import org.agrona.DirectBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * The reverse of the MarketDataEncoder, reads an SBE encoded market data message back into a MarketDataMessage.
+ */
+public class MarketDataDecoder {
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final BookUpdateDecoder bookUpdateDecoder = new BookUpdateDecoder();
+    private final AskBookUpdateDecoder askBookUpdateDecoder = new AskBookUpdateDecoder();
+    private final BidBookUpdateDecoder bidBookUpdateDecoder = new BidBookUpdateDecoder();
+    private final IncrementalBookUpdateDecoder incrementalBookUpdateDecoder = new IncrementalBookUpdateDecoder();
+
+    public MarketDataMessage decode(final DirectBuffer buffer) {
+        headerDecoder.wrap(buffer, 0);
+
+        final int templateId = headerDecoder.templateId();
+        final int offset = headerDecoder.encodedLength();
+        final int blockLength = headerDecoder.blockLength();
+        final int version = headerDecoder.version();
+
+        switch (templateId) {
+            case BookUpdateDecoder.TEMPLATE_ID:
+                return doDecode(bookUpdateDecoder.wrap(buffer, offset, blockLength, version));
+            case AskBookUpdateDecoder.TEMPLATE_ID:
+                return doDecode(askBookUpdateDecoder.wrap(buffer, offset, blockLength, version));
+            case BidBookUpdateDecoder.TEMPLATE_ID:
+                return doDecode(bidBookUpdateDecoder.wrap(buffer, offset, blockLength, version));
+            case IncrementalBookUpdateDecoder.TEMPLATE_ID:
+                return doDecode(incrementalBookUpdateDecoder.wrap(buffer, offset, blockLength, version));
+            default:
+                throw new RuntimeException(format("Unsupported templateId=[%s] schemaId=[%s]", templateId, headerDecoder.schemaId()));
+        }
+    }
+
+    private MarketDataMessage doDecode(final AskBookUpdateDecoder update) {
+        final List<BookEntry> askBook = new ArrayList<>();
+        for (AskBookUpdateDecoder.AskBookDecoder entry : update.askBook()) {
+            askBook.add(new BookEntry().setPrice(entry.price()).setSize(entry.size()));
+        }
+        return new AskBookUpdateImpl(update.instrumentId(), update.venue(), askBook);
+    }
+
+    private MarketDataMessage doDecode(final BidBookUpdateDecoder update) {
+        final List<BookEntry> bidBook = new ArrayList<>();
+        for (BidBookUpdateDecoder.BidBookDecoder entry : update.bidBook()) {
+            bidBook.add(new BookEntry().setPrice(entry.price()).setSize(entry.size()));
+        }
+        return new BidBookUpdateImpl(update.instrumentId(), update.venue(), bidBook);
+    }
+
+    private MarketDataMessage doDecode(final IncrementalBookUpdateDecoder update) {
+        final List<BookChange> changes = new ArrayList<>();
+        for (IncrementalBookUpdateDecoder.EntriesDecoder entry : update.entries()) {
+            changes.add(new BookChange().setSide(entry.side()).setAction(entry.action()).setPrice(entry.price()).setSize(entry.size()));
+        }
+        return new IncrementalBookUpdateImpl(update.instrumentId(), update.venue(), update.instrumentStatus(), changes);
+    }
+
+    private MarketDataMessage doDecode(final BookUpdateDecoder update) {
+        //groups have to be read in the order the schema has them, bids then asks
+        final List<BookEntry> bidBook = new ArrayList<>();
+        for (BookUpdateDecoder.BidBookDecoder entry : update.bidBook()) {
+            bidBook.add(new BookEntry().setPrice(entry.price()).setSize(entry.size()));
+        }
+
+        final List<BookEntry> askBook = new ArrayList<>();
+        for (BookUpdateDecoder.AskBookDecoder entry : update.askBook()) {
+            askBook.add(new BookEntry().setPrice(entry.price()).setSize(entry.size()));
+        }
+
+        return new BookUpdateImpl(update.instrumentId(), update.venue(), update.instrumentStatus(), bidBook, askBook);
+    }
+}
@@ -12,6 +12,7 @@ public class MarketDataEncoder {
     private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
     private final AskBookUpdateEncoder askBookUpdateEncoder = new AskBookUpdateEncoder();
     private final BidBookUpdateEncoder bidBookUpdateEncoder = new BidBookUpdateEncoder();
+    private final IncrementalBookUpdateEncoder incrementalBookUpdateEncoder = new IncrementalBookUpdateEncoder();
 
     public UnsafeBuffer encode(final MarketDataMessage message) {
         switch (message.updateType()) {
@@ -21,6 +22,8 @@ public class MarketDataEncoder {
                 return doEncode((AskBookUpdate) message);
             case BidUpdate:
                 return doEncode((BidBookUpdate) message);
+            case IncrementalUpdate:
+                return doEncode((IncrementalBookUpdate) message);
             default:
                 throw new RuntimeException(format("Unsupported updateType=[%s] message=[%s]", message.updateType(), message));
         }
@@ -52,24 +55,41 @@ public class MarketDataEncoder {
         return directBuffer;
     }
 
+    private UnsafeBuffer doEncode(final IncrementalBookUpdate update) {
+        final UnsafeBuffer directBuffer = buffer();
+        incrementalBookUpdateEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+        incrementalBookUpdateEncoder.venue(update.venue());
+        incrementalBookUpdateEncoder.instrumentId(update.instrumentId());
+        incrementalBookUpdateEncoder.instrumentStatus(update.instrumentStatus());
+        incrementalBookUpdateEncoder.source(Source.STREAM);
+
+        IncrementalBookUpdateEncoder.EntriesEncoder entriesEncoder = incrementalBookUpdateEncoder.entriesCount(update.changes().size());
+        for (int i = 0; i < update.changes().size(); i++) {
+            BookChange change = update.changes().get(i);
+            entriesEncoder.next().side(change.side()).action(change.action()).price(change.price()).size(change.size());
+        }
+        return directBuffer;
+    }
+
     private UnsafeBuffer doEncode(final BookUpdate update) {
         final UnsafeBuffer directBuffer = buffer();
         bookUpdateEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
         bookUpdateEncoder.venue(update.venue());
         bookUpdateEncoder.instrumentId(update.instrumentId());
 
-        BookUpdateEncoder.AskBookEncoder askBookEncoder = bookUpdateEncoder.askBookCount(update.askBook().size());
-        for (int i = 0; i < update.askBook().size(); i++) {
-            BookEntry bookEntry = update.askBook().get(i);
-            askBookEncoder.next().price(bookEntry.price()).size(bookEntry.size());
-        }
-
+        //groups have to be written in the order the schema has them, bids then asks
         BookUpdateEncoder.BidBookEncoder bidBookEncoder = bookUpdateEncoder.bidBookCount(update.bidBook().size());
         for (int i = 0; i < update.bidBook().size(); i++) {
             BookEntry bookEntry = update.bidBook().get(i);
             bidBookEncoder.next().price(bookEntry.price()).size(bookEntry.size());
         }
 
+        BookUpdateEncoder.AskBookEncoder askBookEncoder = bookUpdateEncoder.askBookCount(update.askBook().size());
+        for (int i = 0; i < update.askBook().size(); i++) {
+            BookEntry bookEntry = update.askBook().get(i);
+            askBookEncoder.next().price(bookEntry.price()).size(bookEntry.size());
+        }
+
         bookUpdateEncoder.instrumentStatus(update.instrumentStatus());
         bookUpdateEncoder.source(Source.STREAM);
         return directBuffer;
@@ -1,5 +1,18 @@
 package codingblackfemales.marketdata.api;
 
+import org.agrona.DirectBuffer;
+
+/**
+ * Serves market data in order, both methods return null when there is no more. Some features of this:
+ *
+ * 1) poll() returns the next message as an object, i.e. for converting between file formats
+ * 2) pollEncoded() returns it SBE encoded, ready to hand to the sequencer, which is what a back test replays. A file
+ *    of already encoded frames serves these straight off the file, others encode the message they would have polled.
+ *
+ * The two read from the same position, so a caller uses one or the other.
+ */
 public interface MarketDataProvider {
     MarketDataMessage poll();
+
+    DirectBuffer pollEncoded();
 }
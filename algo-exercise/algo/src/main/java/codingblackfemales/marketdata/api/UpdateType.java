@@ -3,11 +3,13 @@ package codingblackfemales.marketdata.api;
 import codingblackfemales.marketdata.impl.AskBookUpdateImpl;
 import codingblackfemales.marketdata.impl.BidBookUpdateImpl;
 import codingblackfemales.marketdata.impl.BookUpdateImpl;
+import codingblackfemales.marketdata.impl.IncrementalBookUpdateImpl;
 
 public enum UpdateType {
     BookUpdate(BookUpdateImpl.class),
     AskUpdate(AskBookUpdateImpl.class),
     BidUpdate(BidBookUpdateImpl.class),
+    IncrementalUpdate(IncrementalBookUpdateImpl.class),
     ;
     private final Class<? extends MarketDataMessage> messageClass;
 
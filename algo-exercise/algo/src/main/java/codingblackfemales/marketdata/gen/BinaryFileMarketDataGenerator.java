@@ -0,0 +1,66 @@
+package codingblackfemales.marketdata.gen;
+
+import codingblackfemales.marketdata.api.MarketDataEncoder;
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.sequencer.journal.Journal;
+import codingblackfemales.sequencer.util.SbeMessageLength;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+
+/**
+ * Writes market data as SBE encoded BookUpdate / AskBookUpdate / BidBookUpdate frames into a memory-mapped file, in
+ * the same frame format as the sequencer journal, to be read back by the BinaryFileMarketDataProvider.
+ */
+public class BinaryFileMarketDataGenerator {
+    private final MarketDataEncoder encoder = new MarketDataEncoder();
+    private final SbeMessageLength messageLength = new SbeMessageLength();
+    private final Journal journal;
+    private final MarketDataGenerator generator;
+
+    public BinaryFileMarketDataGenerator(final String marketDataFileName,
+                                         final MarketDataGenerator generator,
+                                         final int capacity) {
+        this.generator = generator;
+        final File marketDataFile = new File(marketDataFileName);
+        if (marketDataFile.exists()) {
+            marketDataFile.delete();
+        }
+        this.journal = Journal.open(marketDataFile.toPath(), capacity);
+    }
+
+    public BinaryFileMarketDataGenerator(final String marketDataFileName,
+                                         final MarketDataGenerator generator) {
+        this(marketDataFileName, generator, Journal.DEFAULT_CAPACITY);
+    }
+
+    public void close() {
+        journal.close();
+    }
+
+    public void generate(final int entriesCount) {
+        for (int i = 0; i < entriesCount; i++) {
+            write(generator.next());
+        }
+    }
+
+    /**
+     * Writes everything the generator returns until it returns null.
+     *
+     * @return the number of messages written
+     */
+    public long generateAll() {
+        long count = 0;
+        MarketDataMessage marketDataMessage;
+        while ((marketDataMessage = generator.next()) != null) {
+            write(marketDataMessage);
+            count++;
+        }
+        return count;
+    }
+
+    public void write(final MarketDataMessage marketDataMessage) {
+        final UnsafeBuffer encoded = encoder.encode(marketDataMessage);
+        journal.append(encoded, messageLength.lengthOf(encoded));
+    }
+}
@@ -0,0 +1,117 @@
+package codingblackfemales.marketdata.gen;
+
+import codingblackfemales.marketdata.api.AskBookUpdate;
+import codingblackfemales.marketdata.api.BidBookUpdate;
+import codingblackfemales.marketdata.api.BookChange;
+import codingblackfemales.marketdata.api.BookEntry;
+import codingblackfemales.marketdata.api.BookUpdate;
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.marketdata.impl.IncrementalBookUpdateImpl;
+import messages.marketdata.BookSide;
+import messages.marketdata.UpdateAction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the full BookUpdates of another generator into IncrementalBookUpdates. Some features of this:
+ *
+ * 1) Each instrument's first BookUpdate, and then every snapshotInterval'th, is passed on as it is, as a snapshot
+ *    for a consumer joining part way through (or one which missed an update) to start from.
+ * 2) The rest become the levels deleted, added (NEW) and resized (CHANGE) since the last update, deletes first.
+ * 3) Ask and bid side updates are passed on as they are, they are already just the one side.
+ */
+public class IncrementalMarketDataGenerator implements MarketDataGenerator {
+
+    private final MarketDataGenerator generator;
+    private final int snapshotInterval;
+    private final Map<Long, Book> books = new HashMap<>();
+
+    private static class Book {
+        List<BookEntry> bids = List.of();
+        List<BookEntry> asks = List.of();
+        int sinceSnapshot = 0;
+    }
+
+    public IncrementalMarketDataGenerator(final MarketDataGenerator generator, final int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException(String.format("The snapshot interval must be at least 1, snapshotInterval=[%s]", snapshotInterval));
+        }
+        this.generator = generator;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    public MarketDataMessage next() {
+        final MarketDataMessage message = generator.next();
+        if (message == null) {
+            return null;
+        }
+
+        final Book book = books.computeIfAbsent(message.instrumentId(), instrumentId -> new Book());
+
+        switch (message.updateType()) {
+            case BookUpdate:
+                return next(book, (BookUpdate) message);
+            case AskUpdate:
+                book.asks = copy(((AskBookUpdate) message).askBook());
+                return message;
+            case BidUpdate:
+                book.bids = copy(((BidBookUpdate) message).bidBook());
+                return message;
+            default:
+                return message;
+        }
+    }
+
+    private MarketDataMessage next(final Book book, final BookUpdate update) {
+        final boolean snapshot = book.sinceSnapshot == 0;
+        book.sinceSnapshot = (book.sinceSnapshot + 1) % snapshotInterval;
+
+        final List<BookChange> changes = new ArrayList<>();
+        if (!snapshot) {
+            diff(BookSide.BID, book.bids, update.bidBook(), changes);
+            diff(BookSide.ASK, book.asks, update.askBook(), changes);
+        }
+
+        book.bids = copy(update.bidBook());
+        book.asks = copy(update.askBook());
+
+        return snapshot ? update : new IncrementalBookUpdateImpl(update.instrumentId(), update.venue(), update.instrumentStatus(), changes);
+    }
+
+    private static void diff(final BookSide side, final List<BookEntry> previous, final List<BookEntry> next, final List<BookChange> changes) {
+        for (BookEntry entry : previous) {
+            if (find(next, entry.price()) == null) {
+                changes.add(new BookChange().setSide(side).setAction(UpdateAction.DELETE).setPrice(entry.price()).setSize(0));
+            }
+        }
+        for (BookEntry entry : next) {
+            final BookEntry was = find(previous, entry.price());
+            if (was == null) {
+                changes.add(new BookChange().setSide(side).setAction(UpdateAction.NEW).setPrice(entry.price()).setSize(entry.size()));
+            } else if (was.size() != entry.size()) {
+                changes.add(new BookChange().setSide(side).setAction(UpdateAction.CHANGE).setPrice(entry.price()).setSize(entry.size()));
+            }
+        }
+    }
+
+    private static BookEntry find(final List<BookEntry> levels, final long price) {
+        for (BookEntry entry : levels) {
+            if (entry.price() == price) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static List<BookEntry> copy(final List<BookEntry> levels) {
+        final List<BookEntry> copy = new ArrayList<>(levels.size());
+        for (BookEntry entry : levels) {
+            copy.add(new BookEntry().setPrice(entry.price()).setSize(entry.size()));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,40 @@
+package codingblackfemales.marketdata.gen;
+
+import codingblackfemales.marketdata.impl.SimpleFileMarketDataProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+
+/**
+ * Converts the "ordinal,json" files written by the SimpleFileMarketDataGenerator into the binary format read by the
+ * BinaryFileMarketDataProvider.
+ */
+public class MarketDataFileConverter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataFileConverter.class);
+
+    //an SBE frame is always smaller than the json line it came from, the extra is for files of a few ticks
+    private static final int MIN_CAPACITY = 64 * 1024;
+
+    public static long jsonToBinary(final String jsonFileName, final String binaryFileName) {
+        final long jsonLength = new File(jsonFileName).length();
+        final int capacity = Math.toIntExact(Math.max(jsonLength + MIN_CAPACITY, MIN_CAPACITY));
+
+        final SimpleFileMarketDataProvider provider = new SimpleFileMarketDataProvider(jsonFileName);
+        final BinaryFileMarketDataGenerator generator = new BinaryFileMarketDataGenerator(binaryFileName, provider::poll, capacity);
+
+        final long count = generator.generateAll();
+        generator.close();
+
+        logger.info("[MARKETDATA] Converted " + count + " messages from " + jsonFileName + " to " + binaryFileName);
+        return count;
+    }
+
+    public static void main(final String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: MarketDataFileConverter <json file> <binary file>");
+        }
+        jsonToBinary(args[0], args[1]);
+    }
+}
@@ -0,0 +1,52 @@
+package codingblackfemales.marketdata.impl;
+
+import codingblackfemales.marketdata.api.MarketDataDecoder;
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.marketdata.api.MarketDataProvider;
+import codingblackfemales.sequencer.journal.Journal;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.apache.commons.lang3.Validate;
+
+import java.io.File;
+
+/**
+ * Serves the SBE frames written by the BinaryFileMarketDataGenerator straight off the memory-mapped file. The buffer
+ * returned from pollEncoded() is a view over the file, it is re-pointed at the next frame on the next poll. poll()
+ * decodes the same frame into a message, for the few callers which want objects rather than bytes.
+ */
+public class BinaryFileMarketDataProvider implements MarketDataProvider, AutoCloseable {
+
+    private final Journal journal;
+    private final UnsafeBuffer view = new UnsafeBuffer();
+    private final MarketDataDecoder decoder = new MarketDataDecoder();
+    private int offset = 0;
+
+    public BinaryFileMarketDataProvider(final String marketDataFileName) {
+        final File marketDataFile = new File(marketDataFileName);
+        Validate.isTrue(marketDataFile.canRead(), "Unable to read marketDataFileName=[%s] marketDataFile.path=[%s]", marketDataFileName, marketDataFile.getAbsolutePath());
+        this.journal = Journal.open(marketDataFile.toPath());
+    }
+
+    @Override
+    public MarketDataMessage poll() {
+        final DirectBuffer frame = pollEncoded();
+        return frame == null ? null : decoder.decode(frame);
+    }
+
+    @Override
+    public DirectBuffer pollEncoded() {
+        if (offset < 0) {
+            return null;
+        }
+
+        offset = journal.wrapFrame(offset, view);
+
+        return offset < 0 ? null : view;
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+}
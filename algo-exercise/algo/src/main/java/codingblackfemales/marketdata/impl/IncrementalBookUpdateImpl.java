@@ -0,0 +1,52 @@
+package codingblackfemales.marketdata.impl;
+
+import codingblackfemales.marketdata.api.BookChange;
+import codingblackfemales.marketdata.api.IncrementalBookUpdate;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.Venue;
+
+import java.util.List;
+
+public class IncrementalBookUpdateImpl implements IncrementalBookUpdate {
+    private long instrumentId;
+    private Venue venue;
+    private InstrumentStatus instrumentStatus;
+    private List<BookChange> changes;
+
+    public IncrementalBookUpdateImpl(long instrumentId, Venue venue, InstrumentStatus instrumentStatus, List<BookChange> changes) {
+        this.instrumentId = instrumentId;
+        this.venue = venue;
+        this.instrumentStatus = instrumentStatus;
+        this.changes = changes;
+    }
+
+    @Override
+    public InstrumentStatus instrumentStatus() {
+        return instrumentStatus;
+    }
+
+    @Override
+    public List<BookChange> changes() {
+        return changes;
+    }
+
+    @Override
+    public long instrumentId() {
+        return instrumentId;
+    }
+
+    @Override
+    public Venue venue() {
+        return venue;
+    }
+
+    @Override
+    public String toString() {
+        return "IncrementalBookUpdateImpl{" +
+                "instrumentId=" + instrumentId +
+                ", venue=" + venue +
+                ", instrumentStatus=" + instrumentStatus +
+                ", changes=" + changes +
+                '}';
+    }
+}
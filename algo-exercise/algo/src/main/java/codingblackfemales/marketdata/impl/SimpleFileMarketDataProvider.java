@@ -1,10 +1,12 @@
 package codingblackfemales.marketdata.impl;
 
+import codingblackfemales.marketdata.api.MarketDataEncoder;
 import codingblackfemales.marketdata.api.MarketDataMessage;
 import codingblackfemales.marketdata.api.MarketDataProvider;
 import codingblackfemales.marketdata.api.UpdateType;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import org.agrona.DirectBuffer;
 import org.apache.commons.lang3.Validate;
 
 import java.io.*;
@@ -15,6 +17,7 @@ public class SimpleFileMarketDataProvider implements MarketDataProvider {
     private final FileReader reader;
     private final BufferedReader bufferedReader;
     private final String marketDataFileName;
+    private final MarketDataEncoder encoder = new MarketDataEncoder();
 
     public SimpleFileMarketDataProvider(final String marketDataFileName) {
         this.marketDataFileName = marketDataFileName;
@@ -36,6 +39,12 @@ public class SimpleFileMarketDataProvider implements MarketDataProvider {
         return nextMessage();
     }
 
+    @Override
+    public DirectBuffer pollEncoded() {
+        final MarketDataMessage message = nextMessage();
+        return message == null ? null : encoder.encode(message);
+    }
+
     private MarketDataMessage nextMessage() {
         try {
             final String line = bufferedReader.readLine();
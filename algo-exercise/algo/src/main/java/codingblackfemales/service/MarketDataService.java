@@ -2,36 +2,65 @@ package codingblackfemales.service;
 
 import codingblackfemales.container.RunTrigger;
 import codingblackfemales.sequencer.event.MarketDataEventListener;
+import codingblackfemales.sequencer.latency.Latency;
+import codingblackfemales.sotw.marketdata.AbstractLevel;
 import codingblackfemales.sotw.marketdata.AskLevel;
 import codingblackfemales.sotw.marketdata.BidLevel;
 import messages.marketdata.AskBookUpdateDecoder;
 import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BookSide;
 import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.IncrementalBookUpdateDecoder;
+import messages.marketdata.UpdateAction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
+/**
+ * The algo's view of the market, each update overwrites the levels in place so that a tick does not allocate. Some
+ * features of this:
+ *
+ * 1) getBidLevel/getAskLevel return views which are only valid until the next update, an algo which wants to compare
+ *    against an earlier tick must copy the price and quantity out.
+ * 2) The books start 15 levels deep and double the first time a deeper update arrives, after which they are reused.
+ * 3) An incremental update changes just the levels it names, a level is inserted or deleted by moving the level
+ *    views along the array so the book stays sorted best first without allocating.
+ */
 public class MarketDataService extends MarketDataEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(MarketDataService.class);
 
+    private static final int INITIAL_DEPTH = 15;
+
     private int bidLength = 0;
     private int askLength = 0;
 
     private long instrumentId;
-    private final BidLevel[] bidBook = new BidLevel[15];
-    private final AskLevel[] askBook = new AskLevel[15];
+    private BidLevel[] bidBook = new BidLevel[0];
+    private AskLevel[] askBook = new AskLevel[0];
     private final RunTrigger runTrigger;
 
+    private long tickTimestamp;
+
     public MarketDataService(RunTrigger runTrigger) {
         this.runTrigger = runTrigger;
+        growBidsTo(INITIAL_DEPTH);
+        growAsksTo(INITIAL_DEPTH);
     }
 
+    /**
+     * @return the bid at that depth, or null when the book is not that deep.
+     */
     public BidLevel getBidLevel(int i){
-        return bidBook[i];
+        return i < bidLength ? bidBook[i] : null;
     }
 
+    /**
+     * @return the ask at that depth, or null when the book is not that deep.
+     */
     public AskLevel getAskLevel(int i){
-        return askBook[i];
+        return i < askLength ? askBook[i] : null;
     }
 
     public int getBidLength(){
@@ -44,16 +73,99 @@ public class MarketDataService extends MarketDataEventListener {
 
     public long getInstrumentId(){return instrumentId;}
 
-    private static void empty(BidLevel[] levels){
-        for (int i=0; i<levels.length; i++) {
-            levels[i] = null;
+    private void growBidsTo(final int depth) {
+        final int previousDepth = bidBook.length;
+        bidBook = Arrays.copyOf(bidBook, depth);
+        for (int i = previousDepth; i < depth; i++) {
+            bidBook[i] = new BidLevel();
+        }
+    }
+
+    private void growAsksTo(final int depth) {
+        final int previousDepth = askBook.length;
+        askBook = Arrays.copyOf(askBook, depth);
+        for (int i = previousDepth; i < depth; i++) {
+            askBook[i] = new AskLevel();
+        }
+    }
+
+    private void setBid(final int bookLevel, final long price, final long quantity) {
+        if (bookLevel == bidBook.length) {
+            growBidsTo(bookLevel * 2);
+        }
+        bidBook[bookLevel].setPrice(price);
+        bidBook[bookLevel].setQuantity(quantity);
+        if (logger.isDebugEnabled()) {
+            logger.debug("[ALGO] BID: price:" + price + " quantity:" + quantity);
+        }
+    }
+
+    private void setAsk(final int bookLevel, final long price, final long quantity) {
+        if (bookLevel == askBook.length) {
+            growAsksTo(bookLevel * 2);
+        }
+        askBook[bookLevel].setPrice(price);
+        askBook[bookLevel].setQuantity(quantity);
+        if (logger.isDebugEnabled()) {
+            logger.debug("[ALGO] ASK: price:" + price + " quantity:" + quantity);
+        }
+    }
+
+    /**
+     * Sets, inserts or (for a delete or a size of 0) removes the level at a price, NEW and CHANGE are treated the
+     * same so that a change to a level we have not seen still leaves the book right.
+     *
+     * @return the new number of levels.
+     */
+    private static int applyChange(final AbstractLevel[] levels, final int length, final boolean descending,
+                                   final UpdateAction action, final long price, final long size) {
+        int index = 0;
+        while (index < length && (descending ? levels[index].price > price : levels[index].price < price)) {
+            index++;
         }
+        final boolean found = index < length && levels[index].price == price;
+
+        if (action == UpdateAction.DELETE || size == 0) {
+            if (!found) {
+                return length;
+            }
+            //the removed view goes to the end, ready to be reused by the next insert
+            final AbstractLevel removed = levels[index];
+            System.arraycopy(levels, index + 1, levels, index, length - index - 1);
+            levels[length - 1] = removed;
+            return length - 1;
+        }
+
+        if (!found) {
+            final AbstractLevel spare = levels[length];
+            System.arraycopy(levels, index, levels, index + 1, length - index);
+            levels[index] = spare;
+            levels[index].setPrice(price);
+        }
+        levels[index].setQuantity(size);
+        return found ? length : length + 1;
     }
 
-    private static void empty(AskLevel[] levels){
-        for (int i=0; i<levels.length; i++) {
-            levels[i] = null;
+    @Override
+    public void onIncrementalBookUpdate(IncrementalBookUpdateDecoder incrementalBookUpdate) {
+
+        instrumentId = incrementalBookUpdate.instrumentId();
+
+        for(IncrementalBookUpdateDecoder.EntriesDecoder entry : incrementalBookUpdate.entries()){
+            if(entry.side() == BookSide.BID){
+                if (bidLength == bidBook.length) {
+                    growBidsTo(bidLength * 2);
+                }
+                bidLength = applyChange(bidBook, bidLength, true, entry.action(), entry.price(), entry.size());
+            }else{
+                if (askLength == askBook.length) {
+                    growAsksTo(askLength * 2);
+                }
+                askLength = applyChange(askBook, askLength, false, entry.action(), entry.price(), entry.size());
+            }
         }
+
+        updated();
     }
 
     @Override
@@ -63,40 +175,23 @@ public class MarketDataService extends MarketDataEventListener {
 
         instrumentId = bookUpdate.instrumentId();
 
-        empty(bidBook);
-
         for(BookUpdateDecoder.BidBookDecoder decoder : bookUpdate.bidBook()){
-            final long price = decoder.price();
-            final long quantity = decoder.size();
-            bidBook[bookLevel] = new BidLevel();
-            bidBook[bookLevel].setPrice(price);
-            bidBook[bookLevel].setQuantity(quantity);
-            logger.debug("[ALGO] BID: price:" + price + " quantity:" + quantity);
-
+            setBid(bookLevel, decoder.price(), decoder.size());
             bookLevel+= 1;
-            bidLength = bookLevel;
-
         }
 
-        empty(askBook);
+        bidLength = bookLevel;
 
         bookLevel = 0;
 
         for(BookUpdateDecoder.AskBookDecoder decoder : bookUpdate.askBook()){
-            final long price = decoder.price();
-            final long quantity = decoder.size();
-
-            askBook[bookLevel] = new AskLevel();
-            askBook[bookLevel].setPrice(price);
-            askBook[bookLevel].setQuantity(quantity);
-
-            logger.debug("[ALGO] ASK: price:" + price + " quantity:" + quantity);
-
+            setAsk(bookLevel, decoder.price(), decoder.size());
             bookLevel+= 1;
-            askLength = bookLevel;
         }
 
-        runTrigger.triggerRun();
+        askLength = bookLevel;
+
+        updated();
     }
 
     @Override
@@ -104,46 +199,46 @@ public class MarketDataService extends MarketDataEventListener {
 
         instrumentId = askBookDec.instrumentId();
 
-        empty(askBook);
-
         int bookLevel = 0;
 
         for(AskBookUpdateDecoder.AskBookDecoder decoder : askBookDec.askBook()){
-            final long price = decoder.price();
-            final long quantity = decoder.size();
-            askBook[bookLevel] = new AskLevel();
-            askBook[bookLevel].setPrice(price);
-            askBook[bookLevel].setQuantity(quantity);
-            logger.debug("[ALGO] ASK: price:" + price + " quantity:" + quantity);
-
+            setAsk(bookLevel, decoder.price(), decoder.size());
             bookLevel+= 1;
-            askLength = bookLevel;
-
         }
 
-        runTrigger.triggerRun();
+        askLength = bookLevel;
+
+        updated();
     }
 
     @Override
     public void onBidBook(BidBookUpdateDecoder bidBookDec) {
         int bookLevel = 0;
 
-        empty(bidBook);
-
         instrumentId = bidBookDec.instrumentId();
 
         for(BidBookUpdateDecoder.BidBookDecoder decoder : bidBookDec.bidBook()){
-            final long price = decoder.price();
-            final long quantity = decoder.size();
-            bidBook[bookLevel] = new BidLevel();
-            bidBook[bookLevel].setPrice(price);
-            bidBook[bookLevel].setQuantity(quantity);
-            logger.debug("[ALGO] BID: price:" + price + " quantity:" + quantity);
-
+            setBid(bookLevel, decoder.price(), decoder.size());
             bookLevel+= 1;
-            bidLength = bookLevel;
         }
 
+        bidLength = bookLevel;
+
+        updated();
+    }
+
+    /**
+     * @return the originTimestamp of the tick behind the last update, what the algo's evaluation is measured from.
+     */
+    public long getTickTimestamp() {
+        return tickTimestamp;
+    }
+
+    private void updated(){
+        tickTimestamp = originTimestamp();
+        if(Latency.isEnabled()){
+            Latency.record(Latency.Stage.MARKET_DATA, tickTimestamp);
+        }
         runTrigger.triggerRun();
     }
 }
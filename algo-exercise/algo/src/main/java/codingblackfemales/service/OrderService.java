@@ -1,22 +1,45 @@
 package codingblackfemales.service;
 
+import codingblackfemales.collection.extrusive.LongToObjMap;
+import codingblackfemales.collection.extrusive.Map;
 import codingblackfemales.container.RunTrigger;
 import codingblackfemales.sequencer.event.OrderEventListener;
+import codingblackfemales.sotw.ActiveChildOrders;
 import codingblackfemales.sotw.ChildOrder;
 import codingblackfemales.sotw.OrderState;
 import messages.order.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class OrderService extends OrderEventListener {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
     private final RunTrigger runTrigger;
+    private final boolean keepFills;
+
+    //children in the order they were created, with an orderId index over them so each event is a single lookup
+    private final List<ChildOrder> children = new ArrayList<>();
+    private final LongToObjMap<ChildOrder> childrenByOrderId = Map.longToObjMap();
 
-    private List<ChildOrder> children = new LinkedList<>();
+    //children which are still working, kept up to date as their state changes rather than filtered out of children
+    //on each read, and how many children there are of each side and state
+    private final ActiveChildOrders activeChildren = new ActiveChildOrders();
+    private final int[] counts = new int[2 * OrderState.STATES];
 
     public OrderService(RunTrigger runTrigger) {
+        this(runTrigger, false);
+    }
+
+    /**
+     * @param keepFills whether each child keeps every fill, rather than just its running totals.
+     */
+    public OrderService(RunTrigger runTrigger, boolean keepFills) {
         this.runTrigger = runTrigger;
+        this.keepFills = keepFills;
     }
 
 
@@ -25,64 +48,130 @@ public class OrderService extends OrderEventListener {
     }
 
     private ChildOrder createChildOrder(final CreateOrderDecoder create){
-        return new ChildOrder(create.side(), create.orderId(), create.quantity(), create.price(), OrderState.PENDING);
+        return new ChildOrder(create.side(), create.orderId(), create.quantity(), create.price(), OrderState.PENDING, keepFills);
+    }
+
+    private static int countIndex(Side side, int state){
+        return (side == Side.BUY ? 0 : OrderState.STATES) + state;
     }
 
     private void updateState(ChildOrder child, int state){
+        final int previous = child.getState();
+        //a cancelled or filled child stays that way, i.e. a late ack does not bring it back
+        if(previous == state || OrderState.isTerminal(previous)){
+            return;
+        }
+        counts[countIndex(child.getSide(), previous)]--;
+        counts[countIndex(child.getSide(), state)]++;
         child.setState(state);
+        if(OrderState.isTerminal(state)){
+            activeChildren.unlink(child);
+        }
     }
 
     private void addChildFill(ChildOrder child, long filledQuantity, long filledPrice){
         child.addFill(filledQuantity, filledPrice);
+        if(child.getLeavesQuantity() == 0){
+            updateState(child, OrderState.FILLED);
+        }
     }
 
     @Override
     public void onCreateOrder(final CreateOrderDecoder create) {
-        children.add(createChildOrder(create));
+        final ChildOrder child = createChildOrder(create);
+        children.add(child);
+        childrenByOrderId.put(child.getOrderId(), child);
+        activeChildren.append(child);
+        counts[countIndex(child.getSide(), child.getState())]++;
         triggerRun();
     }
 
-    private ChildOrder find(long orderId){
-        return children.stream().filter( order -> order.getOrderId() == orderId).findFirst().get();
+    public ChildOrder find(long orderId){
+        return childrenByOrderId.get(orderId);
+    }
+
+    private ChildOrder findOrWarn(long orderId, String event){
+        final ChildOrder child = find(orderId);
+        if(child == null){
+            logger.warn("[ORDERSERVICE] Ignoring " + event + " for unknown orderId:" + orderId);
+        }
+        return child;
     }
 
     @Override
     public void onCancelOrder(final CancelOrderDecoder cancel) {
-        updateState(find(cancel.orderId()), OrderState.CANCELLED);
-        triggerRun();
+        final ChildOrder child = findOrWarn(cancel.orderId(), "cancel");
+        if(child != null) {
+            updateState(child, OrderState.CANCELLED);
+            triggerRun();
+        }
     }
 
     @Override
     public void onAckedOrder(final AckedOrderDecoder acked) {
-        updateState(find(acked.orderId()), OrderState.ACKED);
-        triggerRun();
+        final ChildOrder child = findOrWarn(acked.orderId(), "ack");
+        if(child != null) {
+            updateState(child, OrderState.ACKED);
+            triggerRun();
+        }
     }
 
     @Override
     public void onCancelAckedOrder(final CancelAckedOrderDecoder cancelAcked) {
-        updateState(find(cancelAcked.orderId()), OrderState.CANCELLED);
-        triggerRun();
+        final ChildOrder child = findOrWarn(cancelAcked.orderId(), "cancel ack");
+        if(child != null) {
+            updateState(child, OrderState.CANCELLED);
+            triggerRun();
+        }
     }
 
     @Override
     public void onPendingOrder(final PendingOrderDecoder pending) {
-        updateState(find(pending.orderId()), OrderState.PENDING);
-        triggerRun();
+        final ChildOrder child = findOrWarn(pending.orderId(), "pending");
+        if(child != null) {
+            updateState(child, OrderState.PENDING);
+            triggerRun();
+        }
     }
 
     public List<ChildOrder> children(){
         return this.children;
     }
 
+    /**
+     * Children which are neither cancelled nor filled, oldest first. A read only view, it does not need copying to
+     * be read but does change as events come in.
+     */
+    public List<ChildOrder> activeChildren(){
+        return this.activeChildren;
+    }
+
+    /**
+     * @return how many children of this side are in this state, one of OrderState.
+     */
+    public int count(Side side, int state){
+        return counts[countIndex(side, state)];
+    }
+
+    public int activeCount(Side side){
+        return count(side, OrderState.PENDING) + count(side, OrderState.ACKED);
+    }
+
     @Override
     public void onPartialFill(PartialFillOrderDecoder partialFill) {
-        addChildFill(find(partialFill.orderId()), partialFill.quantity(), partialFill.price());
-        triggerRun();
+        final ChildOrder child = findOrWarn(partialFill.orderId(), "partial fill");
+        if(child != null) {
+            addChildFill(child, partialFill.quantity(), partialFill.price());
+            triggerRun();
+        }
     }
 
     @Override
     public void onFill(FillOrderDecoder fill) {
-        addChildFill(find(fill.orderId()), fill.quantity(), fill.price());
-        triggerRun();
+        final ChildOrder child = findOrWarn(fill.orderId(), "fill");
+        if(child != null) {
+            addChildFill(child, fill.quantity(), fill.price());
+            triggerRun();
+        }
     }
 }
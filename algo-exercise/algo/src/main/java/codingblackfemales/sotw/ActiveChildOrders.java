@@ -0,0 +1,168 @@
+package codingblackfemales.sotw;
+
+import java.util.AbstractSequentialList;
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The children which are still working, oldest first, linked through the children themselves. Some features of this:
+ *
+ * 1) A child is added and removed in O(1) whatever its position, so a parent with thousands of children does not
+ *    pay for a scan each time one fills or is cancelled, and the order they were created in is kept.
+ * 2) Through the List interface it is read only, only whoever owns the children (the OrderService) adds and removes
+ *    them, as their state changes.
+ * 3) Iterating is cheap, get(index) walks from the nearer end, so prefer iterating or a stream to indexing.
+ *
+ * An iterator throws a ConcurrentModificationException if a child is added or removed while it is being used.
+ */
+public final class ActiveChildOrders extends AbstractSequentialList<ChildOrder> {
+
+    private ChildOrder first;
+    private ChildOrder last;
+    private int size;
+
+    /**
+     * Adds a child after the newest, nothing happens if it is already here.
+     */
+    public void append(final ChildOrder child) {
+        if (child.active) {
+            return;
+        }
+        child.active = true;
+        child.previousActive = last;
+        child.nextActive = null;
+        if (last == null) {
+            first = child;
+        } else {
+            last.nextActive = child;
+        }
+        last = child;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes a child wherever it is, nothing happens if it is not here.
+     */
+    public void unlink(final ChildOrder child) {
+        if (!child.active) {
+            return;
+        }
+        final ChildOrder previous = child.previousActive;
+        final ChildOrder next = child.nextActive;
+        if (previous == null) {
+            first = next;
+        } else {
+            previous.nextActive = next;
+        }
+        if (next == null) {
+            last = previous;
+        } else {
+            next.previousActive = previous;
+        }
+        child.previousActive = null;
+        child.nextActive = null;
+        child.active = false;
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ListIterator<ChildOrder> listIterator(final int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(String.format("No such position, index=[%s] size=[%s]", index, size));
+        }
+        return new Iterator(index);
+    }
+
+    private final class Iterator implements ListIterator<ChildOrder> {
+
+        private ChildOrder next;
+        private int nextIndex;
+        private final int expectedModCount = modCount;
+
+        private Iterator(final int index) {
+            if (index < size / 2) {
+                next = first;
+                for (nextIndex = 0; nextIndex < index; nextIndex++) {
+                    next = next.nextActive;
+                }
+            } else {
+                next = null;
+                for (nextIndex = size; nextIndex > index; nextIndex--) {
+                    next = next == null ? last : next.previousActive;
+                }
+            }
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        @Override
+        public ChildOrder next() {
+            checkForModification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final ChildOrder child = next;
+            next = child.nextActive;
+            nextIndex++;
+            return child;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        public ChildOrder previous() {
+            checkForModification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            next = next == null ? last : next.previousActive;
+            nextIndex--;
+            return next;
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Active children are only removed by their OrderService");
+        }
+
+        @Override
+        public void set(final ChildOrder child) {
+            throw new UnsupportedOperationException("Active children are only changed by their OrderService");
+        }
+
+        @Override
+        public void add(final ChildOrder child) {
+            throw new UnsupportedOperationException("Active children are only added by their OrderService");
+        }
+    }
+}
@@ -2,10 +2,15 @@ package codingblackfemales.sotw;
 
 import messages.order.Side;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 
+/**
+ * A child order as the algo sees it. Some features of this:
+ *
+ * 1) Filled quantity, notional, average price and leaves are running totals updated on each fill, so reading them
+ *    on every tick costs nothing however many fills there have been.
+ * 2) The fills themselves are only kept when asked for, as quantity and price pairs in one long array.
+ */
 public class ChildOrder {
     private Side side;
     private long orderId;
@@ -14,14 +19,29 @@ public class ChildOrder {
 
     private int state;
 
-    private List<ChildFill> fills = new LinkedList<>();
+    private long filledQuantity = 0;
+    private long filledNotional = 0;
+    private int fillCount = 0;
+
+    //quantity then price of each fill, null when the fills are not kept
+    private long[] fills;
+
+    //links while the child is in an ActiveChildOrders
+    ChildOrder previousActive;
+    ChildOrder nextActive;
+    boolean active;
 
     public ChildOrder(Side side, long orderId, long quantity, long price, int state) {
+        this(side, orderId, quantity, price, state, false);
+    }
+
+    public ChildOrder(Side side, long orderId, long quantity, long price, int state, boolean keepFills) {
         this.side = side;
         this.orderId = orderId;
         this.quantity = quantity;
         this.price = price;
         this.state = state;
+        this.fills = keepFills ? new long[8] : null;
     }
 
     public Side getSide() {
@@ -41,7 +61,54 @@ public class ChildOrder {
     }
 
     public long getFilledQuantity() {
-        return fills.stream().map( cf -> cf.getQuantity()).collect(Collectors.summingLong(Long::longValue));
+        return filledQuantity;
+    }
+
+    /**
+     * @return the sum of quantity * price over the fills.
+     */
+    public long getFilledNotional() {
+        return filledNotional;
+    }
+
+    /**
+     * @return the quantity weighted average price of the fills, 0 before the first one.
+     */
+    public double getAverageFillPrice() {
+        return filledQuantity == 0 ? 0 : (double) filledNotional / filledQuantity;
+    }
+
+    /**
+     * @return what is left to fill, never less than 0.
+     */
+    public long getLeavesQuantity() {
+        return Math.max(0, quantity - filledQuantity);
+    }
+
+    public int getFillCount() {
+        return fillCount;
+    }
+
+    public boolean isKeepingFills() {
+        return fills != null;
+    }
+
+    public long getFillQuantity(int index) {
+        return fills[checkFill(index) * 2];
+    }
+
+    public long getFillPrice(int index) {
+        return fills[checkFill(index) * 2 + 1];
+    }
+
+    private int checkFill(int index) {
+        if (fills == null) {
+            throw new IllegalStateException(String.format("Fills are not kept for this child, orderId=[%s]", orderId));
+        }
+        if (index < 0 || index >= fillCount) {
+            throw new IndexOutOfBoundsException(String.format("No such fill, orderId=[%s] index=[%s] fillCount=[%s]", orderId, index, fillCount));
+        }
+        return index;
     }
 
     public int getState() {
@@ -53,6 +120,15 @@ public class ChildOrder {
     }
 
     public void addFill(long filledQuantity, long filledPrice) {
-        this.fills.add(new ChildFill(filledQuantity, filledPrice));
+        if (fills != null) {
+            if (fillCount * 2 == fills.length) {
+                fills = Arrays.copyOf(fills, fills.length * 2);
+            }
+            fills[fillCount * 2] = filledQuantity;
+            fills[fillCount * 2 + 1] = filledPrice;
+        }
+        this.fillCount++;
+        this.filledQuantity += filledQuantity;
+        this.filledNotional += filledQuantity * filledPrice;
     }
 }
@@ -7,4 +7,14 @@ public class OrderState{
     public static final int CANCELLED = 3;
     public static final int FILLED = 4;
 
+    //one more than the highest state, for anything indexed by state
+    public static final int STATES = FILLED + 1;
+
+    /**
+     * @return true when the child is done with, it will not be working in the market again.
+     */
+    public static boolean isTerminal(int state){
+        return state == CANCELLED || state == FILLED;
+    }
+
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package codingblackfemales.sotw;
 
 import codingblackfemales.sotw.marketdata.AskLevel;
 import codingblackfemales.sotw.marketdata.BidLevel;
+import messages.order.Side;
 
 import java.util.List;
 
@@ -12,12 +13,35 @@ public interface SimpleAlgoState {
     public int getBidLevels();
     public int getAskLevels();
 
+    /**
+     * The levels are views over the market data service's book, they are overwritten by the next market data update
+     * so copy out anything which needs to outlive this run of the algo. Null past the last level.
+     */
     public BidLevel getBidAt(int index);
     public AskLevel getAskAt(int index);
 
     public List<ChildOrder> getChildOrders();
 
+    /**
+     * Children which are neither cancelled nor filled, oldest first. The list is kept up to date by the order service
+     * as orders change state, so it is cheap to call but read only.
+     *
+     * It no longer contains FILLED children, a child drops out as soon as its leaves reach 0, so there is no need to
+     * check for FILLED when walking it.
+     *
+     * It is a live view, not a snapshot: it must not be iterated across a call which can dispatch (i.e. anything which
+     * sends an order, as fills and cancels come straight back), as the child which fills or is cancelled is removed
+     * and the iteration throws a ConcurrentModificationException. Copy it (i.e. new ArrayList<>(...)) to keep what
+     * was active at a point in time.
+     */
     public List<ChildOrder> getActiveChildOrders();
 
+    public int getActiveChildOrderCount(Side side);
+
+    /**
+     * @param state one of OrderState.
+     */
+    public int getChildOrderCount(Side side, int state);
+
     public long getInstrumentId();
 }
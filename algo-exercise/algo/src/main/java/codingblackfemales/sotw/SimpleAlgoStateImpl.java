@@ -4,9 +4,9 @@ import codingblackfemales.service.MarketDataService;
 import codingblackfemales.service.OrderService;
 import codingblackfemales.sotw.marketdata.AskLevel;
 import codingblackfemales.sotw.marketdata.BidLevel;
+import messages.order.Side;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class SimpleAlgoStateImpl implements SimpleAlgoState {
 
@@ -55,6 +55,16 @@ public class SimpleAlgoStateImpl implements SimpleAlgoState {
 
     @Override
     public List<ChildOrder> getActiveChildOrders() {
-        return orderService.children().stream().filter(order -> order.getState() != OrderState.CANCELLED).collect(Collectors.toList());
+        return orderService.activeChildren();
+    }
+
+    @Override
+    public int getActiveChildOrderCount(Side side) {
+        return orderService.activeCount(side);
+    }
+
+    @Override
+    public int getChildOrderCount(Side side, int state) {
+        return orderService.count(side, state);
     }
 }
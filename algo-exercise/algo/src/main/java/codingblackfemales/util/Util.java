@@ -1,5 +1,6 @@
 package codingblackfemales.util;
 
+import codingblackfemales.sequencer.eventlog.EventLog;
 import codingblackfemales.sotw.SimpleAlgoState;
 import codingblackfemales.sotw.marketdata.AskLevel;
 import codingblackfemales.sotw.marketdata.BidLevel;
@@ -14,6 +15,22 @@ public class Util {
         return String.format("%" + n + "s", s);
     }
 
+    /**
+     * The format for topOfBook's event, after the algo's own tag.
+     */
+    public static final String TOP_OF_BOOK_FORMAT = " Algo sees book: {} bid levels, best {} @ {} | best {} @ {}, {} ask levels";
+
+    /**
+     * Logs the best bid and ask and how deep each side is, which an algo can do on every evaluation without the
+     * cost of orderBookToString. An empty side logs its best as 0 @ 0.
+     */
+    public static void topOfBook(final EventLog.Event event, final SimpleAlgoState state){
+        final BidLevel bid = state.getBidLevels() > 0 ? state.getBidAt(0) : null;
+        final AskLevel ask = state.getAskLevels() > 0 ? state.getAskAt(0) : null;
+        event.log(state.getBidLevels(), bid == null ? 0 : bid.quantity, bid == null ? 0 : bid.price,
+                ask == null ? 0 : ask.quantity, ask == null ? 0 : ask.price, state.getAskLevels());
+    }
+
     public static String orderBookToString(final SimpleAlgoState state){
 
         final StringBuilder builder = new StringBuilder();
@@ -0,0 +1,142 @@
+package codingblackfemales.action;
+
+import codingblackfemales.container.Actioner;
+import codingblackfemales.container.AlgoContainer;
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.service.MarketDataService;
+import codingblackfemales.service.OrderService;
+import codingblackfemales.sotw.ChildOrder;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import messages.order.CancelOrderDecoder;
+import messages.order.CreateOrderDecoder;
+import messages.order.MessageHeaderDecoder;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ActionBatchTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private final TestNetwork network = new TestNetwork();
+    private final DefaultSequencer sequencer = new DefaultSequencer(network);
+    private final RunTrigger runTrigger = new RunTrigger();
+    private final AlgoContainer container = new AlgoContainer(new MarketDataService(runTrigger), new OrderService(runTrigger), runTrigger, new Actioner(sequencer));
+
+    //the number of child orders the algo could see each time it was evaluated
+    private final List<Integer> evaluations = new ArrayList<>();
+
+    //every order message on the wire, with its sequencer number
+    private final List<String> sequenced = new ArrayList<>();
+
+    private final ActionBatch batch = new ActionBatch();
+
+    public ActionBatchTest() {
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        final CreateOrderDecoder createOrder = new CreateOrderDecoder();
+        final CancelOrderDecoder cancelOrder = new CancelOrderDecoder();
+        final messages.marketdata.MessageHeaderDecoder sequencerHeader = new messages.marketdata.MessageHeaderDecoder();
+
+        network.addConsumer(container.getMarketDataService());
+        network.addConsumer(container.getOrderService());
+        network.addConsumer(container);
+        network.addConsumer(buffer -> {
+            header.wrap(buffer, 0);
+            final long sequencerNumber = sequencerHeader.wrap(buffer, 0).sequencerNumber();
+            if (header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+                createOrder.wrap(buffer, header.encodedLength(), header.blockLength(), header.version());
+                sequenced.add(sequencerNumber + ":create " + createOrder.quantity() + "@" + createOrder.price());
+            } else if (header.templateId() == CancelOrderDecoder.TEMPLATE_ID) {
+                sequenced.add(sequencerNumber + ":cancel " + cancelOrder.wrap(buffer, header.encodedLength(), header.blockLength(), header.version()).orderId());
+            }
+        });
+    }
+
+    private void tick(final long bestBid) {
+        bookUpdateEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        bookUpdateEncoder.venue(Venue.XLON);
+        bookUpdateEncoder.instrumentId(123L);
+        bookUpdateEncoder.source(Source.STREAM);
+        bookUpdateEncoder.bidBookCount(1).next().price(bestBid).size(100L);
+        bookUpdateEncoder.askBookCount(1).next().price(bestBid + 2).size(100L);
+        bookUpdateEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        sequencer.onCommand(buffer);
+    }
+
+    @Test
+    public void testLayersArePlacedInOneEvaluation() {
+        //places three layers below the best bid when it has no child orders
+        container.setLogic(state -> {
+            evaluations.add(state.getChildOrders().size());
+            if (!state.getChildOrders().isEmpty()) {
+                return NoAction.NoAction;
+            }
+            final long bestBid = state.getBidAt(0).getPrice();
+            return batch.clear()
+                    .createChildOrder(Side.BUY, 100, bestBid)
+                    .createChildOrder(Side.BUY, 200, bestBid - 1)
+                    .createChildOrder(Side.BUY, 300, bestBid - 2);
+        });
+
+        tick(98);
+
+        assertEquals(3, container.getState().getChildOrders().size());
+        //not evaluated on each of its own orders as they went out, only once they all had
+        assertEquals(List.of(0, 3), evaluations);
+        assertEquals(List.of("2:create 100@98", "3:create 200@97", "4:create 300@96"), sequenced);
+    }
+
+    @Test
+    public void testStaleChildOrdersAreCancelledTogether() {
+        //joins the best bid three times, then cancels whatever is left behind when the best bid moves
+        container.setLogic(state -> {
+            evaluations.add(state.getChildOrders().size());
+            final long bestBid = state.getBidAt(0).getPrice();
+            if (state.getChildOrders().size() < 3) {
+                return batch.clear().createChildOrder(Side.BUY, 100, bestBid);
+            }
+            batch.clear();
+            for (ChildOrder childOrder : state.getActiveChildOrders()) {
+                if (childOrder.getPrice() != bestBid) {
+                    batch.cancelChildOrder(childOrder);
+                }
+            }
+            return batch.isEmpty() ? NoAction.NoAction : batch;
+        });
+
+        tick(98);
+        assertEquals(3, container.getState().getChildOrders().size());
+        sequenced.clear();
+
+        tick(99);
+        assertEquals(List.of("6:cancel 2", "7:cancel 3", "8:cancel 4"), sequenced);
+        assertEquals(0, container.getState().getActiveChildOrders().size());
+    }
+
+    @Test
+    public void testPooledActionsAreReused() {
+        final Action create = batch.clear().createChildOrder(Side.BUY, 100, 98).get(0);
+        final Action cancel = batch.cancelChildOrder(null).get(1);
+
+        batch.clear().cancelChildOrder(null).createChildOrder(Side.SELL, 50, 99);
+
+        assertSame(cancel, batch.get(0));
+        assertSame(create, batch.get(1));
+        assertEquals("CreateChildOrder(side=SELL,quantity=50,price=99)", batch.get(1).toString());
+    }
+}
@@ -0,0 +1,128 @@
+package codingblackfemales.container;
+
+import ch.qos.logback.classic.Level;
+import codingblackfemales.action.CancelChildOrder;
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.sotw.ChildOrder;
+import codingblackfemales.sotw.OrderState;
+import messages.order.CancelOrderDecoder;
+import messages.order.CreateOrderDecoder;
+import messages.order.MessageHeaderDecoder;
+import messages.order.Side;
+import messages.order.TimeInForce;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ActionerTest {
+
+    private final TestNetwork network = new TestNetwork();
+    private final DefaultSequencer sequencer = new DefaultSequencer(network);
+    private final Actioner actioner = new Actioner(sequencer, 7L);
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final CreateOrderDecoder createOrder = new CreateOrderDecoder();
+    private final CancelOrderDecoder cancelOrder = new CancelOrderDecoder();
+
+    //what each message looked like once every consumer before this one had seen it
+    private final List<String> seen = new ArrayList<>();
+
+    private String describe(final org.agrona.DirectBuffer buffer) {
+        header.wrap(buffer, 0);
+        if (header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+            createOrder.wrap(buffer, header.encodedLength(), header.blockLength(), header.version());
+            return "create instrument=" + createOrder.instrumentId() + " " + createOrder.side() + " " + createOrder.quantity() + "@" + createOrder.price();
+        }
+        cancelOrder.wrap(buffer, header.encodedLength(), header.blockLength(), header.version());
+        return "cancel orderId=" + cancelOrder.orderId();
+    }
+
+    @Test
+    public void testReusedActionsAreEncodedWithTheInstrument() {
+        network.addConsumer(buffer -> seen.add(describe(buffer)));
+
+        final CreateChildOrder create = new CreateChildOrder();
+        final CancelChildOrder cancel = new CancelChildOrder();
+        actioner.processAction(create.reset(Side.BUY, 100, 98));
+        actioner.processAction(cancel.reset(new ChildOrder(Side.BUY, 42L, 100, 98, OrderState.ACKED)));
+        actioner.processAction(create.reset(Side.SELL, 50, 101));
+
+        assertEquals(List.of("create instrument=7 BUY 100@98", "cancel orderId=42", "create instrument=7 SELL 50@101"), seen);
+    }
+
+    @Test
+    public void testOrderTypeAndTimeInForceAreCarriedThroughTheSequencer() {
+        network.addConsumer(buffer -> {
+            header.wrap(buffer, 0);
+            createOrder.wrap(buffer, header.encodedLength(), header.blockLength(), header.version());
+            seen.add(createOrder.orderType() + " " + createOrder.timeInForce() + " " + createOrder.quantity() + "@" + createOrder.price());
+        });
+
+        final CreateChildOrder create = new CreateChildOrder();
+        actioner.processAction(create.reset(Side.BUY, 100, 98));
+        actioner.processAction(create.reset(Side.BUY, 100, 98, TimeInForce.IOC));
+        actioner.processAction(create.reset(Side.BUY, 100, 98, TimeInForce.FOK));
+        actioner.processAction(create.resetMarket(Side.SELL, 50));
+
+        assertEquals(List.of("LIMIT DAY 100@98", "LIMIT IOC 100@98", "LIMIT FOK 100@98", "MARKET IOC 50@0"), seen);
+    }
+
+    @Test
+    public void testNestedCancelDoesNotOverwriteTheOuterOne() {
+        final CancelChildOrder nestedCancel = new CancelChildOrder();
+        //the first consumer reacts to the outer cancel by sending another one, as an algo evaluated on it would
+        network.addConsumer(buffer -> {
+            if (describe(buffer).equals("cancel orderId=1")) {
+                actioner.processAction(nestedCancel.reset(new ChildOrder(Side.BUY, 2L, 100, 98, OrderState.ACKED)));
+            }
+        });
+        network.addConsumer(buffer -> seen.add(describe(buffer)));
+
+        actioner.processAction(new CancelChildOrder(new ChildOrder(Side.BUY, 1L, 100, 98, OrderState.ACKED)));
+
+        assertEquals(List.of("cancel orderId=2", "cancel orderId=1"), seen);
+    }
+
+    @Test
+    public void testCancelReplaceDoesNotAllocate() {
+        final ch.qos.logback.classic.Logger actionerLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Actioner.class);
+        actionerLogger.setLevel(Level.WARN);
+
+        try {
+            //straight into a sequencer which does nothing, so only the order entry itself is measured
+            final long[] commands = new long[1];
+            final Actioner actioner = new Actioner(buffer -> commands[0]++, 7L);
+            final CreateChildOrder create = new CreateChildOrder();
+            final CancelChildOrder cancel = new CancelChildOrder();
+            final ChildOrder child = new ChildOrder(Side.BUY, 1L, 100, 98, OrderState.ACKED);
+
+            for (int i = 0; i < 100_000; i++) {
+                actioner.processAction(cancel.reset(child));
+                actioner.processAction(create.reset(Side.BUY, 100, 98 + (i & 3)));
+            }
+
+            final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            final long threadId = Thread.currentThread().getId();
+
+            final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100_000; i++) {
+                actioner.processAction(cancel.reset(child));
+                actioner.processAction(create.reset(Side.BUY, 100, 98 + (i & 3)));
+            }
+            final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+            assertEquals(400_000L, commands[0]);
+            assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+        } finally {
+            actionerLogger.setLevel(null);
+        }
+    }
+}
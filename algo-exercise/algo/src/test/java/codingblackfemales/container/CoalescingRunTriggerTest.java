@@ -0,0 +1,115 @@
+package codingblackfemales.container;
+
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.action.NoAction;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.service.MarketDataService;
+import codingblackfemales.service.OrderService;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CoalescingRunTriggerTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private long now = 0;
+
+    private void tick(final DefaultSequencer sequencer, final long bestBid) {
+        bookUpdateEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        bookUpdateEncoder.venue(Venue.XLON);
+        bookUpdateEncoder.instrumentId(123L);
+        bookUpdateEncoder.source(Source.STREAM);
+        bookUpdateEncoder.bidBookCount(1).next().price(bestBid).size(100L);
+        bookUpdateEncoder.askBookCount(1).next().price(bestBid + 2).size(100L);
+        bookUpdateEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        sequencer.onCommand(buffer);
+    }
+
+    @Test
+    public void testEventsWaitForTheEndOfTheBatch() {
+        final CoalescingRunTrigger trigger = new CoalescingRunTrigger();
+
+        for (int i = 0; i < 1_000; i++) {
+            trigger.triggerRun();
+            assertFalse(trigger.shouldRun());
+        }
+        assertEquals(1_000, trigger.getPendingEvents());
+        assertTrue(trigger.shouldRunAtEndOfBatch());
+
+        trigger.hasRun();
+        assertFalse(trigger.shouldRunAtEndOfBatch());
+        assertEquals(0, trigger.getPendingEvents());
+    }
+
+    @Test
+    public void testBoundsRunTheAlgoMidBatch() {
+        final CoalescingRunTrigger byEvents = new CoalescingRunTrigger(3, Long.MAX_VALUE, () -> now);
+        byEvents.triggerRun();
+        byEvents.triggerRun();
+        assertFalse(byEvents.shouldRun());
+        byEvents.triggerRun();
+        assertTrue(byEvents.shouldRun());
+
+        final CoalescingRunTrigger byLatency = new CoalescingRunTrigger(Integer.MAX_VALUE, 50_000L, () -> now);
+        byLatency.triggerRun();
+        now += 49_999L;
+        byLatency.triggerRun();
+        assertFalse(byLatency.shouldRun());
+        now += 1L;
+        assertTrue(byLatency.shouldRun());
+
+        //the clock starts again from the next event after a run
+        byLatency.hasRun();
+        byLatency.triggerRun();
+        assertFalse(byLatency.shouldRun());
+    }
+
+    @Test
+    public void testContainerEvaluatesABurstOnceOnTheLatestBook() {
+        final TestNetwork network = new TestNetwork();
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+        final RunTrigger runTrigger = new CoalescingRunTrigger();
+        final AlgoContainer container = new AlgoContainer(new MarketDataService(runTrigger), new OrderService(runTrigger), runTrigger, new Actioner(sequencer));
+
+        //joins the best bid once, and records what it saw each time it ran
+        final List<Long> bestBids = new ArrayList<>();
+        container.setLogic(state -> {
+            bestBids.add(state.getBidAt(0).getPrice());
+            if (state.getChildOrders().isEmpty()) {
+                return new CreateChildOrder(Side.BUY, 100, state.getBidAt(0).getPrice());
+            }
+            return NoAction.NoAction;
+        });
+
+        network.addConsumer(container.getMarketDataService());
+        network.addConsumer(container.getOrderService());
+        network.addConsumer(container);
+
+        for (long bestBid = 90; bestBid < 100; bestBid++) {
+            tick(sequencer, bestBid);
+        }
+        assertTrue(bestBids.isEmpty());
+
+        //the child order it creates at the end of the batch is a batch of its own
+        sequencer.onEndOfBatch();
+        assertEquals(List.of(99L, 99L), bestBids);
+        assertEquals(1, container.getState().getChildOrders().size());
+    }
+}
@@ -0,0 +1,176 @@
+package codingblackfemales.container;
+
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.action.NoAction;
+import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.latency.Latency;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.sotw.ChildOrder;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import messages.order.CreateOrderDecoder;
+import messages.order.FillOrderEncoder;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MultiInstrumentAlgoContainerTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
+    private final FillOrderEncoder fillEncoder = new FillOrderEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private final TestNetwork network = new TestNetwork();
+    private final DefaultSequencer sequencer = new DefaultSequencer(network);
+
+    //each instrument's algo counts its runs and joins the best bid once
+    private final Map<Long, int[]> runs = new HashMap<>();
+    private final MultiInstrumentAlgoContainer container = new MultiInstrumentAlgoContainer(sequencer, instrumentId -> {
+        final int[] count = new int[1];
+        runs.put(instrumentId, count);
+        return (AlgoLogic) state -> {
+            count[0]++;
+            if (state.getChildOrders().isEmpty()) {
+                return new CreateChildOrder(Side.BUY, 100, state.getBidAt(0).getPrice());
+            }
+            return NoAction.NoAction;
+        };
+    });
+
+    private final List<Long> createdInstrumentIds = new ArrayList<>();
+
+    public MultiInstrumentAlgoContainerTest() {
+        final CreateOrderDecoder createOrder = new CreateOrderDecoder();
+        final messages.order.MessageHeaderDecoder header = new messages.order.MessageHeaderDecoder();
+        network.addConsumer(container);
+        network.addConsumer(buffer -> {
+            header.wrap(buffer, 0);
+            if (header.schemaId() == CreateOrderDecoder.SCHEMA_ID && header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+                createdInstrumentIds.add(createOrder.wrap(buffer, header.encodedLength(), header.blockLength(), header.version()).instrumentId());
+            }
+        });
+    }
+
+    private void tick(final long instrumentId, final long bestBid) {
+        bookUpdateEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        bookUpdateEncoder.venue(Venue.XLON);
+        bookUpdateEncoder.instrumentId(instrumentId);
+        bookUpdateEncoder.source(Source.STREAM);
+        bookUpdateEncoder.bidBookCount(1).next().price(bestBid).size(100L);
+        bookUpdateEncoder.askBookCount(1).next().price(bestBid + 2).size(100L);
+        bookUpdateEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        sequencer.onCommand(buffer);
+    }
+
+    private void fill(final long orderId, final long quantity) {
+        fillEncoder.wrapAndApplyHeader(buffer, 0, new messages.order.MessageHeaderEncoder()).orderId(orderId).quantity(quantity).price(100);
+        sequencer.onCommand(buffer);
+    }
+
+    @Test
+    public void testEachInstrumentHasItsOwnBookAndOrders() {
+        tick(1L, 98L);
+        tick(2L, 50L);
+
+        assertEquals(2, container.getInstrumentCount());
+        assertEquals(98L, container.getInstrument(1L).getState().getBidAt(0).getPrice());
+        assertEquals(50L, container.getInstrument(2L).getState().getBidAt(0).getPrice());
+
+        final List<ChildOrder> ones = container.getInstrument(1L).getState().getChildOrders();
+        final List<ChildOrder> twos = container.getInstrument(2L).getState().getChildOrders();
+        assertEquals(1, ones.size());
+        assertEquals(1, twos.size());
+        assertEquals(98L, ones.get(0).getPrice());
+        assertEquals(50L, twos.get(0).getPrice());
+
+        //the actioner stamps the instrument and the sequencer keeps it when it stamps the orderId
+        assertEquals(List.of(1L, 2L), createdInstrumentIds);
+        assertNull(container.getInstrument(3L));
+    }
+
+    @Test
+    public void testOnlyTheInstrumentWhichTickedIsEvaluated() {
+        tick(1L, 98L);
+        tick(2L, 50L);
+        final int onesRuns = runs.get(1L)[0];
+        final int twosRuns = runs.get(2L)[0];
+
+        for (int i = 0; i < 10; i++) {
+            tick(2L, 50L + i);
+        }
+
+        assertEquals(onesRuns, runs.get(1L)[0]);
+        assertEquals(twosRuns + 10, runs.get(2L)[0]);
+    }
+
+    @Test
+    public void testOrderEventsAreRoutedByOrderId() {
+        tick(1L, 98L);
+        tick(2L, 50L);
+
+        final ChildOrder one = container.getInstrument(1L).getState().getChildOrders().get(0);
+        final ChildOrder two = container.getInstrument(2L).getState().getChildOrders().get(0);
+        final int onesRuns = runs.get(1L)[0];
+
+        fill(two.getOrderId(), 40);
+
+        assertEquals(40, two.getFilledQuantity());
+        assertEquals(0, one.getFilledQuantity());
+        assertEquals(onesRuns, runs.get(1L)[0]);
+
+        //a fill for an order none of the instruments created is ignored
+        fill(12_345L, 10);
+        assertEquals(40, two.getFilledQuantity());
+    }
+
+    @Test
+    public void testAnOrderIsForgottenOnceItIsFilled() {
+        tick(1L, 98L);
+        tick(2L, 50L);
+        assertEquals(2, container.getRoutedOrderCount());
+
+        final ChildOrder two = container.getInstrument(2L).getState().getChildOrders().get(0);
+
+        //still routed while it has quantity left
+        fill(two.getOrderId(), 40);
+        assertEquals(2, container.getRoutedOrderCount());
+
+        fill(two.getOrderId(), 60);
+        assertEquals(100, two.getFilledQuantity());
+        assertEquals(1, container.getRoutedOrderCount());
+
+        //anything after that is ignored, as for an order none of the instruments created
+        fill(two.getOrderId(), 10);
+        assertEquals(100, two.getFilledQuantity());
+    }
+
+    @Test
+    public void testEachInstrumentRecordsItsTickToEvaluateLatency() {
+        Latency.reset();
+        Latency.setEnabled(true);
+        try {
+            tick(1L, 98L);
+            tick(2L, 50L);
+
+            //one evaluation for each tick, and one for each order coming back
+            assertEquals(runs.get(1L)[0] + runs.get(2L)[0], Latency.histogram(Latency.Stage.EVALUATE).getTotalCount());
+        } finally {
+            Latency.setEnabled(false);
+            Latency.reset();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package codingblackfemales.container;
+
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.action.NoAction;
+import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.sotw.ChildOrder;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import messages.order.FillOrderEncoder;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelAlgoEngineTest {
+
+    private static final int INSTRUMENTS = 50;
+    private static final int WORKERS = 4;
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
+    private final FillOrderEncoder fillEncoder = new FillOrderEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private final TestNetwork network = new TestNetwork();
+    private final DefaultSequencer sequencer = new DefaultSequencer(network);
+
+    //joins the best bid once per instrument
+    private final ParallelAlgoEngine engine = new ParallelAlgoEngine(sequencer, WORKERS, 64 * 1024, instrumentId -> (AlgoLogic) state -> {
+        if (state.getChildOrders().isEmpty()) {
+            return new CreateChildOrder(Side.BUY, 100, state.getBidAt(0).getPrice());
+        }
+        return NoAction.NoAction;
+    });
+
+    public ParallelAlgoEngineTest() {
+        network.addConsumer(engine);
+        engine.start();
+    }
+
+    @After
+    public void tearDown() {
+        engine.close();
+    }
+
+    private void tick(final long instrumentId, final long bestBid) {
+        tick(sequencer, instrumentId, bestBid);
+    }
+
+    private void tick(final DefaultSequencer sequencer, final long instrumentId, final long bestBid) {
+        bookUpdateEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        bookUpdateEncoder.venue(Venue.XLON);
+        bookUpdateEncoder.instrumentId(instrumentId);
+        bookUpdateEncoder.source(Source.STREAM);
+        bookUpdateEncoder.bidBookCount(2)
+                .next().price(bestBid).size(100L)
+                .next().price(bestBid - 1).size(200L);
+        bookUpdateEncoder.askBookCount(1).next().price(bestBid + 2).size(100L);
+        bookUpdateEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        sequencer.onCommand(buffer);
+    }
+
+    private void fill(final long orderId, final long quantity) {
+        fillEncoder.wrapAndApplyHeader(buffer, 0, new messages.order.MessageHeaderEncoder()).orderId(orderId).quantity(quantity).price(100);
+        sequencer.onCommand(buffer);
+    }
+
+    private MultiInstrumentAlgoContainer.InstrumentAlgo instrument(final long instrumentId) {
+        return engine.getWorker(engine.workerFor(instrumentId)).getContainer().getInstrument(instrumentId);
+    }
+
+    @Test
+    public void testInstrumentsAreShardedAcrossWorkers() {
+        for (long instrumentId = 1; instrumentId <= INSTRUMENTS; instrumentId++) {
+            tick(instrumentId, 1_000L + instrumentId);
+        }
+        engine.drainUntilIdle();
+        engine.close();
+
+        int instruments = 0;
+        for (int i = 0; i < WORKERS; i++) {
+            instruments += engine.getWorker(i).getContainer().getInstrumentCount();
+        }
+        assertEquals(INSTRUMENTS, instruments);
+
+        for (long instrumentId = 1; instrumentId <= INSTRUMENTS; instrumentId++) {
+            final MultiInstrumentAlgoContainer.InstrumentAlgo instrument = instrument(instrumentId);
+            assertEquals(1_000L + instrumentId, instrument.getState().getBidAt(0).getPrice());
+            assertEquals(2, instrument.getState().getBidLevels());
+
+            //the child order went out through the sequencer and came back to the same worker
+            assertEquals(1, instrument.getState().getChildOrders().size());
+            assertEquals(1_000L + instrumentId, instrument.getState().getChildOrders().get(0).getPrice());
+
+            for (int i = 0; i < WORKERS; i++) {
+                if (i != engine.workerFor(instrumentId)) {
+                    assertNull(engine.getWorker(i).getContainer().getInstrument(instrumentId));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOrderEventsGoToTheWorkerWhichCreatedTheOrder() {
+        for (long instrumentId = 1; instrumentId <= INSTRUMENTS; instrumentId++) {
+            tick(instrumentId, 1_000L + instrumentId);
+        }
+        engine.drainUntilIdle();
+
+        //every instrument created one order, so the orderIds follow on from each other
+        final long firstOrderId = 2L;
+        for (long orderId = firstOrderId; orderId < firstOrderId + INSTRUMENTS; orderId++) {
+            fill(orderId, 10);
+        }
+        engine.drainUntilIdle();
+        engine.close();
+
+        for (long instrumentId = 1; instrumentId <= INSTRUMENTS; instrumentId++) {
+            final ChildOrder child = instrument(instrumentId).getState().getChildOrders().get(0);
+            assertEquals(10, child.getFilledQuantity());
+        }
+    }
+
+    @Test
+    public void testAnOrderIsForgottenOnceItIsFilled() {
+        for (long instrumentId = 1; instrumentId <= INSTRUMENTS; instrumentId++) {
+            tick(instrumentId, 1_000L + instrumentId);
+        }
+        engine.drainUntilIdle();
+        assertEquals(INSTRUMENTS, engine.getRoutedOrderCount());
+
+        final long firstOrderId = 2L;
+        for (long orderId = firstOrderId; orderId < firstOrderId + INSTRUMENTS; orderId++) {
+            fill(orderId, 100);
+        }
+        engine.drainUntilIdle();
+        engine.close();
+
+        assertEquals(0, engine.getRoutedOrderCount());
+        for (long instrumentId = 1; instrumentId <= INSTRUMENTS; instrumentId++) {
+            //the fill still reached the worker before the order was forgotten
+            assertEquals(100, instrument(instrumentId).getState().getChildOrders().get(0).getFilledQuantity());
+        }
+    }
+
+    @Test
+    public void testCoalescedCommandsAreSentBeforeTheEngineIsIdle() {
+        final TestNetwork network = new TestNetwork();
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+        final ParallelAlgoEngine coalescing = new ParallelAlgoEngine(sequencer, WORKERS, 64 * 1024, instrumentId -> (AlgoLogic) state -> {
+            if (state.getChildOrders().isEmpty()) {
+                return new CreateChildOrder(Side.BUY, 100, state.getBidAt(0).getPrice());
+            }
+            return NoAction.NoAction;
+        }, CoalescingRunTrigger::new);
+        network.addConsumer(coalescing);
+        coalescing.start();
+
+        try {
+            for (int tick = 0; tick < 5; tick++) {
+                for (long instrumentId = 1; instrumentId <= INSTRUMENTS; instrumentId++) {
+                    tick(sequencer, instrumentId, 1_000L + tick);
+                }
+            }
+            //the algos only run at the end of each batch, so idle has to wait for that as well as for the messages
+            coalescing.drainUntilIdle();
+        } finally {
+            coalescing.close();
+        }
+
+        for (long instrumentId = 1; instrumentId <= INSTRUMENTS; instrumentId++) {
+            final MultiInstrumentAlgoContainer.InstrumentAlgo instrument = coalescing.getWorker(coalescing.workerFor(instrumentId)).getContainer().getInstrument(instrumentId);
+            assertEquals(1_004L, instrument.getState().getBidAt(0).getPrice());
+            //sent at the end of a batch and sequenced back to the worker before the engine was idle, a later batch
+            //can run before the first order is back, so there may be more than one
+            assertFalse(instrument.getState().getChildOrders().isEmpty());
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testFullRingBuffersBothWaysDoNotDeadlock() {
+        final int orders = 500;
+        final TestNetwork network = new TestNetwork();
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+        //small enough that a few dozen child orders fill the outbound ring buffer, and a few dozen ticks the inbound
+        final int ringCapacity = 4096;
+        final ParallelAlgoEngine small = new ParallelAlgoEngine(sequencer, 1, ringCapacity, instrumentId -> (AlgoLogic) state -> {
+            if (state.getChildOrders().size() < orders) {
+                return new CreateChildOrder(Side.BUY, 100, state.getBidAt(0).getPrice());
+            }
+            return NoAction.NoAction;
+        });
+        network.addConsumer(small);
+        small.start();
+
+        try {
+            //nothing drains the commands between ticks, so the worker fills its outbound ring buffer and stops reading
+            for (int tick = 0; tick < orders; tick++) {
+                tick(sequencer, 1L, 1_000L);
+            }
+            small.drainUntilIdle();
+        } finally {
+            small.close();
+        }
+
+        //the algo runs again before its last orders have come back, so it can send a few more than it asked for
+        assertTrue(small.getWorker(0).getContainer().getInstrument(1L).getState().getChildOrders().size() >= orders);
+    }
+}
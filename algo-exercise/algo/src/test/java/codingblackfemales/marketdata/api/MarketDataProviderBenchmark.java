@@ -0,0 +1,87 @@
+package codingblackfemales.marketdata.api;
+
+import codingblackfemales.marketdata.gen.MarketDataFileConverter;
+import codingblackfemales.marketdata.gen.SimpleFileMarketDataGenerator;
+import codingblackfemales.marketdata.impl.BinaryFileMarketDataProvider;
+import codingblackfemales.marketdata.impl.BinaryFileMarketDataProviderTest;
+import codingblackfemales.marketdata.impl.SimpleFileMarketDataProvider;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ticks per second for getting an SBE encoded tick ready for the sequencer from the json file (parse + encode) and
+ * from the binary file (zero copy view). Not picked up by the default surefire includes, run it with:
+ *
+ * mvn -pl algo -am test -Dtest=MarketDataProviderBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+public class MarketDataProviderBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataProviderBenchmark.class);
+
+    private static final int TICKS = 500_000;
+    private static final int RUNS = 3;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+
+    @Test
+    public void compareProviders() {
+        final String json = folder.getRoot().toPath().resolve("marketdata.json").toString();
+        final String binary = folder.getRoot().toPath().resolve("marketdata.bin").toString();
+
+        final SimpleFileMarketDataGenerator generator = new SimpleFileMarketDataGenerator(json, BinaryFileMarketDataProviderTest.cyclingGenerator());
+        generator.generate(TICKS);
+        generator.close();
+        MarketDataFileConverter.jsonToBinary(json, binary);
+
+        for (int run = 0; run < RUNS; run++) {
+            final double jsonRate = jsonTicksPerSecond(json);
+            final double binaryRate = binaryTicksPerSecond(binary);
+            logger.info(String.format("[BENCHMARK] run %d json=%,.0f ticks/s binary=%,.0f ticks/s (%.1fx)", run, jsonRate, binaryRate, binaryRate / jsonRate));
+        }
+    }
+
+    private double jsonTicksPerSecond(final String json) {
+        final SimpleFileMarketDataProvider provider = new SimpleFileMarketDataProvider(json);
+
+        long sink = 0;
+        final long start = System.nanoTime();
+        DirectBuffer buffer;
+        while ((buffer = provider.pollEncoded()) != null) {
+            sink += consume(buffer);
+        }
+        return rate(start, sink);
+    }
+
+    private double binaryTicksPerSecond(final String binary) {
+        long sink = 0;
+        final long start;
+        try (BinaryFileMarketDataProvider provider = new BinaryFileMarketDataProvider(binary)) {
+            start = System.nanoTime();
+            DirectBuffer buffer;
+            while ((buffer = provider.pollEncoded()) != null) {
+                sink += consume(buffer);
+            }
+        }
+        return rate(start, sink);
+    }
+
+    private long consume(final DirectBuffer buffer) {
+        return headerDecoder.wrap(buffer, 0).templateId();
+    }
+
+    private static double rate(final long start, final long sink) {
+        final double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+        if (sink == 0) {
+            throw new IllegalStateException("No ticks read");
+        }
+        return TICKS / seconds;
+    }
+}
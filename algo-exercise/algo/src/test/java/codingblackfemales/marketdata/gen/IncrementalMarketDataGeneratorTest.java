@@ -0,0 +1,120 @@
+package codingblackfemales.marketdata.gen;
+
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.marketdata.api.BookEntry;
+import codingblackfemales.marketdata.api.IncrementalBookUpdate;
+import codingblackfemales.marketdata.api.MarketDataEncoder;
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.marketdata.api.UpdateType;
+import codingblackfemales.marketdata.impl.BookUpdateImpl;
+import codingblackfemales.sequencer.util.SbeMessageLength;
+import codingblackfemales.service.MarketDataService;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.UpdateAction;
+import messages.marketdata.Venue;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalMarketDataGeneratorTest {
+
+    private static final int DEPTH = 20;
+    private static final int TICKS = 2_000;
+    private static final int SNAPSHOT_INTERVAL = 100;
+
+    private final MarketDataEncoder encoder = new MarketDataEncoder();
+    private final SbeMessageLength messageLength = new SbeMessageLength();
+
+    /**
+     * A deep book where each tick resizes a level, and now and then one level goes and another arrives, which is how
+     * most ticks on a real book look.
+     */
+    private static MarketDataGenerator deepBook(final long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final TreeMap<Long, Long> bids = new TreeMap<>(Comparator.reverseOrder());
+        final TreeMap<Long, Long> asks = new TreeMap<>();
+        for (int i = 0; i < DEPTH; i++) {
+            bids.put(1_000L - i, 100L + i);
+            asks.put(1_001L + i, 100L + i);
+        }
+
+        return () -> {
+            final TreeMap<Long, Long> side = random.nextBoolean() ? bids : asks;
+            final List<Long> prices = new ArrayList<>(side.keySet());
+            side.put(prices.get(random.nextInt(DEPTH)), 1L + random.nextInt(1_000));
+            if (random.nextInt(4) == 0) {
+                side.remove(prices.get(random.nextInt(DEPTH)));
+                final long bottom = side.lastKey() + (side == bids ? -1 : 1);
+                side.put(bottom, 1L + random.nextInt(1_000));
+            }
+            return new BookUpdateImpl(123L, Venue.XLON, InstrumentStatus.CONTINUOUS, entries(bids), entries(asks));
+        };
+    }
+
+    private static List<BookEntry> entries(final TreeMap<Long, Long> side) {
+        final List<BookEntry> entries = new ArrayList<>();
+        side.forEach((price, size) -> entries.add(new BookEntry().setPrice(price).setSize(size)));
+        return entries;
+    }
+
+    @Test
+    public void testSnapshotsThenChangesOnly() {
+        final MarketDataGenerator generator = new IncrementalMarketDataGenerator(deepBook(7), 3);
+
+        assertSame(UpdateType.BookUpdate, generator.next().updateType());
+
+        final IncrementalBookUpdate delta = (IncrementalBookUpdate) generator.next();
+        assertTrue(delta.changes().size() >= 1 && delta.changes().size() <= 3);
+
+        assertSame(UpdateType.IncrementalUpdate, generator.next().updateType());
+        assertSame(UpdateType.BookUpdate, generator.next().updateType());
+    }
+
+    @Test
+    public void testServiceBuiltFromDeltasMatchesTheFullBook() {
+        final MarketDataGenerator full = deepBook(42);
+        final MarketDataGenerator incremental = new IncrementalMarketDataGenerator(deepBook(42), SNAPSHOT_INTERVAL);
+
+        final MarketDataService fromFull = new MarketDataService(new RunTrigger());
+        final MarketDataService fromDeltas = new MarketDataService(new RunTrigger());
+
+        long fullBytes = 0;
+        long deltaBytes = 0;
+        int deletes = 0;
+
+        for (int tick = 0; tick < TICKS; tick++) {
+            final UnsafeBuffer fullBuffer = encoder.encode(full.next());
+            fullBytes += messageLength.lengthOf(fullBuffer);
+            fromFull.onMessage(fullBuffer);
+
+            final MarketDataMessage message = incremental.next();
+            if (message instanceof IncrementalBookUpdate) {
+                deletes += ((IncrementalBookUpdate) message).changes().stream().filter(change -> change.action() == UpdateAction.DELETE).count();
+            }
+            final UnsafeBuffer deltaBuffer = encoder.encode(message);
+            deltaBytes += messageLength.lengthOf(deltaBuffer);
+            fromDeltas.onMessage(deltaBuffer);
+
+            assertEquals(fromFull.getBidLength(), fromDeltas.getBidLength());
+            assertEquals(fromFull.getAskLength(), fromDeltas.getAskLength());
+            for (int i = 0; i < fromFull.getBidLength(); i++) {
+                assertEquals("tick " + tick, fromFull.getBidLevel(i).toString(), fromDeltas.getBidLevel(i).toString());
+            }
+            for (int i = 0; i < fromFull.getAskLength(); i++) {
+                assertEquals("tick " + tick, fromFull.getAskLevel(i).toString(), fromDeltas.getAskLevel(i).toString());
+            }
+        }
+
+        assertTrue(deletes > 0);
+        assertTrue("full " + fullBytes + " bytes, incremental " + deltaBytes + " bytes", deltaBytes * 5 < fullBytes);
+    }
+}
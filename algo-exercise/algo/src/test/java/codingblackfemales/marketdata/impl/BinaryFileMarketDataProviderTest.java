@@ -0,0 +1,109 @@
+package codingblackfemales.marketdata.impl;
+
+import codingblackfemales.marketdata.api.BookEntry;
+import codingblackfemales.marketdata.api.MarketDataEncoder;
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.marketdata.gen.MarketDataFileConverter;
+import codingblackfemales.marketdata.gen.MarketDataGenerator;
+import codingblackfemales.marketdata.gen.SimpleFileMarketDataGenerator;
+import codingblackfemales.sequencer.util.SbeMessageLength;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.Venue;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class BinaryFileMarketDataProviderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Cycles through the three update types with prices moving on each tick, so the test does not depend on the
+     * random generator.
+     */
+    public static MarketDataGenerator cyclingGenerator() {
+        final long[] tick = {0};
+        return () -> {
+            final long i = tick[0]++;
+            final List<BookEntry> bids = List.of(new BookEntry().setPrice(99 - i % 5).setSize(100 + i), new BookEntry().setPrice(98 - i % 5).setSize(200));
+            final List<BookEntry> asks = List.of(new BookEntry().setPrice(101 + i % 5).setSize(150), new BookEntry().setPrice(102 + i % 5).setSize(250 + i));
+            switch ((int) (i % 3)) {
+                case 0:
+                    return new BookUpdateImpl(1234, Venue.XLON, InstrumentStatus.CONTINUOUS, bids, asks);
+                case 1:
+                    return new AskBookUpdateImpl(1234, Venue.XLON, asks);
+                default:
+                    return new BidBookUpdateImpl(1234, Venue.XLON, bids);
+            }
+        };
+    }
+
+    @Test
+    public void testServesSameBytesAsEncodingTheJsonFile() {
+        final String json = folder.getRoot().toPath().resolve("marketdata.json").toString();
+        final String binary = folder.getRoot().toPath().resolve("marketdata.bin").toString();
+
+        final SimpleFileMarketDataGenerator jsonGenerator = new SimpleFileMarketDataGenerator(json, cyclingGenerator());
+        jsonGenerator.generate(300);
+        jsonGenerator.close();
+
+        assertEquals(300, MarketDataFileConverter.jsonToBinary(json, binary));
+
+        final SimpleFileMarketDataProvider jsonProvider = new SimpleFileMarketDataProvider(json);
+        final MarketDataEncoder encoder = new MarketDataEncoder();
+        final SbeMessageLength messageLength = new SbeMessageLength();
+
+        try (BinaryFileMarketDataProvider binaryProvider = new BinaryFileMarketDataProvider(binary)) {
+            MarketDataMessage message;
+            int count = 0;
+            while ((message = jsonProvider.poll()) != null) {
+                final UnsafeBuffer expected = encoder.encode(message);
+                final DirectBuffer actual = binaryProvider.pollEncoded();
+                assertNotNull(actual);
+
+                final int length = messageLength.lengthOf(expected);
+                assertEquals(length, actual.capacity());
+                for (int i = 0; i < length; i++) {
+                    assertEquals("tick " + count + " byte " + i, expected.getByte(i), actual.getByte(i));
+                }
+                count++;
+            }
+
+            assertEquals(300, count);
+            assertNull(binaryProvider.pollEncoded());
+            assertNull(binaryProvider.pollEncoded());
+        }
+    }
+
+    @Test
+    public void testPollsTheSameMessagesAsTheJsonFile() {
+        final String json = folder.getRoot().toPath().resolve("marketdata.json").toString();
+        final String binary = folder.getRoot().toPath().resolve("marketdata.bin").toString();
+
+        final SimpleFileMarketDataGenerator jsonGenerator = new SimpleFileMarketDataGenerator(json, cyclingGenerator());
+        jsonGenerator.generate(30);
+        jsonGenerator.close();
+        MarketDataFileConverter.jsonToBinary(json, binary);
+
+        final SimpleFileMarketDataProvider jsonProvider = new SimpleFileMarketDataProvider(json);
+        try (BinaryFileMarketDataProvider binaryProvider = new BinaryFileMarketDataProvider(binary)) {
+            MarketDataMessage expected;
+            while ((expected = jsonProvider.poll()) != null) {
+                final MarketDataMessage actual = binaryProvider.poll();
+                assertNotNull(actual);
+                assertEquals(expected.updateType(), actual.updateType());
+                assertEquals(expected.toString(), actual.toString());
+            }
+            assertNull(binaryProvider.poll());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package codingblackfemales.service;
+
+import ch.qos.logback.classic.Level;
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.sotw.marketdata.BidLevel;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MarketDataServiceTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
+
+    private final RunTrigger runTrigger = new RunTrigger();
+    private final MarketDataService marketDataService = new MarketDataService(runTrigger);
+
+    private UnsafeBuffer bookUpdate(final int bidLevels, final int askLevels, final long shift) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(4096));
+        bookUpdateEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        bookUpdateEncoder.venue(Venue.XLON);
+        bookUpdateEncoder.instrumentId(123L);
+        bookUpdateEncoder.source(Source.STREAM);
+
+        final BookUpdateEncoder.BidBookEncoder bids = bookUpdateEncoder.bidBookCount(bidLevels);
+        for (int i = 0; i < bidLevels; i++) {
+            bids.next().price(99L - i + shift).size(100L + i);
+        }
+        final BookUpdateEncoder.AskBookEncoder asks = bookUpdateEncoder.askBookCount(askLevels);
+        for (int i = 0; i < askLevels; i++) {
+            asks.next().price(101L + i + shift).size(200L + i);
+        }
+        bookUpdateEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        return buffer;
+    }
+
+    @Test
+    public void testLevelsAreOverwrittenInPlace() {
+        marketDataService.onMessage(bookUpdate(3, 2, 0));
+
+        final BidLevel best = marketDataService.getBidLevel(0);
+        assertEquals(99L, best.getPrice());
+        assertEquals(3, marketDataService.getBidLength());
+        assertEquals(2, marketDataService.getAskLength());
+        assertNull(marketDataService.getBidLevel(3));
+        assertTrue(runTrigger.shouldRun());
+
+        marketDataService.onMessage(bookUpdate(1, 2, 5));
+
+        assertSame(best, marketDataService.getBidLevel(0));
+        assertEquals(104L, best.getPrice());
+        assertEquals(100L, best.getQuantity());
+        assertEquals(1, marketDataService.getBidLength());
+        assertNull(marketDataService.getBidLevel(1));
+        assertEquals(107L, marketDataService.getAskLevel(1).getPrice());
+    }
+
+    @Test
+    public void testBooksDeeperThanFifteenLevels() {
+        marketDataService.onMessage(bookUpdate(40, 20, 0));
+
+        assertEquals(40, marketDataService.getBidLength());
+        assertEquals(20, marketDataService.getAskLength());
+        assertEquals(99L - 39, marketDataService.getBidLevel(39).getPrice());
+        assertEquals(200L + 19, marketDataService.getAskLevel(19).getQuantity());
+        assertNull(marketDataService.getBidLevel(40));
+    }
+
+    @Test
+    public void testUpdatesDoNotAllocate() {
+        //every level is logged at debug, which is the default level when running tests
+        final ch.qos.logback.classic.Logger serviceLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(MarketDataService.class);
+        serviceLogger.setLevel(Level.INFO);
+
+        try {
+            final UnsafeBuffer[] ticks = {bookUpdate(10, 10, 0), bookUpdate(10, 10, 1)};
+            for (int i = 0; i < 100_000; i++) {
+                marketDataService.onMessage(ticks[i & 1]);
+            }
+
+            final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            final long threadId = Thread.currentThread().getId();
+
+            final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100_000; i++) {
+                marketDataService.onMessage(ticks[i & 1]);
+            }
+            final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+            assertTrue("allocated " + allocated + " bytes", allocated < 16 * 1024);
+        } finally {
+            serviceLogger.setLevel(null);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package codingblackfemales.service;
+
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.sotw.ChildOrder;
+import messages.order.AckedOrderEncoder;
+import messages.order.CreateOrderEncoder;
+import messages.order.MessageHeaderEncoder;
+import messages.order.PartialFillOrderEncoder;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Per event cost of acks and partial fills against 100k live children, next to the cost of the linear scan the
+ * OrderService used to do for each one. Not picked up by the default surefire includes, run it with:
+ *
+ * mvn -pl algo -am test -Dtest=OrderServiceBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+public class OrderServiceBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderServiceBenchmark.class);
+
+    private static final int CHILDREN = 100_000;
+    private static final int EVENTS = 2_000_000;
+    private static final int LINEAR_EVENTS = 2_000;
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final CreateOrderEncoder createEncoder = new CreateOrderEncoder();
+    private final AckedOrderEncoder ackedEncoder = new AckedOrderEncoder();
+    private final PartialFillOrderEncoder partialFillEncoder = new PartialFillOrderEncoder();
+    private final UnsafeBuffer create = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+    private final UnsafeBuffer ack = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+    private final UnsafeBuffer partialFill = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    @Test
+    public void eventsAgainstManyLiveChildren() {
+        final OrderService orderService = new OrderService(new RunTrigger());
+        final List<ChildOrder> linkedChildren = new LinkedList<>();
+
+        for (long orderId = 1; orderId <= CHILDREN; orderId++) {
+            createEncoder.wrapAndApplyHeader(create, 0, headerEncoder).orderId(orderId).price(100).quantity(1_000_000).side(Side.BUY);
+            orderService.onMessage(create);
+            linkedChildren.add(orderService.find(orderId));
+        }
+
+        final SplittableRandom random = new SplittableRandom(42);
+        ackedEncoder.wrapAndApplyHeader(ack, 0, headerEncoder);
+        partialFillEncoder.wrapAndApplyHeader(partialFill, 0, headerEncoder).quantity(1).price(100);
+
+        for (int run = 0; run < 3; run++) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < EVENTS; i++) {
+                final long orderId = 1 + random.nextInt(CHILDREN);
+                if ((i & 1) == 0) {
+                    ackedEncoder.orderId(orderId);
+                    orderService.onMessage(ack);
+                } else {
+                    partialFillEncoder.orderId(orderId);
+                    orderService.onMessage(partialFill);
+                }
+            }
+            final double indexedNanos = (System.nanoTime() - start) / (double) EVENTS;
+
+            long sink = 0;
+            final long linearStart = System.nanoTime();
+            for (int i = 0; i < LINEAR_EVENTS; i++) {
+                final long orderId = 1 + random.nextInt(CHILDREN);
+                sink += linkedChildren.stream().filter(order -> order.getOrderId() == orderId).findFirst().get().getState();
+            }
+            final double linearNanos = (System.nanoTime() - linearStart) / (double) LINEAR_EVENTS;
+
+            logger.info(String.format("[BENCHMARK] run %d children=%,d indexed=%,.0fns/event linear scan=%,.0fns/event (%d)", run, CHILDREN, indexedNanos, linearNanos, sink));
+        }
+    }
+}
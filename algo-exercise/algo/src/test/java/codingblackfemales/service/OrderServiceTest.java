@@ -0,0 +1,127 @@
+package codingblackfemales.service;
+
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.sotw.ChildOrder;
+import codingblackfemales.sotw.OrderState;
+import messages.order.AckedOrderEncoder;
+import messages.order.CancelAckedOrderEncoder;
+import messages.order.CreateOrderEncoder;
+import messages.order.FillOrderEncoder;
+import messages.order.MessageHeaderEncoder;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OrderServiceTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final CreateOrderEncoder createEncoder = new CreateOrderEncoder();
+    private final AckedOrderEncoder ackedEncoder = new AckedOrderEncoder();
+    private final CancelAckedOrderEncoder cancelAckedEncoder = new CancelAckedOrderEncoder();
+    private final FillOrderEncoder fillEncoder = new FillOrderEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private final RunTrigger runTrigger = new RunTrigger();
+    private final OrderService orderService = new OrderService(runTrigger);
+
+    void create(long orderId, long price) {
+        createEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder).orderId(orderId).price(price).quantity(100).side(Side.BUY);
+        orderService.onMessage(buffer);
+    }
+
+    void ack(long orderId) {
+        ackedEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder).orderId(orderId);
+        orderService.onMessage(buffer);
+    }
+
+    void cancelAck(long orderId) {
+        cancelAckedEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder).orderId(orderId);
+        orderService.onMessage(buffer);
+    }
+
+    void fill(long orderId, long quantity) {
+        fillEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder).orderId(orderId).quantity(quantity).price(100);
+        orderService.onMessage(buffer);
+    }
+
+    @Test
+    public void testEventsUpdateTheRightChildAndKeepCreationOrder() {
+        for (long orderId = 10; orderId > 0; orderId--) {
+            create(orderId, orderId * 100);
+        }
+
+        ack(3);
+        cancelAck(7);
+        fill(5, 40);
+
+        assertEquals(10, orderService.children().size());
+        assertEquals(10, orderService.children().get(0).getOrderId());
+        assertEquals(1, orderService.children().get(9).getOrderId());
+
+        assertEquals(OrderState.ACKED, orderService.find(3).getState());
+        assertEquals(OrderState.CANCELLED, orderService.find(7).getState());
+        assertEquals(40, orderService.find(5).getFilledQuantity());
+        assertEquals(OrderState.PENDING, orderService.find(4).getState());
+    }
+
+    @Test
+    public void testUnknownOrderIdIsIgnored() {
+        create(1, 100);
+        runTrigger.hasRun();
+
+        ack(99);
+        fill(99, 10);
+        cancelAck(99);
+
+        assertNull(orderService.find(99));
+        assertFalse(runTrigger.shouldRun());
+
+        final ChildOrder child = orderService.find(1);
+        assertEquals(OrderState.PENDING, child.getState());
+        assertEquals(0, child.getFilledQuantity());
+
+        ack(1);
+        assertTrue(runTrigger.shouldRun());
+    }
+
+    private List<Long> activeOrderIds() {
+        return orderService.activeChildren().stream().map(ChildOrder::getOrderId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testActiveChildrenAndCountsFollowStateChanges() {
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            create(orderId, 100);
+        }
+        ack(1);
+        ack(2);
+        cancelAck(3);
+        fill(4, 40);
+        fill(5, 100);
+
+        //filled in full and cancelled children are no longer active, part filled ones are
+        assertEquals(List.of(1L, 2L, 4L), activeOrderIds());
+        assertEquals(OrderState.FILLED, orderService.find(5).getState());
+        assertEquals(2, orderService.count(Side.BUY, OrderState.ACKED));
+        assertEquals(1, orderService.count(Side.BUY, OrderState.PENDING));
+        assertEquals(1, orderService.count(Side.BUY, OrderState.CANCELLED));
+        assertEquals(1, orderService.count(Side.BUY, OrderState.FILLED));
+        assertEquals(3, orderService.activeCount(Side.BUY));
+        assertEquals(0, orderService.activeCount(Side.SELL));
+
+        //a late ack does not bring a cancelled child back
+        ack(3);
+        assertEquals(OrderState.CANCELLED, orderService.find(3).getState());
+        assertEquals(List.of(1L, 2L, 4L), activeOrderIds());
+        assertEquals(1, orderService.count(Side.BUY, OrderState.CANCELLED));
+    }
+}
@@ -0,0 +1,99 @@
+package codingblackfemales.sotw;
+
+import messages.order.Side;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.ListIterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ActiveChildOrdersTest {
+
+    private static ChildOrder child(final long orderId) {
+        return new ChildOrder(Side.BUY, orderId, 100, 98, OrderState.ACKED);
+    }
+
+    private static List<Long> orderIds(final List<ChildOrder> children) {
+        final List<Long> orderIds = new ArrayList<>();
+        for (ChildOrder child : children) {
+            orderIds.add(child.getOrderId());
+        }
+        return orderIds;
+    }
+
+    @Test
+    public void testChildrenCanBeRemovedFromAnywhereAndKeepTheirOrder() {
+        final ActiveChildOrders active = new ActiveChildOrders();
+        final ChildOrder one = child(1), two = child(2), three = child(3), four = child(4);
+        active.append(one);
+        active.append(two);
+        active.append(three);
+        active.append(four);
+        //already there
+        active.append(two);
+
+        active.unlink(two);
+        assertEquals(List.of(1L, 3L, 4L), orderIds(active));
+
+        active.unlink(one);
+        active.unlink(four);
+        //already gone
+        active.unlink(four);
+        assertEquals(List.of(3L), orderIds(active));
+        assertEquals(1, active.size());
+
+        active.unlink(three);
+        assertEquals(List.of(), orderIds(active));
+        assertEquals(0, active.size());
+
+        active.append(four);
+        assertEquals(List.of(4L), orderIds(active));
+    }
+
+    @Test
+    public void testIndexingAndIteratingBackwards() {
+        final ActiveChildOrders active = new ActiveChildOrders();
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            active.append(child(orderId));
+        }
+
+        assertEquals(1L, active.get(0).getOrderId());
+        assertEquals(4L, active.get(3).getOrderId());
+        assertEquals(5L, active.get(4).getOrderId());
+
+        final List<Long> backwards = new ArrayList<>();
+        final ListIterator<ChildOrder> iterator = active.listIterator(active.size());
+        while (iterator.hasPrevious()) {
+            backwards.add(iterator.previous().getOrderId());
+        }
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), backwards);
+    }
+
+    @Test
+    public void testItIsALiveViewWhichIsReadOnly() {
+        final ActiveChildOrders active = new ActiveChildOrders();
+        final ChildOrder one = child(1);
+        active.append(one);
+        active.append(child(2));
+        active.append(child(3));
+
+        try {
+            active.add(child(4));
+            fail("only the order service adds children");
+        } catch (UnsupportedOperationException expected) {
+        }
+
+        try {
+            for (ChildOrder child : active) {
+                active.unlink(one);
+            }
+            fail("a child left while it was being iterated");
+        } catch (ConcurrentModificationException expected) {
+        }
+        assertEquals(List.of(2L, 3L), orderIds(active));
+    }
+}
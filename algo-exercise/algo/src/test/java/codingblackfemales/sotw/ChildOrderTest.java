@@ -0,0 +1,52 @@
+package codingblackfemales.sotw;
+
+import messages.order.Side;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ChildOrderTest {
+
+    @Test
+    public void testRunningTotalsAreKeptOnEachFill() {
+        final ChildOrder child = new ChildOrder(Side.BUY, 1L, 300, 100, OrderState.ACKED);
+        assertEquals(0, child.getAverageFillPrice(), 0.0);
+        assertEquals(300, child.getLeavesQuantity());
+
+        child.addFill(100, 99);
+        child.addFill(50, 102);
+
+        assertEquals(150, child.getFilledQuantity());
+        assertEquals(100 * 99 + 50 * 102, child.getFilledNotional());
+        assertEquals(100.0, child.getAverageFillPrice(), 0.0);
+        assertEquals(150, child.getLeavesQuantity());
+        assertEquals(2, child.getFillCount());
+        assertFalse(child.isKeepingFills());
+
+        child.addFill(200, 100);
+        assertEquals(0, child.getLeavesQuantity());
+    }
+
+    @Test
+    public void testKeptFillsGrowPastTheirInitialSize() {
+        final ChildOrder child = new ChildOrder(Side.SELL, 1L, 1_000, 100, OrderState.ACKED, true);
+        for (int i = 0; i < 20; i++) {
+            child.addFill(i + 1, 100 + i);
+        }
+
+        assertEquals(20, child.getFillCount());
+        assertEquals(1, child.getFillQuantity(0));
+        assertEquals(100, child.getFillPrice(0));
+        assertEquals(20, child.getFillQuantity(19));
+        assertEquals(119, child.getFillPrice(19));
+        assertEquals(210, child.getFilledQuantity());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFillsCanOnlyBeReadWhenKept() {
+        final ChildOrder child = new ChildOrder(Side.BUY, 1L, 100, 100, OrderState.ACKED);
+        child.addFill(10, 100);
+        child.getFillQuantity(0);
+    }
+}
@@ -1,19 +1,25 @@
 package codingblackfemales.orderbook;
 
-import codingblackfemales.orderbook.visitor.FilteringOrderBookVisitor;
-import codingblackfemales.orderbook.visitor.MutatingAddOrderVisitor;
-import codingblackfemales.orderbook.visitor.OrderBookVisitor;
+import messages.order.Side;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Comparator;
-
 public class AskBookSide extends OrderBookSide {
 
     private static final Logger logger = LoggerFactory.getLogger(AskBookSide.class);
 
     public AskBookSide() {
-        super(Comparator.naturalOrder());
+        super();
+    }
+
+    @Override
+    protected boolean isBetterPrice(final long price, final long other) {
+        return price < other;
+    }
+
+    @Override
+    public Side getSide() {
+        return Side.SELL;
     }
 
 }
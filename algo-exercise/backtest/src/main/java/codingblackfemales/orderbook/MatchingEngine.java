@@ -0,0 +1,146 @@
+package codingblackfemales.orderbook;
+
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.sequencer.eventlog.EventLog;
+
+/**
+ * Matches an order arriving at the book against the other side with price-time priority. Some features of this:
+ *
+ * 1) Levels are taken best first, and the sweep stops at the first level the order's price does not reach or as soon
+ *    as it is filled, rather than visiting the rest of the side.
+ * 2) Within a level orders are matched in the order they joined it, market data included.
+ * 3) Each fill is taken out of the book before it is published, and the sweep goes back to the side's first level
+ *    afterwards. An algo which reacts to a fill with another order into the book (fills are published synchronously)
+ *    therefore finds the book consistent, and the sweep carries on against whatever that leaves.
+ * 4) Our limit orders, on either side of a match, are sent a fill for each match, see OrderChannel.publishFill. A limit
+ *    order coming in trades at the resting order's price, market data coming in fills our resting orders at the market
+ *    data's price, as a trade through our price would have.
+ * 5) A limit order never trades with a resting limit order of the same owner (see LimitOrderFlyweight.setOwner), the
+ *    sweep stops at the first one it reaches and wasStoppedByOwnOrder() is set. The book then cancels what is left of
+ *    the incoming order rather than fill an algo against itself.
+ *
+ * Nothing is allocated, orders and levels which empty are handed back to the OrderBookPool. Whatever is left of the
+ * incoming order is left to the caller, the book rests a limit order's remainder at its price, or cancels it if the
+ * order is IOC.
+ */
+public class MatchingEngine {
+
+    private static final EventLog.Event MATCHED = EventLog.event(MatchingEngine.class,
+            "[ORDERBOOK] Matched {} {}@{} against {}@{} on the book", EventLog.SIDE);
+
+    private final OrderChannel orderChannel;
+
+    private boolean stoppedByOwnOrder = false;
+
+    public MatchingEngine(final OrderChannel orderChannel) {
+        this.orderChannel = orderChannel;
+    }
+
+    /**
+     * @return whether the side has all of incoming's quantity at prices it reaches, i.e. whether a FOK order would fill,
+     * without touching the book.
+     */
+    public boolean canFill(final DefaultOrderFlyweight incoming, final OrderBookSide resting) {
+        final long limitPrice = incoming.getPrice();
+        final LimitOrderFlyweight incomingLimit = incoming instanceof LimitOrderFlyweight ? (LimitOrderFlyweight) incoming : null;
+        final boolean owned = incomingLimit != null && incomingLimit.getOwner() != LimitOrderFlyweight.NO_OWNER;
+        long available = 0;
+
+        OrderBookLevel level = resting.getFirstLevel();
+        while (level != null && !resting.isBetterPrice(limitPrice, level.getPrice())) {
+            if (!owned) {
+                available += level.getQuantity();
+                if (available >= incoming.getQuantity()) {
+                    return true;
+                }
+            } else {
+                //only what is in front of the owner's first resting order can be filled
+                for (DefaultOrderFlyweight order = level.getFirstOrder(); order != null; order = order.next()) {
+                    if (order instanceof LimitOrderFlyweight && incomingLimit.isSameOwner((LimitOrderFlyweight) order)) {
+                        return false;
+                    }
+                    available += order.getQuantity();
+                    if (available >= incoming.getQuantity()) {
+                        return true;
+                    }
+                }
+            }
+            level = level.next();
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the last match stopped at a resting order of the same owner, rather than trade with it.
+     */
+    public boolean wasStoppedByOwnOrder() {
+        return stoppedByOwnOrder;
+    }
+
+    /**
+     * @param incoming a limit or market data order on the other side to resting, its quantity is reduced by each fill.
+     * @return the quantity of incoming left unfilled.
+     */
+    public long match(final DefaultOrderFlyweight incoming, final OrderBookSide resting) {
+        final long limitPrice = incoming.getPrice();
+        final LimitOrderFlyweight incomingLimit = incoming instanceof LimitOrderFlyweight ? (LimitOrderFlyweight) incoming : null;
+        boolean stopped = false;
+
+        resting.getPool().enter();
+        try {
+            OrderBookLevel level;
+            while (incoming.getQuantity() > 0
+                    && (level = resting.getFirstLevel()) != null
+                    && !resting.isBetterPrice(limitPrice, level.getPrice())) {
+
+                final DefaultOrderFlyweight order = level.getFirstOrder();
+                if (order == null) {
+                    resting.removeLevel(level);
+                    continue;
+                }
+
+                if (incomingLimit != null && order instanceof LimitOrderFlyweight && incomingLimit.isSameOwner((LimitOrderFlyweight) order)) {
+                    stopped = true;
+                    break;
+                }
+
+                final long fillQuantity = Math.min(incoming.getQuantity(), order.getQuantity());
+                final long fillPrice = incomingLimit != null ? level.getPrice() : limitPrice;
+
+                order.setQuantity(order.getQuantity() - fillQuantity);
+                incoming.setQuantity(incoming.getQuantity() - fillQuantity);
+                level.setQuantity(level.getQuantity() - fillQuantity);
+
+                if (order.getQuantity() <= 0) {
+                    //stays usable until the pool is exited, which is all publishing its fill needs
+                    resting.removeOrder(level, order);
+                    if (level.getFirstOrder() == null) {
+                        resting.removeLevel(level);
+                    }
+                }
+
+                if (fillQuantity == 0) {
+                    continue;
+                }
+
+                if (MATCHED.isEnabled()) {
+                    MATCHED.log(incoming.getSide().value(), fillQuantity, fillPrice, order.getQuantity() + fillQuantity, order.getPrice());
+                }
+
+                if (order instanceof LimitOrderFlyweight) {
+                    orderChannel.publishFill(fillQuantity, fillPrice, (LimitOrderFlyweight) order);
+                }
+                if (incomingLimit != null) {
+                    orderChannel.publishFill(fillQuantity, fillPrice, incomingLimit);
+                }
+            }
+            //set once the sweep is over, a fill published above can lead to a match of its own
+            stoppedByOwnOrder = stopped;
+            return incoming.getQuantity();
+        } finally {
+            resting.getPool().exit();
+        }
+    }
+}
@@ -4,36 +4,87 @@ import codingblackfemales.orderbook.channel.MarketDataChannel;
 import codingblackfemales.orderbook.channel.OrderChannel;
 import codingblackfemales.orderbook.order.LimitOrderFlyweight;
 import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
-import codingblackfemales.orderbook.visitor.CancelOrderVisitor;
-import codingblackfemales.orderbook.visitor.MutatingMatchOneMarketDataOrderVisitor;
-import codingblackfemales.orderbook.visitor.MutatingMatchOneOrderVisitor;
 import codingblackfemales.orderbook.visitor.ReadOnlyMarketDataChannelPublishVisitor;
 import codingblackfemales.sequencer.event.MarketDataEventListener;
+import codingblackfemales.sequencer.eventlog.EventLog;
+import codingblackfemales.sequencer.util.NestedBuffers;
 import messages.marketdata.AskBookUpdateDecoder;
 import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BookSide;
 import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.IncrementalBookUpdateDecoder;
+import messages.marketdata.UpdateAction;
 import messages.marketdata.Source;
+import messages.order.OrderType;
 import messages.order.Side;
+import messages.order.TimeInForce;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+
+/**
+ * A simulated exchange book which market data and our orders are added to and matched against. Some features of this:
+ *
+ * 1) Order flyweights and levels come from an OrderBookPool shared by both sides and are recycled once they have
+ *    left the book, so a long backtest runs without allocating per tick.
+ * 2) Fills and book updates are published synchronously and can lead straight back into the book (i.e. the algo
+ *    reacting to a fill with a new order), so each level of that nesting publishes from its own buffer, see
+ *    NestedBuffers.
+ * 3) Orders and market data which cross the other side are matched by a MatchingEngine, with price-time priority.
+ *    Whatever is left of a DAY limit order then rests on the book at its price, as does the rest of the market data.
+ * 4) IOC and FOK orders never rest, what IOC does not fill is cancelled and a FOK which cannot fill completely is
+ *    cancelled without trading. Either way the order is sent a CancelAckedOrder. A MARKET order trades at whatever
+ *    price the other side has, as an IOC unless it is a FOK.
+ * 5) There is no self trade, an order which would trade with another of the same owner is cancelled from there on,
+ *    see MatchingEngine.
+ */
 public class OrderBook extends MarketDataEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderBook.class);
 
+    private static final EventLog.Event PROCESSING_MARKET_DATA = EventLog.event(OrderBook.class, "[ORDERBOOK] Processing Mkt Data Update");
+    private static final EventLog.Event ADDING_LIQUIDITY = EventLog.event(OrderBook.class,
+            "[ORDERBOOK] Adding passive limit order to {} book Limit(orderId={},price={},quantity={})", side -> side == Side.BUY.value() ? "BID" : "ASK");
+    private static final EventLog.Event CANCELLING = EventLog.event(OrderBook.class, "[ORDERBOOK] Cancelling order (id=:{})");
+    private static final EventLog.Event CANCELLING_UNFILLED = EventLog.event(OrderBook.class,
+            "[ORDERBOOK] Cancelling what did not fill of order (id=:{}, quantity={})");
+    private static final EventLog.Event CANCELLING_SELF_TRADE = EventLog.event(OrderBook.class,
+            "[ORDERBOOK] Cancelling what is left of order (id=:{}, quantity={}) as it would trade with its owner's own order");
+
     private final MarketDataChannel marketDataChannel;
     private final OrderChannel orderChannel;
 
     public OrderBook(final MarketDataChannel marketDataChannel, final OrderChannel orderChannel) {
+        this(marketDataChannel, orderChannel, new AskBookSide(), new BidBookSide());
+    }
+
+    /**
+     * Creates a book over the given sides, i.e. PriceIndexedAskBookSide and PriceIndexedBidBookSide for deep books.
+     */
+    public OrderBook(final MarketDataChannel marketDataChannel, final OrderChannel orderChannel, final AskBookSide askBookSide, final BidBookSide bidBookSide) {
         this.marketDataChannel = marketDataChannel;
         this.orderChannel = orderChannel;
+        this.askBookSide = askBookSide;
+        this.bidBookSide = bidBookSide;
+        this.askBookSide.setPool(pool);
+        this.bidBookSide.setPool(pool);
+        this.matchingEngine = new MatchingEngine(orderChannel);
     }
 
     private ReadOnlyMarketDataChannelPublishVisitor mktDataVisitor = new ReadOnlyMarketDataChannelPublishVisitor();
 
-    private AskBookSide askBookSide = new AskBookSide();
-    private BidBookSide bidBookSide = new BidBookSide();
+    private final OrderBookPool pool = new OrderBookPool();
+
+    private final MatchingEngine matchingEngine;
+
+    private final NestedBuffers<UnsafeBuffer> bookBuffers = new NestedBuffers<>(() -> new UnsafeBuffer(ByteBuffer.allocateDirect(1024)));
+    private int depth = 0;
+
+    private final AskBookSide askBookSide;
+    private final BidBookSide bidBookSide;
 
     public AskBookSide getAskBookSide() {
         return askBookSide;
@@ -43,6 +94,24 @@ public class OrderBook extends MarketDataEventListener {
         return bidBookSide;
     }
 
+    public OrderBookPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return a limit order flyweight from the pool, the book hands it back once it has matched or been cancelled.
+     */
+    public LimitOrderFlyweight newLimitOrder(final Side side, final long price, final long quantity, final long orderId) {
+        return pool.limitOrder(side, price, quantity, orderId);
+    }
+
+    /**
+     * @return a limit order flyweight priced to reach every level on the other side, which is all a market order is.
+     */
+    public LimitOrderFlyweight newMarketOrder(final Side side, final long quantity, final long orderId) {
+        return newLimitOrder(side, side.equals(Side.BUY) ? Long.MAX_VALUE : 0L, quantity, orderId);
+    }
+
     public boolean canMatch(final Side side, final long price){
         boolean canMatch = false;
 
@@ -59,139 +128,243 @@ public class OrderBook extends MarketDataEventListener {
     public void onBookUpdate(BookUpdateDecoder bookUpdate) {
         //don't process updates from ourself.
         if(!bookUpdate.source().equals(Source.ORDERBOOK)){
-            logger.info("[ORDERBOOK] Processing Mkt Data Update");
-            getBidBookSide().removeMarketDataOrders();
-            addOrMatchBidMarketDataOrders(bookUpdate);
+            if (PROCESSING_MARKET_DATA.isEnabled()) {
+                PROCESSING_MARKET_DATA.log();
+            }
+            pool.enter();
+            try {
+                getBidBookSide().beginMarketDataUpdate();
+                for(BookUpdateDecoder.BidBookDecoder decoder : bookUpdate.bidBook()) {
+                    addOrMatchBidMarketDataOrder(decoder.price(), decoder.size());
+                }
+                getBidBookSide().endMarketDataUpdate();
 
-            getAskBookSide().removeMarketDataOrders();
-            addOrMatchAskMarketDataOrders(bookUpdate);
+                getAskBookSide().beginMarketDataUpdate();
+                for(BookUpdateDecoder.AskBookDecoder decoder : bookUpdate.askBook()) {
+                    addOrMatchAskMarketDataOrder(decoder.price(), decoder.size());
+                }
+                getAskBookSide().endMarketDataUpdate();
+            } finally {
+                pool.exit();
+            }
         }
     }
 
-    private void addOrMatchAskMarketDataOrders(BookUpdateDecoder bookUpdateDecoder){
-        for(BookUpdateDecoder.AskBookDecoder decoder : bookUpdateDecoder.askBook()) {
-            final long price = decoder.price();
-            final long quantity = decoder.size();
-            var marketOrder = new MarketDataOrderFlyweight(Side.SELL, price, quantity);
-            logger.debug("[ORDERBOOK] ASK: Adding order" + marketOrder);
-            if(canMatch(Side.SELL, price)){
-                matchMarketDataOrder(marketOrder);
-            }else{
-                getAskBookSide().addMarketDataOrder(marketOrder);
+    @Override
+    public void onAskBook(AskBookUpdateDecoder askBook) {
+        pool.enter();
+        try {
+            getAskBookSide().beginMarketDataUpdate();
+            for(AskBookUpdateDecoder.AskBookDecoder decoder : askBook.askBook()) {
+                addOrMatchAskMarketDataOrder(decoder.price(), decoder.size());
             }
+            getAskBookSide().endMarketDataUpdate();
+        } finally {
+            pool.exit();
         }
     }
 
-    private void addOrMatchAskMarketDataOrders(AskBookUpdateDecoder askBookUpdateDecoder){
-        for(AskBookUpdateDecoder.AskBookDecoder decoder : askBookUpdateDecoder.askBook()) {
-            final long price = decoder.price();
-            final long quantity = decoder.size();
-            var marketOrder = new MarketDataOrderFlyweight(Side.SELL, price, quantity);
-            logger.debug("[ORDERBOOK] ASK: Adding order" + marketOrder);
-            if(canMatch(Side.SELL, price)){
-                matchMarketDataOrder(marketOrder);
-            }else{
-                getAskBookSide().addMarketDataOrder(marketOrder);
+    @Override
+    public void onBidBook(BidBookUpdateDecoder bidBook) {
+        pool.enter();
+        try {
+            getBidBookSide().beginMarketDataUpdate();
+            for(BidBookUpdateDecoder.BidBookDecoder decoder : bidBook.bidBook()) {
+                addOrMatchBidMarketDataOrder(decoder.price(), decoder.size());
             }
+            getBidBookSide().endMarketDataUpdate();
+        } finally {
+            pool.exit();
         }
     }
 
-    private void addOrMatchBidMarketDataOrders(BidBookUpdateDecoder askBookUpdateDecoder){
-        for(BidBookUpdateDecoder.BidBookDecoder decoder : askBookUpdateDecoder.bidBook()) {
-            final long price = decoder.price();
-            final long quantity = decoder.size();
-            var marketOrder = new MarketDataOrderFlyweight(Side.SELL, price, quantity);
-            logger.debug("[ORDERBOOK] ASK: Adding order" + marketOrder);
-            if(canMatch(Side.BUY, price)){
-                matchMarketDataOrder(marketOrder);
-            }else{
-                getBidBookSide().addMarketDataOrder(marketOrder);
+    /**
+     * Applies just the levels which changed, there is nothing to sweep afterwards as a level which has gone is sent as
+     * a DELETE. The next full BookUpdate reconciles the whole book again.
+     */
+    @Override
+    public void onIncrementalBookUpdate(IncrementalBookUpdateDecoder incrementalBookUpdate) {
+        //don't process updates from ourself.
+        if(incrementalBookUpdate.source().equals(Source.ORDERBOOK)){
+            return;
+        }
+        if (PROCESSING_MARKET_DATA.isEnabled()) {
+            PROCESSING_MARKET_DATA.log();
+        }
+        pool.enter();
+        try {
+            for(IncrementalBookUpdateDecoder.EntriesDecoder entry : incrementalBookUpdate.entries()) {
+                final long price = entry.price();
+                final long size = entry.size();
+                final boolean delete = entry.action() == UpdateAction.DELETE || size == 0;
+                if(entry.side() == BookSide.BID){
+                    if(delete){
+                        getBidBookSide().removeMarketDataOrder(price);
+                    }else{
+                        addOrMatchBidMarketDataOrder(price, size);
+                    }
+                }else{
+                    if(delete){
+                        getAskBookSide().removeMarketDataOrder(price);
+                    }else{
+                        addOrMatchAskMarketDataOrder(price, size);
+                    }
+                }
             }
+        } finally {
+            pool.exit();
         }
     }
 
-    private void addOrMatchBidMarketDataOrders(BookUpdateDecoder bookUpdateDecoder){
-        for(BookUpdateDecoder.AskBookDecoder decoder : bookUpdateDecoder.askBook()) {
-            final long price = decoder.price();
-            final long quantity = decoder.size();
-            var marketOrder = new MarketDataOrderFlyweight(Side.SELL, price, quantity);
-            logger.debug("[ORDERBOOK] ASK: Adding order" + marketOrder);
-            if(canMatch(Side.BUY, price)){
-                matchMarketDataOrder(marketOrder);
-            }else{
-                getBidBookSide().addMarketDataOrder(marketOrder);
+    /**
+     * Market data which crosses orders on the other side fills them, whatever is left of it updates the size at its price.
+     */
+    private void addOrMatchAskMarketDataOrder(final long price, final long quantity){
+        if(canMatch(Side.SELL, price)){
+            final var marketOrder = pool.marketDataOrder(Side.SELL, price, quantity);
+            if (logger.isDebugEnabled()) {
+                logger.debug("[ORDERBOOK] ASK: Matching order" + marketOrder);
             }
+            final long leaves = matchMarketDataOrder(marketOrder);
+            pool.release(marketOrder);
+            restMarketDataOrder(getAskBookSide(), price, leaves);
+        }else{
+            getAskBookSide().updateMarketDataOrder(price, quantity);
         }
     }
 
-    @Override
-    public void onAskBook(AskBookUpdateDecoder askBook) {
-        getAskBookSide().removeMarketDataOrders();
-        addOrMatchAskMarketDataOrders(askBook);
+    private void addOrMatchBidMarketDataOrder(final long price, final long quantity){
+        if(canMatch(Side.BUY, price)){
+            final var marketOrder = pool.marketDataOrder(Side.BUY, price, quantity);
+            if (logger.isDebugEnabled()) {
+                logger.debug("[ORDERBOOK] BID: Matching order" + marketOrder);
+            }
+            final long leaves = matchMarketDataOrder(marketOrder);
+            pool.release(marketOrder);
+            restMarketDataOrder(getBidBookSide(), price, leaves);
+        }else{
+            getBidBookSide().updateMarketDataOrder(price, quantity);
+        }
     }
 
-    @Override
-    public void onBidBook(BidBookUpdateDecoder bidBook) {
-        getBidBookSide().removeMarketDataOrders();
-        addOrMatchBidMarketDataOrders(bidBook);
+    /**
+     * Whatever the market data did not fill rests at its price, market data which filled completely leaves none there.
+     */
+    private void restMarketDataOrder(final OrderBookSide side, final long price, final long leaves){
+        if(leaves > 0){
+            side.updateMarketDataOrder(price, leaves);
+        }else{
+            side.removeMarketDataOrder(price);
+        }
     }
 
-    public void matchOrder(final LimitOrderFlyweight limit) {
-        final MutatingMatchOneOrderVisitor visitor = new MutatingMatchOneOrderVisitor(limit, orderChannel);
-        if(limit.getSide().equals(Side.BUY)){
-            getAskBookSide().accept(visitor);
-        }else if(limit.getSide().equals(Side.SELL)){
-            getBidBookSide().accept(visitor);
-        }
+    /**
+     * @return the quantity of the limit order left unfilled.
+     */
+    public long matchOrder(final LimitOrderFlyweight limit) {
+        return matchingEngine.match(limit, limit.getSide().equals(Side.BUY) ? getAskBookSide() : getBidBookSide());
     }
 
-    public void matchMarketDataOrder(final MarketDataOrderFlyweight market) {
-        final MutatingMatchOneMarketDataOrderVisitor visitor = new MutatingMatchOneMarketDataOrderVisitor(market, orderChannel);
-        if(market.getSide().equals(Side.BUY)){
-            getAskBookSide().accept(visitor);
-        }else if(market.getSide().equals(Side.SELL)){
-            getBidBookSide().accept(visitor);
-        }
+    /**
+     * @return the quantity of the market data left once it has filled what it crossed.
+     */
+    public long matchMarketDataOrder(final MarketDataOrderFlyweight market) {
+        return matchingEngine.match(market, market.getSide().equals(Side.BUY) ? getAskBookSide() : getBidBookSide());
     }
 
     public void addLiquidity(final LimitOrderFlyweight limit) {
+        if (ADDING_LIQUIDITY.isEnabled()) {
+            ADDING_LIQUIDITY.log(limit.getSide().value(), limit.getOrderId(), limit.getPrice(), limit.getQuantity());
+        }
         if(limit.getSide().equals(Side.BUY)){
-            logger.info("[ORDERBOOK] Adding passive limit order to BID book" + limit);
             this.getBidBookSide().addLimitOrder(limit);
         }else{
-            logger.info("A[ORDERBOOK] dding passive limit order to ASK book" + limit);
             this.getAskBookSide().addLimitOrder(limit);
         }
     }
 
     public void onLimitOrder(final LimitOrderFlyweight limit) {
-        if(canMatch(limit.getSide(), limit.getPrice())){
-            matchOrder(limit);
-        }else{
-            addLiquidity(limit);
+        onLimitOrder(limit, TimeInForce.DAY);
+    }
+
+    public void onLimitOrder(final LimitOrderFlyweight limit, final TimeInForce timeInForce) {
+        pool.enter();
+        try {
+            final OrderBookSide otherSide = limit.getSide().equals(Side.BUY) ? getAskBookSide() : getBidBookSide();
+            final boolean canMatch = canMatch(limit.getSide(), limit.getPrice())
+                    && (timeInForce != TimeInForce.FOK || matchingEngine.canFill(limit, otherSide));
+
+            if(canMatch && matchOrder(limit) == 0){
+                pool.release(limit);
+            }else if(canMatch && matchingEngine.wasStoppedByOwnOrder()){
+                //resting it would cross its owner's order on the other side
+                if (CANCELLING_SELF_TRADE.isEnabled()) {
+                    CANCELLING_SELF_TRADE.log(limit.getOrderId(), limit.getQuantity());
+                }
+                orderChannel.publishCancelAck(limit);
+                pool.release(limit);
+            }else if(timeInForce == TimeInForce.IOC || timeInForce == TimeInForce.FOK){
+                //whatever is left of an IOC, or all of a FOK which could not fill, is cancelled rather than rested
+                if (CANCELLING_UNFILLED.isEnabled()) {
+                    CANCELLING_UNFILLED.log(limit.getOrderId(), limit.getQuantity());
+                }
+                orderChannel.publishCancelAck(limit);
+                pool.release(limit);
+            }else{
+                //whatever is left of an aggressive order rests on the book at its price
+                addLiquidity(limit);
+            }
+
+            publishBook();
+        } finally {
+            pool.exit();
         }
+    }
 
-        publishBook();
+    /**
+     * @param order from newLimitOrder, or newMarketOrder for a MARKET order.
+     * @param timeInForce DAY when it is not set, a MARKET order never rests so it is IOC unless it is FOK.
+     */
+    public void onOrder(final LimitOrderFlyweight order, final OrderType orderType, final TimeInForce timeInForce) {
+        if (orderType == OrderType.MARKET) {
+            onLimitOrder(order, timeInForce == TimeInForce.FOK ? TimeInForce.FOK : TimeInForce.IOC);
+        } else {
+            onLimitOrder(order, timeInForce == null || timeInForce == TimeInForce.NULL_VAL ? TimeInForce.DAY : timeInForce);
+        }
     }
 
     public void onCancelOrder(final long orderIdToCancel){
-        logger.info("[ORDERBOOK] Cancelling order (id=:" + orderIdToCancel + ")");
-        var cancelVisitor = new CancelOrderVisitor(orderIdToCancel);
-        getAskBookSide().accept(cancelVisitor);
-        getBidBookSide().accept(cancelVisitor);
-        publishBook();
+        if (CANCELLING.isEnabled()) {
+            CANCELLING.log(orderIdToCancel);
+        }
+        pool.enter();
+        try {
+            if(!getAskBookSide().cancelOrder(orderIdToCancel)){
+                getBidBookSide().cancelOrder(orderIdToCancel);
+            }
+            publishBook();
+        } finally {
+            pool.exit();
+        }
     }
 
 
     public void publishBook(){
         final var messageBuffer = getBookUpdateMessage();
-        marketDataChannel.publish(messageBuffer);
+        depth++;
+        try {
+            marketDataChannel.publish(messageBuffer);
+        } finally {
+            depth--;
+        }
     }
 
     public MutableDirectBuffer getBookUpdateMessage(){
-        mktDataVisitor.start();
-        getBidBookSide().accept(mktDataVisitor);
-        getAskBookSide().accept(mktDataVisitor);
+        mktDataVisitor.start(bookBuffers.at(depth));
+        //the update only needs each level's price and quantity, which the visitor reads when it visits the side, so
+        //the orders queued on each level are not walked, however deep they are
+        mktDataVisitor.visitSide(getBidBookSide());
+        mktDataVisitor.visitSide(getAskBookSide());
         return mktDataVisitor.end();
     }
 }
@@ -1,5 +1,6 @@
 package codingblackfemales.orderbook;
 
+import codingblackfemales.collection.intrusive.IntrusiveLinkedList;
 import codingblackfemales.collection.intrusive.IntrusiveLinkedListNode;
 import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
 import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
@@ -10,13 +11,24 @@ public class OrderBookLevel extends IntrusiveLinkedListNode<OrderBookLevel> {
     private long price;
     private long quantity;
 
-    private DefaultOrderFlyweight firstOrder;
-
+    //in the order they arrived, which is the order they fill in
+    private final IntrusiveLinkedList<DefaultOrderFlyweight> orders = new IntrusiveLinkedList<>();
 
     public OrderBookLevel() {
         super();
     }
 
+    /**
+     * Reuses this level for a new price, it must already have been removed from the book.
+     */
+    public OrderBookLevel set(final long price) {
+        resetLinks();
+        this.price = price;
+        this.quantity = 0;
+        this.orders.clear();
+        return this;
+    }
+
     public long getPrice() {
         return price;
     }
@@ -33,32 +45,78 @@ public class OrderBookLevel extends IntrusiveLinkedListNode<OrderBookLevel> {
         this.quantity = quantity;
     }
 
-    public void setFirstOrder(final DefaultOrderFlyweight order){
-        this.firstOrder = order;
+    /**
+     * Queues an order behind every order already at this level.
+     */
+    public void addOrder(final DefaultOrderFlyweight order){
+        orders.add(order);
+    }
+
+    /**
+     * Unlinks an order from wherever it is at this level, the book removes orders through OrderBookSide.removeOrder.
+     */
+    public void removeOrder(final DefaultOrderFlyweight order){
+        orders.remove(order);
     }
 
     public DefaultOrderFlyweight getFirstOrder(){
-        return this.firstOrder;
+        return orders.first();
     }
 
-    public void removeMarketDataOrder(){
-        var order = this.firstOrder;
+    public int getOrderCount(){
+        return orders.size();
+    }
+
+    /**
+     * @return the market data order resting on this level, there is at most one as market data is one size per price.
+     */
+    public MarketDataOrderFlyweight getMarketDataOrder(){
+        var order = orders.first();
         while(order != null){
             if(order instanceof MarketDataOrderFlyweight){
-                var marketDataOrder = (MarketDataOrderFlyweight) order;
-                this.firstOrder = marketDataOrder.remove();
+                return (MarketDataOrderFlyweight) order;
             }
             order = order.next();
         }
+        return null;
+    }
+
+    public void removeMarketDataOrder(){
+        var order = orders.first();
+        while(order != null){
+            final var next = order.next();
+            if(order instanceof MarketDataOrderFlyweight){
+                orders.remove(order);
+            }
+            order = next;
+        }
+    }
+
+    /**
+     * Visits just this level and not the orders queued on it, for a FilteringOrderBookVisitor which works on the level
+     * as a whole, so it costs the same however many orders are waiting here.
+     */
+    public void acceptLevel(OrderBookVisitor visitor, OrderBookSide side){
+        visitor.visitLevel(side, this);
+
+        if(orders.isEmpty()){
+            final DefaultOrderFlyweight firstOrder = visitor.onNoFirstOrder();
+            if(firstOrder != null){
+                orders.add(firstOrder);
+            }
+        }
     }
 
     public void accept(OrderBookVisitor visitor, OrderBookSide side){
         visitor.visitLevel(side, this);
 
-        DefaultOrderFlyweight order = firstOrder;
+        DefaultOrderFlyweight order = orders.first();
 
-        if(firstOrder == null){
-            firstOrder = visitor.onNoFirstOrder();
+        if(order == null){
+            final DefaultOrderFlyweight firstOrder = visitor.onNoFirstOrder();
+            if(firstOrder != null){
+                orders.add(firstOrder);
+            }
             return;
         }
 
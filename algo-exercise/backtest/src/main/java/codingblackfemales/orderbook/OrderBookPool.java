@@ -0,0 +1,112 @@
+package codingblackfemales.orderbook;
+
+import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
+import messages.order.Side;
+
+import java.util.Arrays;
+
+/**
+ * Recycles the order flyweights and levels of a book, so that a long backtest does not allocate for every level of
+ * every tick. Some features of this:
+ *
+ * 1) The book publishes fills and market data synchronously, so an algo can send a new order into the book while a
+ *    visitor is still walking it. Anything released inside an operation is therefore only handed out again once the
+ *    outermost operation has exited.
+ * 2) Released objects keep their links until they are handed out again, so a visitor moving on from a node it has
+ *    just removed still finds the rest of the list.
+ */
+public class OrderBookPool {
+
+    private final Slots<LimitOrderFlyweight> limitOrders = new Slots<>();
+    private final Slots<MarketDataOrderFlyweight> marketDataOrders = new Slots<>();
+    private final Slots<OrderBookLevel> levels = new Slots<>();
+
+    private int depth = 0;
+
+    public void enter() {
+        depth++;
+    }
+
+    public void exit() {
+        if (--depth == 0) {
+            limitOrders.recycle();
+            marketDataOrders.recycle();
+            levels.recycle();
+        }
+    }
+
+    public LimitOrderFlyweight limitOrder(final Side side, final long price, final long quantity, final long orderId) {
+        final LimitOrderFlyweight order = limitOrders.poll();
+        return order == null ? new LimitOrderFlyweight(side, price, quantity, orderId) : order.set(side, price, quantity, orderId);
+    }
+
+    public MarketDataOrderFlyweight marketDataOrder(final Side side, final long price, final long quantity) {
+        final MarketDataOrderFlyweight order = marketDataOrders.poll();
+        return order == null ? new MarketDataOrderFlyweight(side, price, quantity) : order.set(side, price, quantity);
+    }
+
+    public OrderBookLevel level(final long price) {
+        final OrderBookLevel level = levels.poll();
+        return level == null ? new OrderBookLevel().set(price) : level.set(price);
+    }
+
+    public void release(final DefaultOrderFlyweight order) {
+        if (order instanceof LimitOrderFlyweight) {
+            limitOrders.release((LimitOrderFlyweight) order, depth == 0);
+        } else if (order instanceof MarketDataOrderFlyweight) {
+            marketDataOrders.release((MarketDataOrderFlyweight) order, depth == 0);
+        }
+    }
+
+    public void release(final OrderBookLevel level) {
+        levels.release(level, depth == 0);
+    }
+
+    int available() {
+        return limitOrders.freeCount + marketDataOrders.freeCount + levels.freeCount;
+    }
+
+    private static final class Slots<TYPEOF> {
+
+        private Object[] free = new Object[16];
+        private Object[] pending = new Object[16];
+        private int freeCount = 0;
+        private int pendingCount = 0;
+
+        @SuppressWarnings("unchecked")
+        private TYPEOF poll() {
+            if (freeCount == 0) {
+                return null;
+            }
+            final TYPEOF item = (TYPEOF) free[--freeCount];
+            free[freeCount] = null;
+            return item;
+        }
+
+        private void release(final TYPEOF item, final boolean immediately) {
+            if (immediately) {
+                free = push(free, freeCount++, item);
+            } else {
+                pending = push(pending, pendingCount++, item);
+            }
+        }
+
+        private void recycle() {
+            for (int i = 0; i < pendingCount; i++) {
+                free = push(free, freeCount++, pending[i]);
+                pending[i] = null;
+            }
+            pendingCount = 0;
+        }
+
+        private static Object[] push(Object[] items, final int index, final Object item) {
+            if (index == items.length) {
+                items = Arrays.copyOf(items, index * 2);
+            }
+            items[index] = item;
+            return items;
+        }
+    }
+}
@@ -1,112 +1,279 @@
 package codingblackfemales.orderbook;
 
+import codingblackfemales.collection.extrusive.LongToObjMap;
+import codingblackfemales.collection.extrusive.Map;
+import codingblackfemales.collection.intrusive.IntrusiveLinkedList;
+import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
 import codingblackfemales.orderbook.order.LimitOrderFlyweight;
 import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
 import codingblackfemales.orderbook.visitor.FilteringOrderBookVisitor;
 import codingblackfemales.orderbook.visitor.MutatingAddOrderVisitor;
 import codingblackfemales.orderbook.visitor.MutatingRemoveAllMarketDataOrdersVisitor;
+import codingblackfemales.orderbook.visitor.MutatingRemoveStaleMarketDataOrdersVisitor;
 import codingblackfemales.orderbook.visitor.OrderBookVisitor;
+import codingblackfemales.sequencer.eventlog.EventLog;
+import messages.order.Side;
 
-import java.util.Comparator;
-
+/**
+ * One side of the book, the levels are an intrusive list ordered from the best price (the first level) down.
+ *
+ * A FilteringOrderBookVisitor is only interested in the level at its price, so it is taken straight to that level
+ * (or to the place a new level would go) and does not walk the orders on it, every other visitor walks every level. Finding the level is done by walking
+ * the list from the top here, subclasses can override findLevelAtOrBetter, insertLevel and removeLevel to index the
+ * levels by price instead, i.e. PriceIndexedAskBookSide.
+ *
+ * The side also keeps every resting limit order by orderId, and each order knows its level, so a cancel goes straight
+ * to the order without visiting the book. Orders must therefore leave a level through removeOrder, which also hands
+ * them (and any level left behind) back to the OrderBookPool.
+ *
+ * Market data is reconciled against the book one price at a time rather than rebuilt, a level whose size changed has
+ * its market data order resized in place, so limit orders queued around it keep their place.
+ */
 public abstract class OrderBookSide {
-    private OrderBookLevel firstLevel;
+
+    private static final EventLog.Event CANCELLING = EventLog.event(OrderBookSide.class, "[ORDERBOOK] Cancelling order: Limit(side={},orderId={},price={},quantity={})", EventLog.SIDE);
+
+    private final IntrusiveLinkedList<OrderBookLevel> levels = new IntrusiveLinkedList<>();
+    private final LongToObjMap<LimitOrderFlyweight> limitOrders = Map.longToObjMap();
+    private OrderBookPool pool = new OrderBookPool();
     private final MutatingAddOrderVisitor addOrderVisitor = new MutatingAddOrderVisitor();
 
     private final MutatingRemoveAllMarketDataOrdersVisitor removeMarketDataOrderVisitor = new MutatingRemoveAllMarketDataOrdersVisitor();
+    private final MutatingRemoveStaleMarketDataOrdersVisitor removeStaleMarketDataOrderVisitor = new MutatingRemoveStaleMarketDataOrdersVisitor();
+
+    private long marketDataUpdate = 0;
 
     public boolean canMatch(OrderBookSide side, long quantity, long price){
         return false;
     }
 
     public OrderBookLevel getFirstLevel() {
-        return firstLevel;
+        return levels.first();
     }
 
-    public void setFirstLevel(OrderBookLevel level) {
-        firstLevel = level;
+    public int getLevelCount() {
+        return levels.size();
     }
 
-    private final Comparator<Long> comparator;
+    public OrderBookPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Shares one pool between both sides of a book, flyweights move from one side to the other when they match.
+     */
+    void setPool(final OrderBookPool pool) {
+        this.pool = pool;
+    }
 
-    protected OrderBookSide(Comparator<Long> comparator) {
-        this.comparator = comparator;
+    public OrderBookLevel newLevel(final long price) {
+        return pool.level(price);
     }
 
+    /**
+     * @return true if price sits in front of (is more aggressive than) the other price on this side of the book.
+     */
+    protected abstract boolean isBetterPrice(long price, long other);
+
+    /**
+     * @return the side orders resting on this side of the book are on, i.e. SELL for the ask side.
+     */
+    public abstract Side getSide();
+
     public void accept(final OrderBookVisitor visitor){
+        pool.enter();
+        try {
+            visitor.visitSide(this);
 
-        visitor.visitSide(this);
+            if (visitor instanceof FilteringOrderBookVisitor) {
+                acceptAtPrice(visitor, ((FilteringOrderBookVisitor) visitor).getPrice());
+                return;
+            }
 
-        var levelToVisit = getFirstLevel();
+            var levelToVisit = getFirstLevel();
 
-        //are we the first level...
-        if(isNewFirstLevel(levelToVisit, visitor)){
-            OrderBookLevel level = visitor.onNoFirstLevel();
-            if(level != null) {
-                level.next(levelToVisit);
-                setFirstLevel(level);
-                level.accept(visitor, this);
+            while(levelToVisit != null){
+                levelToVisit.accept(visitor, this);
+                levelToVisit = levelToVisit.next();
             }
+        } finally {
+            pool.exit();
+        }
+    }
+
+    private void acceptAtPrice(final OrderBookVisitor visitor, final long price) {
+        final OrderBookLevel previous = findLevelAtOrBetter(price);
+
+        if (previous != null && previous.getPrice() == price) {
+            previous.acceptLevel(visitor, this);
             return;
-        }else {
-            visitOneLevel(visitor, levelToVisit, levelToVisit.next());
         }
 
-        levelToVisit = levelToVisit.next();
+        final OrderBookLevel next = previous == null ? getFirstLevel() : previous.next();
+        final OrderBookLevel level = previous == null ? visitor.onNoFirstLevel() : visitor.missingBookLevel(previous, next, price);
 
-        while(levelToVisit != null){
-            visitOneLevel(visitor, levelToVisit, levelToVisit.next());
-            levelToVisit = levelToVisit.next();
+        if (level != null) {
+            insertLevel(previous, level, next);
+            level.acceptLevel(visitor, this);
         }
     }
 
-    private void visitOneLevel(final OrderBookVisitor visitor, OrderBookLevel levelToVisit, OrderBookLevel nextLevel) {
-        if (visitor instanceof FilteringOrderBookVisitor) {
+    /**
+     * @return the deepest level whose price is the same as or better than price, or null when price would be a new
+     *         first level.
+     */
+    protected OrderBookLevel findLevelAtOrBetter(final long price) {
+        OrderBookLevel previous = null;
+        OrderBookLevel level = getFirstLevel();
 
-            long priceToFind = ((FilteringOrderBookVisitor) visitor).getPrice();
+        while (level != null && !isBetterPrice(price, level.getPrice())) {
+            previous = level;
+            level = level.next();
+        }
 
-            if (priceToFind == levelToVisit.getPrice()) {
-                levelToVisit.accept(visitor, this);
-            } else if (isBetweenLevels(levelToVisit, nextLevel, priceToFind)) {
-                visitor.missingBookLevel(levelToVisit, nextLevel, priceToFind);
-            } else if (isNewDeepestLevel(levelToVisit, nextLevel, priceToFind)) {
-                OrderBookLevel level = visitor.missingBookLevel(levelToVisit, nextLevel, priceToFind);
-                levelToVisit.last().add(level);
-            }
-        }else{
-            levelToVisit.accept(visitor, this);
+        return previous;
+    }
+
+    /**
+     * Links a new level in between previous and next, either of which can be null at the top or bottom of the book.
+     */
+    protected void insertLevel(final OrderBookLevel previous, final OrderBookLevel level, final OrderBookLevel next) {
+        if (next != null) {
+            levels.insertBefore(next, level);
+        } else {
+            levels.add(level);
         }
     }
 
-    MutatingAddOrderVisitor getAddOrderVisitor() {
-        return addOrderVisitor;
+    /**
+     * Unlinks a level, visitors must remove levels through here rather than unlinking them themselves.
+     */
+    public void removeLevel(final OrderBookLevel level) {
+        levels.remove(level);
+        pool.release(level);
     }
 
-    boolean isNewFirstLevel(OrderBookLevel currentFirst, OrderBookVisitor visitor) {
-        if(currentFirst == null) {
-            return true;
+    /**
+     * Unlinks an order from its level, visitors must remove orders through here rather than calling
+     * level.removeOrder() themselves. The level quantity is left to the caller.
+     */
+    public void removeOrder(final OrderBookLevel level, final DefaultOrderFlyweight order) {
+        level.removeOrder(order);
+        order.setLevel(null);
+        if (order instanceof LimitOrderFlyweight) {
+            limitOrders.remove(((LimitOrderFlyweight) order).getOrderId());
         }
+        pool.release(order);
+    }
 
-        if( visitor instanceof FilteringOrderBookVisitor) {
-            return comparator.compare(((FilteringOrderBookVisitor) visitor).getPrice(), currentFirst.getPrice()) == -1;
-        } else {
+    /**
+     * Removes a resting limit order from the book, dropping its level if nothing else is left on it.
+     *
+     * @return false if there is no such order resting on this side.
+     */
+    public boolean cancelOrder(final long orderId) {
+        final LimitOrderFlyweight limit = limitOrders.get(orderId);
+
+        if (limit == null) {
             return false;
         }
-    }
 
-    boolean isBetweenLevels(OrderBookLevel previous, OrderBookLevel next, long price){
-        return previous != null && next != null && comparator.compare(previous.getPrice(), price) == -1 && comparator.compare(next.getPrice() , price) == 1;
+        if (CANCELLING.isEnabled()) {
+            CANCELLING.log(limit.getSide().value(), limit.getOrderId(), limit.getPrice(), limit.getQuantity());
+        }
+
+        pool.enter();
+        try {
+            final OrderBookLevel level = limit.getLevel();
+            level.setQuantity(level.getQuantity() - limit.getQuantity());
+            removeOrder(level, limit);
+
+            if (level.getFirstOrder() == null) {
+                removeLevel(level);
+            }
+        } finally {
+            pool.exit();
+        }
+
+        return true;
     }
 
-    boolean isNewDeepestLevel(OrderBookLevel previous, OrderBookLevel next, long price){
-        return previous != null && next == null && comparator.compare(previous.getPrice(), price) == -1;
+    public LimitOrderFlyweight getLimitOrder(final long orderId) {
+        return limitOrders.get(orderId);
     }
 
+    MutatingAddOrderVisitor getAddOrderVisitor() {
+        return addOrderVisitor;
+    }
 
     void removeMarketDataOrders(){
         this.accept(removeMarketDataOrderVisitor);
     }
 
+    /**
+     * Starts reconciling this side against a new market data snapshot, each level of it is then passed to
+     * updateMarketDataOrder and endMarketDataUpdate removes whatever the snapshot no longer has.
+     */
+    void beginMarketDataUpdate(){
+        marketDataUpdate++;
+    }
+
+    /**
+     * Sets the market data size at a price, resizing the market data order already there rather than replacing it.
+     */
+    void updateMarketDataOrder(final long price, final long quantity){
+        if (quantity <= 0) {
+            //left for endMarketDataUpdate to remove
+            return;
+        }
+
+        final OrderBookLevel level = findLevelAtOrBetter(price);
+        final MarketDataOrderFlyweight existing = level != null && level.getPrice() == price ? level.getMarketDataOrder() : null;
+
+        if (existing != null) {
+            level.setQuantity(level.getQuantity() - existing.getQuantity() + quantity);
+            existing.setQuantity(quantity);
+            existing.setUpdate(marketDataUpdate);
+        } else {
+            final MarketDataOrderFlyweight order = pool.marketDataOrder(getSide(), price, quantity);
+            order.setUpdate(marketDataUpdate);
+            addMarketDataOrder(order);
+        }
+    }
+
+    /**
+     * Removes the market data at a price, leaving any limit orders there in place. Nothing happens if there is none.
+     */
+    void removeMarketDataOrder(final long price){
+        final OrderBookLevel level = findLevelAtOrBetter(price);
+        final MarketDataOrderFlyweight existing = level != null && level.getPrice() == price ? level.getMarketDataOrder() : null;
+
+        if (existing == null) {
+            return;
+        }
+
+        pool.enter();
+        try {
+            level.setQuantity(level.getQuantity() - existing.getQuantity());
+            removeOrder(level, existing);
+
+            if (level.getFirstOrder() == null) {
+                removeLevel(level);
+            }
+        } finally {
+            pool.exit();
+        }
+    }
+
+    /**
+     * Removes the market data orders which were not in the snapshot since beginMarketDataUpdate, along with any
+     * levels left empty.
+     */
+    void endMarketDataUpdate(){
+        removeStaleMarketDataOrderVisitor.setUpdate(marketDataUpdate);
+        this.accept(removeStaleMarketDataOrderVisitor);
+    }
+
     void addMarketDataOrder(MarketDataOrderFlyweight order){
         this.getAddOrderVisitor().setOrderToAdd(order);
         this.accept(this.getAddOrderVisitor());
@@ -115,6 +282,7 @@ public abstract class OrderBookSide {
     void addLimitOrder(LimitOrderFlyweight order){
         this.getAddOrderVisitor().setOrderToAdd(order);
         this.accept(this.getAddOrderVisitor());
+        limitOrders.put(order.getOrderId(), order);
     }
 
 }
@@ -0,0 +1,27 @@
+package codingblackfemales.orderbook;
+
+/**
+ * An AskBookSide which finds the level for a price by binary search over a PriceLevelIndex rather than by walking
+ * down from the first level, so adding at any depth of a deep book is O(log n).
+ */
+public class PriceIndexedAskBookSide extends AskBookSide {
+
+    private final PriceLevelIndex index = new PriceLevelIndex(true);
+
+    @Override
+    protected OrderBookLevel findLevelAtOrBetter(final long price) {
+        return index.levelAtOrBetter(price);
+    }
+
+    @Override
+    protected void insertLevel(final OrderBookLevel previous, final OrderBookLevel level, final OrderBookLevel next) {
+        super.insertLevel(previous, level, next);
+        index.insert(level);
+    }
+
+    @Override
+    public void removeLevel(final OrderBookLevel level) {
+        index.remove(level);
+        super.removeLevel(level);
+    }
+}
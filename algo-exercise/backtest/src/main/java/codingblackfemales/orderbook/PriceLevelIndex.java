@@ -0,0 +1,96 @@
+package codingblackfemales.orderbook;
+
+import java.util.Arrays;
+
+/**
+ * A sorted array of the prices on one side of the book with the level at each price, used by the price indexed sides
+ * to find a level by binary search rather than by walking the list. Some features of this:
+ *
+ * 1) Prices are stored as keys which sort the worst price first and the best price last, so the levels near the
+ *    touch, where most of the adds and removes happen, are at the end of the array and cost the least to shift.
+ * 2) It only grows, a book that has once been 1000 levels deep keeps its arrays.
+ */
+class PriceLevelIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final boolean bestIsLowest;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private OrderBookLevel[] levels = new OrderBookLevel[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * @param bestIsLowest true for the ask side, where the lowest price is the best.
+     */
+    PriceLevelIndex(final boolean bestIsLowest) {
+        this.bestIsLowest = bestIsLowest;
+    }
+
+    private long keyOf(final long price) {
+        return bestIsLowest ? -price : price;
+    }
+
+    /**
+     * @return the index of the first key which is equal to or greater than key, size if there isn't one.
+     */
+    private int lowerBound(final long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the deepest level with a price the same as or better than price, null if there isn't one.
+     */
+    OrderBookLevel levelAtOrBetter(final long price) {
+        final int index = lowerBound(keyOf(price));
+        return index == size ? null : levels[index];
+    }
+
+    void insert(final OrderBookLevel level) {
+        final long key = keyOf(level.getPrice());
+        final int index = lowerBound(key);
+
+        if (index < size && keys[index] == key) {
+            throw new IllegalStateException(String.format("Book already has a level at price=[%d]", level.getPrice()));
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            levels = Arrays.copyOf(levels, size * 2);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(levels, index, levels, index + 1, size - index);
+        keys[index] = key;
+        levels[index] = level;
+        size++;
+    }
+
+    void remove(final OrderBookLevel level) {
+        final long key = keyOf(level.getPrice());
+        final int index = lowerBound(key);
+
+        if (index == size || levels[index] != level) {
+            return;
+        }
+
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(levels, index + 1, levels, index, size - index - 1);
+        size--;
+        levels[size] = null;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -1,13 +1,12 @@
 package codingblackfemales.orderbook.channel;
 
 import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.eventlog.EventLog;
 import org.agrona.DirectBuffer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class MarketDataChannel {
 
-    private static final Logger logger = LoggerFactory.getLogger(MarketDataChannel.class);
+    private static final EventLog.Event SENDING = EventLog.event(MarketDataChannel.class, "[ORDERBOOK] Sending market data update...");
 
     private final Sequencer sequencer;
 
@@ -16,7 +15,9 @@ public class MarketDataChannel {
     }
 
     public void publish(DirectBuffer buffer){
-        logger.info("[ORDERBOOK] Sending market data update...");
+        if (SENDING.isEnabled()) {
+            SENDING.log();
+        }
         sequencer.onCommand(buffer);
     }
 }
@@ -2,42 +2,105 @@ package codingblackfemales.orderbook.channel;
 
 import codingblackfemales.orderbook.order.LimitOrderFlyweight;
 import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.eventlog.EventLog;
+import codingblackfemales.sequencer.util.NestedBuffers;
+import messages.order.CancelAckedOrderEncoder;
 import messages.order.FillOrderEncoder;
 import messages.order.MessageHeaderEncoder;
+import messages.order.PartialFillOrderEncoder;
 import org.agrona.concurrent.UnsafeBuffer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 
+/**
+ * Publishes fills and cancel acks back through the sequencer. The algo can react to a fill with a new order that
+ * fills straight away, so fills nest and each level of that nesting encodes into its own buffer.
+ *
+ * A fill which leaves the order with quantity still to fill is sent as a PartialFillOrder, the one which completes it
+ * as a FillOrder. An order the book cancels itself, i.e. what is left of an IOC, is sent as a CancelAckedOrder.
+ */
 public class OrderChannel {
 
-    private static final Logger logger = LoggerFactory.getLogger(OrderChannel.class);
+    private static final EventLog.Event PUBLISHING_FILL = EventLog.event(OrderChannel.class,
+            "[ORDERBOOK] publishing fill to stream: FillOrder(orderId={}|quantity={}|price={})");
+    private static final EventLog.Event PUBLISHING_PARTIAL_FILL = EventLog.event(OrderChannel.class,
+            "[ORDERBOOK] publishing fill to stream: PartialFillOrder(orderId={}|quantity={}|price={}|leaves={})");
+    private static final EventLog.Event PUBLISHING_CANCEL_ACK = EventLog.event(OrderChannel.class,
+            "[ORDERBOOK] publishing cancel ack to stream: CancelAckedOrder(orderId={}|cancelled={})");
 
     private final Sequencer sequencer;
 
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final FillOrderEncoder fillEncoder = new FillOrderEncoder();
+    private final PartialFillOrderEncoder partialFillEncoder = new PartialFillOrderEncoder();
+    private final CancelAckedOrderEncoder cancelAckEncoder = new CancelAckedOrderEncoder();
+
+    private final NestedBuffers<UnsafeBuffer> buffers = new NestedBuffers<>(() -> new UnsafeBuffer(ByteBuffer.allocateDirect(1024)));
+    private int depth = 0;
+
     public OrderChannel(Sequencer sequencer) {
         this.sequencer = sequencer;
     }
 
+    /**
+     * @param limit the order filled, with its quantity already reduced by this fill.
+     */
     public void publishFill(final long fillQuantity, final long price, final LimitOrderFlyweight limit){
 
-        final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(1024);
-        final UnsafeBuffer directBuffer = new UnsafeBuffer(byteBuffer);
-        final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+        final UnsafeBuffer directBuffer = buffer();
 
-        final FillOrderEncoder fillEncoder = new FillOrderEncoder();
         //write the encoded output to the direct buffer
-        fillEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+        if (limit.getQuantity() > 0) {
+            partialFillEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder)
+                    .orderId(limit.getOrderId())
+                    .quantity(fillQuantity)
+                    .price(price);
+
+            if (PUBLISHING_PARTIAL_FILL.isEnabled()) {
+                PUBLISHING_PARTIAL_FILL.log(limit.getOrderId(), fillQuantity, price, limit.getQuantity());
+            }
+        } else {
+            fillEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
 
+            fillEncoder.orderId(limit.getOrderId());
+            fillEncoder.quantity(fillQuantity);
+            fillEncoder.price(price);
+
+            if (PUBLISHING_FILL.isEnabled()) {
+                PUBLISHING_FILL.log(limit.getOrderId(), fillQuantity, price);
+            }
+        }
+
+        publish(directBuffer);
+    }
 
-        fillEncoder.orderId(limit.getOrderId());
-        fillEncoder.quantity(fillQuantity);
-        fillEncoder.price(price);
+    /**
+     * @param limit the order cancelled, with the quantity which was left on it.
+     */
+    public void publishCancelAck(final LimitOrderFlyweight limit){
+        final UnsafeBuffer directBuffer = buffer();
 
-        logger.info("[ORDERBOOK] publishing fill to stream: " + fillEncoder);
+        cancelAckEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder)
+                .orderId(limit.getOrderId());
+
+        if (PUBLISHING_CANCEL_ACK.isEnabled()) {
+            PUBLISHING_CANCEL_ACK.log(limit.getOrderId(), limit.getQuantity());
+        }
+
+        publish(directBuffer);
+    }
+
+    private UnsafeBuffer buffer() {
+        return buffers.at(depth);
+    }
 
-        this.sequencer.onCommand(directBuffer);
+    private void publish(final UnsafeBuffer directBuffer) {
+        depth++;
+        try {
+            this.sequencer.onCommand(directBuffer);
+        } finally {
+            depth--;
+        }
     }
 
 }
@@ -1,7 +1,7 @@
 package codingblackfemales.orderbook.consumer;
 
 import codingblackfemales.orderbook.OrderBook;
-import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.sequencer.latency.Latency;
 import codingblackfemales.sequencer.event.OrderEventListener;
 import messages.order.*;
 import org.slf4j.Logger;
@@ -11,17 +11,38 @@ public class OrderBookInboundOrderConsumer extends OrderEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderBookInboundOrderConsumer.class);
 
+    /**
+     * The owner of the orders the algo sends, which all come in through this consumer.
+     */
+    public static final long ALGO_OWNER = 1L;
+
     private final OrderBook book;
+    private final long owner;
 
     public OrderBookInboundOrderConsumer(OrderBook book) {
+        this(book, ALGO_OWNER);
+    }
+
+    /**
+     * @param owner marks every order this consumer adds to the book, so the book never matches them with each other.
+     */
+    public OrderBookInboundOrderConsumer(OrderBook book, long owner) {
         this.book = book;
+        this.owner = owner;
     }
 
     @Override
     public void onCreateOrder(CreateOrderDecoder create) {
-        final var limit = new LimitOrderFlyweight(create.side(), create.price(), create.quantity(), create.orderId());
-        //logger.info("Adding limit Order:" + limit + " to book");
-        book.onLimitOrder(limit);
+        final OrderType orderType = create.orderType();
+        final var order = orderType == OrderType.MARKET
+                ? book.newMarketOrder(create.side(), create.quantity(), create.orderId())
+                : book.newLimitOrder(create.side(), create.price(), create.quantity(), create.orderId());
+        order.setOwner(owner);
+        //logger.info("Adding order:" + order + " to book");
+        book.onOrder(order, orderType, create.timeInForce());
+        if (Latency.isEnabled()) {
+            Latency.record(Latency.Stage.MATCH, originTimestamp());
+        }
     }
 
     @Override
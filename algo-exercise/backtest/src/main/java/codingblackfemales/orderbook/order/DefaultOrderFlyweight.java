@@ -7,6 +7,8 @@ import messages.order.Side;
 
 public class DefaultOrderFlyweight extends ParentOrderFlyweight<DefaultOrderFlyweight>{
 
+    private OrderBookLevel level;
+
     @Override
     public void accept(OrderBookVisitor visitor, OrderBookSide side, OrderBookLevel level, boolean isLast) {
         visitor.visitOrder(this, side, level, isLast);
@@ -14,6 +16,17 @@ public class DefaultOrderFlyweight extends ParentOrderFlyweight<DefaultOrderFlyw
 
     public void setQuantity(long quantity){}
 
+    /**
+     * @return the level this order is resting on, null once it has been removed from the book.
+     */
+    public OrderBookLevel getLevel() {
+        return level;
+    }
+
+    public void setLevel(final OrderBookLevel level) {
+        this.level = level;
+    }
+
 
     public Side getSide() {
         return null;
@@ -4,10 +4,16 @@ import messages.order.Side;
 
 public class LimitOrderFlyweight extends DefaultOrderFlyweight {
 
+    /**
+     * An order with no owner, i.e. one put straight on the book in a test, never counts as trading with itself.
+     */
+    public static final long NO_OWNER = 0L;
+
     private Side side;
     private long price;
     private long quantity;
     private long orderId;
+    private long owner = NO_OWNER;
 
     public LimitOrderFlyweight(Side side, long price, long quantity, long orderId) {
         this.side = side;
@@ -16,6 +22,36 @@ public class LimitOrderFlyweight extends DefaultOrderFlyweight {
         this.orderId = orderId;
     }
 
+    /**
+     * Reuses this flyweight for a new order, it must already have been removed from the book.
+     */
+    public LimitOrderFlyweight set(final Side side, final long price, final long quantity, final long orderId) {
+        resetLinks();
+        setLevel(null);
+        this.side = side;
+        this.price = price;
+        this.quantity = quantity;
+        this.orderId = orderId;
+        this.owner = NO_OWNER;
+        return this;
+    }
+
+    /**
+     * @param owner whoever sent the order into the book, two orders with the same owner are never matched.
+     */
+    public LimitOrderFlyweight setOwner(final long owner) {
+        this.owner = owner;
+        return this;
+    }
+
+    public long getOwner() {
+        return owner;
+    }
+
+    public boolean isSameOwner(final LimitOrderFlyweight other) {
+        return owner != NO_OWNER && owner == other.owner;
+    }
+
     public Side getSide() {
         return side;
     }
@@ -8,12 +8,38 @@ public class MarketDataOrderFlyweight extends DefaultOrderFlyweight {
 
     private Side side;
 
+    private long update;
+
     public MarketDataOrderFlyweight(Side side, long price, long quantity) {
         this.side = side;
         this.price = price;
         this.quantity = quantity;
     }
 
+    /**
+     * Reuses this flyweight for a new order, it must already have been removed from the book.
+     */
+    public MarketDataOrderFlyweight set(final Side side, final long price, final long quantity) {
+        resetLinks();
+        setLevel(null);
+        this.side = side;
+        this.price = price;
+        this.quantity = quantity;
+        this.update = 0;
+        return this;
+    }
+
+    /**
+     * @return the market data update this order was last seen in, see OrderBookSide.beginMarketDataUpdate().
+     */
+    public long getUpdate() {
+        return update;
+    }
+
+    public void setUpdate(final long update) {
+        this.update = update;
+    }
+
     @Override
     public Side getSide() {
         return side;
@@ -4,12 +4,11 @@ import codingblackfemales.orderbook.OrderBookLevel;
 import codingblackfemales.orderbook.OrderBookSide;
 import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
 import codingblackfemales.orderbook.order.LimitOrderFlyweight;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import codingblackfemales.sequencer.eventlog.EventLog;
 
 public class CancelOrderVisitor implements OrderBookVisitor{
 
-    private Logger logger = LoggerFactory.getLogger(CancelOrderVisitor.class);
+    private static final EventLog.Event CANCELLING = EventLog.event(CancelOrderVisitor.class, "[ORDERBOOK] Cancelling order: Limit(side={},orderId={},price={},quantity={})", EventLog.SIDE);
 
     private final long orderId;
 
@@ -30,8 +29,10 @@ public class CancelOrderVisitor implements OrderBookVisitor{
         if(order instanceof LimitOrderFlyweight){
             LimitOrderFlyweight limit = (LimitOrderFlyweight) order;
             if(limit.getOrderId() == orderId){
-                logger.info("[ORDERBOOK] Cancelling order: " + limit);
-                level.setFirstOrder(limit.remove());
+                if (CANCELLING.isEnabled()) {
+                    CANCELLING.log(limit.getSide().value(), limit.getOrderId(), limit.getPrice(), limit.getQuantity());
+                }
+                side.removeOrder(level, limit);
                 level.setQuantity(level.getQuantity() - limit.getQuantity());
             }
         }
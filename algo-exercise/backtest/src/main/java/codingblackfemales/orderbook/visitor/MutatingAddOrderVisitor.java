@@ -4,14 +4,14 @@ import codingblackfemales.orderbook.OrderBookLevel;
 import codingblackfemales.orderbook.OrderBookSide;
 import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
 import codingblackfemales.orderbook.order.Order;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import codingblackfemales.sequencer.eventlog.EventLog;
 
 public class MutatingAddOrderVisitor implements OrderBookVisitor,FilteringOrderBookVisitor{
 
-    private static final Logger logger = LoggerFactory.getLogger(MutatingAddOrderVisitor.class);
+    private static final EventLog.Event ADDING = EventLog.event(MutatingAddOrderVisitor.class, "[ORDERBOOK] + {} {} @ {}", EventLog.SIDE);
 
     private DefaultOrderFlyweight orderToAdd;
+    private OrderBookSide side;
 
     public Order getOrderToAdd() {
         return orderToAdd;
@@ -22,39 +22,37 @@ public class MutatingAddOrderVisitor implements OrderBookVisitor,FilteringOrderB
     }
 
     @Override
-    public void visitSide(OrderBookSide side) {}
+    public void visitSide(OrderBookSide side) {
+        this.side = side;
+    }
 
     @Override
     public void visitLevel(OrderBookSide side, OrderBookLevel level) {
         level.setQuantity(level.getQuantity() + orderToAdd.getQuantity());
+        orderToAdd.setLevel(level);
+        if (ADDING.isEnabled()) {
+            ADDING.log(orderToAdd.getSide().value(), orderToAdd.getQuantity(), orderToAdd.getPrice());
+        }
+        //the level holds its last order, so joining the back of the queue does not walk it
+        level.addOrder(orderToAdd);
     }
 
     @Override
-    public void visitOrder(DefaultOrderFlyweight order, OrderBookSide side, OrderBookLevel level, boolean isLast) {
-        if(order.getPrice() == orderToAdd.getPrice() && isLast){
-            logger.info("[ORDERBOOK] + " +order);
-            order.add(orderToAdd);
-        }
-    }
+    public void visitOrder(DefaultOrderFlyweight order, OrderBookSide side, OrderBookLevel level, boolean isLast) {}
 
     @Override
     public DefaultOrderFlyweight onNoFirstOrder() {
-        return orderToAdd;
+        return null;
     }
 
     @Override
     public OrderBookLevel missingBookLevel(OrderBookLevel previous, OrderBookLevel next, long price) {
-        OrderBookLevel level = new OrderBookLevel();
-        level.setPrice(price);
-        return level;
+        return side.newLevel(price);
     }
 
     @Override
     public OrderBookLevel onNoFirstLevel() {
-        OrderBookLevel level = new OrderBookLevel();
-        level.setPrice(orderToAdd.getPrice());
-        level.setQuantity(0);
-        return level;
+        return side.newLevel(orderToAdd.getPrice());
     }
 
     @Override
@@ -4,30 +4,43 @@ import codingblackfemales.orderbook.OrderBookLevel;
 import codingblackfemales.orderbook.OrderBookSide;
 import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
 import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import codingblackfemales.sequencer.eventlog.EventLog;
 
+/**
+ * Removes market data orders from every level, taking their quantity off the level and dropping any level left with
+ * no orders on it.
+ */
 public class MutatingRemoveAllMarketDataOrdersVisitor implements OrderBookVisitor{
 
-    private static final Logger logger = LoggerFactory.getLogger(MutatingRemoveAllMarketDataOrdersVisitor.class);
+    private static final EventLog.Event REMOVING_ORDER = EventLog.event(MutatingRemoveAllMarketDataOrdersVisitor.class,
+            "[ORDERBOOK] Removing market data order:MktData(price={},quantity={})");
+    private static final EventLog.Event REMOVING_LEVEL = EventLog.event(MutatingRemoveAllMarketDataOrdersVisitor.class,
+            "[ORDERBOOK] Removing level:{}");
 
     @Override
     public void visitLevel(OrderBookSide side, OrderBookLevel level) {}
 
     @Override
     public void visitOrder(DefaultOrderFlyweight order, OrderBookSide side, OrderBookLevel level, boolean isLast) {
-        if(order instanceof MarketDataOrderFlyweight){
-            DefaultOrderFlyweight newFirst = order.remove();
-            level.setFirstOrder(newFirst);
-            logger.info("[ORDERBOOK] Removing market data order:" + order);
-            if(level.getQuantity() - order.getQuantity() == 0){
-                logger.info("[ORDERBOOK] Removing level:" + level.getPrice());
-                OrderBookLevel newFirstLevel = level.remove();
-                side.setFirstLevel(newFirstLevel);
+        if(order instanceof MarketDataOrderFlyweight && shouldRemove((MarketDataOrderFlyweight) order)){
+            side.removeOrder(level, order);
+            level.setQuantity(level.getQuantity() - order.getQuantity());
+            if (REMOVING_ORDER.isEnabled()) {
+                REMOVING_ORDER.log(order.getPrice(), order.getQuantity());
+            }
+            if(level.getFirstOrder() == null){
+                if (REMOVING_LEVEL.isEnabled()) {
+                    REMOVING_LEVEL.log(level.getPrice());
+                }
+                side.removeLevel(level);
             }
         }
     }
 
+    protected boolean shouldRemove(final MarketDataOrderFlyweight order) {
+        return true;
+    }
+
     @Override
     public OrderBookLevel missingBookLevel(OrderBookLevel previous, OrderBookLevel next, long price) {
         return null;
@@ -0,0 +1,21 @@
+package codingblackfemales.orderbook.visitor;
+
+import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
+
+/**
+ * Removes the market data orders which were not part of the latest market data update, see
+ * OrderBookSide.beginMarketDataUpdate().
+ */
+public class MutatingRemoveStaleMarketDataOrdersVisitor extends MutatingRemoveAllMarketDataOrdersVisitor {
+
+    private long update;
+
+    public void setUpdate(final long update) {
+        this.update = update;
+    }
+
+    @Override
+    protected boolean shouldRemove(final MarketDataOrderFlyweight order) {
+        return order.getUpdate() != update;
+    }
+}
@@ -11,8 +11,6 @@ import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.ByteBuffer;
-
 public class ReadOnlyMarketDataChannelPublishVisitor implements OrderBookVisitor {
 
     private static final Logger logger = LoggerFactory.getLogger(ReadOnlyMarketDataChannelPublishVisitor.class);
@@ -20,12 +18,13 @@ public class ReadOnlyMarketDataChannelPublishVisitor implements OrderBookVisitor
     private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
     private final BookUpdateEncoder encoder = new BookUpdateEncoder();
 
-    private ByteBuffer byteBuffer; //= ByteBuffer.allocateDirect(1024);
-    private UnsafeBuffer directBuffer; //= new UnsafeBuffer(byteBuffer);
+    private UnsafeBuffer directBuffer;
 
-    public void start(){
-        byteBuffer = ByteBuffer.allocateDirect(1024);
-        directBuffer = new UnsafeBuffer(byteBuffer);
+    /**
+     * Starts encoding a book update into the given buffer, the caller owns it and decides when it can be reused.
+     */
+    public void start(final UnsafeBuffer buffer){
+        directBuffer = buffer;
 
         encoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
         //set the fields to desired valus
@@ -50,12 +49,16 @@ public class ReadOnlyMarketDataChannelPublishVisitor implements OrderBookVisitor
                 return;
             }
 
-            final var size = side.getFirstLevel().size();
-            logger.debug("Bid Side Size: " + size);
+            final var size = side.getLevelCount();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Bid Side Size: " + size);
+            }
             var bidBookEncoder = encoder.bidBookCount(size);
             OrderBookLevel level = side.getFirstLevel();
             for(int i=0; i< size; i++){
-                logger.debug("Adding Mkt Data Msg BID: Price=" + level.getPrice() + " Qty=" + level.getQuantity());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Adding Mkt Data Msg BID: Price=" + level.getPrice() + " Qty=" + level.getQuantity());
+                }
                 bidBookEncoder.next().size(level.getQuantity()).price(level.getPrice()) ;
                 level = level.next();
             }
@@ -63,13 +66,17 @@ public class ReadOnlyMarketDataChannelPublishVisitor implements OrderBookVisitor
             if(side.getFirstLevel() == null){
                 return;
             }
-            final var size = side.getFirstLevel().size();
-            logger.debug("Ask Side Size: " + size);
+            final var size = side.getLevelCount();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Ask Side Size: " + size);
+            }
             var askBookEncoder = encoder.askBookCount(size);
             OrderBookLevel level = side.getFirstLevel();
 
             for(int i=0; i< size; i++){
-                logger.debug("Adding Mkt Data Msg ASK: Price=" + level.getPrice() + " Qty=" + level.getQuantity());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Adding Mkt Data Msg ASK: Price=" + level.getPrice() + " Qty=" + level.getQuantity());
+                }
                 askBookEncoder.next().size(level.getQuantity()).price(level.getPrice()) ;
                 level = level.next();
             }
@@ -0,0 +1,145 @@
+package codingblackfemales.backtest;
+
+import codingblackfemales.action.ActionBatch;
+import codingblackfemales.action.NoAction;
+import codingblackfemales.container.Actioner;
+import codingblackfemales.container.AlgoContainer;
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.orderbook.OrderBook;
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.consumer.OrderBookInboundOrderConsumer;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.marketdata.SequencerTestCase;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.service.MarketDataService;
+import codingblackfemales.service.OrderService;
+import messages.marketdata.*;
+import messages.order.CreateOrderDecoder;
+import messages.order.FillOrderDecoder;
+import messages.order.PartialFillOrderDecoder;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * An algo which sends a batch of orders that cross the spread, into the real book, so the book fills the first of
+ * them while the rest of the batch is still being sequenced.
+ */
+public class ActionBatchBackTest extends SequencerTestCase {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder encoder = new BookUpdateEncoder();
+
+    private final ActionBatch batch = new ActionBatch();
+
+    //every message on the wire after the first tick, with its sequencer number
+    private final List<String> sequenced = new ArrayList<>();
+
+    private AlgoContainer container;
+
+    @Override
+    public Sequencer getSequencer() {
+        final TestNetwork network = new TestNetwork();
+        final Sequencer sequencer = new DefaultSequencer(network);
+
+        final RunTrigger runTrigger = new RunTrigger();
+        final Actioner actioner = new Actioner(sequencer);
+
+        final OrderBook book = new OrderBook(new MarketDataChannel(sequencer), new OrderChannel(sequencer));
+
+        container = new AlgoContainer(new MarketDataService(runTrigger), new OrderService(runTrigger), runTrigger, actioner);
+        //buys all of the three ask levels at once, the first time it sees the book
+        container.setLogic(state -> {
+            if (!state.getChildOrders().isEmpty()) {
+                return NoAction.NoAction;
+            }
+            return batch.clear()
+                    .createChildOrder(Side.BUY, 100, state.getAskAt(0).getPrice())
+                    .createChildOrder(Side.BUY, 100, state.getAskAt(1).getPrice())
+                    .createChildOrder(Side.BUY, 100, state.getAskAt(2).getPrice());
+        });
+
+        network.addConsumer(book);
+        network.addConsumer(container.getMarketDataService());
+        network.addConsumer(container.getOrderService());
+        network.addConsumer(new OrderBookInboundOrderConsumer(book));
+        network.addConsumer(container);
+        network.addConsumer(this::record);
+
+        return sequencer;
+    }
+
+    private final messages.marketdata.MessageHeaderDecoder header = new messages.marketdata.MessageHeaderDecoder();
+    private final BookUpdateDecoder bookUpdate = new BookUpdateDecoder();
+    private final CreateOrderDecoder createOrder = new CreateOrderDecoder();
+    private final FillOrderDecoder fill = new FillOrderDecoder();
+    private final PartialFillOrderDecoder partialFill = new PartialFillOrderDecoder();
+
+    private void record(final DirectBuffer buffer) {
+        header.wrap(buffer, 0);
+        final long sequencerNumber = header.sequencerNumber();
+        final int offset = header.encodedLength();
+        if (header.schemaId() == BookUpdateDecoder.SCHEMA_ID) {
+            if (header.templateId() == BookUpdateDecoder.TEMPLATE_ID
+                    && bookUpdate.wrap(buffer, offset, header.blockLength(), header.version()).source() == Source.ORDERBOOK) {
+                sequenced.add(sequencerNumber + ":book");
+            }
+        } else if (header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+            createOrder.wrap(buffer, offset, header.blockLength(), header.version());
+            sequenced.add(sequencerNumber + ":create " + createOrder.orderId() + " " + createOrder.quantity() + "@" + createOrder.price());
+        } else if (header.templateId() == FillOrderDecoder.TEMPLATE_ID) {
+            sequenced.add(sequencerNumber + ":fill " + fill.wrap(buffer, offset, header.blockLength(), header.version()).orderId());
+        } else if (header.templateId() == PartialFillOrderDecoder.TEMPLATE_ID) {
+            sequenced.add(sequencerNumber + ":partial fill " + partialFill.wrap(buffer, offset, header.blockLength(), header.version()).orderId());
+        }
+    }
+
+    private UnsafeBuffer createTick() {
+        final UnsafeBuffer directBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+        encoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+        encoder.venue(Venue.XLON);
+        encoder.instrumentId(123L);
+        encoder.source(Source.STREAM);
+
+        encoder.bidBookCount(1)
+                .next().price(98L).size(100L);
+
+        encoder.askBookCount(3)
+                .next().price(100L).size(100L)
+                .next().price(101L).size(100L)
+                .next().price(102L).size(100L);
+
+        encoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+
+        return directBuffer;
+    }
+
+    @Test
+    public void testABatchIsSequencedTogetherBeforeTheBookActsOnIt() throws Exception {
+        send(createTick());
+
+        //the tick is 1, the three creates follow it straight away, then what the book did with each in turn
+        assertEquals(List.of(
+                "2:create 2 100@100",
+                "3:create 3 100@101",
+                "4:create 4 100@102",
+                "5:fill 2",
+                "6:book",
+                "7:fill 3",
+                "8:book",
+                "9:fill 4",
+                "10:book"), sequenced);
+
+        assertEquals(300, container.getState().getChildOrders().stream().mapToLong(child -> child.getFilledQuantity()).sum());
+    }
+}
@@ -0,0 +1,206 @@
+package codingblackfemales.backtest;
+
+import codingblackfemales.action.ActionBatch;
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.action.NoAction;
+import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.container.Actioner;
+import codingblackfemales.container.AlgoContainer;
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.orderbook.OrderBook;
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.consumer.OrderBookInboundOrderConsumer;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.event.MessageDispatcher;
+import codingblackfemales.sequencer.net.CommandQueue;
+import codingblackfemales.sequencer.net.RingBufferNetwork;
+import codingblackfemales.service.MarketDataService;
+import codingblackfemales.service.OrderService;
+import messages.marketdata.*;
+import messages.order.CreateOrderDecoder;
+import messages.order.FillOrderDecoder;
+import messages.order.PartialFillOrderDecoder;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The OrderBook and an AlgoContainer on a RingBufferNetwork, each on its own consumer thread and sending its orders,
+ * fills and book updates back through a CommandQueue which this thread drains into the sequencer.
+ */
+public class RingBufferNetworkBackTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder encoder = new BookUpdateEncoder();
+
+    //every message on the wire after the ticks, with its sequencer number, read on the recorder's own thread
+    private final List<String> sequenced = new ArrayList<>();
+    private final List<Long> sequencerNumbers = new ArrayList<>();
+
+    private RingBufferNetwork network;
+    private DefaultSequencer sequencer;
+    private AlgoContainer container;
+
+    private void wire(final int ringCapacity, final int commandQueueCapacity, final AlgoLogic logic) {
+        network = new RingBufferNetwork(ringCapacity, RingBufferNetwork.DEFAULT_MAX_MESSAGE_LENGTH);
+        sequencer = new DefaultSequencer(network);
+
+        final CommandQueue bookCommands = new CommandQueue(commandQueueCapacity);
+        final CommandQueue algoCommands = new CommandQueue(commandQueueCapacity);
+
+        final OrderBook book = new OrderBook(new MarketDataChannel(bookCommands), new OrderChannel(bookCommands));
+
+        final RunTrigger runTrigger = new RunTrigger();
+        container = new AlgoContainer(new MarketDataService(runTrigger), new OrderService(runTrigger), runTrigger, new Actioner(algoCommands));
+        container.setLogic(logic);
+
+        //the book and its inbound orders share the book, the container reads the services' state, so each group
+        //has to be on one thread
+        final MessageDispatcher bookThread = new MessageDispatcher()
+                .add(book)
+                .add(new OrderBookInboundOrderConsumer(book));
+        final MessageDispatcher algoThread = new MessageDispatcher()
+                .add(container.getMarketDataService())
+                .add(container.getOrderService())
+                .add(container);
+
+        network.addConsumer(bookThread, bookCommands);
+        network.addConsumer(algoThread, algoCommands);
+        network.addConsumer(this::record);
+        network.start();
+    }
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final BookUpdateDecoder bookUpdate = new BookUpdateDecoder();
+    private final CreateOrderDecoder createOrder = new CreateOrderDecoder();
+    private final FillOrderDecoder fill = new FillOrderDecoder();
+    private final PartialFillOrderDecoder partialFill = new PartialFillOrderDecoder();
+
+    private void record(final DirectBuffer buffer) {
+        header.wrap(buffer, 0);
+        final long sequencerNumber = header.sequencerNumber();
+        sequencerNumbers.add(sequencerNumber);
+        final int offset = header.encodedLength();
+        if (header.schemaId() == BookUpdateDecoder.SCHEMA_ID) {
+            if (header.templateId() == BookUpdateDecoder.TEMPLATE_ID
+                    && bookUpdate.wrap(buffer, offset, header.blockLength(), header.version()).source() == Source.ORDERBOOK) {
+                sequenced.add(sequencerNumber + ":book");
+            }
+        } else if (header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+            createOrder.wrap(buffer, offset, header.blockLength(), header.version());
+            sequenced.add(sequencerNumber + ":create " + createOrder.orderId() + " " + createOrder.quantity() + "@" + createOrder.price());
+        } else if (header.templateId() == FillOrderDecoder.TEMPLATE_ID) {
+            sequenced.add(sequencerNumber + ":fill " + fill.wrap(buffer, offset, header.blockLength(), header.version()).orderId());
+        } else if (header.templateId() == PartialFillOrderDecoder.TEMPLATE_ID) {
+            sequenced.add(sequencerNumber + ":partial fill " + partialFill.wrap(buffer, offset, header.blockLength(), header.version()).orderId());
+        }
+    }
+
+    private UnsafeBuffer createTick(final long askSize) {
+        final UnsafeBuffer directBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+        encoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+        encoder.venue(Venue.XLON);
+        encoder.instrumentId(123L);
+        encoder.source(Source.STREAM);
+
+        encoder.bidBookCount(1)
+                .next().price(98L).size(100L);
+
+        encoder.askBookCount(3)
+                .next().price(100L).size(askSize)
+                .next().price(101L).size(askSize)
+                .next().price(102L).size(askSize);
+
+        encoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+
+        return directBuffer;
+    }
+
+    private long filledQuantity() {
+        return container.getState().getChildOrders().stream().mapToLong(child -> child.getFilledQuantity()).sum();
+    }
+
+    @Test(timeout = 30_000)
+    public void testABatchIsSequencedInOrderFromTheConsumerThreads() {
+        final ActionBatch batch = new ActionBatch();
+        wire(RingBufferNetwork.DEFAULT_CAPACITY, CommandQueue.DEFAULT_CAPACITY, state -> {
+            if (!state.getChildOrders().isEmpty()) {
+                return NoAction.NoAction;
+            }
+            return batch.clear()
+                    .createChildOrder(Side.BUY, 100, state.getAskAt(0).getPrice())
+                    .createChildOrder(Side.BUY, 100, state.getAskAt(1).getPrice())
+                    .createChildOrder(Side.BUY, 100, state.getAskAt(2).getPrice());
+        });
+
+        try {
+            sequencer.onCommand(createTick(100L));
+            sequencer.onEndOfBatch();
+            network.drainUntilIdle(sequencer);
+        } finally {
+            network.close();
+        }
+
+        //the same as on the TestNetwork, the batch straight after the tick, then what the book did with each order
+        assertEquals(List.of(
+                "2:create 2 100@100",
+                "3:create 3 100@101",
+                "4:create 4 100@102",
+                "5:fill 2",
+                "6:book",
+                "7:fill 3",
+                "8:book",
+                "9:fill 4",
+                "10:book"), sequenced);
+
+        assertEquals(300, filledQuantity());
+    }
+
+    @Test(timeout = 30_000)
+    public void testConsumerCommandsOnAFullRingAreSequencedOnceEachWithoutDeadlock() {
+        final int maxChildOrders = 200;
+        final int ticks = 500;
+
+        //a ring of 8 slots and queues which only hold a few commands, so the consumers keep sending while this thread
+        //is waiting on them for room
+        wire(8, 1024, state -> {
+            if (state.getChildOrders().size() >= maxChildOrders) {
+                return NoAction.NoAction;
+            }
+            return new CreateChildOrder(Side.BUY, 100, state.getAskAt(0).getPrice());
+        });
+
+        try {
+            for (int i = 0; i < ticks; i++) {
+                sequencer.onCommand(createTick(100_000L));
+                sequencer.onEndOfBatch();
+                network.drainCommands(sequencer);
+            }
+            network.drainUntilIdle(sequencer);
+        } finally {
+            network.close();
+        }
+
+        //every message was sequenced exactly once, in order
+        for (int i = 0; i < sequencerNumbers.size(); i++) {
+            assertEquals(i + 1, (long) sequencerNumbers.get(i));
+        }
+
+        //the algo runs again before its last orders have come back to it, so it can go over its limit
+        final int childOrders = container.getState().getChildOrders().size();
+        assertTrue(childOrders >= maxChildOrders);
+        assertEquals(childOrders * 100L, filledQuantity());
+        assertEquals(childOrders, sequenced.stream().filter(message -> message.contains(":create ")).count());
+        assertEquals(childOrders, sequenced.stream().filter(message -> message.contains(":fill ")).count());
+    }
+}
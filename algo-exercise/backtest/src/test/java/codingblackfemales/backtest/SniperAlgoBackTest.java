@@ -92,5 +92,7 @@ public class SniperAlgoBackTest extends SequencerTestCase {
         send(createSampleMarketDataTick());
         //simple assert to check we had 3 orders created
         assertEquals(container.getState().getChildOrders().size(), 5);
+        //each is IOC, so whatever it did not take was cancelled rather than left on the book
+        assertEquals(0, container.getState().getActiveChildOrders().size());
     }
 }
\ No newline at end of file
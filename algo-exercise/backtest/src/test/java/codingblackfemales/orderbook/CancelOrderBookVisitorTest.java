@@ -8,14 +8,29 @@ import messages.order.Side;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Assert;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 import org.mockito.Mockito;
 
 import java.nio.ByteBuffer;
+import java.util.Collection;
 
 import static codingblackfemales.orderbook.MatchingOrderBookVisitorTest.wrapBufferInDecoder;
 
+@RunWith(Parameterized.class)
 public class CancelOrderBookVisitorTest {
 
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> sides() {
+        return OrderBookSides.parameters();
+    }
+
+    private final OrderBookSides sides;
+
+    public CancelOrderBookVisitorTest(final OrderBookSides sides) {
+        this.sides = sides;
+    }
+
     private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
     private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
 
@@ -52,7 +67,7 @@ public class CancelOrderBookVisitorTest {
         final MarketDataChannel mktDataChannel = Mockito.mock(MarketDataChannel.class);
         final OrderChannel orderChannel = Mockito.mock(OrderChannel.class);
 
-        final OrderBook book = new OrderBook(mktDataChannel, orderChannel);
+        final OrderBook book = sides.book(mktDataChannel, orderChannel);
 
         final var buffer = tick1();
 
@@ -77,7 +92,7 @@ public class CancelOrderBookVisitorTest {
         final MarketDataChannel mktDataChannel = Mockito.mock(MarketDataChannel.class);
         final OrderChannel orderChannel = Mockito.mock(OrderChannel.class);
 
-        final OrderBook book = new OrderBook(mktDataChannel, orderChannel);
+        final OrderBook book = sides.book(mktDataChannel, orderChannel);
 
         final var buffer = tick1();
 
@@ -96,6 +111,50 @@ public class CancelOrderBookVisitorTest {
         Assert.assertEquals( 5_000L, book.getAskBookSide().getFirstLevel().next().next().getQuantity());
     }
 
+    @Test
+    public void testCancelOnlyOrderOnLevelRemovesLevel(){
+
+        final OrderBook book = sides.book(Mockito.mock(MarketDataChannel.class), Mockito.mock(OrderChannel.class));
+
+        book.onBookUpdate(wrapBufferInDecoder(tick1()));
+
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 98L, 500L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 98L, 300L, 2));
+
+        Assert.assertEquals( 800L, book.getBidBookSide().getFirstLevel().next().getQuantity());
+
+        book.onCancelOrder(1);
+
+        Assert.assertEquals( 300L, book.getBidBookSide().getFirstLevel().next().getQuantity());
+        Assert.assertEquals( 2L, ((LimitOrderFlyweight) book.getBidBookSide().getFirstLevel().next().getFirstOrder()).getOrderId());
+
+        book.onCancelOrder(2);
+
+        Assert.assertEquals( 96L, book.getBidBookSide().getFirstLevel().next().getPrice());
+        Assert.assertEquals( 3, book.getBidBookSide().getLevelCount());
+        Assert.assertNull(book.getBidBookSide().getLimitOrder(2));
+    }
+
+    @Test
+    public void testCancelFilledOrUnknownOrderIsIgnored(){
+
+        final OrderChannel orderChannel = Mockito.mock(OrderChannel.class);
+        final OrderBook book = sides.book(Mockito.mock(MarketDataChannel.class), orderChannel);
 
+        book.onBookUpdate(wrapBufferInDecoder(tick1()));
+
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 50L, 1));
+        Assert.assertEquals( 151L, book.getAskBookSide().getFirstLevel().getQuantity());
+
+        //sweeps the market data order and then our order on the 101 level
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 101L, 151L, 2));
+        Assert.assertNull(book.getAskBookSide().getLimitOrder(1));
+
+        book.onCancelOrder(1);
+        book.onCancelOrder(99);
+
+        Assert.assertEquals( 115L, book.getAskBookSide().getFirstLevel().getPrice());
+        Assert.assertEquals( 200L, book.getAskBookSide().getFirstLevel().getQuantity());
+    }
 
 }
@@ -0,0 +1,230 @@
+package codingblackfemales.orderbook;
+
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
+import messages.marketdata.*;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+import static codingblackfemales.orderbook.MatchingOrderBookVisitorTest.wrapBufferInDecoder;
+
+@RunWith(Parameterized.class)
+public class MarketDataOrderBookTest {
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> sides() {
+        return OrderBookSides.parameters();
+    }
+
+    private final OrderBookSides sides;
+
+    public MarketDataOrderBookTest(final OrderBookSides sides) {
+        this.sides = sides;
+    }
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
+
+    /**
+     * @param bids price, size pairs from the best bid down
+     * @param asks price, size pairs from the best ask up
+     */
+    private BookUpdateDecoder tick(final long[] bids, final long[] asks){
+        final UnsafeBuffer directBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+        bookUpdateEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+        bookUpdateEncoder.venue(Venue.XLON);
+        bookUpdateEncoder.instrumentId(123L);
+        bookUpdateEncoder.source(Source.STREAM);
+
+        final var bidBook = bookUpdateEncoder.bidBookCount(bids.length / 2);
+        for (int i = 0; i < bids.length; i += 2) {
+            bidBook.next().price(bids[i]).size(bids[i + 1]);
+        }
+        final var askBook = bookUpdateEncoder.askBookCount(asks.length / 2);
+        for (int i = 0; i < asks.length; i += 2) {
+            askBook.next().price(asks[i]).size(asks[i + 1]);
+        }
+
+        bookUpdateEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+
+        return wrapBufferInDecoder(directBuffer);
+    }
+
+    private final IncrementalBookUpdateEncoder incrementalEncoder = new IncrementalBookUpdateEncoder();
+    private final IncrementalBookUpdateDecoder incrementalDecoder = new IncrementalBookUpdateDecoder();
+
+    /**
+     * @param changes side, action, price, size in turn, side and action as their chars i.e. 'B', 'N'
+     */
+    private IncrementalBookUpdateDecoder delta(final long... changes){
+        final UnsafeBuffer directBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+        incrementalEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+        incrementalEncoder.venue(Venue.XLON);
+        incrementalEncoder.instrumentId(123L);
+        incrementalEncoder.source(Source.STREAM);
+        incrementalEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+
+        final var entries = incrementalEncoder.entriesCount(changes.length / 4);
+        for (int i = 0; i < changes.length; i += 4) {
+            entries.next().side(BookSide.get((byte) changes[i])).action(UpdateAction.get((byte) changes[i + 1]))
+                    .price(changes[i + 2]).size(changes[i + 3]);
+        }
+
+        return incrementalDecoder.wrap(directBuffer, headerEncoder.encodedLength(), IncrementalBookUpdateEncoder.BLOCK_LENGTH, IncrementalBookUpdateEncoder.SCHEMA_VERSION);
+    }
+
+    private OrderBook newBook() {
+        return sides.book(Mockito.mock(MarketDataChannel.class), Mockito.mock(OrderChannel.class));
+    }
+
+    @Test
+    public void testBidsAndAsksLandOnTheirOwnSide(){
+        final OrderBook book = newBook();
+
+        book.onBookUpdate(tick(new long[]{100L, 100L, 96L, 200L}, new long[]{101L, 101L, 115L, 200L, 120L, 300L}));
+
+        final OrderBookLevel bid = book.getBidBookSide().getFirstLevel();
+        Assert.assertEquals(2, book.getBidBookSide().getLevelCount());
+        Assert.assertEquals(100L, bid.getPrice());
+        Assert.assertEquals(96L, bid.next().getPrice());
+        Assert.assertEquals(Side.BUY, bid.getMarketDataOrder().getSide());
+
+        final OrderBookLevel ask = book.getAskBookSide().getFirstLevel();
+        Assert.assertEquals(3, book.getAskBookSide().getLevelCount());
+        Assert.assertEquals(101L, ask.getPrice());
+        Assert.assertEquals(120L, ask.next().next().getPrice());
+        Assert.assertEquals(Side.SELL, ask.getMarketDataOrder().getSide());
+    }
+
+    @Test
+    public void testOnlyChangedLevelsAreUpdated(){
+        final OrderBook book = newBook();
+
+        book.onBookUpdate(tick(new long[]{100L, 100L, 96L, 200L, 93L, 300L}, new long[]{101L, 100L}));
+
+        final OrderBookLevel best = book.getBidBookSide().getFirstLevel();
+        final MarketDataOrderFlyweight bestOrder = best.getMarketDataOrder();
+        final OrderBookLevel second = best.next();
+        final MarketDataOrderFlyweight secondOrder = second.getMarketDataOrder();
+
+        //96 resized, 93 gone and 90 new
+        book.onBookUpdate(tick(new long[]{100L, 100L, 96L, 250L, 90L, 400L}, new long[]{101L, 100L}));
+
+        Assert.assertSame(best, book.getBidBookSide().getFirstLevel());
+        Assert.assertSame(bestOrder, best.getMarketDataOrder());
+        Assert.assertEquals(100L, best.getQuantity());
+
+        Assert.assertSame(second, best.next());
+        Assert.assertSame(secondOrder, second.getMarketDataOrder());
+        Assert.assertEquals(250L, secondOrder.getQuantity());
+        Assert.assertEquals(250L, second.getQuantity());
+
+        Assert.assertEquals(90L, second.next().getPrice());
+        Assert.assertEquals(400L, second.next().getQuantity());
+        Assert.assertEquals(3, book.getBidBookSide().getLevelCount());
+    }
+
+    @Test
+    public void testLimitOrderKeepsItsQueuePosition(){
+        final OrderBook book = newBook();
+
+        book.onBookUpdate(tick(new long[]{100L, 100L, 96L, 200L}, new long[]{101L, 100L}));
+
+        //queues behind the market data at 100, and in front of the market data which later arrives at 98
+        final LimitOrderFlyweight behind = new LimitOrderFlyweight(Side.BUY, 100L, 50L, 1);
+        final LimitOrderFlyweight ahead = new LimitOrderFlyweight(Side.BUY, 98L, 70L, 2);
+        book.onLimitOrder(behind);
+        book.onLimitOrder(ahead);
+
+        book.onBookUpdate(tick(new long[]{100L, 300L, 98L, 400L, 96L, 200L}, new long[]{101L, 100L}));
+
+        final OrderBookLevel best = book.getBidBookSide().getFirstLevel();
+        Assert.assertTrue(best.getFirstOrder() instanceof MarketDataOrderFlyweight);
+        Assert.assertSame(behind, best.getFirstOrder().next());
+        Assert.assertEquals(350L, best.getQuantity());
+
+        final OrderBookLevel middle = best.next();
+        Assert.assertEquals(98L, middle.getPrice());
+        Assert.assertSame(ahead, middle.getFirstOrder());
+        Assert.assertTrue(ahead.next() instanceof MarketDataOrderFlyweight);
+        Assert.assertEquals(470L, middle.getQuantity());
+
+        //the market data leaves 100, our order stays on the level on its own
+        book.onBookUpdate(tick(new long[]{98L, 400L, 96L, 200L}, new long[]{101L, 100L}));
+
+        final OrderBookLevel ours = book.getBidBookSide().getFirstLevel();
+        Assert.assertEquals(100L, ours.getPrice());
+        Assert.assertSame(behind, ours.getFirstOrder());
+        Assert.assertNull(behind.next());
+        Assert.assertEquals(50L, ours.getQuantity());
+        Assert.assertSame(behind, book.getBidBookSide().getLimitOrder(1));
+        Assert.assertEquals(3, book.getBidBookSide().getLevelCount());
+    }
+
+    @Test
+    public void testLevelsWithNoMarketDataOrLimitsAreRemoved(){
+        final OrderBook book = newBook();
+
+        book.onBookUpdate(tick(new long[]{100L, 100L, 96L, 200L}, new long[]{101L, 100L, 102L, 200L}));
+        book.onBookUpdate(tick(new long[]{}, new long[]{102L, 0L, 103L, 300L}));
+
+        Assert.assertNull(book.getBidBookSide().getFirstLevel());
+
+        final OrderBookLevel ask = book.getAskBookSide().getFirstLevel();
+        Assert.assertEquals(103L, ask.getPrice());
+        Assert.assertEquals(300L, ask.getQuantity());
+        Assert.assertEquals(1, book.getAskBookSide().getLevelCount());
+
+        final DefaultOrderFlyweight order = ask.getFirstOrder();
+        Assert.assertSame(ask, order.getLevel());
+        Assert.assertNull(order.next());
+    }
+
+    @Test
+    public void testIncrementalUpdatesOnlyTouchTheLevelsTheyName(){
+        final OrderBook book = newBook();
+
+        book.onBookUpdate(tick(new long[]{100L, 100L, 96L, 200L, 93L, 300L}, new long[]{101L, 100L}));
+
+        final OrderBookLevel best = book.getBidBookSide().getFirstLevel();
+        final MarketDataOrderFlyweight bestOrder = best.getMarketDataOrder();
+        final LimitOrderFlyweight ours = new LimitOrderFlyweight(Side.BUY, 96L, 50L, 1);
+        book.onLimitOrder(ours);
+
+        //96 resized, 93 and the market data at 96 gone, 90 new, and an ask level added
+        book.onIncrementalBookUpdate(delta('B', 'C', 96L, 250L, 'B', 'D', 93L, 0L, 'B', 'N', 90L, 400L, 'A', 'N', 103L, 50L));
+
+        Assert.assertSame(bestOrder, best.getMarketDataOrder());
+        Assert.assertEquals(100L, best.getQuantity());
+        Assert.assertEquals(300L, best.next().getQuantity());
+        Assert.assertEquals(90L, best.next().next().getPrice());
+        Assert.assertEquals(3, book.getBidBookSide().getLevelCount());
+        Assert.assertEquals(103L, book.getAskBookSide().getFirstLevel().next().getPrice());
+
+        //the market data leaves 96, our order stays
+        book.onIncrementalBookUpdate(delta('B', 'D', 96L, 0L));
+
+        final OrderBookLevel level = best.next();
+        Assert.assertEquals(96L, level.getPrice());
+        Assert.assertSame(ours, level.getFirstOrder());
+        Assert.assertNull(ours.next());
+        Assert.assertEquals(50L, level.getQuantity());
+
+        //deleting a level which is not there does nothing
+        book.onIncrementalBookUpdate(delta('A', 'D', 150L, 0L));
+        Assert.assertEquals(2, book.getAskBookSide().getLevelCount());
+    }
+}
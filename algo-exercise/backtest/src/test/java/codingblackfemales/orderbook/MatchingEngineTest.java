@@ -0,0 +1,247 @@
+package codingblackfemales.orderbook;
+
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import messages.order.OrderType;
+import messages.order.Side;
+import messages.order.TimeInForce;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@RunWith(Parameterized.class)
+public class MatchingEngineTest {
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> sides() {
+        return OrderBookSides.parameters();
+    }
+
+    private final OrderBookSides sides;
+
+    private final List<String> published = new ArrayList<>();
+    private OrderBook book;
+
+    public MatchingEngineTest(final OrderBookSides sides) {
+        this.sides = sides;
+    }
+
+    @Before
+    public void setUp() {
+        final OrderChannel orderChannel = Mockito.mock(OrderChannel.class);
+        //the flyweights go back to the pool once matched, so record each fill and cancel ack as it is published
+        Mockito.doAnswer(invocation -> {
+            final LimitOrderFlyweight limit = invocation.getArgument(2);
+            published.add("order " + limit.getOrderId() + " " + invocation.getArgument(0) + "@" + invocation.getArgument(1)
+                    + " leaves " + limit.getQuantity());
+            return null;
+        }).when(orderChannel).publishFill(anyLong(), anyLong(), any());
+        Mockito.doAnswer(invocation -> {
+            final LimitOrderFlyweight limit = invocation.getArgument(0);
+            published.add("order " + limit.getOrderId() + " cancelled " + limit.getQuantity());
+            return null;
+        }).when(orderChannel).publishCancelAck(any());
+
+        book = sides.book(Mockito.mock(MarketDataChannel.class), orderChannel);
+    }
+
+    @Test
+    public void testOrdersAtALevelAreFilledInTheOrderTheyArrived() {
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 2));
+
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 101L, 150L, 3));
+
+        assertEquals(Arrays.asList(
+                "order 1 100@101 leaves 0",
+                "order 3 100@101 leaves 50",
+                "order 2 50@101 leaves 50",
+                "order 3 50@101 leaves 0"), published);
+
+        assertEquals(50L, book.getAskBookSide().getLimitOrder(2).getQuantity());
+        assertEquals(50L, book.getAskBookSide().getFirstLevel().getQuantity());
+        assertNull(book.getAskBookSide().getLimitOrder(1));
+        assertNull(book.getBidBookSide().getFirstLevel());
+    }
+
+    @Test
+    public void testSweepStopsAtTheLimitAndTheRestOfTheOrderRests() {
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 102L, 100L, 2));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 104L, 100L, 3));
+
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 102L, 300L, 4));
+
+        //each level trades at its own price, and 104 is beyond the limit
+        assertEquals(Arrays.asList(
+                "order 1 100@101 leaves 0",
+                "order 4 100@101 leaves 200",
+                "order 2 100@102 leaves 0",
+                "order 4 100@102 leaves 100"), published);
+
+        assertEquals(104L, book.getAskBookSide().getFirstLevel().getPrice());
+        assertEquals(100L, book.getAskBookSide().getLimitOrder(3).getQuantity());
+
+        assertEquals(102L, book.getBidBookSide().getFirstLevel().getPrice());
+        assertEquals(100L, book.getBidBookSide().getLimitOrder(4).getQuantity());
+    }
+
+    @Test
+    public void testMarketDataFillsOurOrderAndTheRestOfItRests() {
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 100L, 50L, 1));
+
+        //the market moves through our bid
+        book.onBookUpdate(MatchingOrderBookVisitorTest.wrapBufferInDecoder(askBookUpdate(99L, 80L)));
+
+        assertEquals(Arrays.asList("order 1 50@99 leaves 0"), published);
+
+        assertNull(book.getBidBookSide().getFirstLevel());
+        assertEquals(99L, book.getAskBookSide().getFirstLevel().getPrice());
+        assertEquals(30L, book.getAskBookSide().getFirstLevel().getQuantity());
+    }
+
+    @Test
+    public void testAnOrderNeverTradesWithItsOwnersRestingOrder() {
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 2).setOwner(7L));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 3));
+
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 101L, 300L, 4).setOwner(7L));
+
+        //fills what is in front of its owner's order, then the rest is cancelled rather than rest crossing it
+        assertEquals(Arrays.asList(
+                "order 1 100@101 leaves 0",
+                "order 4 100@101 leaves 200",
+                "order 4 cancelled 200"), published);
+
+        assertEquals(100L, book.getAskBookSide().getLimitOrder(2).getQuantity());
+        assertEquals(100L, book.getAskBookSide().getLimitOrder(3).getQuantity());
+        assertNull(book.getBidBookSide().getFirstLevel());
+    }
+
+    @Test
+    public void testFokCountsNothingBehindItsOwnersRestingOrder() {
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 2).setOwner(7L));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 3));
+
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 101L, 200L, 4).setOwner(7L), TimeInForce.FOK);
+
+        assertEquals(Arrays.asList("order 4 cancelled 200"), published);
+        assertEquals(300L, book.getAskBookSide().getFirstLevel().getQuantity());
+    }
+
+    @Test
+    public void testIocFillsWhatItCanAndCancelsTheRest() {
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 102L, 100L, 2));
+
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 101L, 150L, 3), TimeInForce.IOC);
+
+        assertEquals(Arrays.asList(
+                "order 1 100@101 leaves 0",
+                "order 3 100@101 leaves 50",
+                "order 3 cancelled 50"), published);
+
+        assertNull(book.getBidBookSide().getFirstLevel());
+        assertNull(book.getBidBookSide().getLimitOrder(3));
+        assertEquals(102L, book.getAskBookSide().getFirstLevel().getPrice());
+    }
+
+    @Test
+    public void testFokOnlyTradesWhenItCanFillCompletely() {
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 100L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 102L, 100L, 2));
+
+        //there is only 100 at 101 or better
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 101L, 150L, 3), TimeInForce.FOK);
+
+        assertEquals(Arrays.asList("order 3 cancelled 150"), published);
+        assertEquals(100L, book.getAskBookSide().getLimitOrder(1).getQuantity());
+        assertNull(book.getBidBookSide().getFirstLevel());
+
+        published.clear();
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 102L, 150L, 4), TimeInForce.FOK);
+
+        assertEquals(Arrays.asList(
+                "order 1 100@101 leaves 0",
+                "order 4 100@101 leaves 50",
+                "order 2 50@102 leaves 50",
+                "order 4 50@102 leaves 0"), published);
+    }
+
+    @Test
+    public void testMarketOrderSweepsAtEachLevelsPriceAndNeverRests() {
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 99L, 100L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 97L, 100L, 2));
+
+        book.onOrder(book.newMarketOrder(Side.SELL, 250L, 3), OrderType.MARKET, TimeInForce.DAY);
+
+        assertEquals(Arrays.asList(
+                "order 1 100@99 leaves 0",
+                "order 3 100@99 leaves 150",
+                "order 2 100@97 leaves 0",
+                "order 3 100@97 leaves 50",
+                "order 3 cancelled 50"), published);
+
+        assertNull(book.getBidBookSide().getFirstLevel());
+        assertNull(book.getAskBookSide().getFirstLevel());
+    }
+
+    @Test
+    public void testMarketFokOnlyTradesWhenItCanFillCompletely() {
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 99L, 100L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 97L, 100L, 2));
+
+        book.onOrder(book.newMarketOrder(Side.SELL, 250L, 3), OrderType.MARKET, TimeInForce.FOK);
+
+        assertEquals(Arrays.asList("order 3 cancelled 250"), published);
+        assertEquals(99L, book.getBidBookSide().getFirstLevel().getPrice());
+        assertEquals(100L, book.getBidBookSide().getLimitOrder(1).getQuantity());
+
+        published.clear();
+        book.onOrder(book.newMarketOrder(Side.SELL, 150L, 4), OrderType.MARKET, TimeInForce.FOK);
+
+        assertEquals(Arrays.asList(
+                "order 1 100@99 leaves 0",
+                "order 4 100@99 leaves 50",
+                "order 2 50@97 leaves 50",
+                "order 4 50@97 leaves 0"), published);
+        assertNull(book.getAskBookSide().getFirstLevel());
+    }
+
+    private UnsafeBuffer askBookUpdate(final long price, final long size) {
+        final UnsafeBuffer directBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
+
+        bookUpdateEncoder.wrapAndApplyHeader(directBuffer, 0, new MessageHeaderEncoder());
+        bookUpdateEncoder.venue(Venue.XLON);
+        bookUpdateEncoder.instrumentId(123L);
+        bookUpdateEncoder.source(Source.STREAM);
+        bookUpdateEncoder.bidBookCount(0);
+        bookUpdateEncoder.askBookCount(1).next().price(price).size(size);
+        bookUpdateEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+
+        return directBuffer;
+    }
+}
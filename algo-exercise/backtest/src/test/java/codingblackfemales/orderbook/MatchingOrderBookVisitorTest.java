@@ -7,17 +7,32 @@ import messages.marketdata.*;
 import messages.order.Side;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 import org.mockito.Mockito;
 
 import java.nio.ByteBuffer;
+import java.util.Collection;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+@RunWith(Parameterized.class)
 public class MatchingOrderBookVisitorTest {
 
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> sides() {
+        return OrderBookSides.parameters();
+    }
+
+    private final OrderBookSides sides;
+
+    public MatchingOrderBookVisitorTest(final OrderBookSides sides) {
+        this.sides = sides;
+    }
+
     private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
     private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
 
@@ -81,7 +96,7 @@ public class MatchingOrderBookVisitorTest {
         final MarketDataChannel mktDataChannel = Mockito.mock(MarketDataChannel.class);
         final OrderChannel orderChannel = Mockito.mock(OrderChannel.class);
 
-        final OrderBook book = new OrderBook(mktDataChannel, orderChannel);
+        final OrderBook book = sides.book(mktDataChannel, orderChannel);
 
         final var buffer = createBookUpdateMessageTick2();
 
@@ -100,7 +115,7 @@ public class MatchingOrderBookVisitorTest {
         final MarketDataChannel mktDataChannel = Mockito.mock(MarketDataChannel.class);
         final OrderChannel orderChannel = Mockito.mock(OrderChannel.class);
 
-        final OrderBook book = new OrderBook(mktDataChannel, orderChannel);
+        final OrderBook book = sides.book(mktDataChannel, orderChannel);
 
         final var buffer = createBookUpdateMessageTick2();
 
@@ -120,7 +135,7 @@ public class MatchingOrderBookVisitorTest {
         final MarketDataChannel mktDataChannel = Mockito.mock(MarketDataChannel.class);
         final OrderChannel orderChannel = Mockito.mock(OrderChannel.class);
 
-        final OrderBook book = new OrderBook(mktDataChannel, orderChannel);
+        final OrderBook book = sides.book(mktDataChannel, orderChannel);
 
         final var buffer = createBookUpdateMessageTick2();
 
@@ -156,7 +171,7 @@ public class MatchingOrderBookVisitorTest {
         final MarketDataChannel mktDataChannel = Mockito.mock(MarketDataChannel.class);
         final OrderChannel orderChannel = Mockito.mock(OrderChannel.class);
 
-        final OrderBook book = new OrderBook(mktDataChannel, orderChannel);
+        final OrderBook book = sides.book(mktDataChannel, orderChannel);
 
         //when: we seed the book with normal market data...
         final var buffer = createBookUpdateMessageTick2();
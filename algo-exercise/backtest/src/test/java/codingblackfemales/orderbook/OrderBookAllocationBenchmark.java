@@ -0,0 +1,113 @@
+package codingblackfemales.orderbook;
+
+import ch.qos.logback.classic.Level;
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.sequencer.Sequencer;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+/**
+ * Bytes allocated per tick by a book replaying market data, with a passive order added and cancelled and an aggressive
+ * order filled against it on every tick, publishing fills and book updates into a sequencer that drops them. Not picked
+ * up by the default surefire includes, run it with:
+ *
+ * mvn -pl backtest -am test -Dtest=OrderBookAllocationBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+public class OrderBookAllocationBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBookAllocationBenchmark.class);
+
+    private static final int LEVELS = 10;
+    private static final int WARMUP_TICKS = 50_000;
+    private static final int TICKS = 200_000;
+
+    @Test
+    public void allocationPerTick() {
+        //the book logs every order at info, which would be all we measured
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) logger).setLevel(Level.INFO);
+
+        try {
+            for (int run = 0; run < 3; run++) {
+                for (OrderBookSides sides : OrderBookSides.values()) {
+                    final long start = System.nanoTime();
+                    final double bytesPerTick = run(sides);
+                    final double nanosPerTick = (System.nanoTime() - start) / (double) (WARMUP_TICKS + TICKS);
+                    logger.info(String.format("[BENCHMARK] run %d %s allocated=%,.1fB/tick time=%,.0fns/tick", run, sides, bytesPerTick, nanosPerTick));
+                }
+            }
+        } finally {
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(null);
+        }
+    }
+
+    static double run(final OrderBookSides sides) {
+        final Sequencer dropAll = buffer -> {};
+        final OrderBook book = sides.book(new MarketDataChannel(dropAll), new OrderChannel(dropAll));
+
+        final UnsafeBuffer[] ticks = {bookUpdate(0), bookUpdate(1)};
+
+        long orderId = 1;
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            orderId = tick(book, ticks[i & 1], orderId);
+        }
+
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < TICKS; i++) {
+            orderId = tick(book, ticks[i & 1], orderId);
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / (double) TICKS;
+    }
+
+    private static long tick(final OrderBook book, final UnsafeBuffer marketData, long orderId) {
+        book.onMessage(marketData);
+
+        //a passive bid which is cancelled straight away
+        final long passiveId = orderId++;
+        book.onLimitOrder(book.newLimitOrder(Side.BUY, 80L, 100L, passiveId));
+        book.onCancelOrder(passiveId);
+
+        //a passive ask behind the market data and an aggressive bid which fills against the book, the ask is then
+        //cancelled so that the book does not grow from one tick to the next
+        final long askId = orderId++;
+        book.onLimitOrder(book.newLimitOrder(Side.SELL, 121L, 50L, askId));
+        book.onLimitOrder(book.newLimitOrder(Side.BUY, 121L, 50L, orderId++));
+        book.onCancelOrder(askId);
+        return orderId;
+    }
+
+    private static UnsafeBuffer bookUpdate(final int shift) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final BookUpdateEncoder encoder = new BookUpdateEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, new MessageHeaderEncoder());
+        encoder.venue(Venue.XLON);
+        encoder.instrumentId(123L);
+        encoder.source(Source.STREAM);
+
+        final BookUpdateEncoder.AskBookEncoder ask = encoder.askBookCount(LEVELS);
+        for (int i = 0; i < LEVELS; i++) {
+            ask.next().price(101L + i + shift).size(100L * (i + 1));
+        }
+        final BookUpdateEncoder.BidBookEncoder bid = encoder.bidBookCount(LEVELS);
+        for (int i = 0; i < LEVELS; i++) {
+            bid.next().price(99L - i - shift).size(100L * (i + 1));
+        }
+        encoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        return buffer;
+    }
+}
@@ -0,0 +1,94 @@
+package codingblackfemales.orderbook;
+
+import ch.qos.logback.classic.Level;
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.orderbook.visitor.CancelOrderVisitor;
+import messages.order.Side;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+
+/**
+ * Cancel heavy flow (9 cancels for every new order) against a book with thousands of resting limit orders, cancelling
+ * through the orderId index next to cancelling by visiting both sides with a CancelOrderVisitor, which is what the
+ * book used to do. Both leave out publishing the book after each order, which costs the same either way. Not picked up by
+ * the default surefire includes, run it with:
+ *
+ * mvn -pl backtest -am test -Dtest=OrderBookCancelBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+public class OrderBookCancelBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBookCancelBenchmark.class);
+
+    private static final int LEVELS = 20;
+    private static final int RESTING_ORDERS = 10_000;
+    private static final int OPERATIONS = 10_000;
+
+    @Test
+    public void cancelHeavyFlow() {
+        //the book logs every order at info, which would be all we measured
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) logger).setLevel(Level.INFO);
+
+        try {
+            for (int run = 0; run < 3; run++) {
+                for (OrderBookSides sides : OrderBookSides.values()) {
+                    final double indexedNanos = run(sides, true);
+                    final double visitorNanos = run(sides, false);
+                    logger.info(String.format("[BENCHMARK] run %d %s resting=%,d indexed cancel=%,.0fns/op visitor cancel=%,.0fns/op", run, sides, RESTING_ORDERS, indexedNanos, visitorNanos));
+                }
+            }
+        } finally {
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(null);
+        }
+    }
+
+    private static double run(final OrderBookSides sides, final boolean indexed) {
+        final OrderBook book = sides.book(new MarketDataChannel(null), new OrderChannel(null));
+        final SplittableRandom random = new SplittableRandom(42);
+
+        final long[] live = new long[RESTING_ORDERS + OPERATIONS];
+        int liveCount = 0;
+        long nextOrderId = 1;
+
+        for (int i = 0; i < RESTING_ORDERS; i++) {
+            book.addLiquidity(newPassiveOrder(random, nextOrderId));
+            live[liveCount++] = nextOrderId++;
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            if (random.nextInt(10) == 0) {
+                book.addLiquidity(newPassiveOrder(random, nextOrderId));
+                live[liveCount++] = nextOrderId++;
+            } else {
+                final int index = random.nextInt(liveCount);
+                final long orderId = live[index];
+                live[index] = live[--liveCount];
+                if (indexed) {
+                    if (!book.getAskBookSide().cancelOrder(orderId)) {
+                        book.getBidBookSide().cancelOrder(orderId);
+                    }
+                } else {
+                    final CancelOrderVisitor cancelVisitor = new CancelOrderVisitor(orderId);
+                    book.getAskBookSide().accept(cancelVisitor);
+                    book.getBidBookSide().accept(cancelVisitor);
+                }
+            }
+        }
+        return (System.nanoTime() - start) / (double) OPERATIONS;
+    }
+
+    private static LimitOrderFlyweight newPassiveOrder(final SplittableRandom random, final long orderId) {
+        //bids at 80-99 and asks at 101-120 never cross each other
+        if (random.nextBoolean()) {
+            return new LimitOrderFlyweight(Side.BUY, 100 - 1 - random.nextInt(LEVELS), 100, orderId);
+        } else {
+            return new LimitOrderFlyweight(Side.SELL, 100 + 1 + random.nextInt(LEVELS), 100, orderId);
+        }
+    }
+}
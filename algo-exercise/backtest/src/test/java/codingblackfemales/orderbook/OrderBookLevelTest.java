@@ -1,5 +1,8 @@
 package codingblackfemales.orderbook;
 
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
+import messages.order.Side;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -8,53 +11,69 @@ public class OrderBookLevelTest {
     @Test
     public void testIntrusiveBookLevel(){
 
-        final OrderBookLevel level1 = new OrderBookLevel();
-        level1.setQuantity(100_000);
-        level1.setPrice(100);
-        final OrderBookLevel level2 = new OrderBookLevel();
-        level2.setQuantity(150_000);
-        level2.setPrice(98);
-        final OrderBookLevel level3 = new OrderBookLevel();
-        level3.setQuantity(180_000);
-        level3.setPrice(97);
-        final OrderBookLevel level4 = new OrderBookLevel();
-        level4.setQuantity(200_000);
-        level4.setPrice(96);
-
-        level1.add(level2)
-              .add(level3)
-              .add(level4);
-
-        Assert.assertEquals(level1.last(), level4);
+        final BidBookSide side = new BidBookSide();
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 100, 100_000));
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 98, 150_000));
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 97, 180_000));
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 96, 200_000));
+
+        final OrderBookLevel level1 = side.getFirstLevel();
+        final OrderBookLevel level2 = level1.next();
+        final OrderBookLevel level3 = level2.next();
+        final OrderBookLevel level4 = level3.next();
+
+        Assert.assertEquals(4, side.getLevelCount());
         Assert.assertNull(level1.previous());
-        Assert.assertEquals(level1.next(), level2);
+        Assert.assertEquals(98, level2.getPrice());
 
-        Assert.assertEquals(level2.first(), level1);
         Assert.assertEquals(level2.next(), level3);
         Assert.assertEquals(level2.previous(), level1);
-        Assert.assertEquals(level2.last(), level4);
 
         Assert.assertEquals(level3.next(), level4);
         Assert.assertEquals(level3.previous(), level2);
-        Assert.assertEquals(level3.last(), level4);
 
         Assert.assertNull(level4.next());
         Assert.assertEquals(level4.previous(), level3);
-        Assert.assertEquals(level4.last(), level4);
 
         System.out.println(level1.toString());
 
-        var existingLevel1 = level3.remove();
-
-        Assert.assertEquals(existingLevel1, level1);
+        side.removeLevel(level3);
 
-        System.out.println(level1.toString());
+        Assert.assertEquals(side.getFirstLevel(), level1);
+        Assert.assertEquals(level2.next(), level4);
+        Assert.assertEquals(3, side.getLevelCount());
 
-        var newLevel1 = level1.remove();
+        side.removeLevel(level1);
 
-        System.out.println(newLevel1.toString());
+        System.out.println(side.getFirstLevel().toString());
 
-        Assert.assertEquals(newLevel1, level2);
+        Assert.assertEquals(side.getFirstLevel(), level2);
+        Assert.assertNull(level2.previous());
+        Assert.assertEquals(2, side.getLevelCount());
     }
 
+    @Test
+    public void testOrdersQueueInTheOrderTheyArrived(){
+        final OrderBookLevel level = new OrderBookLevel().set(100);
+        final LimitOrderFlyweight first = new LimitOrderFlyweight(Side.BUY, 100, 10, 1);
+        final LimitOrderFlyweight second = new LimitOrderFlyweight(Side.BUY, 100, 20, 2);
+        final LimitOrderFlyweight third = new LimitOrderFlyweight(Side.BUY, 100, 30, 3);
+        level.addOrder(first);
+        level.addOrder(second);
+        level.addOrder(third);
+
+        Assert.assertEquals(3, level.getOrderCount());
+        Assert.assertSame(first, level.getFirstOrder());
+
+        //the front of the queue moves up without the others being touched
+        level.removeOrder(first);
+        Assert.assertSame(second, level.getFirstOrder());
+        Assert.assertNull(second.previous());
+        Assert.assertSame(third, second.next());
+
+        level.removeOrder(third);
+        Assert.assertSame(second, level.getFirstOrder());
+        Assert.assertNull(second.next());
+        Assert.assertEquals(1, level.getOrderCount());
+    }
 }
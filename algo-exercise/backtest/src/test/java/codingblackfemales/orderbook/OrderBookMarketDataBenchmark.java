@@ -0,0 +1,138 @@
+package codingblackfemales.orderbook;
+
+import ch.qos.logback.classic.Level;
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.sequencer.Sequencer;
+import messages.marketdata.*;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Applying 10 level book updates where 1-3 levels change from one tick to the next, with a few of our limit orders
+ * resting in the book, reconciling each level against the book next to removing all the market data and adding it
+ * back, which is what the book used to do. Not picked up by the default surefire includes, run it with:
+ *
+ * mvn -pl backtest -am test -Dtest=OrderBookMarketDataBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+public class OrderBookMarketDataBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBookMarketDataBenchmark.class);
+
+    private static final int LEVELS = 10;
+    private static final int DISTINCT_TICKS = 1_024;
+    private static final int TICKS = 200_000;
+
+    @Test
+    public void tenLevelUpdates() {
+        //the book logs every order at info, which would be all we measured
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) logger).setLevel(Level.INFO);
+
+        try {
+            final UnsafeBuffer[] ticks = ticks(new SplittableRandom(42));
+            for (int run = 0; run < 3; run++) {
+                for (OrderBookSides sides : OrderBookSides.values()) {
+                    final double incrementalNanos = run(sides, ticks, true);
+                    final double rebuildNanos = run(sides, ticks, false);
+                    logger.info(String.format("[BENCHMARK] run %d %s levels=%d incremental=%,.0fns/tick rebuild=%,.0fns/tick", run, sides, LEVELS, incrementalNanos, rebuildNanos));
+                }
+            }
+        } finally {
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(null);
+        }
+    }
+
+    private static double run(final OrderBookSides sides, final UnsafeBuffer[] ticks, final boolean incremental) {
+        final Sequencer dropAll = buffer -> {};
+        final OrderBook book = sides.book(new MarketDataChannel(dropAll), new OrderChannel(dropAll));
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        final BookUpdateDecoder decoder = new BookUpdateDecoder();
+
+        book.onBookUpdate(wrap(ticks[0], header, decoder));
+        //our orders sit inside the market data, they never cross it
+        for (int i = 0; i < 4; i++) {
+            book.onLimitOrder(book.newLimitOrder(Side.BUY, 995L - i, 100L, i + 1));
+            book.onLimitOrder(book.newLimitOrder(Side.SELL, 1_005L + i, 100L, i + 11));
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < TICKS; i++) {
+            wrap(ticks[i % DISTINCT_TICKS], header, decoder);
+            if (incremental) {
+                book.onBookUpdate(decoder);
+            } else {
+                rebuild(book, decoder);
+            }
+        }
+        return (System.nanoTime() - start) / (double) TICKS;
+    }
+
+    private static void rebuild(final OrderBook book, final BookUpdateDecoder decoder) {
+        book.getBidBookSide().removeMarketDataOrders();
+        for (BookUpdateDecoder.BidBookDecoder bid : decoder.bidBook()) {
+            book.getBidBookSide().addMarketDataOrder(book.getPool().marketDataOrder(Side.BUY, bid.price(), bid.size()));
+        }
+        book.getAskBookSide().removeMarketDataOrders();
+        for (BookUpdateDecoder.AskBookDecoder ask : decoder.askBook()) {
+            book.getAskBookSide().addMarketDataOrder(book.getPool().marketDataOrder(Side.SELL, ask.price(), ask.size()));
+        }
+    }
+
+    private static BookUpdateDecoder wrap(final UnsafeBuffer buffer, final MessageHeaderDecoder header, final BookUpdateDecoder decoder) {
+        header.wrap(buffer, 0);
+        return decoder.wrap(buffer, header.encodedLength(), header.blockLength(), header.version());
+    }
+
+    /**
+     * Bids from 999 down and asks from 1,001 up, each tick resizes 1-3 levels or now and then moves the deepest level.
+     */
+    private static UnsafeBuffer[] ticks(final SplittableRandom random) {
+        final long[] bidSizes = new long[LEVELS];
+        final long[] askSizes = new long[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            bidSizes[i] = 100L * (i + 1);
+            askSizes[i] = 100L * (i + 1);
+        }
+        long deepest = 0;
+
+        final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+        final BookUpdateEncoder encoder = new BookUpdateEncoder();
+        final UnsafeBuffer[] ticks = new UnsafeBuffer[DISTINCT_TICKS];
+
+        for (int t = 0; t < DISTINCT_TICKS; t++) {
+            final int changes = 1 + random.nextInt(3);
+            for (int c = 0; c < changes; c++) {
+                final long[] sizes = random.nextBoolean() ? bidSizes : askSizes;
+                final int level = random.nextInt(LEVELS + 2);
+                if (level >= LEVELS) {
+                    deepest = deepest == 0 ? 1 : 0;
+                } else {
+                    sizes[level] = 100L + random.nextInt(1_000);
+                }
+            }
+
+            ticks[t] = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+            encoder.wrapAndApplyHeader(ticks[t], 0, headerEncoder);
+            encoder.venue(Venue.XLON);
+            encoder.instrumentId(123L);
+            encoder.source(Source.STREAM);
+            final BookUpdateEncoder.BidBookEncoder bids = encoder.bidBookCount(LEVELS);
+            for (int i = 0; i < LEVELS; i++) {
+                bids.next().price(999L - i - (i == LEVELS - 1 ? deepest : 0)).size(bidSizes[i]);
+            }
+            final BookUpdateEncoder.AskBookEncoder asks = encoder.askBookCount(LEVELS);
+            for (int i = 0; i < LEVELS; i++) {
+                asks.next().price(1_001L + i + (i == LEVELS - 1 ? deepest : 0)).size(askSizes[i]);
+            }
+            encoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        }
+        return ticks;
+    }
+}
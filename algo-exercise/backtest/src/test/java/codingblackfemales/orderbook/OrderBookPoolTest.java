@@ -0,0 +1,77 @@
+package codingblackfemales.orderbook;
+
+import ch.qos.logback.classic.Level;
+import codingblackfemales.collection.intrusive.IntrusiveLinkedList;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import messages.order.Side;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OrderBookPoolTest {
+
+    @Test
+    public void testReleasedOrderIsReusedWithNewValues() {
+        final OrderBookPool pool = new OrderBookPool();
+        final LimitOrderFlyweight first = pool.limitOrder(Side.BUY, 100L, 200L, 1L);
+        final OrderBookLevel level = pool.level(100L);
+        level.addOrder(first);
+        level.addOrder(pool.limitOrder(Side.BUY, 100L, 300L, 2L));
+
+        pool.release(first);
+        final LimitOrderFlyweight reused = pool.limitOrder(Side.SELL, 101L, 50L, 3L);
+
+        assertSame(first, reused);
+        assertEquals(Side.SELL, reused.getSide());
+        assertEquals(101L, reused.getPrice());
+        assertEquals(50L, reused.getQuantity());
+        assertEquals(3L, reused.getOrderId());
+        assertNull(reused.next());
+        assertNull(reused.getLevel());
+    }
+
+    @Test
+    public void testReleaseInsideAnOperationIsOnlyReusedOnceItExits() {
+        final OrderBookPool pool = new OrderBookPool();
+        final OrderBookLevel level = pool.level(100L);
+        final OrderBookLevel next = pool.level(99L);
+        final IntrusiveLinkedList<OrderBookLevel> levels = new IntrusiveLinkedList<>();
+        levels.add(level);
+        levels.add(next);
+
+        pool.enter();
+        pool.enter();
+        pool.release(level);
+        //a visitor still walking the book can move on from the released level
+        assertSame(next, level.next());
+        assertNotSame(level, pool.level(98L));
+        pool.exit();
+        assertEquals(0, pool.available());
+        pool.exit();
+
+        assertEquals(1, pool.available());
+        assertSame(level, pool.level(97L));
+        assertEquals(97L, level.getPrice());
+        assertEquals(0L, level.getQuantity());
+    }
+
+    @Test
+    public void testBookReplayDoesNotAllocate() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(Level.WARN);
+        try {
+            for (OrderBookSides sides : OrderBookSides.values()) {
+                final double bytesPerTick = OrderBookAllocationBenchmark.run(sides);
+                //run alone this is 0, but other tests in the suite mock the channels and mockito's inline instrumentation
+                //of those classes allocates on every call. Without the pool it was around 48KB a tick.
+                assertTrue(sides + " allocated " + bytesPerTick + " bytes per tick", bytesPerTick < 1024);
+            }
+        } finally {
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(null);
+        }
+    }
+}
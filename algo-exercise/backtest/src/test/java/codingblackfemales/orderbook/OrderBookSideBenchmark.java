@@ -0,0 +1,150 @@
+package codingblackfemales.orderbook;
+
+import ch.qos.logback.classic.Level;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
+import messages.order.Side;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+
+/**
+ * Cost of adding a limit order at a new price somewhere in a 1,000 level book (and taking the level out again) for
+ * the linked and the price indexed sides. Also the cost of changing the front of a list, a new best level (and
+ * cancelling it) in a 1,000 level book and cancelling the front order of a level 1,000 orders deep, neither should
+ * grow with the depth. Not picked up by the default surefire includes, run it with:
+ *
+ * mvn -pl backtest -am test -Dtest=OrderBookSideBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+public class OrderBookSideBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBookSideBenchmark.class);
+
+    private static final int LEVELS = 1_000;
+    private static final long TICK = 2;
+    private static final long FIRST_PRICE = 10_000;
+    private static final int OPERATIONS = 200_000;
+    private static final int ORDERS_AT_LEVEL = 1_000;
+
+    @Before
+    public void setUp() {
+        //the book logs every add and cancel, which would be most of what is measured
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) logger).setLevel(Level.INFO);
+    }
+
+    @After
+    public void tearDown() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("codingblackfemales.orderbook")).setLevel(null);
+        ((ch.qos.logback.classic.Logger) logger).setLevel(null);
+    }
+
+    @Test
+    public void addAndRemoveLevelInDeepBook() {
+        for (int run = 0; run < 3; run++) {
+            for (OrderBookSides sides : OrderBookSides.values()) {
+                final double askNanos = addAndRemoveLevel(sides.askSide(), Side.SELL);
+                final double bidNanos = addAndRemoveLevel(sides.bidSide(), Side.BUY);
+                logger.info(String.format("[BENCHMARK] run %d %s levels=%,d ask=%,.0fns/op bid=%,.0fns/op", run, sides, LEVELS, askNanos, bidNanos));
+            }
+        }
+    }
+
+    @Test
+    public void newBestLevelInDeepBook() {
+        for (int run = 0; run < 3; run++) {
+            for (OrderBookSides sides : OrderBookSides.values()) {
+                final double askNanos = addAndCancelBestLevel(sides.askSide(), Side.SELL);
+                final double bidNanos = addAndCancelBestLevel(sides.bidSide(), Side.BUY);
+                logger.info(String.format("[BENCHMARK] run %d %s new best level levels=%,d ask=%,.0fns/op bid=%,.0fns/op", run, sides, LEVELS, askNanos, bidNanos));
+            }
+        }
+    }
+
+    @Test
+    public void cancelFrontOrderOfDeepLevel() {
+        for (int run = 0; run < 3; run++) {
+            for (OrderBookSides sides : OrderBookSides.values()) {
+                final double askNanos = cancelFrontOrders(sides.askSide(), Side.SELL);
+                final double bidNanos = cancelFrontOrders(sides.bidSide(), Side.BUY);
+                logger.info(String.format("[BENCHMARK] run %d %s cancel front order orders=%,d ask=%,.0fns/op bid=%,.0fns/op", run, sides, ORDERS_AT_LEVEL, askNanos, bidNanos));
+            }
+        }
+    }
+
+    private static double addAndCancelBestLevel(final OrderBookSide side, final Side orderSide) {
+        for (int i = 0; i < LEVELS; i++) {
+            side.addMarketDataOrder(new MarketDataOrderFlyweight(orderSide, FIRST_PRICE + i * TICK, 100));
+        }
+        //one tick in front of the best level
+        final long price = orderSide == Side.BUY ? FIRST_PRICE + LEVELS * TICK : FIRST_PRICE - TICK;
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            side.addLimitOrder(side.getPool().limitOrder(orderSide, price, 100, i));
+            side.cancelOrder(i);
+        }
+        final double nanos = (System.nanoTime() - start) / (double) OPERATIONS;
+
+        if (side.getLevelCount() != LEVELS) {
+            throw new IllegalStateException(String.format("Book should be back to its starting depth levels=[%d]", side.getLevelCount()));
+        }
+
+        return nanos;
+    }
+
+    private static double cancelFrontOrders(final OrderBookSide side, final Side orderSide) {
+        long orderId = 0;
+        long nanos = 0;
+        for (int round = 0; round < OPERATIONS / ORDERS_AT_LEVEL; round++) {
+            final long firstOrderId = orderId;
+            for (int i = 0; i < ORDERS_AT_LEVEL; i++) {
+                side.addLimitOrder(side.getPool().limitOrder(orderSide, FIRST_PRICE, 100, orderId++));
+            }
+
+            //oldest first, so each cancel is of the order at the front of the level
+            final long start = System.nanoTime();
+            for (long cancel = firstOrderId; cancel < orderId; cancel++) {
+                side.cancelOrder(cancel);
+            }
+            nanos += System.nanoTime() - start;
+
+            if (side.getFirstLevel() != null) {
+                throw new IllegalStateException(String.format("Level should be gone once its orders are price=[%d]", side.getFirstLevel().getPrice()));
+            }
+        }
+
+        return nanos / (double) orderId;
+    }
+
+    private static double addAndRemoveLevel(final OrderBookSide side, final Side orderSide) {
+        for (int i = 0; i < LEVELS; i++) {
+            side.addMarketDataOrder(new MarketDataOrderFlyweight(orderSide, FIRST_PRICE + i * TICK, 100));
+        }
+
+        final SplittableRandom random = new SplittableRandom(42);
+        final LimitOrderFlyweight[] orders = new LimitOrderFlyweight[1024];
+        for (int i = 0; i < orders.length; i++) {
+            //always one tick in between two existing levels
+            orders[i] = new LimitOrderFlyweight(orderSide, FIRST_PRICE + random.nextInt(LEVELS - 1) * TICK + 1, 100, i);
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            final LimitOrderFlyweight order = orders[i & (orders.length - 1)];
+            side.addLimitOrder(order);
+            side.removeLevel(side.findLevelAtOrBetter(order.getPrice()));
+        }
+        final double nanos = (System.nanoTime() - start) / (double) OPERATIONS;
+
+        if (side.getLevelCount() != LEVELS) {
+            throw new IllegalStateException(String.format("Book should be back to its starting depth levels=[%d]", side.getLevelCount()));
+        }
+
+        return nanos;
+    }
+}
@@ -0,0 +1,49 @@
+package codingblackfemales.orderbook;
+
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The OrderBookSide implementations, so the book tests can be run as Parameterized tests against each of them.
+ */
+public enum OrderBookSides {
+
+    LINKED {
+        @Override
+        public AskBookSide askSide() {
+            return new AskBookSide();
+        }
+
+        @Override
+        public BidBookSide bidSide() {
+            return new BidBookSide();
+        }
+    },
+
+    PRICE_INDEXED {
+        @Override
+        public AskBookSide askSide() {
+            return new PriceIndexedAskBookSide();
+        }
+
+        @Override
+        public BidBookSide bidSide() {
+            return new PriceIndexedBidBookSide();
+        }
+    };
+
+    public abstract AskBookSide askSide();
+
+    public abstract BidBookSide bidSide();
+
+    public OrderBook book(final MarketDataChannel marketDataChannel, final OrderChannel orderChannel) {
+        return new OrderBook(marketDataChannel, orderChannel, askSide(), bidSide());
+    }
+
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{{LINKED}, {PRICE_INDEXED}});
+    }
+}
@@ -5,16 +5,32 @@ import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
 import codingblackfemales.orderbook.visitor.MutatingRemoveOneOrderVisitor;
 import messages.order.Side;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+@RunWith(Parameterized.class)
 public class OrderBookVisitorTest {
 
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> sides() {
+        return OrderBookSides.parameters();
+    }
+
+    private final OrderBookSides sides;
+
+    public OrderBookVisitorTest(final OrderBookSides sides) {
+        this.sides = sides;
+    }
+
     @Test
     public void testInsertAtFirstLevelForAskBook(){
 
-        final AskBookSide side = new AskBookSide();
+        final AskBookSide side = sides.askSide();
         side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.SELL, 1100, 21_000));
         side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.SELL, 1000, 10_500));
         side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.SELL, 1200, 35_000));
@@ -42,7 +58,7 @@ public class OrderBookVisitorTest {
     @Test
     public void testInsertAtFirstLevelForBidBook(){
 
-        final BidBookSide side = new BidBookSide();
+        final BidBookSide side = sides.bidSide();
         side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 1100, 21_000));
         side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 1000, 10_500));
         side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 1200, 35_000));
@@ -70,7 +86,7 @@ public class OrderBookVisitorTest {
     @Test
     public void testMarketDataAddRemovalVisitor(){
 
-        final AskBookSide side = new AskBookSide();
+        final AskBookSide side = sides.askSide();
         side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.SELL, 1000, 10_500));
         side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.SELL, 1100, 21_000));
         side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.SELL, 1200, 35_000));
@@ -97,7 +113,7 @@ public class OrderBookVisitorTest {
     @Test
     public void testOneLimitOrderRemovalVisitorAskBook(){
 
-        final AskBookSide side = new AskBookSide();
+        final AskBookSide side = sides.askSide();
 
         side.addLimitOrder(new LimitOrderFlyweight(Side.SELL, 1200L, 10_123, 123456));
 
@@ -132,7 +148,7 @@ public class OrderBookVisitorTest {
     @Test
     public void testOneLimitOrderRemovalVisitorBidBook(){
 
-        final BidBookSide side = new BidBookSide();
+        final BidBookSide side = sides.bidSide();
 
         side.addLimitOrder(new LimitOrderFlyweight(Side.BUY,900L, 10_123, 123456));
 
@@ -162,4 +178,44 @@ public class OrderBookVisitorTest {
 
     }
 
+    @Test
+    public void testInsertBetweenLevelsForAskBook(){
+
+        final AskBookSide side = sides.askSide();
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.SELL, 1000, 10_500));
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.SELL, 1200, 35_000));
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.SELL, 1100, 21_000));
+        side.addLimitOrder(new LimitOrderFlyweight(Side.SELL, 1150L, 1_000, 123456));
+
+        assertLevels(side, new long[]{1000, 1100, 1150, 1200}, new long[]{10_500, 21_000, 1_000, 35_000});
+
+        side.removeMarketDataOrders();
+
+        assertLevels(side, new long[]{1150}, new long[]{1_000});
+    }
+
+    @Test
+    public void testInsertBetweenLevelsForBidBook(){
+
+        final BidBookSide side = sides.bidSide();
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 1000, 10_500));
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 1200, 35_000));
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 1100, 21_000));
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 900, 5_000));
+        side.addMarketDataOrder(new MarketDataOrderFlyweight(Side.BUY, 1100, 1_000));
+
+        assertLevels(side, new long[]{1200, 1100, 1000, 900}, new long[]{35_000, 22_000, 10_500, 5_000});
+        assertEquals(4, side.getLevelCount());
+    }
+
+    private static void assertLevels(final OrderBookSide side, final long[] prices, final long[] quantities){
+        OrderBookLevel level = side.getFirstLevel();
+        for (int i = 0; i < prices.length; i++) {
+            assertEquals(prices[i], level.getPrice());
+            assertEquals(quantities[i], level.getQuantity());
+            level = level.next();
+        }
+        assertNull(level);
+    }
+
 }
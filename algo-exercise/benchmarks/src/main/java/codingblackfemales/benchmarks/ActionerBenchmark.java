@@ -0,0 +1,72 @@
+package codingblackfemales.benchmarks;
+
+import codingblackfemales.action.CancelChildOrder;
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.container.Actioner;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sotw.ChildOrder;
+import codingblackfemales.sotw.OrderState;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cancel/replace, the way AddCancelAlgoLogic churns its orders, sent into a DefaultSequencer whose network only
+ * hands the sequenced buffer to JMH. Run with the GC profiler (the default in BenchmarkRunner) to compare the
+ * allocation of each:
+ * 1) reusedActions: the algo resets the same two actions and the Actioner encodes them into its OrderEntry
+ * 2) newActions: a new action per decision, still encoded into the Actioner's OrderEntry
+ * 3) selfEncodingActions: a new action per decision which allocates its own encoder and buffer to send itself
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class ActionerBenchmark {
+
+    private DefaultSequencer sequencer;
+    private Actioner actioner;
+    private ChildOrder childOrder;
+
+    private final CreateChildOrder createChildOrder = new CreateChildOrder();
+    private final CancelChildOrder cancelChildOrder = new CancelChildOrder();
+
+    private long price;
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        sequencer = new DefaultSequencer((DirectBuffer buffer) -> blackhole.consume(buffer));
+        actioner = new Actioner(sequencer, Ticks.INSTRUMENT_ID);
+        childOrder = new ChildOrder(Side.BUY, 2L, 100L, 98L, OrderState.ACKED);
+    }
+
+    private long nextPrice() {
+        return 98L + (price++ & 3);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void reusedActions() {
+        actioner.processAction(cancelChildOrder.reset(childOrder));
+        actioner.processAction(createChildOrder.reset(Side.BUY, 100L, nextPrice()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void newActions() {
+        actioner.processAction(new CancelChildOrder(childOrder));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100L, nextPrice()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void selfEncodingActions() {
+        new CancelChildOrder(childOrder).apply(sequencer);
+        new CreateChildOrder(Side.BUY, 100L, nextPrice()).apply(sequencer);
+    }
+}
@@ -0,0 +1,122 @@
+package codingblackfemales.benchmarks;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+import codingblackfemales.algo.AddCancelAlgoLogic;
+import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.algo.PassiveAlgoLogic;
+import codingblackfemales.algo.SniperAlgoLogic;
+import codingblackfemales.container.Actioner;
+import codingblackfemales.container.AlgoContainer;
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.gettingstarted.MyAlgoLogic;
+import codingblackfemales.orderbook.OrderBook;
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.consumer.OrderBookInboundOrderConsumer;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.service.MarketDataService;
+import codingblackfemales.service.OrderService;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A market data tick through the whole back test stack: sequencer, order book, market data and order services and
+ * the container running AlgoLogic.evaluate, with whatever the algo returns going back through the Actioner into the
+ * sequencer and book. Some features of this:
+ *
+ * 1) The stack is wired the same way as AbstractAlgoBackTest, less the LoggingConsumer.
+ * 2) Every algo stops creating orders after a handful of children, so each invocation is a session of
+ *    SESSION_TICKS ticks against a freshly built stack, and the score is per tick. Building the stack is not timed
+ *    but the gc profiler does count what it allocates, so norm alloc includes 1/SESSION_TICKS of it.
+ * 3) With logging=info everything under codingblackfemales logs at info into an appender which discards it, so the
+ *    score is what logging costs the tick loop itself, which is the event log's records as the book tables are at debug.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class AlgoTickBenchmark {
+
+    private static final int SESSION_TICKS = 64;
+    private static final int DISTINCT_TICKS = 4;
+
+    @Param({"passive", "sniper", "addcancel", "myalgo"})
+    public String algo;
+
+    @Param({"off", "info"})
+    public String logging;
+
+    private final UnsafeBuffer[] ticks = new UnsafeBuffer[DISTINCT_TICKS];
+
+    private Sequencer sequencer;
+
+    @Setup(Level.Trial)
+    public void createTicks() {
+        if (logging.equals("info")) {
+            final Logger logger = (Logger) LoggerFactory.getLogger("codingblackfemales");
+            final NOPAppender<ILoggingEvent> discard = new NOPAppender<>();
+            discard.setContext(logger.getLoggerContext());
+            discard.start();
+            logger.addAppender(discard);
+            logger.setAdditive(false);
+            logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        }
+
+        for (int i = 0; i < DISTINCT_TICKS; i++) {
+            ticks[i] = Ticks.bookUpdate(10, i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createStack() {
+        final TestNetwork network = new TestNetwork();
+        sequencer = new DefaultSequencer(network);
+
+        final RunTrigger runTrigger = new RunTrigger();
+        final Actioner actioner = new Actioner(sequencer);
+
+        final OrderBook book = new OrderBook(new MarketDataChannel(sequencer), new OrderChannel(sequencer));
+        final OrderBookInboundOrderConsumer orderConsumer = new OrderBookInboundOrderConsumer(book);
+
+        final AlgoContainer container = new AlgoContainer(new MarketDataService(runTrigger), new OrderService(runTrigger), runTrigger, actioner);
+        container.setLogic(createAlgoLogic(algo));
+
+        network.addConsumer(book);
+        network.addConsumer(container.getMarketDataService());
+        network.addConsumer(container.getOrderService());
+        network.addConsumer(orderConsumer);
+        network.addConsumer(container);
+    }
+
+    static AlgoLogic createAlgoLogic(final String algo) {
+        switch (algo) {
+            case "passive":
+                return new PassiveAlgoLogic();
+            case "sniper":
+                return new SniperAlgoLogic();
+            case "addcancel":
+                return new AddCancelAlgoLogic();
+            case "myalgo":
+                return new MyAlgoLogic(3_000, 100);
+            default:
+                throw new IllegalArgumentException(String.format("Unknown algo, algo=[%s]", algo));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SESSION_TICKS)
+    public void session() {
+        for (int i = 0; i < SESSION_TICKS; i++) {
+            sequencer.onCommand(ticks[i % DISTINCT_TICKS]);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package codingblackfemales.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the gc profiler always on, so each result reports allocation per op next to throughput
+ * and average time. Takes the usual JMH arguments, i.e. to build and run only the order book benchmark:
+ *
+ * mvn -pl algo-exercise/benchmarks -am package -DskipTests
+ * java -jar algo-exercise/benchmarks/target/benchmarks.jar OrderBookBenchmark
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,42 @@
+package codingblackfemales.benchmarks;
+
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.service.MarketDataService;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The algo's market data service decoding a book update and overwriting its levels, alternating between two
+ * updates so that every level changes from one tick to the next.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class MarketDataServiceBenchmark {
+
+    @Param({"5", "10"})
+    public int levels;
+
+    private final RunTrigger runTrigger = new RunTrigger();
+    private final MarketDataService marketDataService = new MarketDataService(runTrigger);
+
+    private UnsafeBuffer[] ticks;
+    private int tick = 0;
+
+    @Setup
+    public void setUp() {
+        ticks = new UnsafeBuffer[]{Ticks.bookUpdate(levels, 0), Ticks.bookUpdate(levels, 1)};
+    }
+
+    @Benchmark
+    public boolean onBookUpdate() {
+        tick ^= 1;
+        marketDataService.onMessage(ticks[tick]);
+        return runTrigger.shouldRun();
+    }
+}
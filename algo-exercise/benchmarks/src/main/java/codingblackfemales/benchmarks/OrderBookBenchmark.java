@@ -0,0 +1,120 @@
+package codingblackfemales.benchmarks;
+
+import codingblackfemales.orderbook.OrderBook;
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.sequencer.Sequencer;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderBook.onLimitOrder against a 10 level book built from market data, with the fills and book updates it publishes
+ * handed to JMH rather than a sequencer. Some features of this:
+ *
+ * 1) restAndCancel joins the bid below the touch and cancels it again, so the book is the same after each op.
+ * 2) sweepAndRefill buys through the first levels of the ask and then re-applies the market data it took, which
+ *    is what the simulator does on the next tick.
+ * 3) restAndMatch joins the spread with a bid and sells into it, one matched order per op, which is the rate the
+ *    MatchingEngine is measured by.
+ * 4) matchFrontOfDeepLevel sells into a bid at 99 which already has ordersAtLevel orders queued on it, so the fill
+ *    comes off the front of a deep FIFO queue, and then joins the back of it again to keep the queue the same depth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class OrderBookBenchmark {
+
+    private static final int LEVELS = 10;
+
+    @Param({"1", "3"})
+    public int levelsToSweep;
+
+    private OrderBook book;
+    private BookUpdateDecoder bookUpdate;
+
+    private long orderId = 0;
+
+    @State(Scope.Thread)
+    public static class DeepLevel {
+
+        @Param({"1", "100", "1000"})
+        public int ordersAtLevel;
+
+        private OrderBook book;
+        private long orderId = 0;
+
+        @Setup
+        public void setUp(final Blackhole blackhole) {
+            final Sequencer sequencer = blackhole::consume;
+            book = new OrderBook(new MarketDataChannel(sequencer), new OrderChannel(sequencer));
+            book.onBookUpdate(OrderBookBenchmark.bookUpdate(Ticks.bookUpdate(LEVELS, 0)));
+
+            //all at one price, the book publishes by level so the depth of the queue does not grow the book update
+            for (int i = 0; i < ordersAtLevel; i++) {
+                orderId++;
+                book.onLimitOrder(book.newLimitOrder(Side.BUY, 99L, 100L, orderId));
+            }
+        }
+    }
+
+    private static BookUpdateDecoder bookUpdate(final UnsafeBuffer tick) {
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        header.wrap(tick, 0);
+        return new BookUpdateDecoder().wrap(tick, header.encodedLength(), header.blockLength(), header.version());
+    }
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        final Sequencer sequencer = blackhole::consume;
+        book = new OrderBook(new MarketDataChannel(sequencer), new OrderChannel(sequencer));
+
+        bookUpdate = bookUpdate(Ticks.bookUpdate(LEVELS, 0));
+        book.onBookUpdate(bookUpdate);
+    }
+
+    @Benchmark
+    public void restAndCancel() {
+        orderId++;
+        book.onLimitOrder(book.newLimitOrder(Side.BUY, 96L, 100L, orderId));
+        book.onCancelOrder(orderId);
+    }
+
+    @Benchmark
+    public void restAndMatch() {
+        orderId++;
+        book.onLimitOrder(book.newLimitOrder(Side.BUY, 99L, 100L, orderId));
+        orderId++;
+        book.onLimitOrder(book.newLimitOrder(Side.SELL, 99L, 100L, orderId));
+    }
+
+    @Benchmark
+    public void matchFrontOfDeepLevel(final DeepLevel level) {
+        final OrderBook book = level.book;
+        level.orderId++;
+        book.onLimitOrder(book.newLimitOrder(Side.SELL, 99L, 100L, level.orderId));
+        level.orderId++;
+        book.onLimitOrder(book.newLimitOrder(Side.BUY, 99L, 100L, level.orderId));
+    }
+
+    @Benchmark
+    public void sweepAndRefill() {
+        orderId++;
+        //asks are 100, 102, 104... with 100, 200, 300... at each level
+        final long price = 100L + (levelsToSweep - 1) * 2L;
+        final long quantity = 50L * levelsToSweep * (levelsToSweep + 1);
+        book.onLimitOrder(book.newLimitOrder(Side.BUY, price, quantity, orderId));
+
+        //the decoder's groups can only be read once, so it is rewound before it is re-applied
+        bookUpdate.sbeRewind();
+        book.onBookUpdate(bookUpdate);
+    }
+}
@@ -0,0 +1,70 @@
+package codingblackfemales.benchmarks;
+
+import codingblackfemales.algo.PassiveAlgoLogic;
+import codingblackfemales.container.ParallelAlgoEngine;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticks per second through the ParallelAlgoEngine for a 500 instrument universe, each instrument running the passive
+ * algo, as the number of workers grows. Each op is one tick, published for every instrument in turn and then drained
+ * until the workers are idle, so the score includes getting the algos' orders back through the sequencer. Scaling
+ * needs at least workers + 1 cores, on fewer the workers and the dispatching thread share them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class ParallelAlgoEngineBenchmark {
+
+    private static final int INSTRUMENTS = 500;
+    private static final int DISTINCT_TICKS = 4;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    private final UnsafeBuffer[][] ticks = new UnsafeBuffer[DISTINCT_TICKS][INSTRUMENTS];
+
+    private DefaultSequencer sequencer;
+    private ParallelAlgoEngine engine;
+    private int tick = 0;
+
+    @Setup
+    public void setUp() {
+        for (int t = 0; t < DISTINCT_TICKS; t++) {
+            for (int i = 0; i < INSTRUMENTS; i++) {
+                ticks[t][i] = Ticks.bookUpdate(i + 1, 10, t);
+            }
+        }
+
+        final TestNetwork network = new TestNetwork();
+        sequencer = new DefaultSequencer(network);
+        engine = new ParallelAlgoEngine(sequencer, workers, instrumentId -> new PassiveAlgoLogic());
+        network.addConsumer(engine);
+        engine.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSTRUMENTS)
+    public void tickEveryInstrument() {
+        tick = (tick + 1) % DISTINCT_TICKS;
+        final UnsafeBuffer[] instrumentTicks = ticks[tick];
+        for (int i = 0; i < INSTRUMENTS; i++) {
+            sequencer.onCommand(instrumentTicks[i]);
+            //keep the workers' outbound queues short while publishing
+            engine.drainCommands();
+        }
+        engine.drainUntilIdle();
+    }
+}
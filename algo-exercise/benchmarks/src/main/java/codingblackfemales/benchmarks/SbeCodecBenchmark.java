@@ -0,0 +1,65 @@
+package codingblackfemales.benchmarks;
+
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.MessageHeaderEncoder;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding a BookUpdate into a reused buffer and decoding every level back out of it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class SbeCodecBenchmark {
+
+    @Param({"5", "10"})
+    public int levels;
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder encoder = new BookUpdateEncoder();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final BookUpdateDecoder decoder = new BookUpdateDecoder();
+
+    private final UnsafeBuffer encodeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+    private UnsafeBuffer tick;
+
+    private long shift = 0;
+
+    @Setup
+    public void setUp() {
+        tick = Ticks.bookUpdate(levels, 0);
+    }
+
+    @Benchmark
+    public int encodeBookUpdate() {
+        shift = (shift + 1) & 7;
+        return Ticks.encodeBookUpdate(encoder, headerEncoder, encodeBuffer, levels, shift);
+    }
+
+    @Benchmark
+    public void decodeBookUpdate(final Blackhole blackhole) {
+        headerDecoder.wrap(tick, 0);
+        decoder.wrap(tick, headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+
+        blackhole.consume(decoder.instrumentId());
+        for (BookUpdateDecoder.BidBookDecoder bid : decoder.bidBook()) {
+            blackhole.consume(bid.price());
+            blackhole.consume(bid.size());
+        }
+        for (BookUpdateDecoder.AskBookDecoder ask : decoder.askBook()) {
+            blackhole.consume(ask.price());
+            blackhole.consume(ask.size());
+        }
+        blackhole.consume(decoder.instrumentStatus());
+    }
+}
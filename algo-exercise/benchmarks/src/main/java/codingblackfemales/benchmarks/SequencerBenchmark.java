@@ -0,0 +1,44 @@
+package codingblackfemales.benchmarks;
+
+import codingblackfemales.sequencer.DefaultSequencer;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DefaultSequencer.onCommand on its own, dispatching to a network which only hands the sequenced buffer to JMH. A
+ * book update is sequenced as it is, a create order is a model message so it also has its order id stamped.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class SequencerBenchmark {
+
+    private DefaultSequencer sequencer;
+    private UnsafeBuffer bookUpdate;
+    private UnsafeBuffer createOrder;
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        sequencer = new DefaultSequencer((DirectBuffer buffer) -> blackhole.consume(buffer));
+        bookUpdate = Ticks.bookUpdate(10, 0);
+        createOrder = Ticks.createOrder(Side.BUY, 98L, 100L);
+    }
+
+    @Benchmark
+    public void onBookUpdate() {
+        sequencer.onCommand(bookUpdate);
+    }
+
+    @Benchmark
+    public void onCreateOrder() {
+        sequencer.onCommand(createOrder);
+    }
+}
@@ -0,0 +1,78 @@
+package codingblackfemales.benchmarks;
+
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import messages.order.CreateOrderEncoder;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encoded messages shared by the benchmarks, built once in their setup so that only the code under test is measured.
+ */
+public final class Ticks {
+
+    public static final long INSTRUMENT_ID = 123L;
+
+    private Ticks() {
+    }
+
+    /**
+     * A book update with bids from 98 down and asks from 100 up, shifted by a tick so consecutive updates differ.
+     */
+    public static UnsafeBuffer bookUpdate(final int levels, final long shift) {
+        return bookUpdate(INSTRUMENT_ID, levels, shift);
+    }
+
+    public static UnsafeBuffer bookUpdate(final long instrumentId, final int levels, final long shift) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        encodeBookUpdate(new BookUpdateEncoder(), new MessageHeaderEncoder(), buffer, instrumentId, levels, shift);
+        return buffer;
+    }
+
+    /**
+     * @return the encoded length, header included.
+     */
+    public static int encodeBookUpdate(final BookUpdateEncoder encoder, final MessageHeaderEncoder headerEncoder,
+                                       final UnsafeBuffer buffer, final int levels, final long shift) {
+        return encodeBookUpdate(encoder, headerEncoder, buffer, INSTRUMENT_ID, levels, shift);
+    }
+
+    public static int encodeBookUpdate(final BookUpdateEncoder encoder, final MessageHeaderEncoder headerEncoder,
+                                       final UnsafeBuffer buffer, final long instrumentId, final int levels, final long shift) {
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.venue(Venue.XLON);
+        encoder.instrumentId(instrumentId);
+        encoder.source(Source.STREAM);
+
+        final BookUpdateEncoder.BidBookEncoder bids = encoder.bidBookCount(levels);
+        for (int i = 0; i < levels; i++) {
+            bids.next().price(98L - i * 2L + shift).size(100L * (i + 1));
+        }
+        final BookUpdateEncoder.AskBookEncoder asks = encoder.askBookCount(levels);
+        for (int i = 0; i < levels; i++) {
+            asks.next().price(100L + i * 2L + shift).size(100L * (i + 1));
+        }
+        encoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+
+    /**
+     * A child order as the Actioner would send it to the sequencer, the order id is stamped by the sequencer.
+     */
+    public static UnsafeBuffer createOrder(final Side side, final long price, final long quantity) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final CreateOrderEncoder encoder = new CreateOrderEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, new messages.order.MessageHeaderEncoder());
+        encoder.side(side);
+        encoder.price(price);
+        encoder.quantity(quantity);
+        encoder.instrumentId(INSTRUMENT_ID);
+        return buffer;
+    }
+}
@@ -0,0 +1,83 @@
+package codingblackfemales.collection.extrusive;
+
+/**
+ * A map from a primitive boolean to an object, which is just two slots. An empty slot is a null value, so null
+ * values cannot be stored.
+ *
+ * @param <TYPEOF>
+ */
+public class BoolToObjArrayMap<TYPEOF> implements BoolToObjMap<TYPEOF> {
+
+    private TYPEOF falseValue = null;
+    private TYPEOF trueValue = null;
+
+    @Override
+    public TYPEOF get(final boolean key) {
+        return key ? trueValue : falseValue;
+    }
+
+    @Override
+    public TYPEOF getOrDefault(final boolean key, final TYPEOF defaultValue) {
+        final TYPEOF value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(final boolean key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void put(final boolean key, final TYPEOF value) {
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("Cannot put a null value key=[%s]", key));
+        }
+        if (key) {
+            trueValue = value;
+        } else {
+            falseValue = value;
+        }
+    }
+
+    @Override
+    public TYPEOF remove(final boolean key) {
+        final TYPEOF value = get(key);
+        if (key) {
+            trueValue = null;
+        } else {
+            falseValue = null;
+        }
+        return value;
+    }
+
+    @Override
+    public void forEach(final BoolObjConsumer<TYPEOF> consumer) {
+        if (falseValue != null) {
+            consumer.accept(false, falseValue);
+        }
+        if (trueValue != null) {
+            consumer.accept(true, trueValue);
+        }
+    }
+
+    @Override
+    public int size() {
+        return (falseValue != null ? 1 : 0) + (trueValue != null ? 1 : 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return falseValue == null && trueValue == null;
+    }
+
+    @Override
+    public void clear() {
+        falseValue = null;
+        trueValue = null;
+    }
+
+    @Override
+    public String toString() {
+        return "{false=" + falseValue + ", true=" + trueValue + "}";
+    }
+}
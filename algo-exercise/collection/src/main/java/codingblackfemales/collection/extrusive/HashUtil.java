@@ -0,0 +1,52 @@
+package codingblackfemales.collection.extrusive;
+
+/**
+ * Sizing and hashing shared by the open addressing maps in this package.
+ */
+final class HashUtil {
+
+    static final float LOAD_FACTOR = 0.65f;
+    static final int MIN_CAPACITY = 8;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private HashUtil() {
+    }
+
+    /**
+     * @return the smallest power of two capacity that holds expectedSize entries under the load factor
+     */
+    static int capacityFor(final int expectedSize) {
+        final long wanted = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR));
+        if (wanted > MAX_CAPACITY) {
+            throw new IllegalArgumentException(String.format("Map capacity too large expectedSize=[%d]", expectedSize));
+        }
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+
+    static int resizeThreshold(final int capacity) {
+        return (int) (capacity * LOAD_FACTOR);
+    }
+
+    static int hash(final long key, final int mask) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    static int hash(final int key, final int mask) {
+        final int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    static int hash(final Object key, final int mask) {
+        return hash(key.hashCode(), mask);
+    }
+
+    /**
+     * When backward shifting after a removal, whether the entry at index (which wants to live at hash) may move back
+     * into the slot freed at deleteIndex without becoming unreachable from its hash.
+     */
+    static boolean canMoveBack(final int deleteIndex, final int index, final int hash) {
+        return (index < hash && (hash <= deleteIndex || deleteIndex <= index))
+                || (hash <= deleteIndex && deleteIndex <= index);
+    }
+}
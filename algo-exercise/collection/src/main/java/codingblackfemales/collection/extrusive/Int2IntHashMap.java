@@ -0,0 +1,182 @@
+package codingblackfemales.collection.extrusive;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing, linear probing map from a primitive int to a primitive int. Some features of this:
+ *
+ * 1) The capacity is always a power of two and doubles when the map is 65% full, nothing else allocates.
+ * 2) An empty slot holds the missingValue, so the missingValue cannot be stored.
+ * 3) remove() shifts the rest of the probe chain back rather than leaving tombstones behind.
+ * 4) The map must not be modified from inside forEach().
+ */
+public class Int2IntHashMap implements Int2IntMap {
+
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size = 0;
+
+    public Int2IntHashMap(final int missingValue) {
+        this(HashUtil.MIN_CAPACITY, missingValue);
+    }
+
+    public Int2IntHashMap(final int expectedSize, final int missingValue) {
+        this.missingValue = missingValue;
+        allocate(HashUtil.capacityFor(expectedSize));
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, missingValue);
+        mask = capacity - 1;
+        resizeThreshold = HashUtil.resizeThreshold(capacity);
+    }
+
+    @Override
+    public int get(final int key) {
+        int index = HashUtil.hash(key, mask);
+        int value;
+        while ((value = values[index]) != missingValue) {
+            if (keys[index] == key) {
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    @Override
+    public int getOrDefault(final int key, final int defaultValue) {
+        final int value = get(key);
+        return value != missingValue ? value : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(final int key) {
+        return get(key) != missingValue;
+    }
+
+    @Override
+    public void put(final int key, final int value) {
+        if (value == missingValue) {
+            throw new IllegalArgumentException(String.format("Cannot put the missingValue key=[%d] value=[%d]", key, value));
+        }
+
+        int index = HashUtil.hash(key, mask);
+        while (values[index] != missingValue) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > resizeThreshold) {
+            resize(values.length << 1);
+        }
+    }
+
+    @Override
+    public int remove(final int key) {
+        int index = HashUtil.hash(key, mask);
+        int value;
+        while ((value = values[index]) != missingValue) {
+            if (keys[index] == key) {
+                values[index] = missingValue;
+                size--;
+                compactChain(index);
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    private void compactChain(int deleteIndex) {
+        int index = deleteIndex;
+        while (true) {
+            index = (index + 1) & mask;
+            if (values[index] == missingValue) {
+                return;
+            }
+
+            if (HashUtil.canMoveBack(deleteIndex, index, HashUtil.hash(keys[index], mask))) {
+                keys[deleteIndex] = keys[index];
+                values[deleteIndex] = values[index];
+                values[index] = missingValue;
+                deleteIndex = index;
+            }
+        }
+    }
+
+    private void resize(final int newCapacity) {
+        if (newCapacity > HashUtil.MAX_CAPACITY) {
+            throw new IllegalStateException(String.format("Map is full size=[%d]", size));
+        }
+
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            final int value = oldValues[i];
+            if (value != missingValue) {
+                int index = HashUtil.hash(oldKeys[i], mask);
+                while (values[index] != missingValue) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = value;
+            }
+        }
+    }
+
+    @Override
+    public void forEach(final IntIntConsumer consumer) {
+        final int[] keys = this.keys;
+        final int[] values = this.values;
+        for (int i = 0; i < values.length; i++) {
+            final int value = values[i];
+            if (value != missingValue) {
+                consumer.accept(keys[i], value);
+            }
+        }
+    }
+
+    @Override
+    public int missingValue() {
+        return missingValue;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(values, missingValue);
+            size = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> builder.append(builder.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return builder.append('}').toString();
+    }
+}
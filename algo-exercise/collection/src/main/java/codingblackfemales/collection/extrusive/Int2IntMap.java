@@ -1,4 +1,18 @@
 package codingblackfemales.collection.extrusive;
 
+/**
+ * An int to int map, get() and remove() return the missingValue the map was created with when there is no entry, so
+ * the missingValue itself can never be stored.
+ */
 public interface Int2IntMap {
+    int get(int key);
+    void put(int key, int value);
+    int getOrDefault(int key, int defaultValue);
+    void forEach(IntIntConsumer consumer);
+    int remove(int key);
+    boolean containsKey(int key);
+    int missingValue();
+    int size();
+    boolean isEmpty();
+    void clear();
 }
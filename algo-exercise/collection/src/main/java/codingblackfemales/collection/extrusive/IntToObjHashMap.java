@@ -0,0 +1,179 @@
+package codingblackfemales.collection.extrusive;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing, linear probing map from a primitive int to an object. Some features of this:
+ *
+ * 1) The capacity is always a power of two and doubles when the map is 65% full, nothing else allocates.
+ * 2) An empty slot is a null value, so null values cannot be stored.
+ * 3) remove() shifts the rest of the probe chain back rather than leaving tombstones behind.
+ * 4) The map must not be modified from inside forEach().
+ *
+ * @param <TYPEOF>
+ */
+public class IntToObjHashMap<TYPEOF> implements IntToObjMap<TYPEOF> {
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size = 0;
+
+    public IntToObjHashMap() {
+        this(HashUtil.MIN_CAPACITY);
+    }
+
+    public IntToObjHashMap(final int expectedSize) {
+        allocate(HashUtil.capacityFor(expectedSize));
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = HashUtil.resizeThreshold(capacity);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public TYPEOF get(final int key) {
+        int index = HashUtil.hash(key, mask);
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                return (TYPEOF) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public TYPEOF getOrDefault(final int key, final TYPEOF defaultValue) {
+        final TYPEOF value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(final int key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void put(final int key, final TYPEOF value) {
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("Cannot put a null value key=[%d]", key));
+        }
+
+        int index = HashUtil.hash(key, mask);
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > resizeThreshold) {
+            resize(values.length << 1);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public TYPEOF remove(final int key) {
+        int index = HashUtil.hash(key, mask);
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                values[index] = null;
+                size--;
+                compactChain(index);
+                return (TYPEOF) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private void compactChain(int deleteIndex) {
+        int index = deleteIndex;
+        while (true) {
+            index = (index + 1) & mask;
+            if (values[index] == null) {
+                return;
+            }
+
+            if (HashUtil.canMoveBack(deleteIndex, index, HashUtil.hash(keys[index], mask))) {
+                keys[deleteIndex] = keys[index];
+                values[deleteIndex] = values[index];
+                values[index] = null;
+                deleteIndex = index;
+            }
+        }
+    }
+
+    private void resize(final int newCapacity) {
+        if (newCapacity > HashUtil.MAX_CAPACITY) {
+            throw new IllegalStateException(String.format("Map is full size=[%d]", size));
+        }
+
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            final Object value = oldValues[i];
+            if (value != null) {
+                int index = HashUtil.hash(oldKeys[i], mask);
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = value;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final IntObjConsumer<TYPEOF> consumer) {
+        final int[] keys = this.keys;
+        final Object[] values = this.values;
+        for (int i = 0; i < values.length; i++) {
+            final Object value = values[i];
+            if (value != null) {
+                consumer.accept(keys[i], (TYPEOF) value);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> builder.append(builder.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return builder.append('}').toString();
+    }
+}
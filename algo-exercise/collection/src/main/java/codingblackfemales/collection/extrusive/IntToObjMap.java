@@ -5,4 +5,9 @@ public interface IntToObjMap<TYPEOF> {
     void put(int i, TYPEOF obj);
     TYPEOF getOrDefault(int i, TYPEOF obj);
     void forEach(IntObjConsumer<TYPEOF> consumer);
+    TYPEOF remove(int i);
+    boolean containsKey(int i);
+    int size();
+    boolean isEmpty();
+    void clear();
 }
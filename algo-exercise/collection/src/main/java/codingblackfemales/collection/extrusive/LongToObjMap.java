@@ -1,4 +1,13 @@
 package codingblackfemales.collection.extrusive;
 
-public interface LongToObjMap {
+public interface LongToObjMap<TYPEOF> {
+    TYPEOF get(long l);
+    void put(long l, TYPEOF obj);
+    TYPEOF getOrDefault(long l, TYPEOF obj);
+    void forEach(LongObjConsumer<TYPEOF> consumer);
+    TYPEOF remove(long l);
+    boolean containsKey(long l);
+    int size();
+    boolean isEmpty();
+    void clear();
 }
@@ -1,7 +1,46 @@
 package codingblackfemales.collection.extrusive;
 
+/**
+ * Factory for the primitive keyed maps in this package, so callers only depend on the interfaces.
+ */
 public class Map {
-    public void intToObjMap(){}
-    public void boolToObjMap(){}
-    public void longToObjMap(){}
+
+    private Map() {
+    }
+
+    public static <TYPEOF> IntToObjMap<TYPEOF> intToObjMap() {
+        return new IntToObjHashMap<>();
+    }
+
+    public static <TYPEOF> IntToObjMap<TYPEOF> intToObjMap(final int expectedSize) {
+        return new IntToObjHashMap<>(expectedSize);
+    }
+
+    public static <TYPEOF> BoolToObjMap<TYPEOF> boolToObjMap() {
+        return new BoolToObjArrayMap<>();
+    }
+
+    public static <TYPEOF> LongToObjMap<TYPEOF> longToObjMap() {
+        return new LongToObjHashMap<>();
+    }
+
+    public static <TYPEOF> LongToObjMap<TYPEOF> longToObjMap(final int expectedSize) {
+        return new LongToObjHashMap<>(expectedSize);
+    }
+
+    public static Int2IntMap int2IntMap(final int missingValue) {
+        return new Int2IntHashMap(missingValue);
+    }
+
+    public static Int2IntMap int2IntMap(final int expectedSize, final int missingValue) {
+        return new Int2IntHashMap(expectedSize, missingValue);
+    }
+
+    public static <KEY, TYPEOF> ObjToObjMap<KEY, TYPEOF> objToObjMap() {
+        return new ObjToObjHashMap<>();
+    }
+
+    public static <KEY, TYPEOF> ObjToObjMap<KEY, TYPEOF> objToObjMap(final int expectedSize) {
+        return new ObjToObjHashMap<>(expectedSize);
+    }
 }
@@ -0,0 +1,5 @@
+package codingblackfemales.collection.extrusive;
+
+public interface ObjObjConsumer<KEY, TYPEOF> {
+    public void accept(KEY key, TYPEOF obj);
+}
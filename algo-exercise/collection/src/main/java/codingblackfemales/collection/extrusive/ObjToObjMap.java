@@ -1,4 +1,13 @@
 package codingblackfemales.collection.extrusive;
 
-public interface ObjToObjMap {
+public interface ObjToObjMap<KEY, TYPEOF> {
+    TYPEOF get(KEY key);
+    void put(KEY key, TYPEOF obj);
+    TYPEOF getOrDefault(KEY key, TYPEOF obj);
+    void forEach(ObjObjConsumer<KEY, TYPEOF> consumer);
+    TYPEOF remove(KEY key);
+    boolean containsKey(KEY key);
+    int size();
+    boolean isEmpty();
+    void clear();
 }
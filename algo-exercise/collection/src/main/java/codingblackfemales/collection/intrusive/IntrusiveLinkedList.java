@@ -0,0 +1,95 @@
+package codingblackfemales.collection.intrusive;
+
+/**
+ * A doubly linked list through nodes which carry their own links, so adding and removing never allocates. Some
+ * features of this:
+ *
+ * 1) The first and last nodes and the size live here, on whatever owns the list (i.e. a book side for its levels),
+ *    so adding at the tail, inserting in front of a node and removing any node are all O(1)
+ * 2) Nodes are walked from first() with next(), or back from last() with previous()
+ *
+ *
+ * @param <TYPEOF>
+ */
+public final class IntrusiveLinkedList<TYPEOF extends IntrusiveLinkedListNode<TYPEOF>> {
+
+    private TYPEOF first = null;
+    private TYPEOF last = null;
+    private int size = 0;
+
+    public TYPEOF first() {
+        return first;
+    }
+
+    public TYPEOF last() {
+        return last;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Links item in after the last node.
+     */
+    public void add(final TYPEOF item) {
+        item.previous = last;
+        item.next = null;
+        if (last == null) {
+            first = item;
+        } else {
+            last.next = item;
+        }
+        last = item;
+        size++;
+    }
+
+    /**
+     * Links item in directly in front of next, which must already be in this list.
+     */
+    public void insertBefore(final TYPEOF next, final TYPEOF item) {
+        final TYPEOF previous = next.previous;
+        item.previous = previous;
+        item.next = next;
+        next.previous = item;
+        if (previous == null) {
+            first = item;
+        } else {
+            previous.next = item;
+        }
+        size++;
+    }
+
+    /**
+     * Unlinks item, which must be in this list. The item keeps its own links until it is added again, so a walk which
+     * is on it when it is removed can still carry on to the next node.
+     */
+    public void remove(final TYPEOF item) {
+        final TYPEOF previous = item.previous;
+        final TYPEOF next = item.next;
+        if (previous == null) {
+            first = next;
+        } else {
+            previous.next = next;
+        }
+        if (next == null) {
+            last = previous;
+        } else {
+            next.previous = previous;
+        }
+        size--;
+    }
+
+    /**
+     * Forgets every node without unlinking them, for when the nodes have already been reset or are being dropped.
+     */
+    public void clear() {
+        first = null;
+        last = null;
+        size = 0;
+    }
+}
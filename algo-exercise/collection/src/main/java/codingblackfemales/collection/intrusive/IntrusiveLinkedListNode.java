@@ -1,10 +1,11 @@
 package codingblackfemales.collection.intrusive;
 
 /**
- * A basic implementation of an Intrusive Linked List. Some features of this:
+ * A node of an IntrusiveLinkedList. Some features of this:
  *
- * 1) The remove call always returns the new first node
- * 2)
+ * 1) The node only holds its own links, the first and last nodes and the size are held by the list which owns it,
+ *    so every change is O(1) wherever the node is, including changing the first node
+ * 2) A node is only ever in one list at a time, and is added and removed through that list
  *
  *
  * @param <TYPEOF>
@@ -13,122 +14,17 @@ public abstract class IntrusiveLinkedListNode<TYPEOF extends IntrusiveLinkedList
 
     protected TYPEOF next = null;
     protected TYPEOF previous = null;
-    protected TYPEOF first = null;
-    protected TYPEOF last = null;
-
-    protected int size = 0;
 
     protected IntrusiveLinkedListNode() {
-        this.first = (TYPEOF) this;
-        this.last = (TYPEOF) this;
-        this.previous = null;
-        this.next = null;
-        this.size = 1;
-    }
-
-    public IntrusiveLinkedListNode<TYPEOF> add(final TYPEOF item) {
-        addToTail(item);
-        setPrevious(item, this.last);
-        setLast(item);
-        item.first = this.first;
-        setSize(this.size() + 1);
-        return first();
-    }
-
-    private void setPrevious(final TYPEOF item, final TYPEOF previous){
-        item.previous = previous;
-    }
-
-    private void addToTail(final TYPEOF item){
-        this.last.next = item;
-    }
-
-    private void setLast(final TYPEOF item){
-        this.first.last = item;
-    }
-
-    private void setSize(final int size){
-        this.first.size = size;
-    }
-
-    private void setSize(final TYPEOF newFirst, final int size){
-        newFirst.size = size;
-    }
-
-    private void linkPreviousAndNext(){
-        TYPEOF previous = this.previous;
-        TYPEOF next = this.next;
-
-        if (previous != null) {
-            previous.next = next;
-        }
-    }
-
-    private void setFirst(TYPEOF first) {
-        this.first.first = first;
-//        IntrusiveLinkedListNode<TYPEOF> thePrevious = first;
-//        while (thePrevious != null) {
-//            thePrevious.first = first;
-//            thePrevious = thePrevious.next;
-//        }
+        resetLinks();
     }
 
-    private void resetFirst(TYPEOF first) {
-        //this.first.first = first;
-        IntrusiveLinkedListNode<TYPEOF> thePrevious = first;
-        while (thePrevious != null) {
-            thePrevious.first = first;
-            thePrevious = thePrevious.next;
-        }
-    }
-
-//    private void setSize(TYPEOF last) {
-//        if (last == null) {
-//            return;
-//        }
-//
-//        IntrusiveLinkedListNode<TYPEOF> thePrevious = last.previous;
-//        while (thePrevious != null) {
-//            thePrevious.size = this.size;
-//            thePrevious = thePrevious.previous;
-//        }
-//    }
-
-    public TYPEOF remove() {
-
-        TYPEOF previousLast = this.last();
-
-        final int newSize = this.size() - 1;
-
-        if(previousLast.equals(this)){
-            setLast(this.previous);
-        }
-
-        linkPreviousAndNext();
-
-        TYPEOF newFirst = null;
-
-        if (this.first.equals(this)) {
-            newFirst = next;
-            resetFirst(newFirst);
-        }else{
-            newFirst = this.first();
-        }
-
-        if(newFirst != null){
-            setSize(newFirst, newSize);
-            return newFirst;
-        }else{
-            return null;
-        }
-    }
-
-    public TYPEOF first() {
-        return this.first.first;
-    }
-
-    public TYPEOF last() {
-        return this.first.last;
+    /**
+     * Puts the node back on its own, as it was when constructed, so that it can be reused once it has been removed.
+     */
+    protected void resetLinks() {
+        this.previous = null;
+        this.next = null;
     }
 
     public TYPEOF next() {
@@ -138,12 +34,4 @@ public abstract class IntrusiveLinkedListNode<TYPEOF extends IntrusiveLinkedList
     public TYPEOF previous() {
         return previous;
     }
-
-    public void next(TYPEOF node) {
-        this.next = node;
-    }
-
-    public int size() {
-        return this.first.size;
-    }
 }
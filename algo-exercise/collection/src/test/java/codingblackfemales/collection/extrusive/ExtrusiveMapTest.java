@@ -0,0 +1,178 @@
+package codingblackfemales.collection.extrusive;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExtrusiveMapTest {
+
+    private static final int OPERATIONS = 200_000;
+
+    @Test
+    public void testLongToObjMapBehavesLikeHashMap() {
+        final LongToObjMap<String> map = Map.longToObjMap();
+        final java.util.Map<Long, String> expected = new HashMap<>();
+        final SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            //a small key space so that puts, overwrites and removes all collide with each other
+            final long key = random.nextInt(2_000) * 1024L - 1_000_000L;
+            switch (random.nextInt(3)) {
+                case 0:
+                    map.put(key, "v" + i);
+                    expected.put(key, "v" + i);
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        final java.util.Map<Long, String> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(expected.keySet().iterator().next()));
+    }
+
+    @Test
+    public void testIntToObjMapBehavesLikeHashMap() {
+        final IntToObjMap<Integer> map = Map.intToObjMap(4);
+        final java.util.Map<Integer, Integer> expected = new HashMap<>();
+        final SplittableRandom random = new SplittableRandom(11);
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            final int key = random.nextInt(2_000) << 10;
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (int key = 0; key < 2_000 << 10; key += 1 << 10) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        final java.util.Map<Integer, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+        assertEquals(Integer.valueOf(-1), map.getOrDefault(-7, -1));
+    }
+
+    @Test
+    public void testInt2IntMapBehavesLikeHashMap() {
+        final Int2IntMap map = Map.int2IntMap(-1);
+        final java.util.Map<Integer, Integer> expected = new HashMap<>();
+        final SplittableRandom random = new SplittableRandom(13);
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            final int key = random.nextInt(3_000) - 1_500;
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.containsKey(key) ? (int) expected.remove(key) : -1, map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (int key = -1_500; key < 1_500; key++) {
+            assertEquals((int) expected.getOrDefault(key, -1), map.get(key));
+        }
+
+        final java.util.Map<Integer, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testObjToObjMapBehavesLikeHashMap() {
+        final ObjToObjMap<String, Integer> map = Map.objToObjMap();
+        final java.util.Map<String, Integer> expected = new HashMap<>();
+        final SplittableRandom random = new SplittableRandom(17);
+
+        for (int i = 0; i < OPERATIONS / 4; i++) {
+            final String key = "k" + random.nextInt(500);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        final java.util.Map<String, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testBoolToObjMap() {
+        final BoolToObjMap<String> map = Map.boolToObjMap();
+        assertTrue(map.isEmpty());
+
+        map.put(true, "yes");
+        assertEquals("yes", map.get(true));
+        assertNull(map.get(false));
+        assertEquals("no", map.getOrDefault(false, "no"));
+        assertEquals(1, map.size());
+
+        map.put(false, "no");
+        assertEquals(2, map.size());
+        assertEquals("yes", map.remove(true));
+        assertFalse(map.containsKey(true));
+        assertEquals(1, map.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullValuesAreRejected() {
+        Map.<String>longToObjMap().put(1L, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingValueIsRejected() {
+        Map.int2IntMap(0).put(1, 0);
+    }
+
+    @Test
+    public void testGetPutRemoveDoNotAllocate() {
+        final LongToObjMap<Object> map = Map.longToObjMap(1_000);
+        final Object value = new Object();
+
+        for (int i = 0; i < 100_000; i++) {
+            map.put(i % 1_000, value);
+            map.get(i % 1_000);
+            map.remove((i + 500) % 1_000);
+        }
+
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000_000; i++) {
+            map.put(i % 1_000, value);
+            map.get(i % 1_000);
+            map.remove((i + 500) % 1_000);
+        }
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("allocated " + allocated + " bytes", allocated < 16 * 1024);
+    }
+}
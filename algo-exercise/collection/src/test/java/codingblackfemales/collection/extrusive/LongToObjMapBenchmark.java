@@ -0,0 +1,103 @@
+package codingblackfemales.collection.extrusive;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of LongToObjHashMap with HashMap<Long, Object> for get, put and remove, keyed like order ids. Run
+ * main() from the IDE, or from the collection module:
+ *
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main LongToObjMapBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongToObjMapBenchmark {
+
+    private static final int KEYS_MASK = 4095;
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private final Object value = new Object();
+    private final long[] keys = new long[KEYS_MASK + 1];
+    private int next = 0;
+
+    private LongToObjMap<Object> longToObjMap;
+    private java.util.Map<Long, Object> hashMap;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        longToObjMap = Map.longToObjMap(size);
+        hashMap = new HashMap<>(size * 2);
+
+        //order ids are handed out sequentially, so the map holds a dense range of them
+        for (long orderId = 1; orderId <= size; orderId++) {
+            longToObjMap.put(orderId, value);
+            hashMap.put(orderId, value);
+        }
+
+        final SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    private long nextKey() {
+        return keys[next++ & KEYS_MASK];
+    }
+
+    @Benchmark
+    public Object getLongToObjMap() {
+        return longToObjMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Object getHashMap() {
+        return hashMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Object removeAndPutLongToObjMap() {
+        final long key = nextKey();
+        final Object removed = longToObjMap.remove(key);
+        longToObjMap.put(key, value);
+        return removed;
+    }
+
+    @Benchmark
+    public Object removeAndPutHashMap() {
+        final long key = nextKey();
+        final Object removed = hashMap.remove(key);
+        hashMap.put(key, value);
+        return removed;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LongToObjMapBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -2,9 +2,15 @@ package codingblackfemales.collection.intrusive;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class IntrusiveLinkedListTest {
 
@@ -24,129 +30,201 @@ public class IntrusiveLinkedListTest {
         }
     }
 
+    private IntrusiveLinkedList<ExampleNode> listOf(final int count) {
+        final IntrusiveLinkedList<ExampleNode> list = new IntrusiveLinkedList<>();
+        IntStream.range(0, count).forEach( i -> {
+            list.add(new ExampleNode(i));
+        });
+        return list;
+    }
+
     @Test
     public void testSimpleOps(){
 
-        final ExampleNode node = (ExampleNode) new ExampleNode(1)
-                .add(new ExampleNode(2))
-                .add(new ExampleNode(3));
+        final IntrusiveLinkedList<ExampleNode> list = new IntrusiveLinkedList<>();
+        list.add(new ExampleNode(1));
+        list.add(new ExampleNode(2));
+        list.add(new ExampleNode(3));
 
-        assertEquals(3, node.size());
+        assertEquals(3, list.size());
 
-        ExampleNode newNode = node.next.remove();
+        list.remove(list.first().next);
 
-        assertEquals(2, newNode.size());
+        assertEquals(2, list.size());
 
-        assertEquals(1, newNode.getI());
-        assertEquals(3, newNode.next.getI());
+        assertEquals(1, list.first().getI());
+        assertEquals(3, list.first().next.getI());
     }
 
     @Test
     public void testFirstNodeIsAlwaysCorrect(){
 
+        final IntrusiveLinkedList<ExampleNode> list = new IntrusiveLinkedList<>();
+        assertTrue(list.isEmpty());
+        assertNull(list.first());
+        assertNull(list.last());
+
         final ExampleNode node = new ExampleNode(0);
+        list.add(node);
 
-        assertEquals(1, node.size());
-        assertEquals(0, node.first.getI());
-        assertEquals(node, node.first);
-        assertEquals(node, node.last);
+        assertEquals(1, list.size());
+        assertEquals(node, list.first());
+        assertEquals(node, list.last());
 
         IntStream.range(1, 5).forEach( i -> {
-            node.add(new ExampleNode(i));
+            list.add(new ExampleNode(i));
         });
 
-        assertEquals(4, node.last.getI());
-        assertEquals(0, node.first.getI());
-        assertEquals(5, node.size());
+        assertEquals(4, list.last().getI());
+        assertEquals(0, list.first().getI());
+        assertEquals(5, list.size());
 
-        //when we remove a node we always return latest head.
-        ExampleNode latestHead = node.first.next.remove();
+        list.remove(list.first().next);
 
-        assertEquals(0, latestHead.first.getI());
-        assertEquals(4, latestHead.last.getI());
-        assertEquals(4, latestHead.size());
+        assertEquals(0, list.first().getI());
+        assertEquals(4, list.last().getI());
+        assertEquals(4, list.size());
 
-        assertEquals(2, latestHead.next.getI());
-        assertEquals(3, latestHead.next.next.getI());
+        assertEquals(2, list.first().next.getI());
+        assertEquals(3, list.first().next.next.getI());
     }
 
     @Test
     public void testChangeLast(){
 
-        final ExampleNode node = new ExampleNode(0);
-
-        IntStream.range(1, 5).forEach( i -> {
-            node.add(new ExampleNode(i));
-        });
-
-        final ExampleNode newNodeMinus1Last = node.first.last.remove();
-        final ExampleNode expectedLast1 = node.next.next.next;
-
-        assertEquals(3, expectedLast1.getI());
-        assertEquals(4, newNodeMinus1Last.size());
-
-        assertAllLastEquals(newNodeMinus1Last, expectedLast1, 3);
-
-        final ExampleNode newFirst2 = node.first.last.remove();
-        final ExampleNode newLast2 = newFirst2.next.next;
-
-        assertEquals(3, newFirst2.size());
-        assertEquals(2, newLast2.getI());
-
-        assertAllLastEquals(newFirst2, newLast2, 2);
-
-        final ExampleNode newFirst3 = node.first.last.remove();
-        final ExampleNode newLast3 = newFirst3.next;
-
-        assertEquals(2, newFirst3.size());
-        assertEquals(1, newLast3.getI());
-
-        assertAllLastEquals(newFirst3, newLast3, 1);
+        final IntrusiveLinkedList<ExampleNode> list = listOf(5);
 
-        final ExampleNode newFirst4 = node.first.last.remove();
-        final ExampleNode newLast4 = newFirst4;
+        for (int expectedLast = 3; expectedLast >= 0; expectedLast--) {
+            final ExampleNode removed = list.last();
+            list.remove(removed);
 
-        assertEquals(1, newFirst4.size());
-        assertEquals(0, newLast4.getI());
+            assertEquals(expectedLast + 1, list.size());
+            assertEquals(expectedLast, list.last().getI());
+            assertNull(list.last().next());
+            assertEquals(list.last(), removed.previous());
+        }
 
-        assertAllLastEquals(newFirst4, newLast4, 0);
+        assertEquals(list.first(), list.last());
 
-        assertEquals(newFirst4, newLast4);
+        list.remove(list.last());
+        assertTrue(list.isEmpty());
+        assertNull(list.first());
+        assertNull(list.last());
     }
 
     @Test
     public void testChangeFirst(){
-        final ExampleNode node = new ExampleNode(0);
-
-        IntStream.range(1, 5).forEach( i -> {
-            node.add(new ExampleNode(i));
-        });
-
-        final ExampleNode node1First = node.first.remove();
-        assertEquals(1, node1First.first.getI());
-        assertEquals(4, node1First.size());
+        final IntrusiveLinkedList<ExampleNode> list = listOf(5);
+
+        for (int expectedFirst = 1; expectedFirst <= 4; expectedFirst++) {
+            final ExampleNode removed = list.first();
+            list.remove(removed);
+
+            assertEquals(5 - expectedFirst, list.size());
+            assertEquals(expectedFirst, list.first().getI());
+            assertNull(list.first().previous());
+            //a walk which was on the removed node carries on from it
+            assertEquals(list.first(), removed.next());
+            assertEquals(4, list.last().getI());
+        }
+    }
 
-        final ExampleNode node2First = node1First.first.remove();
-        assertEquals(2, node2First.first.getI());
-        assertEquals(3, node2First.size());
+    @Test
+    public void testInsertBefore(){
+        final IntrusiveLinkedList<ExampleNode> list = new IntrusiveLinkedList<>();
+        final ExampleNode node = new ExampleNode(1);
+        list.add(node);
+        list.add(new ExampleNode(3));
+
+        //in the middle the first node stays the same
+        list.insertBefore(node.next, new ExampleNode(2));
+        assertEquals(node, list.first());
+        assertEquals(3, list.size());
+        assertEquals(2, node.next.getI());
+        assertEquals(node, node.next.previous);
+        assertEquals(node.next, node.next.next.previous);
+
+        //in front of the first node we get a new first node
+        list.insertBefore(node, new ExampleNode(0));
+        final ExampleNode newFirst = list.first();
+        assertEquals(0, newFirst.getI());
+        assertNull(newFirst.previous());
+        assertEquals(node, newFirst.next());
+        assertEquals(4, list.size());
+        assertEquals(3, list.last().getI());
+
+        //and the tail still follows
+        list.add(new ExampleNode(4));
+        assertEquals(5, list.size());
+        assertEquals(4, list.last().getI());
+        assertEquals(3, list.last().previous().getI());
+    }
 
-        final ExampleNode node3First = node2First.first.remove();
-        assertEquals(3, node3First.first.getI());
-        assertEquals(2, node3First.size());
+    @Test
+    public void testRemoveKeepsPreviousAndLastLinks(){
+        final IntrusiveLinkedList<ExampleNode> list = listOf(5);
+
+        //removing from the middle relinks both sides
+        list.remove(list.first().next.next);
+        assertEquals(1, list.first().next.next.previous.getI());
+
+        //removing the first node leaves the last node alone
+        list.remove(list.first());
+        assertEquals(null, list.first().previous());
+        assertEquals(4, list.last().getI());
+        assertEquals(list.last(), list.first().next.next);
+    }
 
-        final ExampleNode node4First = node3First.first.remove();
-        assertEquals(4, node4First.first.getI());
-        assertEquals(1, node4First.size());
+    @Test
+    public void testRandomAddInsertRemoveMatchesLinkedList(){
+        final SplittableRandom random = new SplittableRandom(3);
+        final List<ExampleNode> expected = new LinkedList<>();
+        final IntrusiveLinkedList<ExampleNode> list = new IntrusiveLinkedList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            final int operation = random.nextInt(3);
+            if (list.isEmpty() || operation == 0) {
+                final ExampleNode node = new ExampleNode(i);
+                list.add(node);
+                expected.add(node);
+            } else if (operation == 1) {
+                final int index = random.nextInt(expected.size());
+                final ExampleNode node = new ExampleNode(i);
+                list.insertBefore(expected.get(index), node);
+                expected.add(index, node);
+            } else {
+                list.remove(expected.remove(random.nextInt(expected.size())));
+            }
+
+            assertSameAs(expected, list);
+        }
     }
 
-    private static void assertAllLastEquals(ExampleNode starting, ExampleNode expectedLast, int expectedLastId){
-        ExampleNode next = starting;
+    private static void assertSameAs(final List<ExampleNode> expected, final IntrusiveLinkedList<ExampleNode> list){
+        assertEquals(expected.size(), list.size());
+        if (expected.isEmpty()) {
+            assertNull(list.first());
+            assertNull(list.last());
+            return;
+        }
+        assertEquals(expected.get(0), list.first());
+        assertEquals(expected.get(expected.size() - 1), list.last());
+        assertNull(list.first().previous());
+
+        final List<ExampleNode> forwards = new ArrayList<>();
+        ExampleNode node = list.first();
+        while (node != null) {
+            forwards.add(node);
+            node = node.next();
+        }
+        assertEquals(expected, forwards);
 
-        while (next != null) {
-            assertEquals(next.last(), expectedLast);
-            assertEquals(expectedLastId, expectedLast.getI());
-            next = next.next();
+        final List<ExampleNode> backwards = new LinkedList<>();
+        node = list.last();
+        while (node != null) {
+            backwards.add(0, node);
+            node = node.previous();
         }
+        assertEquals(expected, backwards);
     }
-
 }
@@ -4,8 +4,8 @@ import codingblackfemales.action.Action;
 import codingblackfemales.action.CreateChildOrder;
 import codingblackfemales.action.CancelChildOrder;
 import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.sequencer.eventlog.EventLog;
 import codingblackfemales.sotw.ChildOrder;
-import codingblackfemales.sotw.OrderState;
 import codingblackfemales.sotw.SimpleAlgoState;
 import codingblackfemales.sotw.marketdata.AskLevel;
 import codingblackfemales.sotw.marketdata.BidLevel;
@@ -21,6 +21,25 @@ public class MyAlgoLogic implements AlgoLogic {
     // Tracks and logs messages
     private static final Logger logger = LoggerFactory.getLogger(MyAlgoLogic.class);
 
+    // Per tick lines, logged as longs so nothing is formatted on the algo's thread
+    private static final EventLog.Event LIMIT_ACHIEVED = EventLog.event(MyAlgoLogic.class, "[MYALGO] Order limit achieved: No more orders to place.");
+    private static final EventLog.Event PARTIALLY_FILLED = EventLog.event(MyAlgoLogic.class, "[MYLALGO] Partially filled order detected, do not cancel: orderId={} side={} quantity={} @ {} filled={}", null, EventLog.SIDE);
+    private static final EventLog.Event SKIPPING_SELL = EventLog.event(MyAlgoLogic.class, "[MYALGO] Skipping SELL order: orderId={} side={} quantity={} @ {} filled={}", null, EventLog.SIDE);
+    private static final EventLog.Event CANCELLING = EventLog.event(MyAlgoLogic.class, "[MYALGO] Cancelling UNFILLED ORDER: orderId={} side={} quantity={} @ {} filled={}", null, EventLog.SIDE);
+    private static final EventLog.Event BUY_VWAP = EventLog.event(MyAlgoLogic.class, "[MYALGO] Calculated Limit Order VWAP FOR BUY: {}");
+    private static final EventLog.Event BEST_BID_LEVEL = EventLog.event(MyAlgoLogic.class, "[MYALGO] CHECK NULL BID: {} @ {}");
+    private static final EventLog.Event TARGET_PRICE = EventLog.event(MyAlgoLogic.class, "[MYALGO] Target Price: {}");
+    private static final EventLog.Event REMAINING_QUANTITY = EventLog.event(MyAlgoLogic.class, "[MYALGO] Remaining Quantity: {}");
+    private static final EventLog.Event CREATING_BUY = EventLog.event(MyAlgoLogic.class, "[MYALGO] Creating a limit BUY order, have:{} children on passive bestBid side of book with: {} @ {}");
+    private static final EventLog.Event BID_EXECUTED_QUANTITY = EventLog.event(MyAlgoLogic.class, "[MYALGO] Calculated BID EXECUTED QUANTITY: {}");
+    private static final EventLog.Event BUY_DONE = EventLog.event(MyAlgoLogic.class, "[MYALGO] Have:{} children, want 3, done.");
+    private static final EventLog.Event CHECKING_SELL = EventLog.event(MyAlgoLogic.class, "[MYALGO] Checking for Sell Orders. Remaining quantity: {}");
+    private static final EventLog.Event BEST_BID = EventLog.event(MyAlgoLogic.class, "[MYALGO] Best Bid: {}");
+    private static final EventLog.Event CREATING_SELL = EventLog.event(MyAlgoLogic.class, "[MYALGO] Creating a LIMIT SELL order, have:{} on Passive Sell at bestBid with: {} @ {}");
+    private static final EventLog.Event SELL_AT = EventLog.event(MyAlgoLogic.class, "[MYALGO] Creating a limit SELL order at price: {} for quantity: {}");
+    private static final EventLog.Event PROFIT = EventLog.event(MyAlgoLogic.class, "[MYALGO] After-Trade Analysis: Total Profit = {}", Double::longBitsToDouble);
+    private static final EventLog.Event SELL_DONE = EventLog.event(MyAlgoLogic.class, "[MYALGO] Have{} children, want 5, done.");
+
     private final long quantityToTrade;
     private final long targetVWAP;
     private long executedQuantity = 0;
@@ -37,10 +56,10 @@ public class MyAlgoLogic implements AlgoLogic {
     public Action evaluate(SimpleAlgoState state) {
 
         // Converts the current market state into a readable string and 
-        // log the current state
-        var orderBookAsString = Util.orderBookToString(state);
-
-        logger.info("[MYALGO] The state of the order book is:\n" + orderBookAsString);    
+        // log the current state, only when someone is reading it
+        if (logger.isDebugEnabled()) {
+            logger.debug("[MYALGO] The state of the order book is:\n" + Util.orderBookToString(state));
+        }
         
         /********
          *
@@ -99,7 +118,9 @@ public class MyAlgoLogic implements AlgoLogic {
         //checks how many child orders are currently active
         // Exit condition: stop if Total Quantity reached, since we don't want to over trade
         if (executedQuantity >= quantityToTrade) {
-            logger.info("[MYALGO] Order limit achieved: No more orders to place.");
+            if (LIMIT_ACHIEVED.isEnabled()) {
+                LIMIT_ACHIEVED.log();
+            }
             return NoAction;
         }
 
@@ -123,21 +144,15 @@ public class MyAlgoLogic implements AlgoLogic {
                 var filledOrderQty = childOrder.getFilledQuantity();
                 long totalFilledQuantity = childOrder.getQuantity();
 
-                // Checks case where the order is already filled
-                if (childOrder.getState() == OrderState.FILLED) {
-                    logger.info("[MYLALGO] Order is already filled, cannot cancel: " + childOrder);
-                    return NoAction;
-                }
-
-                // Check when orders are partially filled
-                else if (filledOrderQty > 0 && filledOrderQty < totalFilledQuantity) {
-                    logger.info("[MYLALGO] Partially filled order detected, do not cancel: " + childOrder);
+                // Active orders are never filled, so check when orders are partially filled
+                if (filledOrderQty > 0 && filledOrderQty < totalFilledQuantity) {
+                    log(PARTIALLY_FILLED, childOrder);
                     return NoAction;
                 }
 
                 // Skip sell orders (Market Order)
                 if (childOrder.getSide() == Side.SELL) {
-                    logger.info("[MYALGO] Skipping SELL order: " + childOrder);
+                    log(SKIPPING_SELL, childOrder);
                     return NoAction;
                 }
 
@@ -146,7 +161,7 @@ public class MyAlgoLogic implements AlgoLogic {
 
                     if (limitOrderPrice == 0 || limitOrderPrice >= orderPrice) {
 
-                        logger.info("[MYALGO] Cancelling UNFILLED ORDER: " + childOrder);
+                        log(CANCELLING, childOrder);
                         return new CancelChildOrder(childOrder);
                     }
                 }  
@@ -158,8 +173,7 @@ public class MyAlgoLogic implements AlgoLogic {
 
 
 
-        long buyOrder = state.getActiveChildOrders().stream()
-             .filter(order -> order.getSide() == Side.BUY).count();
+        long buyOrder = state.getActiveChildOrderCount(Side.BUY);
 
         // Check if we should place a buy order
         // If fewer than 3 child orders exist and there is still more quantity to trade continue
@@ -167,10 +181,14 @@ public class MyAlgoLogic implements AlgoLogic {
 
             // Create a new buy limit order if the limit Order VWAP Price is less than the target VWAP
             if (limitOrderPrice < targetVWAP) {
-                logger.info("[MYALGO] Calculated Limit Order VWAP FOR BUY: " + limitOrderPrice);
+                if (BUY_VWAP.isEnabled()) {
+                    BUY_VWAP.log(limitOrderPrice);
+                }
 
                 if (bestBid != null) {
-                    logger.info("[MYALGO] CHECK NULL BID:" + bestBid);
+                    if (BEST_BID_LEVEL.isEnabled()) {
+                        BEST_BID_LEVEL.log(bestBid.quantity, bestBid.price);
+                    }
 
                         // Get bid price at the top of the book
                         long price = bestBid.price; // highest price a buyer is willing to pay
@@ -179,21 +197,29 @@ public class MyAlgoLogic implements AlgoLogic {
                         // Ensures the remaining quantity to trade is the minimum of the best bid quantity
                         long minQtyToTrade = Math.min(bestBid.quantity, remQuantity);  // The amount left to trade
                         
-                        logger.info("[MYALGO] Target Price: " + targetVWAP);
-                        logger.info("[MYALGO] Remaining Quantity: " + remQuantity);
+                        if (TARGET_PRICE.isEnabled()) {
+                            TARGET_PRICE.log(targetVWAP);
+                            REMAINING_QUANTITY.log(remQuantity);
+                        }
 
                     if(minQtyToTrade > 0) {
-                        logger.info("[MYALGO] Creating a limit BUY order, have:" + state.getChildOrders().size() + " children on passive bestBid side of book with: " + minQtyToTrade + " @ " + price);
+                        if (CREATING_BUY.isEnabled()) {
+                            CREATING_BUY.log(state.getChildOrders().size(), minQtyToTrade, price);
+                        }
                         
                         // Updates the amount of quantity traded when a buy order is placed.
                         executedQuantity += minQtyToTrade;
 
-                        logger.info("[MYALGO] Calculated BID EXECUTED QUANTITY: " + executedQuantity);
+                        if (BID_EXECUTED_QUANTITY.isEnabled()) {
+                            BID_EXECUTED_QUANTITY.log(executedQuantity);
+                        }
 
                         return new CreateChildOrder(Side.BUY, minQtyToTrade, price);
                     }
                     else {
-                        logger.info("[MYALGO] Have:" + state.getChildOrders().size() + " children, want 3, done.");
+                        if (BUY_DONE.isEnabled()) {
+                            BUY_DONE.log(state.getChildOrders().size());
+                        }
                             // Do nothing, when 3 child orders exist
                     }
                 }
@@ -202,11 +228,12 @@ public class MyAlgoLogic implements AlgoLogic {
 
 
         // Executing SELL orders at the Bid price
-        long sellOrder = state.getActiveChildOrders().stream()
-             .filter(order -> order.getSide() == Side.SELL).count();
+        long sellOrder = state.getActiveChildOrderCount(Side.SELL);
 
         if (sellOrder < 3 && remQuantity > 0) {
-            logger.info("[MYALGO] Checking for Sell Orders. Remaining quantity: " + remQuantity);
+            if (CHECKING_SELL.isEnabled()) {
+                CHECKING_SELL.log(remQuantity);
+            }
 
             /**
             * Sell at the current Market best bid price, 
@@ -224,13 +251,17 @@ public class MyAlgoLogic implements AlgoLogic {
                     if (bestBid.price <= bestAsk.price){
                     // if (bestBid.price >= targetVWAP) {
 
-                        logger.info("[MYALGO] Best Bid: " + bestBid.price);
+                        if (BEST_BID.isEnabled()) {
+                            BEST_BID.log(bestBid.price);
+                        }
                     
                         if (minQtyToTrade > 0) {
 
-                            logger.info("[MYALGO] Creating a LIMIT SELL order, have:" + state.getChildOrders().size() + " on Passive Sell at bestBid with: " + minQtyToTrade + " @ " + price);
-                            logger.info("[MYALGO] Creating a limit SELL order at price: " + price + " for quantity: " + minQtyToTrade);
-                            logger.info("[MYALGO] After-Trade Analysis: Total Profit = " + totalProfit);
+                            if (CREATING_SELL.isEnabled()) {
+                                CREATING_SELL.log(state.getChildOrders().size(), minQtyToTrade, price);
+                                SELL_AT.log(price, minQtyToTrade);
+                                PROFIT.log(Double.doubleToRawLongBits(totalProfit));
+                            }
 
                             // Updates the amount of quantity traded when a sell order is placed.
                             executedQuantity += minQtyToTrade; 
@@ -238,7 +269,9 @@ public class MyAlgoLogic implements AlgoLogic {
                         }
                     }
                     else {
-                        logger.info("[MYALGO] Have" + state.getChildOrders().size() + " children, want 5, done.");
+                        if (SELL_DONE.isEnabled()) {
+                            SELL_DONE.log(state.getChildOrders().size());
+                        }
                     }
                 }  
         }
@@ -246,6 +279,13 @@ public class MyAlgoLogic implements AlgoLogic {
     }
 
 
+    // Logs a child order by its fields rather than its toString
+    private static void log(final EventLog.Event event, final ChildOrder childOrder) {
+        if (event.isEnabled()) {
+            event.log(childOrder.getOrderId(), childOrder.getSide().value(), childOrder.getQuantity(), childOrder.getPrice(), childOrder.getFilledQuantity());
+        }
+    }
+
     // After-trade analysis method
     public double calculateProfit(SimpleAlgoState state) {
         // Total filled quantity and cost for buy orders
@@ -275,7 +315,9 @@ public class MyAlgoLogic implements AlgoLogic {
 
         // Calculate profit
         totalProfit = sellOrdersFilled - (averageBuyPrice * totalSellOrdersFilledQuantity);
-        logger.info("[MYALGO] After-Trade Analysis: Total Profit = " + totalProfit);
+        if (PROFIT.isEnabled()) {
+            PROFIT.log(Double.doubleToRawLongBits(totalProfit));
+        }
 
         return totalProfit;
     }
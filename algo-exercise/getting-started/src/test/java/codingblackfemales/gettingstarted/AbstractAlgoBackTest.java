@@ -4,6 +4,7 @@ import codingblackfemales.algo.AlgoLogic;
 import codingblackfemales.container.Actioner;
 import codingblackfemales.container.AlgoContainer;
 import codingblackfemales.container.RunTrigger;
+import codingblackfemales.marketdata.api.MarketDataProvider;
 import codingblackfemales.orderbook.OrderBook;
 import codingblackfemales.orderbook.channel.MarketDataChannel;
 import codingblackfemales.orderbook.channel.OrderChannel;
@@ -11,17 +12,39 @@ import codingblackfemales.orderbook.consumer.OrderBookInboundOrderConsumer;
 import codingblackfemales.sequencer.DefaultSequencer;
 import codingblackfemales.sequencer.Sequencer;
 import codingblackfemales.sequencer.consumer.LoggingConsumer;
+import codingblackfemales.sequencer.latency.Latency;
 import codingblackfemales.sequencer.marketdata.SequencerTestCase;
 import codingblackfemales.sequencer.net.TestNetwork;
 import codingblackfemales.service.MarketDataService;
 import codingblackfemales.service.OrderService;
 import messages.marketdata.*;
+import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 
 public abstract class AbstractAlgoBackTest extends SequencerTestCase {
 
+    private static final Logger logger = LoggerFactory.getLogger(AbstractAlgoBackTest.class);
+
+    @BeforeClass
+    public static void recordLatency() {
+        Latency.reset();
+        Latency.setEnabled(true);
+    }
+
+    /**
+     * How long after each tick arrived the algo evaluated it, its orders were sent and the book matched and filled them.
+     */
+    @AfterClass
+    public static void logLatency() {
+        Latency.setEnabled(false);
+        logger.info("[BACKTEST] Tick-to-trade latency\n" + Latency.summary());
+    }
 
     protected AlgoContainer container;
 
@@ -55,6 +78,22 @@ public abstract class AbstractAlgoBackTest extends SequencerTestCase {
 
     public abstract AlgoLogic createAlgoLogic();
 
+    /**
+     * Sends every tick the provider has, each on its own as they would arrive from the market data feed, i.e. a
+     * BinaryFileMarketDataProvider over a recorded day.
+     *
+     * @return the number of ticks sent
+     */
+    protected long replay(final MarketDataProvider provider) throws Exception {
+        long ticks = 0;
+        DirectBuffer tick;
+        while ((tick = provider.pollEncoded()) != null) {
+            send(tick);
+            ticks++;
+        }
+        return ticks;
+    }
+
     protected UnsafeBuffer createTick(){
         final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
         final BookUpdateEncoder encoder = new BookUpdateEncoder();
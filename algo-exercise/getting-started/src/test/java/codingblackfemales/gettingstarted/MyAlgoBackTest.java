@@ -1,15 +1,22 @@
 package codingblackfemales.gettingstarted;
 
 import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.marketdata.api.MarketDataDecoder;
+import codingblackfemales.marketdata.gen.BinaryFileMarketDataGenerator;
+import codingblackfemales.marketdata.impl.BinaryFileMarketDataProvider;
 import codingblackfemales.sotw.ChildOrder;
 import codingblackfemales.sotw.OrderState;
 import codingblackfemales.sotw.SimpleAlgoState;
 import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
 
+import java.util.Iterator;
 import java.util.stream.Collectors;
 import java.util.List;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -35,6 +42,9 @@ public class MyAlgoBackTest extends AbstractAlgoBackTest {
     private static final long quantityToTrade = 3000L;
     private static final long targetVWAP = 100L;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Override
     public AlgoLogic createAlgoLogic() {
         return new MyAlgoLogic(quantityToTrade, targetVWAP);
@@ -50,14 +60,20 @@ public class MyAlgoBackTest extends AbstractAlgoBackTest {
      * 3. Total Order Creation And FilledQuantity (testTotalOrderCreationAndFilledQuantity):
      *    - Validates the functionality of the algorithm with market data simulation
      *    - Asserts check six child orders created
-     *    - Asserts filled quantity matches expected value of 1300 after market movement
+     *    - Asserts filled quantity matches expected value of 601 after market movement
+     *    - The book never trades the algo with itself, so our sells only fill the 100 the market bids in front of our
+     *      own resting buys, and what is left of them is cancelled rather than filled against those buys
      * 
+     * 3a. Replayed From A Binary File (testReplayedTicksFromABinaryFileFillTheSame):
+     *    - Records the same four ticks to a binary market data file and replays it, which fills the same 601
+     *
      * 4. Total Order Count (testTotalOrderCount):
      *    - Checks how many child orders are currently active and limits the number to 5
      * 
      * 3. Order Cancellation (testCancelledOrderCount):
-     *    - Checks exactly 1 order is cancelled under specific market conditions
-     *    - Verifies 5 trades are successfully executed
+     *    - Checks exactly 3 orders are cancelled under specific market conditions, the algo cancels orderId=2 and the
+     *      book cancels what is left of the two sells, which would otherwise trade with our own buys
+     *    - Verifies 3 orders are not cancelled
      *    - Checks the presence of cancelled orders in active order list
      * 
      * 5. Filled Order State (testFilledOrPartialFilledOrders):
@@ -70,6 +86,7 @@ public class MyAlgoBackTest extends AbstractAlgoBackTest {
      *    - Asserts buy order creation based on VWAP calculations
      *    - Ensures buy orders are created only when price is below target VWAP (100)
      *    - Check limit order price calculation against VWAP benchmark.
+     *    - Looks at every buy created, not only the active ones, as the market may already have filled them
      */
 
 
@@ -131,7 +148,31 @@ public class MyAlgoBackTest extends AbstractAlgoBackTest {
         //Check things like filled quantity, cancelled order count etc....
         long filledQuantity = state.getChildOrders().stream().map(ChildOrder::getFilledQuantity).reduce(Long::sum).get();
         //and: check that our algo state was updated to reflect our fills when the market data
-        assertEquals(1300, filledQuantity); //we should have 1300 filled quantity
+        //we should have 601 filled quantity, every fill against the market as our sells never fill our own buys
+        assertEquals(601, filledQuantity);
+
+        long sellFilledQuantity = state.getChildOrders().stream().filter(order -> order.getSide() == Side.SELL).mapToLong(ChildOrder::getFilledQuantity).sum();
+        //only the 100 the market bids ahead of our buys at 98
+        assertEquals(100, sellFilledQuantity);
+    }
+
+    @Test
+    public void testReplayedTicksFromABinaryFileFillTheSame() throws Exception {
+        final String marketDataFile = folder.getRoot().toPath().resolve("ticks.bin").toString();
+        final MarketDataDecoder decoder = new MarketDataDecoder();
+        final Iterator<UnsafeBuffer> ticks = List.of(createTick(), createTick2(), createTick3(), createTick4()).iterator();
+
+        final BinaryFileMarketDataGenerator generator = new BinaryFileMarketDataGenerator(marketDataFile,
+                () -> ticks.hasNext() ? decoder.decode(ticks.next()) : null, 64 * 1024);
+        generator.generateAll();
+        generator.close();
+
+        try (BinaryFileMarketDataProvider provider = new BinaryFileMarketDataProvider(marketDataFile)) {
+            assertEquals(4, replay(provider));
+        }
+
+        long filledQuantity = container.getState().getChildOrders().stream().map(ChildOrder::getFilledQuantity).reduce(Long::sum).get();
+        assertEquals(601, filledQuantity);
     }
 
 
@@ -156,15 +197,15 @@ public class MyAlgoBackTest extends AbstractAlgoBackTest {
         .filter(order -> order.getState() == OrderState.CANCELLED)
         .count();
 
-        // Assert check 1 order cancelled - orderId=2
-        assertEquals(1, cancelledOrderCount);
+        // Assert check 3 orders cancelled - orderId=2 by the algo, and what is left of the sells 6 and 7 by the book
+        assertEquals(3, cancelledOrderCount);
 
         long nonCancelledOrderCount = state.getChildOrders().stream()
         .filter(order -> order.getState() != OrderState.CANCELLED)
         .count();
 
-        // Assert 5 trades are Executed
-        assertEquals(5, nonCancelledOrderCount);
+        // Assert 3 orders are not cancelled
+        assertEquals(3, nonCancelledOrderCount);
 
         // Check if first order is cancelled
         var cancelFirstOrder = state.getActiveChildOrders().stream()
@@ -229,9 +270,14 @@ public class MyAlgoBackTest extends AbstractAlgoBackTest {
         // Call the CalculateVWAP method
         long limitOrderPrice = algoLogic.CalculateVWAP(state);
         
-        boolean createBuyOrder = state.getActiveChildOrders().stream()
+        //the market may have filled the buys by now, so look at every buy created rather than just those still active
+        List<ChildOrder> buyOrders = state.getChildOrders().stream()
         .filter(order -> order.getSide() == Side.BUY)
-        .anyMatch(order -> order.getPrice() < targetVWAP);
+        .collect(Collectors.toList());
+        boolean createBuyOrder = buyOrders.stream().anyMatch(order -> order.getPrice() < targetVWAP);
+
+        // Every buy created, filled or not, is priced below the target VWAP
+        assertTrue("Only create a Buy order below the targetVWAP benchmark", buyOrders.stream().allMatch(order -> order.getPrice() < targetVWAP));
 
         // Simple assert a buy order has been created
         assertTrue("Create a Buy order if buy the price is less than the targetVWAP benchmark", createBuyOrder);
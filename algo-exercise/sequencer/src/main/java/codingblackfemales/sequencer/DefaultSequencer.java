@@ -1,30 +1,71 @@
 package codingblackfemales.sequencer;
 
+import codingblackfemales.sequencer.latency.Latency;
 import codingblackfemales.sequencer.net.Network;
+import codingblackfemales.sequencer.util.NestedBuffers;
+import codingblackfemales.sequencer.util.SbeMessageLength;
 import messages.marketdata.MessageHeaderDecoder;
 import messages.marketdata.MessageHeaderEncoder;
 import messages.order.CreateOrderDecoder;
 import messages.order.CreateOrderEncoder;
+import messages.order.FillOrderDecoder;
+import messages.order.PartialFillOrderDecoder;
 import org.agrona.DirectBuffer;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
 import java.nio.ByteBuffer;
 
+/**
+ * Stamps the sequencer number into each message in place and dispatches it, without allocating per message.
+ *
+ * Dispatch is synchronous, so a consumer can send a command back into the sequencer while it is still handling
+ * the previous message, each level of that nesting has its own wrapper and business buffer, see NestedBuffers.
+ *
+ * Each message is also stamped with when it arrived and with the originTimestamp of the message from outside which
+ * led to it. Anything sent while another message is being dispatched, or while a batch is being ended, is a
+ * consequence of the last message which came from outside and carries its originTimestamp, see Latency.
+ *
+ * A frame's commands are given consecutive sequence numbers. Whatever the consumers send while the frame is being
+ * dispatched (i.e. the book's fills for its first order) is copied aside and sequenced once the whole frame has been,
+ * in the order it was sent.
+ */
 public class DefaultSequencer implements Sequencer {
 
     private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
     private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
 
-    private ByteBuffer byteBuffer;//= ByteBuffer.allocateDirect(1024);
-    private UnsafeBuffer mutableBuffer;// = new UnsafeBuffer(byteBuffer);
+    private final NestedBuffers<UnsafeBuffer> sequencedBuffers = new NestedBuffers<>(UnsafeBuffer::new);
 
     private final CreateOrderDecoder createOrderDecoder = new CreateOrderDecoder();
     private final CreateOrderEncoder createOrderEncoder = new CreateOrderEncoder();
 
     private final messages.order.MessageHeaderEncoder businessHeaderEncoder = new messages.order.MessageHeaderEncoder();
 
-    private final ByteBuffer businessByteBuffer = ByteBuffer.allocateDirect(1024);
-    private final UnsafeBuffer businessMutableBuffer = new UnsafeBuffer(businessByteBuffer);
+    private final NestedBuffers<UnsafeBuffer> businessBuffers = new NestedBuffers<>(() -> new UnsafeBuffer(ByteBuffer.allocateDirect(1024)));
+
+    private final NestedBuffers<UnsafeBuffer> frameCommandBuffers = new NestedBuffers<>(UnsafeBuffer::new);
+
+    //a deferred record is its kind, its length and then the command or frame
+    private static final int DEFERRED_COMMAND = 1;
+    private static final int DEFERRED_FRAME = 2;
+    private static final int DEFERRED_HEADER_LENGTH = 2 * Integer.BYTES;
+
+    private final SbeMessageLength messageLength = new SbeMessageLength();
+    private final NestedBuffers<MutableDirectBuffer> deferredBuffers = new NestedBuffers<>(() -> new ExpandableDirectByteBuffer(1024));
+    private final NestedBuffers<UnsafeBuffer> deferredCommandBuffers = new NestedBuffers<>(UnsafeBuffer::new);
+    private int deferredLevel = 0;
+    private int deferredLength = 0;
+
+    //the depth the frame being sequenced was sent at, or -1 if there is none
+    private int frameDepth = -1;
+
+    private int depth = 0;
+
+    private boolean endingBatch = false;
+
+    private long originTimestamp = 0L;
 
     long sequencerNumber = 0L;
 
@@ -37,6 +78,11 @@ public class DefaultSequencer implements Sequencer {
     @Override
     public void onCommand(DirectBuffer bb) {
 
+        if (isDuringFrame()) {
+            defer(DEFERRED_COMMAND, bb, 0, messageLength.lengthOf(bb));
+            return;
+        }
+
         headerDecoder.wrap(bb, 0);
 
         int schemaId = headerDecoder.schemaId();
@@ -52,6 +98,75 @@ public class DefaultSequencer implements Sequencer {
 
     }
 
+    /**
+     * Sequences each command in the frame in turn, wrapped in this depth's frame buffer rather than a new one, then
+     * whatever was sent while they were dispatched.
+     */
+    @Override
+    public void onCommandFrame(final DirectBuffer frame, final int offset, final int length) {
+        if (isDuringFrame()) {
+            defer(DEFERRED_FRAME, frame, offset, length);
+            return;
+        }
+
+        final UnsafeBuffer command = frameCommandBuffers.at(depth);
+        final int end = offset + length;
+        int position = offset;
+        frameDepth = depth;
+        deferredLength = 0;
+        try {
+            while (position < end) {
+                final int commandLength = frame.getInt(position);
+                command.wrap(frame, position + FRAME_LENGTH_PREFIX, commandLength);
+                onCommand(command);
+                position += FRAME_LENGTH_PREFIX + commandLength;
+            }
+        } finally {
+            frameDepth = -1;
+        }
+
+        sequenceDeferred(deferredLength);
+    }
+
+    private boolean isDuringFrame() {
+        return frameDepth >= 0 && depth > frameDepth;
+    }
+
+    private void defer(final int kind, final DirectBuffer buffer, final int offset, final int length) {
+        final MutableDirectBuffer deferred = deferredBuffers.at(deferredLevel);
+        deferred.putInt(deferredLength, kind);
+        deferred.putInt(deferredLength + Integer.BYTES, length);
+        deferred.putBytes(deferredLength + DEFERRED_HEADER_LENGTH, buffer, offset, length);
+        deferredLength += DEFERRED_HEADER_LENGTH + length;
+    }
+
+    /**
+     * Sends what was deferred during a frame as if it had been sent then. A frame among it defers into the next
+     * level's buffer, so this level's is not written to while it is being read.
+     */
+    private void sequenceDeferred(final int length) {
+        final MutableDirectBuffer deferred = deferredBuffers.at(deferredLevel);
+        final UnsafeBuffer command = deferredCommandBuffers.at(deferredLevel);
+        deferredLevel++;
+        try {
+            int position = 0;
+            while (position < length) {
+                final int kind = deferred.getInt(position);
+                final int commandLength = deferred.getInt(position + Integer.BYTES);
+                final int commandOffset = position + DEFERRED_HEADER_LENGTH;
+                if (kind == DEFERRED_FRAME) {
+                    onCommandFrame(deferred, commandOffset, commandLength);
+                } else {
+                    command.wrap(deferred, commandOffset, commandLength);
+                    onCommand(command);
+                }
+                position = commandOffset + commandLength;
+            }
+        } finally {
+            deferredLevel--;
+        }
+    }
+
     public DirectBuffer processModelCommand(final DirectBuffer byteBuffer, final int schemaId, final MessageHeaderDecoder header){
 
         final int actingBlockLength = header.blockLength();
@@ -61,15 +176,20 @@ public class DefaultSequencer implements Sequencer {
         createOrderDecoder.wrap(byteBuffer, bufferOffset, actingBlockLength, actingVersion);
 
 
-        createOrderEncoder.wrapAndApplyHeader(businessMutableBuffer, 0, businessHeaderEncoder);
+        final UnsafeBuffer businessBuffer = businessBuffers.at(depth);
+
+        createOrderEncoder.wrapAndApplyHeader(businessBuffer, 0, businessHeaderEncoder);
+        createOrderEncoder.instrumentId(createOrderDecoder.instrumentId());
         createOrderEncoder.price(createOrderDecoder.price());
         createOrderEncoder.quantity(createOrderDecoder.quantity());
         createOrderEncoder.side(createOrderDecoder.side());
         createOrderEncoder.orderId(newOrderId());
-        return businessMutableBuffer;
+        createOrderEncoder.orderType(createOrderDecoder.orderType());
+        createOrderEncoder.timeInForce(createOrderDecoder.timeInForce());
+        return businessBuffer;
     }
 
-    private long orderId = 1;
+    long orderId = 1;
 
     public long newOrderId(){
         return orderId +=1;
@@ -77,8 +197,7 @@ public class DefaultSequencer implements Sequencer {
 
     public void sequenceAndDispatchMessage(final DirectBuffer bb){
 
-        byteBuffer = ByteBuffer.allocateDirect(1024);
-        mutableBuffer = new UnsafeBuffer(byteBuffer);
+        final UnsafeBuffer mutableBuffer = sequencedBuffers.at(depth);
 
         mutableBuffer.wrap(bb);
 
@@ -86,9 +205,66 @@ public class DefaultSequencer implements Sequencer {
 
         sequencerNumber += 1;
 
+        final long timestamp = System.nanoTime();
+        if (isFromOutside()) {
+            originTimestamp = timestamp;
+        }
+
         headerEncoder.sequencerNumber(sequencerNumber);
+        headerEncoder.timestamp(timestamp);
+        headerEncoder.originTimestamp(originTimestamp);
+
+        if (Latency.isEnabled()) {
+            recordLatency(mutableBuffer);
+        }
 
-        dispatchToNetwork(mutableBuffer);
+        depth++;
+        try {
+            dispatchToNetwork(mutableBuffer);
+        } finally {
+            depth--;
+        }
+    }
+
+    /**
+     * Ends the batch on the network. Anything a consumer sends while acting on the end of a batch (i.e. an algo
+     * creating a child order) is a batch of its own, so this repeats until the consumers send nothing more.
+     */
+    @Override
+    public void onEndOfBatch() {
+        endingBatch = true;
+        try {
+            long sequencedBefore;
+            do {
+                sequencedBefore = sequencerNumber;
+                network.dispatchEndOfBatch();
+            } while (sequencerNumber != sequencedBefore);
+        } finally {
+            endingBatch = false;
+        }
+    }
+
+    /**
+     * @return false for anything a consumer sent, whether it is sequenced straight away or was deferred by a frame.
+     */
+    private boolean isFromOutside() {
+        return depth == 0 && !endingBatch && deferredLevel == 0;
+    }
+
+    /**
+     * The algo's orders and the book's fills are recorded as they arrive, the other stages record themselves.
+     */
+    private void recordLatency(final DirectBuffer sequencedBuffer) {
+        headerDecoder.wrap(sequencedBuffer, 0);
+        if (headerDecoder.schemaId() != CreateOrderEncoder.SCHEMA_ID || isFromOutside()) {
+            return;
+        }
+        final int templateId = headerDecoder.templateId();
+        if (templateId == CreateOrderEncoder.TEMPLATE_ID) {
+            Latency.record(Latency.Stage.ORDER, originTimestamp);
+        } else if (templateId == FillOrderDecoder.TEMPLATE_ID || templateId == PartialFillOrderDecoder.TEMPLATE_ID) {
+            Latency.record(Latency.Stage.FILL, originTimestamp);
+        }
     }
 
     public void dispatchToNetwork(DirectBuffer sequencedBuffer){
@@ -1,35 +1,71 @@
 package codingblackfemales.sequencer;
 
-import codingblackfemales.sequencer.util.ByteBufferUtil;
-import messages.marketdata.MessageHeaderEncoder;
+import codingblackfemales.sequencer.journal.Journal;
+import codingblackfemales.sequencer.net.Network;
+import codingblackfemales.sequencer.util.SbeMessageLength;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.order.CreateOrderDecoder;
 import org.agrona.DirectBuffer;
-import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.nio.ByteBuffer;
+/**
+ * A sequencer which appends every sequenced message to a Journal before it dispatches it to the network.
+ *
+ * When it is created over an existing journal it carries on from the last sequencer number and order id in it, so
+ * a restarted process never reuses either. replay() re-runs the session (or the tail of it) into any network.
+ */
+public class RealSequencer extends DefaultSequencer implements AutoCloseable {
 
-public class RealSequencer {
+    private static final Logger logger = LoggerFactory.getLogger(RealSequencer.class);
 
-    final ByteBuffer sequenced = ByteBuffer.allocateDirect(1024);
-    final UnsafeBuffer directBuffer = new UnsafeBuffer();
-    final MessageHeaderEncoder encoder = new MessageHeaderEncoder();
+    private final Journal journal;
+    private final SbeMessageLength messageLength = new SbeMessageLength();
 
-    final long sequenceNumber = 0L;
+    public RealSequencer(final Network network, final Journal journal) {
+        super(network);
+        this.journal = journal;
+        recover();
+    }
 
-    public void processMessage(DirectBuffer buffer){
+    private void recover() {
+        final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+        final CreateOrderDecoder createOrderDecoder = new CreateOrderDecoder();
 
-        ByteBufferUtil.cloneInto(buffer.byteBuffer(), sequenced);
+        journal.replay(0, buffer -> {
+            headerDecoder.wrap(buffer, 0);
+            sequencerNumber = Math.max(sequencerNumber, headerDecoder.sequencerNumber());
 
-        directBuffer.wrap(sequenced);
+            if (headerDecoder.schemaId() == CreateOrderDecoder.SCHEMA_ID && headerDecoder.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+                createOrderDecoder.wrap(buffer, headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+                orderId = Math.max(orderId, createOrderDecoder.orderId());
+            }
+        });
 
-        encoder.wrap(directBuffer, 0);
+        logger.info("[SEQUENCER] Recovered sequencerNumber=" + sequencerNumber + " orderId=" + orderId + " from " + journal.frames() + " journaled messages");
+    }
 
-        encoder.sequencerNumber(sequenceNumber);
+    @Override
+    public void dispatchToNetwork(final DirectBuffer sequencedBuffer) {
+        journal.append(sequencedBuffer, messageLength.lengthOf(sequencedBuffer));
+        super.dispatchToNetwork(sequencedBuffer);
+    }
 
-        dispatch(directBuffer);
+    /**
+     * Replays every journaled message from the given sequencer number (inclusive) into the network.
+     *
+     * @return the number of messages replayed
+     */
+    public long replay(final long fromSequence, final Network network) {
+        return journal.replay(fromSequence, network);
     }
 
-    public void dispatch(UnsafeBuffer buffer){
-        //TODO: Implement
+    public long getSequencerNumber() {
+        return sequencerNumber;
     }
 
+    @Override
+    public void close() {
+        journal.close();
+    }
 }
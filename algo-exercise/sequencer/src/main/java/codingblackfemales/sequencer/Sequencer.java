@@ -1,7 +1,35 @@
 package codingblackfemales.sequencer;
 
+import org.agrona.BitUtil;
 import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
 public interface Sequencer {
+
+    /**
+     * Each command in a frame is written after its length as an int.
+     */
+    public static final int FRAME_LENGTH_PREFIX = BitUtil.SIZE_OF_INT;
+
     public void onCommand(final DirectBuffer byteBuffer);
+
+    /**
+     * Sequences a frame of commands written back to back, in order, so that a batch an algo sends goes out in one
+     * call. This wraps each command in a new buffer, DefaultSequencer overrides it so that it does not allocate.
+     */
+    public default void onCommandFrame(final DirectBuffer frame, final int offset, final int length) {
+        final int end = offset + length;
+        int position = offset;
+        while (position < end) {
+            final int commandLength = frame.getInt(position);
+            onCommand(new UnsafeBuffer(frame, position + FRAME_LENGTH_PREFIX, commandLength));
+            position += FRAME_LENGTH_PREFIX + commandLength;
+        }
+    }
+
+    /**
+     * Called by whatever feeds the sequencer once it has sent every command it currently has.
+     */
+    public default void onEndOfBatch() {
+    }
 }
@@ -4,38 +4,50 @@ import codingblackfemales.sequencer.net.Consumer;
 import messages.marketdata.AskBookUpdateDecoder;
 import messages.marketdata.BidBookUpdateDecoder;
 import messages.marketdata.BookUpdateDecoder;
-import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.IncrementalBookUpdateDecoder;
 import org.agrona.DirectBuffer;
 
-public abstract class MarketDataEventListener implements Consumer {
+public abstract class MarketDataEventListener implements Consumer, MessageSubscriber {
 
-    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
-    private final BookUpdateDecoder book = new BookUpdateDecoder();
-    private final AskBookUpdateDecoder ask = new AskBookUpdateDecoder();
-    private final BidBookUpdateDecoder bid = new BidBookUpdateDecoder();
+    //only used when this is handed messages directly rather than subscribed to a shared dispatcher
+    private MessageDispatcher dispatcher;
+
+    //whichever dispatcher the handlers were last subscribed to
+    private MessageDispatcher subscribedTo;
 
     @Override
     public void onMessage(final DirectBuffer buffer) {
-        header.wrap(buffer, 0);
-
-        final int actingBlockLength = header.blockLength();
-        final int actingVersion = header.version();
-        final int bufferOffset = header.encodedLength();
-
-        if(header.templateId() == BookUpdateDecoder.TEMPLATE_ID){
-            book.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            onBookUpdate(book);
-        }else if(header.templateId() == AskBookUpdateDecoder.TEMPLATE_ID){
-            ask.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            onAskBook(ask);
-        }else if(header.templateId() == BidBookUpdateDecoder.TEMPLATE_ID){
-            bid.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            onBidBook(bid);
+        if(dispatcher == null){
+            dispatcher = new MessageDispatcher();
+            subscribe(dispatcher);
         }
+        dispatcher.onMessage(buffer);
+    }
+
+    @Override
+    public void subscribe(final MessageDispatcher dispatcher) {
+        subscribedTo = dispatcher;
+        dispatcher.on(BookUpdateDecoder::new, this::onBookUpdate)
+                .on(AskBookUpdateDecoder::new, this::onAskBook)
+                .on(BidBookUpdateDecoder::new, this::onBidBook)
+                .on(IncrementalBookUpdateDecoder::new, this::onIncrementalBookUpdate);
+    }
+
+    /**
+     * @return the originTimestamp of the message being handled, for recording a stage's Latency, or 0 when a handler
+     * was called directly.
+     */
+    protected long originTimestamp() {
+        return subscribedTo == null ? 0L : subscribedTo.originTimestamp();
     }
 
     public abstract void onBookUpdate(BookUpdateDecoder bookUpdate);
     public abstract void onAskBook(AskBookUpdateDecoder askBook);
     public abstract void onBidBook(BidBookUpdateDecoder bidBook);
 
+    /**
+     * Levels which have been added, changed or deleted since the last update, on top of the last BookUpdate snapshot.
+     */
+    public abstract void onIncrementalBookUpdate(IncrementalBookUpdateDecoder incrementalBookUpdate);
+
 }
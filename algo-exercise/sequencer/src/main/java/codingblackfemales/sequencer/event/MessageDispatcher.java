@@ -0,0 +1,234 @@
+package codingblackfemales.sequencer.event;
+
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.util.NestedBuffers;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+import org.agrona.sbe.MessageDecoderFlyweight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Decodes each message's header once and hands a wrapped decoder to every handler registered for its schema and
+ * template, in place of each consumer decoding the header and walking an if/else chain of template ids. Some
+ * features of this:
+ *
+ * 1) Handlers are looked up in a table indexed by schemaId then templateId, template ids are only unique within a
+ *    schema, i.e. PartialFillOrder and BidBookUpdate are both 9.
+ * 2) Plain Consumers can be added alongside handlers and are handed the raw buffer, everything is called in the
+ *    order it was added, so a consumer added after the services still sees their state updated.
+ * 3) The decoder is re-wrapped before each handler, so a handler which walks a group does not leave it at the end for
+ *    the next one.
+ * 4) A handler can cause another message to be dispatched before it returns, decoders are held per nesting depth
+ *    (see NestedBuffers) so the inner message never re-wraps one an outer handler is still reading.
+ *
+ * Handlers are meant to be registered while wiring up, adding one rebuilds the table.
+ */
+public final class MessageDispatcher implements Consumer {
+
+    @FunctionalInterface
+    public interface Handler<D extends MessageDecoderFlyweight> {
+        public void on(final D decoder);
+    }
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+
+    //handlers and consumers in the order they were added
+    private final List<Object> registrations = new ArrayList<>();
+    private final List<Consumer> consumers = new ArrayList<>();
+
+    private Route[][] routes = new Route[0][];
+    private Consumer[] unrouted = new Consumer[0];
+
+    private long[] sequencerNumbers = new long[4];
+    private long[] originTimestamps = new long[4];
+    private int depth = 0;
+
+    /**
+     * Adds a consumer, one which is a MessageSubscriber registers its handlers, anything else is handed every message.
+     */
+    public MessageDispatcher add(final Consumer consumer) {
+        consumers.add(consumer);
+        if (consumer instanceof MessageSubscriber) {
+            ((MessageSubscriber) consumer).subscribe(this);
+        } else {
+            registrations.add(consumer);
+            rebuild();
+        }
+        return this;
+    }
+
+    /**
+     * @param decoders creates the decoder for the message, which is also where its schema and template ids come from.
+     */
+    public <D extends MessageDecoderFlyweight> MessageDispatcher on(final Supplier<D> decoders, final Handler<? super D> handler) {
+        final D decoder = decoders.get();
+        registrations.add(new Registration(decoder.sbeSchemaId(), decoder.sbeTemplateId(), decoders, handler));
+        rebuild();
+        return this;
+    }
+
+    /**
+     * @return the sequencer number of the message currently being handled, or 0 when nothing is.
+     */
+    public long sequencerNumber() {
+        return depth == 0 ? 0L : sequencerNumbers[depth - 1];
+    }
+
+    /**
+     * @return the originTimestamp of the message currently being handled, what its stage latency is measured from, or
+     * 0 when nothing is.
+     */
+    public long originTimestamp() {
+        return depth == 0 ? 0L : originTimestamps[depth - 1];
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer) {
+        header.wrap(buffer, 0);
+
+        final int schemaId = header.schemaId();
+        final int templateId = header.templateId();
+        final int actingBlockLength = header.blockLength();
+        final int actingVersion = header.version();
+        final int bufferOffset = header.encodedLength();
+
+        final Route route = routeFor(schemaId, templateId);
+
+        if (depth == sequencerNumbers.length) {
+            sequencerNumbers = Arrays.copyOf(sequencerNumbers, depth * 2);
+            originTimestamps = Arrays.copyOf(originTimestamps, depth * 2);
+        }
+        sequencerNumbers[depth] = header.sequencerNumber();
+        originTimestamps[depth] = header.originTimestamp();
+
+        final int current = depth++;
+        try {
+            if (route == null) {
+                for (Consumer consumer : unrouted) {
+                    consumer.onMessage(buffer);
+                }
+                return;
+            }
+
+            final MessageDecoderFlyweight decoder = route.decoders.at(current);
+            for (Object target : route.targets) {
+                if (target instanceof Registration) {
+                    decoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
+                    ((Registration) target).handle(decoder);
+                } else {
+                    ((Consumer) target).onMessage(buffer);
+                }
+            }
+        } finally {
+            depth--;
+        }
+    }
+
+    @Override
+    public void onEndOfBatch() {
+        for (Consumer consumer : consumers) {
+            consumer.onEndOfBatch();
+        }
+    }
+
+    private Route routeFor(final int schemaId, final int templateId) {
+        if (schemaId >= routes.length || templateId >= routes[schemaId].length) {
+            return null;
+        }
+        return routes[schemaId][templateId];
+    }
+
+    private void rebuild() {
+        final List<Consumer> plain = new ArrayList<>();
+        final List<Registration> handlers = new ArrayList<>();
+        for (Object registration : registrations) {
+            if (registration instanceof Registration) {
+                handlers.add((Registration) registration);
+            } else {
+                plain.add((Consumer) registration);
+            }
+        }
+        unrouted = plain.toArray(new Consumer[0]);
+
+        //routes keep their decoders across a rebuild, only what they go to changes
+        Route[][] table = new Route[0][];
+        for (Registration handler : handlers) {
+            if (handler.schemaId >= table.length) {
+                table = Arrays.copyOf(table, handler.schemaId + 1);
+            }
+            if (table[handler.schemaId] == null) {
+                table[handler.schemaId] = new Route[0];
+            }
+            if (handler.templateId >= table[handler.schemaId].length) {
+                table[handler.schemaId] = Arrays.copyOf(table[handler.schemaId], handler.templateId + 1);
+            }
+            if (table[handler.schemaId][handler.templateId] == null) {
+                final Route existing = routeFor(handler.schemaId, handler.templateId);
+                table[handler.schemaId][handler.templateId] = existing != null ? existing : new Route(handler.decoders);
+            }
+        }
+        for (int schemaId = 0; schemaId < table.length; schemaId++) {
+            if (table[schemaId] == null) {
+                table[schemaId] = new Route[0];
+                continue;
+            }
+            for (int templateId = 0; templateId < table[schemaId].length; templateId++) {
+                final Route route = table[schemaId][templateId];
+                if (route != null) {
+                    route.targets = targetsFor(schemaId, templateId);
+                }
+            }
+        }
+        routes = table;
+    }
+
+    private Object[] targetsFor(final int schemaId, final int templateId) {
+        final List<Object> targets = new ArrayList<>();
+        for (Object registration : registrations) {
+            if (!(registration instanceof Registration)) {
+                targets.add(registration);
+            } else if (((Registration) registration).schemaId == schemaId && ((Registration) registration).templateId == templateId) {
+                targets.add(registration);
+            }
+        }
+        return targets.toArray();
+    }
+
+    private static final class Registration {
+
+        private final int schemaId;
+        private final int templateId;
+        private final Supplier<? extends MessageDecoderFlyweight> decoders;
+        private final Handler<MessageDecoderFlyweight> handler;
+
+        @SuppressWarnings("unchecked")
+        private Registration(final int schemaId, final int templateId, final Supplier<? extends MessageDecoderFlyweight> decoders, final Handler<?> handler) {
+            this.schemaId = schemaId;
+            this.templateId = templateId;
+            this.decoders = decoders;
+            //only ever handed a decoder which came from decoders
+            this.handler = (Handler<MessageDecoderFlyweight>) handler;
+        }
+
+        private void handle(final MessageDecoderFlyweight decoder) {
+            handler.on(decoder);
+        }
+    }
+
+    /**
+     * Everything a schema and template goes to, and its decoder at each nesting depth.
+     */
+    private static final class Route {
+
+        private final NestedBuffers<MessageDecoderFlyweight> decoders;
+        private Object[] targets;
+
+        private Route(final Supplier<? extends MessageDecoderFlyweight> decoders) {
+            this.decoders = new NestedBuffers<>(decoders);
+        }
+    }
+}
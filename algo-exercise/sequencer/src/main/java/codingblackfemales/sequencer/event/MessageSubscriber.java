@@ -0,0 +1,10 @@
+package codingblackfemales.sequencer.event;
+
+/**
+ * Something which can register a handler per message it is interested in with a MessageDispatcher, rather than being
+ * handed every message to decode the header of itself.
+ */
+public interface MessageSubscriber {
+
+    public void subscribe(final MessageDispatcher dispatcher);
+}
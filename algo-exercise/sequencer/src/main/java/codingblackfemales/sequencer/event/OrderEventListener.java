@@ -1,56 +1,44 @@
 package codingblackfemales.sequencer.event;
 
 import codingblackfemales.sequencer.net.Consumer;
-import messages.marketdata.MessageHeaderDecoder;
 import messages.order.*;
 import org.agrona.DirectBuffer;
 
-public abstract class OrderEventListener implements Consumer {
+public abstract class OrderEventListener implements Consumer, MessageSubscriber {
 
-    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    //only used when this is handed messages directly rather than subscribed to a shared dispatcher
+    private MessageDispatcher dispatcher;
 
-    private final CreateOrderDecoder createOrderDecoder = new CreateOrderDecoder();
-    private final CancelOrderDecoder cancelOrderDecoder = new CancelOrderDecoder();
-    private final AckedOrderDecoder ackedOrderDecoder = new AckedOrderDecoder();
-    private final CancelAckedOrderDecoder cancelAckedOrderDecoder = new CancelAckedOrderDecoder();
-    private final PendingOrderDecoder pendingOrderDecoder = new PendingOrderDecoder();
-    private final PartialFillOrderDecoder partialFillOrderDecoder = new PartialFillOrderDecoder();
-    private final FillOrderDecoder fillOrderDecoder = new FillOrderDecoder();
+    //whichever dispatcher the handlers were last subscribed to
+    private MessageDispatcher subscribedTo;
 
     @Override
     public void onMessage(DirectBuffer buffer){
+        if(dispatcher == null){
+            dispatcher = new MessageDispatcher();
+            subscribe(dispatcher);
+        }
+        dispatcher.onMessage(buffer);
+    }
 
-        header.wrap(buffer, 0);
-
-        final int actingBlockLength = header.blockLength();
-        final int actingVersion = header.version();
-        final int bufferOffset = header.encodedLength();
-
-        if(header.schemaId() == CreateOrderEncoder.SCHEMA_ID) {
+    @Override
+    public void subscribe(final MessageDispatcher dispatcher) {
+        subscribedTo = dispatcher;
+        dispatcher.on(CreateOrderDecoder::new, this::onCreateOrder)
+                .on(CancelOrderDecoder::new, this::onCancelOrder)
+                .on(AckedOrderDecoder::new, this::onAckedOrder)
+                .on(CancelAckedOrderDecoder::new, this::onCancelAckedOrder)
+                .on(PendingOrderDecoder::new, this::onPendingOrder)
+                .on(PartialFillOrderDecoder::new, this::onPartialFill)
+                .on(FillOrderDecoder::new, this::onFill);
+    }
 
-            if (header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
-                createOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onCreateOrder(createOrderDecoder);
-            } else if (header.templateId() == CancelOrderDecoder.TEMPLATE_ID) {
-                cancelOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onCancelOrder(cancelOrderDecoder);
-            } else if (header.templateId() == AckedOrderDecoder.TEMPLATE_ID) {
-                ackedOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onAckedOrder(ackedOrderDecoder);
-            } else if (header.templateId() == CancelAckedOrderDecoder.TEMPLATE_ID) {
-                cancelAckedOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onCancelAckedOrder(cancelAckedOrderDecoder);
-            } else if (header.templateId() == PendingOrderDecoder.TEMPLATE_ID) {
-                pendingOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onPendingOrder(pendingOrderDecoder);
-            } else if (header.templateId() == PartialFillOrderDecoder.TEMPLATE_ID) {
-                partialFillOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onPartialFill(partialFillOrderDecoder);
-            } else if (header.templateId() == FillOrderDecoder.TEMPLATE_ID) {
-                fillOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onFill(fillOrderDecoder);
-            }
-        }
+    /**
+     * @return the originTimestamp of the message being handled, for recording a stage's Latency, or 0 when a handler
+     * was called directly.
+     */
+    protected long originTimestamp() {
+        return subscribedTo == null ? 0L : subscribedTo.originTimestamp();
     }
 
     public abstract void onCreateOrder(final CreateOrderDecoder create);
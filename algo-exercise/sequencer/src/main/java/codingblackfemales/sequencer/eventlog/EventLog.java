@@ -0,0 +1,264 @@
+package codingblackfemales.sequencer.eventlog;
+
+import messages.order.OrderType;
+import messages.order.Side;
+import messages.order.TimeInForce;
+import org.agrona.BitUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * A binary, asynchronous log for the hot path, in place of building a string for every line as it happens. Some
+ * features of this:
+ *
+ * 1) A component registers each of its log lines once, as an Event with an slf4j format and the class whose logger
+ *    it should come out of.
+ * 2) Logging an event writes its id and up to MAX_ARGS longs into an off-heap ring buffer, nothing is formatted or
+ *    allocated on the calling thread.
+ * 3) A background thread drains the ring and formats each record through the event's logger, so the lines read as
+ *    they did, only written a little later and from the event-log thread.
+ * 4) When the ring is full an event is dropped and counted rather than blocking the caller, the background thread
+ *    logs how many were lost.
+ *
+ * Like slf4j this is static, so any component can log without being handed anything. The ring's size in bytes can be
+ * set with -Deventlog.capacity, a power of two.
+ */
+public final class EventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLog.class);
+
+    public static final int MAX_ARGS = 6;
+    public static final int DEFAULT_CAPACITY = 1 << 22;
+
+    /**
+     * Prints a Side which was logged as its value().
+     */
+    public static final LongFunction<Side> SIDE = side -> Side.get((byte) side);
+
+    /**
+     * Prints an OrderType which was logged as its value().
+     */
+    public static final LongFunction<OrderType> ORDER_TYPE = orderType -> OrderType.get((short) orderType);
+
+    /**
+     * Prints a TimeInForce which was logged as its value().
+     */
+    public static final LongFunction<TimeInForce> TIME_IN_FORCE = timeInForce -> TimeInForce.get((short) timeInForce);
+
+    private static Event[] events = new Event[64];
+    private static int eventCount = 0;
+
+    private static final ManyToOneRingBuffer ring = new ManyToOneRingBuffer(new UnsafeBuffer(
+            ByteBuffer.allocateDirect(Integer.getInteger("eventlog.capacity", DEFAULT_CAPACITY) + RingBufferDescriptor.TRAILER_LENGTH)));
+    private static final AtomicBuffer ringBuffer = ring.buffer();
+    private static final AtomicLong dropped = new AtomicLong();
+
+    private static final AgentRunner runner = new AgentRunner(
+            new BackoffIdleStrategy(1, 1, 1_000, 1_000_000), throwable -> logger.error("[EVENTLOG] Failed to write an event", throwable), null, new Drainer());
+
+    static {
+        AgentRunner.startOnThread(runner, runnable -> {
+            final Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(runner::close, "eventlog-shutdown"));
+    }
+
+    private EventLog() {
+    }
+
+    /**
+     * @param owner whose logger the event is written with.
+     * @param format an slf4j format, one {} per argument the event is logged with.
+     * @param argFormats optionally, per argument, turns the long it was logged as back into what should be printed,
+     *                   i.e. a Side's value back into the Side. A null, or a missing one, prints the long.
+     */
+    public static synchronized Event event(final Class<?> owner, final String format, final LongFunction<?>... argFormats) {
+        if (eventCount == events.length) {
+            events = Arrays.copyOf(events, eventCount * 2);
+        }
+        //the ring buffer does not allow a message type of 0
+        final Event event = new Event(eventCount + 1, LoggerFactory.getLogger(owner), format, argFormats);
+        events[eventCount++] = event;
+        return event;
+    }
+
+    private static synchronized Event eventFor(final int id) {
+        return events[id - 1];
+    }
+
+    /**
+     * Waits until everything logged so far has been written out, i.e. before reading a log in a test.
+     */
+    public static void flush() {
+        final long logged = ring.producerPosition();
+        while (ring.consumerPosition() < logged) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * @return how many events have been dropped since the last time the background thread reported it.
+     */
+    public static long getDropped() {
+        return dropped.get();
+    }
+
+    private static int claim(final Event event, final int args) {
+        final int index = ring.tryClaim(event.id, args * BitUtil.SIZE_OF_LONG);
+        if (index < 0) {
+            dropped.incrementAndGet();
+        }
+        return index;
+    }
+
+    /**
+     * One line of the log. Check isEnabled before working anything out to log, the same as with a Logger.
+     */
+    public static final class Event {
+
+        private final int id;
+        private final Logger logger;
+        private final String format;
+        private final LongFunction<?>[] argFormats;
+
+        private Event(final int id, final Logger logger, final String format, final LongFunction<?>[] argFormats) {
+            this.id = id;
+            this.logger = logger;
+            this.format = format;
+            this.argFormats = argFormats;
+        }
+
+        public boolean isEnabled() {
+            return logger.isInfoEnabled();
+        }
+
+        public void log() {
+            final int index = claim(this, 0);
+            if (index >= 0) {
+                ring.commit(index);
+            }
+        }
+
+        public void log(final long arg0) {
+            final int index = claim(this, 1);
+            if (index >= 0) {
+                ringBuffer.putLong(index, arg0);
+                ring.commit(index);
+            }
+        }
+
+        public void log(final long arg0, final long arg1) {
+            final int index = claim(this, 2);
+            if (index >= 0) {
+                ringBuffer.putLong(index, arg0);
+                ringBuffer.putLong(index + 8, arg1);
+                ring.commit(index);
+            }
+        }
+
+        public void log(final long arg0, final long arg1, final long arg2) {
+            final int index = claim(this, 3);
+            if (index >= 0) {
+                ringBuffer.putLong(index, arg0);
+                ringBuffer.putLong(index + 8, arg1);
+                ringBuffer.putLong(index + 16, arg2);
+                ring.commit(index);
+            }
+        }
+
+        public void log(final long arg0, final long arg1, final long arg2, final long arg3) {
+            final int index = claim(this, 4);
+            if (index >= 0) {
+                ringBuffer.putLong(index, arg0);
+                ringBuffer.putLong(index + 8, arg1);
+                ringBuffer.putLong(index + 16, arg2);
+                ringBuffer.putLong(index + 24, arg3);
+                ring.commit(index);
+            }
+        }
+
+        public void log(final long arg0, final long arg1, final long arg2, final long arg3, final long arg4) {
+            final int index = claim(this, 5);
+            if (index >= 0) {
+                ringBuffer.putLong(index, arg0);
+                ringBuffer.putLong(index + 8, arg1);
+                ringBuffer.putLong(index + 16, arg2);
+                ringBuffer.putLong(index + 24, arg3);
+                ringBuffer.putLong(index + 32, arg4);
+                ring.commit(index);
+            }
+        }
+
+        public void log(final long arg0, final long arg1, final long arg2, final long arg3, final long arg4, final long arg5) {
+            final int index = claim(this, 6);
+            if (index >= 0) {
+                ringBuffer.putLong(index, arg0);
+                ringBuffer.putLong(index + 8, arg1);
+                ringBuffer.putLong(index + 16, arg2);
+                ringBuffer.putLong(index + 24, arg3);
+                ringBuffer.putLong(index + 32, arg4);
+                ringBuffer.putLong(index + 40, arg5);
+                ring.commit(index);
+            }
+        }
+
+        private void write(final MutableDirectBuffer buffer, final int index, final int length) {
+            final Object[] args = new Object[length / BitUtil.SIZE_OF_LONG];
+            for (int i = 0; i < args.length; i++) {
+                final long arg = buffer.getLong(index + i * BitUtil.SIZE_OF_LONG);
+                final LongFunction<?> argFormat = i < argFormats.length ? argFormats[i] : null;
+                args[i] = argFormat == null ? Long.valueOf(arg) : argFormat.apply(arg);
+            }
+            logger.info(format, args);
+        }
+
+        @Override
+        public String toString() {
+            return "Event(id=" + id + ",format=" + format + ")";
+        }
+    }
+
+    /**
+     * Formats what has been logged, on the event-log thread.
+     */
+    private static final class Drainer implements Agent {
+
+        private final MessageHandler onEvent = (id, buffer, index, length) -> eventFor(id).write(buffer, index, length);
+
+        @Override
+        public int doWork() {
+            final int written = ring.read(onEvent);
+            if (dropped.get() > 0) {
+                logger.warn("[EVENTLOG] Dropped " + dropped.getAndSet(0) + " events, the ring buffer was full");
+            }
+            return written;
+        }
+
+        @Override
+        public void onClose() {
+            //whatever was logged just before shutting down
+            ring.read(onEvent, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public String roleName() {
+            return "eventlog";
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package codingblackfemales.sequencer.journal;
+
+import codingblackfemales.sequencer.net.Network;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * An append only, memory-mapped file of sequenced SBE messages. Each frame is laid out as:
+ *
+ * [int length][int unused][message bytes, padded to 8 bytes]
+ *
+ * The length is written last with an ordered store, so a frame whose length is still 0 was never completed, this
+ * is also how the end of the journal is found when an existing file is reopened. Only one thread should append.
+ *
+ * A journal written before the message header carried its timestamps cannot be read with the current header, so
+ * reopening one which holds a message older than HEADER_VERSION throws rather than replaying it.
+ */
+public class Journal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Journal.class);
+
+    public static final int DEFAULT_CAPACITY = 256 * 1024 * 1024;
+
+    public static final int FRAME_HEADER_LENGTH = BitUtil.SIZE_OF_LONG;
+    public static final int FRAME_ALIGNMENT = BitUtil.SIZE_OF_LONG;
+
+    //the first schema version whose header has the sequencerNumber, timestamp and originTimestamp (32 bytes not 16),
+    //the version is at the same offset in both
+    public static final int HEADER_VERSION = 1;
+
+    private final Path file;
+    private final MappedByteBuffer mappedBuffer;
+    private final UnsafeBuffer buffer;
+    private final UnsafeBuffer view = new UnsafeBuffer();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+
+    private int position = 0;
+    private long frames = 0;
+
+    private Journal(final Path file, final MappedByteBuffer mappedBuffer) {
+        this.file = file;
+        this.mappedBuffer = mappedBuffer;
+        this.buffer = new UnsafeBuffer(mappedBuffer);
+
+        int length;
+        while (position + FRAME_HEADER_LENGTH <= buffer.capacity() && (length = buffer.getIntVolatile(position)) > 0) {
+            final int version = headerDecoder.wrap(buffer, position + FRAME_HEADER_LENGTH).version();
+            if (version < HEADER_VERSION) {
+                throw new IllegalStateException(String.format("Journal has a message with an older header file=[%s] position=[%d] version=[%d]", file, position, version));
+            }
+            position += frameLength(length);
+            frames++;
+        }
+    }
+
+    /**
+     * Opens the journal at the given path, creating it as a sparse file of the given capacity if it does not exist.
+     * An existing journal is opened at its existing size and appended to after its last complete frame.
+     */
+    public static Journal open(final Path file, final int capacity) {
+        final File location = file.toFile();
+        final MappedByteBuffer mapped = location.exists()
+                ? IoUtil.mapExistingFile(location, "journal")
+                : IoUtil.mapNewFile(location, capacity, false);
+
+        final Journal journal;
+        try {
+            journal = new Journal(file, mapped);
+        } catch (RuntimeException e) {
+            IoUtil.unmap(mapped);
+            throw e;
+        }
+        logger.info("[JOURNAL] Opened " + file + " with " + journal.frames + " frames, " + journal.position + " bytes used");
+        return journal;
+    }
+
+    public static Journal open(final Path file) {
+        return open(file, DEFAULT_CAPACITY);
+    }
+
+    public static int frameLength(final int messageLength) {
+        return BitUtil.align(FRAME_HEADER_LENGTH + messageLength, FRAME_ALIGNMENT);
+    }
+
+    public void append(final DirectBuffer message, final int length) {
+        final int frameLength = frameLength(length);
+        if (position + frameLength > buffer.capacity()) {
+            throw new IllegalStateException(String.format("Journal is full file=[%s] capacity=[%d] position=[%d]", file, buffer.capacity(), position));
+        }
+
+        buffer.putBytes(position + FRAME_HEADER_LENGTH, message, 0, length);
+        buffer.putIntOrdered(position, length);
+
+        position += frameLength;
+        frames++;
+    }
+
+    /**
+     * Dispatches every frame with a sequencer number at or after fromSequence into the network, straight off the
+     * mapped file. The buffer handed to the network is a view over the journal and only valid during dispatch.
+     *
+     * @return the number of frames dispatched
+     */
+    public long replay(final long fromSequence, final Network network) {
+        //frames appended while replaying (i.e. by consumers sending commands) are not replayed
+        final int end = position;
+
+        long dispatched = 0;
+        int offset = 0;
+        while (offset < end) {
+            offset = wrapFrame(offset, view);
+
+            if (headerDecoder.wrap(view, 0).sequencerNumber() >= fromSequence) {
+                network.dispatch(view);
+                dispatched++;
+            }
+        }
+
+        return dispatched;
+    }
+
+    /**
+     * Wraps the view over the message in the frame at the given offset, for callers that poll the journal rather
+     * than have it pushed to them.
+     *
+     * @return the offset of the next frame, or -1 if there is no complete frame at the offset
+     */
+    public int wrapFrame(final int offset, final UnsafeBuffer view) {
+        if (offset + FRAME_HEADER_LENGTH > buffer.capacity()) {
+            return -1;
+        }
+
+        final int length = buffer.getIntVolatile(offset);
+        if (length <= 0) {
+            return -1;
+        }
+
+        view.wrap(buffer, offset + FRAME_HEADER_LENGTH, length);
+        return offset + frameLength(length);
+    }
+
+    public long frames() {
+        return frames;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public void flush() {
+        mappedBuffer.force();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        IoUtil.unmap(mappedBuffer);
+    }
+}
@@ -0,0 +1,108 @@
+package codingblackfemales.sequencer.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long after a tick reached the sequencer each stage of the pipeline acted on it, recorded into an HdrHistogram
+ * per stage. Some features of this:
+ *
+ * 1) The sequencer stamps every message's header with when it arrived, and with the originTimestamp of the message
+ *    from outside which led to it, so an order the algo sends on a tick, and the fill the book sends back, carry the
+ *    tick's timestamp. Each stage records now less the originTimestamp of what it is handling.
+ * 2) Recording goes into an HdrHistogram Recorder, which is wait free and allocation free on the recording thread, so
+ *    stages on different threads (i.e. behind a RingBufferNetwork) can record at once.
+ * 3) Nothing is recorded unless it has been enabled, with -Dlatency.enabled=true or setEnabled(true), so the stages
+ *    only pay for a volatile read when it is off.
+ *
+ * Like the EventLog this is static, so any component can record a stage without being handed anything.
+ */
+public final class Latency {
+
+    /**
+     * The stages of tick-to-trade, in the order a tick goes through them.
+     */
+    public enum Stage {
+        MARKET_DATA("tick-to-market-data"),
+        EVALUATE("tick-to-evaluate"),
+        ORDER("tick-to-order"),
+        MATCH("tick-to-match"),
+        FILL("tick-to-fill");
+
+        private final String description;
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+
+        Stage(final String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static volatile boolean enabled = Boolean.getBoolean("latency.enabled");
+
+    private Latency() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean enabled) {
+        Latency.enabled = enabled;
+    }
+
+    /**
+     * @param originTimestamp the originTimestamp from the header of the message the stage is handling, a message which
+     *                        was never sequenced has none and is not recorded.
+     */
+    public static void record(final Stage stage, final long originTimestamp) {
+        if (originTimestamp > 0) {
+            stage.recorder.recordValue(Math.max(0, System.nanoTime() - originTimestamp));
+        }
+    }
+
+    /**
+     * @return a copy of everything the stage has recorded since the last reset, in nanoseconds.
+     */
+    public static synchronized Histogram histogram(final Stage stage) {
+        stage.total.add(stage.recorder.getIntervalHistogram());
+        return stage.total.copy();
+    }
+
+    public static synchronized void reset() {
+        for (Stage stage : Stage.values()) {
+            stage.recorder.reset();
+            stage.total.reset();
+        }
+    }
+
+    /**
+     * @return the count, p50, p99, p99.9 and max of each stage in microseconds, one stage per line.
+     */
+    public static String summary() {
+        final StringBuilder summary = new StringBuilder(String.format("%-20s %10s %10s %10s %10s %10s",
+                "stage", "count", "p50(us)", "p99(us)", "p99.9(us)", "max(us)"));
+        for (Stage stage : Stage.values()) {
+            final Histogram histogram = histogram(stage);
+            summary.append(String.format("%n%-20s %10d %10.1f %10.1f %10.1f %10.1f", stage.description,
+                    histogram.getTotalCount(),
+                    micros(histogram.getValueAtPercentile(50)),
+                    micros(histogram.getValueAtPercentile(99)),
+                    micros(histogram.getValueAtPercentile(99.9)),
+                    micros(histogram.getMaxValue())));
+        }
+        return summary.toString();
+    }
+
+    private static double micros(final long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,131 @@
+package codingblackfemales.sequencer.net;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.util.SbeMessageLength;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for the sequencer on one of a RingBufferNetwork's consumer threads, the sequencer is not thread safe so
+ * the commands a consumer sends wait here until the thread which owns the sequencer drains them. Some features of
+ * this:
+ *
+ * 1) It is single producer, it must only be handed to the components of the one consumer it is added with, i.e. the
+ *    OrderBook's channels or an AlgoContainer's Actioner.
+ * 2) A command never waits for room, if the queue is full it goes on a backlog which the consumer's thread moves
+ *    across as the queue empties. The sequencer thread can be waiting on that consumer for room on the ring, so a
+ *    consumer waiting on the sequencer thread would never get it.
+ * 3) Frames are queued whole, so a batch is still sequenced in one call.
+ */
+public final class CommandQueue implements Sequencer {
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    static final int COMMAND = 1;
+    static final int FRAME = 2;
+
+    //a backlog record is its msgTypeId, its length and then the command
+    private static final int BACKLOG_HEADER_LENGTH = 2 * Integer.BYTES;
+
+    private final OneToOneRingBuffer queue;
+    private final SbeMessageLength messageLength = new SbeMessageLength();
+
+    private final MutableDirectBuffer backlog = new ExpandableDirectByteBuffer(1024);
+    private int backlogPosition = 0;
+    private int backlogLength = 0;
+
+    //counted on the consumer's thread as commands are sent and on the sequencer's thread as they are drained
+    private final AtomicLong sent = new AtomicLong();
+    private long drained = 0;
+
+    private final UnsafeBuffer command = new UnsafeBuffer(0, 0);
+    private final MessageHandler onDrained = this::onDrained;
+    private Sequencer sequencer;
+
+    public CommandQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the size in bytes of the queue, a power of two.
+     */
+    public CommandQueue(final int capacity) {
+        this.queue = new OneToOneRingBuffer(new UnsafeBuffer(ByteBuffer.allocateDirect(capacity + RingBufferDescriptor.TRAILER_LENGTH)));
+    }
+
+    @Override
+    public void onCommand(final DirectBuffer command) {
+        write(COMMAND, command, 0, messageLength.lengthOf(command));
+    }
+
+    @Override
+    public void onCommandFrame(final DirectBuffer frame, final int offset, final int length) {
+        write(FRAME, frame, offset, length);
+    }
+
+    private void write(final int msgTypeId, final DirectBuffer buffer, final int offset, final int length) {
+        //anything already on the backlog has to go first
+        if (backlogLength > 0) {
+            flush();
+        }
+        if (backlogLength > 0 || !queue.write(msgTypeId, buffer, offset, length)) {
+            backlog.putInt(backlogLength, msgTypeId);
+            backlog.putInt(backlogLength + Integer.BYTES, length);
+            backlog.putBytes(backlogLength + BACKLOG_HEADER_LENGTH, buffer, offset, length);
+            backlogLength += BACKLOG_HEADER_LENGTH + length;
+        }
+        sent.lazySet(sent.get() + 1);
+    }
+
+    /**
+     * Moves as much of the backlog onto the queue as fits, called on the consumer's thread.
+     */
+    void flush() {
+        while (backlogPosition < backlogLength) {
+            final int msgTypeId = backlog.getInt(backlogPosition);
+            final int length = backlog.getInt(backlogPosition + Integer.BYTES);
+            if (!queue.write(msgTypeId, backlog, backlogPosition + BACKLOG_HEADER_LENGTH, length)) {
+                return;
+            }
+            backlogPosition += BACKLOG_HEADER_LENGTH + length;
+        }
+        backlogPosition = 0;
+        backlogLength = 0;
+    }
+
+    /**
+     * Sends the queued commands into the sequencer, from the thread which owns it.
+     *
+     * @return how many commands and frames were sent.
+     */
+    int drain(final Sequencer sequencer) {
+        this.sequencer = sequencer;
+        final int read = queue.read(onDrained);
+        drained += read;
+        return read;
+    }
+
+    /**
+     * @return true once every command sent has been drained, read from the sequencer's thread.
+     */
+    boolean isEmpty() {
+        return sent.get() == drained;
+    }
+
+    private void onDrained(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length) {
+        if (msgTypeId == FRAME) {
+            sequencer.onCommandFrame(buffer, index, length);
+            return;
+        }
+        command.wrap(buffer, index, length);
+        sequencer.onCommand(command);
+    }
+}
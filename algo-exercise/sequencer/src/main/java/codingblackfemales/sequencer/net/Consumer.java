@@ -4,4 +4,11 @@ import org.agrona.DirectBuffer;
 
 public interface Consumer {
     public void onMessage(final DirectBuffer buffer);
+
+    /**
+     * Called once there are no more messages immediately available, so a consumer can act once on everything it has
+     * just been sent rather than on each message of a burst.
+     */
+    public default void onEndOfBatch() {
+    }
 }
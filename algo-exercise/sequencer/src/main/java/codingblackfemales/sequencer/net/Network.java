@@ -4,4 +4,11 @@ import org.agrona.DirectBuffer;
 
 public interface Network {
     public void dispatch(final DirectBuffer buffer);
+
+    /**
+     * Tells the consumers that nothing else is waiting to be dispatched, for networks which deliver on the caller's
+     * thread. A network with its own consumer threads ends their batches as they run out of messages instead.
+     */
+    public default void dispatchEndOfBatch() {
+    }
 }
@@ -0,0 +1,337 @@
+package codingblackfemales.sequencer.net;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.util.SbeMessageLength;
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A Network which copies every dispatched message into a pre-allocated, off-heap ring of fixed size slots, each
+ * consumer then reads the ring on its own thread and at its own pace using its own sequence cursor (in the style
+ * of the LMAX Disruptor). Some features of this:
+ *
+ * 1) dispatch() must only ever be called from one thread (the sequencer), it only blocks when the slowest consumer
+ *    is a whole ring behind. A consumer which sends commands (the OrderBook, an AlgoContainer) is added with its own
+ *    CommandQueue in place of the sequencer, which the sequencer's thread empties with drainCommands().
+ * 2) A consumer can be added downstream of other consumers, it then never sees a message before they have
+ *    processed it, i.e. the AlgoContainer behind the MarketDataService and OrderService whose state it reads.
+ * 3) The buffer a consumer is handed is a view over the ring slot, it is only valid for the duration of onMessage().
+ * 4) A consumer's onEndOfBatch() is called each time it has caught up with everything available to it.
+ * 5) Each consumer runs on its own thread, consumers which share state (i.e. the OrderBook and the consumer of its
+ *    inbound orders) have to be added together, behind one MessageDispatcher.
+ */
+public class RingBufferNetwork implements Network, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RingBufferNetwork.class);
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+    public static final int DEFAULT_MAX_MESSAGE_LENGTH = 1024;
+
+    //each slot is [int length][int unused][message bytes]
+    private static final int SLOT_HEADER_LENGTH = BitUtil.SIZE_OF_LONG;
+
+    //the producer cursor and each consumer cursor sit on their own pair of cache lines
+    private static final int CURSOR_SPACING = 2 * BitUtil.CACHE_LINE_LENGTH;
+    private static final int PRODUCER_CURSOR = 0;
+
+    private final int capacity;
+    private final int mask;
+    private final int maxMessageLength;
+    private final int slotLength;
+    private final UnsafeBuffer ring;
+
+    private final List<ConsumerCursor> consumers = new ArrayList<>();
+    private final SbeMessageLength messageLength = new SbeMessageLength();
+    private final Supplier<IdleStrategy> idleStrategies;
+    private final IdleStrategy producerIdleStrategy;
+
+    private UnsafeBuffer cursors;
+    private int[] gatingCursors;
+    private long nextSequence = 0;
+    private long cachedGatingSequence = -1;
+
+    private volatile boolean running = false;
+
+    public RingBufferNetwork() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_MESSAGE_LENGTH);
+    }
+
+    public RingBufferNetwork(final int capacity, final int maxMessageLength) {
+        this(capacity, maxMessageLength, BackoffIdleStrategy::new);
+    }
+
+    /**
+     * @param idleStrategies creates the strategy the producer and each consumer thread use while waiting, busy spinning
+     *                       gives the lowest latency but needs a core per consumer.
+     */
+    public RingBufferNetwork(final int capacity, final int maxMessageLength, final Supplier<IdleStrategy> idleStrategies) {
+        if (!BitUtil.isPowerOfTwo(capacity)) {
+            throw new IllegalArgumentException(String.format("Ring capacity must be a power of two capacity=[%d]", capacity));
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxMessageLength = maxMessageLength;
+        this.slotLength = BitUtil.align(SLOT_HEADER_LENGTH + maxMessageLength, BitUtil.CACHE_LINE_LENGTH);
+        this.ring = new UnsafeBuffer(BufferUtil.allocateDirectAligned(capacity * slotLength, BitUtil.CACHE_LINE_LENGTH));
+        this.idleStrategies = idleStrategies;
+        this.producerIdleStrategy = idleStrategies.get();
+    }
+
+    public void addConsumer(final Consumer consumer) {
+        addConsumer(consumer, new Consumer[0]);
+    }
+
+    /**
+     * Adds a consumer which only sees a message once every one of the upstream consumers has processed it.
+     */
+    public void addConsumer(final Consumer consumer, final Consumer... upstream) {
+        addConsumer(consumer, (CommandQueue) null, upstream);
+    }
+
+    /**
+     * Adds a consumer which sends its commands through the given queue, the queue's backlog is moved across on the
+     * consumer's thread.
+     */
+    public void addConsumer(final Consumer consumer, final CommandQueue commands, final Consumer... upstream) {
+        if (running) {
+            throw new IllegalStateException("Cannot add a consumer to a RingBufferNetwork that has already been started");
+        }
+
+        final int[] upstreamCursors = new int[upstream.length];
+        for (int i = 0; i < upstream.length; i++) {
+            upstreamCursors[i] = cursorOf(upstream[i]).cursorOffset;
+        }
+
+        consumers.add(new ConsumerCursor(consumer, commands, cursorOffset(consumers.size() + 1), upstreamCursors));
+    }
+
+    public void start() {
+        cursors = new UnsafeBuffer(BufferUtil.allocateDirectAligned((consumers.size() + 1) * CURSOR_SPACING, BitUtil.CACHE_LINE_LENGTH));
+        cursors.putLongOrdered(PRODUCER_CURSOR, -1L);
+
+        gatingCursors = new int[consumers.size()];
+        for (int i = 0; i < consumers.size(); i++) {
+            gatingCursors[i] = consumers.get(i).cursorOffset;
+            cursors.putLongOrdered(gatingCursors[i], -1L);
+        }
+
+        running = true;
+
+        for (ConsumerCursor consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    @Override
+    public void dispatch(final DirectBuffer buffer) {
+        if (!running) {
+            throw new IllegalStateException("RingBufferNetwork must be started before dispatching");
+        }
+
+        final int length = messageLength.lengthOf(buffer);
+        if (length > maxMessageLength) {
+            throw new IllegalArgumentException(String.format("Message does not fit in a ring slot length=[%d] maxMessageLength=[%d]", length, maxMessageLength));
+        }
+
+        final long sequence = nextSequence++;
+        final long wrapPoint = sequence - capacity;
+
+        if (wrapPoint > cachedGatingSequence) {
+            long minSequence;
+            while (wrapPoint > (minSequence = minimumGatingSequence())) {
+                producerIdleStrategy.idle();
+            }
+            producerIdleStrategy.reset();
+            cachedGatingSequence = minSequence;
+        }
+
+        final int offset = slotOffset(sequence);
+        ring.putInt(offset, length);
+        ring.putBytes(offset + SLOT_HEADER_LENGTH, buffer, 0, length);
+
+        cursors.putLongOrdered(PRODUCER_CURSOR, sequence);
+    }
+
+    /**
+     * Spins until every consumer has processed everything dispatched so far.
+     */
+    public void awaitConsumed() {
+        final long published = cursors.getLongVolatile(PRODUCER_CURSOR);
+        for (ConsumerCursor consumer : consumers) {
+            while (cursors.getLongVolatile(consumer.cursorOffset) < published) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Sends the consumers' commands into the sequencer, this must be called from the thread which dispatches.
+     *
+     * @return how many commands were sent.
+     */
+    public int drainCommands(final Sequencer sequencer) {
+        int commands = 0;
+        for (ConsumerCursor consumer : consumers) {
+            if (consumer.commands != null) {
+                commands += consumer.commands.drain(sequencer);
+            }
+        }
+        return commands;
+    }
+
+    /**
+     * Drains commands until every consumer has processed everything dispatched and sent nothing more, for tests and
+     * back tests which send a batch and then want to see its result.
+     */
+    public void drainUntilIdle(final Sequencer sequencer) {
+        while (true) {
+            awaitConsumed();
+            if (drainCommands(sequencer) == 0) {
+                if (commandsDrained()) {
+                    return;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private boolean commandsDrained() {
+        for (ConsumerCursor consumer : consumers) {
+            if (consumer.commands != null && !consumer.commands.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops the consumer threads once they have drained everything dispatched so far.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (ConsumerCursor consumer : consumers) {
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private long minimumGatingSequence() {
+        long min = Long.MAX_VALUE;
+        for (int cursor : gatingCursors) {
+            min = Math.min(min, cursors.getLongVolatile(cursor));
+        }
+        return min;
+    }
+
+    private int slotOffset(final long sequence) {
+        return (int) (sequence & mask) * slotLength;
+    }
+
+    private static int cursorOffset(final int index) {
+        return index * CURSOR_SPACING;
+    }
+
+    private ConsumerCursor cursorOf(final Consumer consumer) {
+        for (ConsumerCursor cursor : consumers) {
+            if (cursor.consumer == consumer) {
+                return cursor;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Upstream consumer has not been added consumer=[%s]", consumer));
+    }
+
+    private final class ConsumerCursor implements Runnable {
+
+        private final Consumer consumer;
+        private final CommandQueue commands;
+        private final int cursorOffset;
+        private final int[] upstreamCursors;
+        private final UnsafeBuffer view = new UnsafeBuffer();
+        private final IdleStrategy idleStrategy = idleStrategies.get();
+        private final Thread thread;
+
+        private ConsumerCursor(final Consumer consumer, final CommandQueue commands, final int cursorOffset, final int[] upstreamCursors) {
+            this.consumer = consumer;
+            this.commands = commands;
+            this.cursorOffset = cursorOffset;
+            this.upstreamCursors = upstreamCursors;
+            this.thread = new Thread(this, "ring-" + consumer.getClass().getSimpleName());
+            this.thread.setDaemon(true);
+        }
+
+        private long availableSequence() {
+            long available = cursors.getLongVolatile(PRODUCER_CURSOR);
+            for (int upstream : upstreamCursors) {
+                available = Math.min(available, cursors.getLongVolatile(upstream));
+            }
+            return available;
+        }
+
+        @Override
+        public void run() {
+            long next = 0;
+
+            while (true) {
+                final long available = availableSequence();
+
+                if (available >= next) {
+                    for (; next <= available; next++) {
+                        deliver(next);
+                    }
+                    endBatch();
+                    cursors.putLongOrdered(cursorOffset, available);
+                    flush();
+                    idleStrategy.reset();
+                } else if (!running && next > cursors.getLongVolatile(PRODUCER_CURSOR)) {
+                    return;
+                } else {
+                    flush();
+                    idleStrategy.idle();
+                }
+            }
+        }
+
+        private void flush() {
+            if (commands != null) {
+                commands.flush();
+            }
+        }
+
+        private void endBatch() {
+            try {
+                consumer.onEndOfBatch();
+            } catch (RuntimeException e) {
+                logger.error("[NETWORK] Consumer " + consumer + " failed at the end of a batch", e);
+            }
+        }
+
+        private void deliver(final long sequence) {
+            final int offset = slotOffset(sequence);
+            view.wrap(ring, offset + SLOT_HEADER_LENGTH, ring.getInt(offset));
+            try {
+                consumer.onMessage(view);
+            } catch (RuntimeException e) {
+                logger.error("[NETWORK] Consumer " + consumer + " failed on sequence " + sequence, e);
+            }
+        }
+    }
+}
@@ -1,23 +1,28 @@
 package codingblackfemales.sequencer.net;
 
+import codingblackfemales.sequencer.event.MessageDispatcher;
 import org.agrona.DirectBuffer;
 
-import java.util.LinkedList;
-import java.util.List;
-
+/**
+ * Hands each message to its consumers in the order they were added, on the dispatching thread. The consumers share
+ * one MessageDispatcher, so the header is decoded once per message rather than once per consumer.
+ */
 public class TestNetwork implements Network{
 
-    private final List<Consumer> consumers = new LinkedList<>();
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
 
     @Override
     public void dispatch(DirectBuffer buffer){
-        for (Consumer consumer: consumers) {
-            consumer.onMessage(buffer);
-        }
+        dispatcher.onMessage(buffer);
+    }
+
+    @Override
+    public void dispatchEndOfBatch(){
+        dispatcher.onEndOfBatch();
     }
 
     public void addConsumer(Consumer consumer){
-        consumers.add(consumer);
+        dispatcher.add(consumer);
     }
 
 }
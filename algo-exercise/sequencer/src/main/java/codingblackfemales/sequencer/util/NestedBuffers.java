@@ -0,0 +1,43 @@
+package codingblackfemales.sequencer.util;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * One buffer (or encoder, decoder, wrapper) per level of synchronous nesting.
+ *
+ * Dispatch through the sequencer is synchronous, so whoever is handling a message can send another one which is
+ * dispatched before it returns, i.e. the algo creating a child order on a market data tick, which the book then fills.
+ * Anything written at one depth must not be overwritten by a message sent from within it, while the outer message is
+ * still being handed to the rest of its consumers. The owner keeps track of its own depth, incrementing it around the
+ * call which may nest, and writes into the buffer for the depth it is at.
+ *
+ * A buffer is only created the first time its depth is reached, so something which never nests holds just one.
+ */
+public final class NestedBuffers<T> {
+
+    private static final int INITIAL_DEPTH = 4;
+
+    private final Supplier<? extends T> factory;
+    private Object[] byDepth = new Object[INITIAL_DEPTH];
+
+    public NestedBuffers(final Supplier<? extends T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return the buffer for this depth, created the first time the depth is reached.
+     */
+    @SuppressWarnings("unchecked")
+    public T at(final int depth) {
+        if (depth >= byDepth.length) {
+            byDepth = Arrays.copyOf(byDepth, Math.max(depth + 1, byDepth.length * 2));
+        }
+        Object buffer = byDepth[depth];
+        if (buffer == null) {
+            buffer = factory.get();
+            byDepth[depth] = buffer;
+        }
+        return (T) buffer;
+    }
+}
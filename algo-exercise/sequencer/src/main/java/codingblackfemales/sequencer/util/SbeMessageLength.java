@@ -0,0 +1,60 @@
+package codingblackfemales.sequencer.util;
+
+import messages.marketdata.AskBookUpdateDecoder;
+import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.IncrementalBookUpdateDecoder;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+
+/**
+ * Works out how many bytes of a buffer an SBE message actually occupies (header + body + repeating groups), so
+ * that callers copying or journaling messages do not have to move the whole backing buffer.
+ *
+ * Holds its own decoders, so an instance must only be used by one thread.
+ */
+public class SbeMessageLength {
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final BookUpdateDecoder book = new BookUpdateDecoder();
+    private final AskBookUpdateDecoder ask = new AskBookUpdateDecoder();
+    private final BidBookUpdateDecoder bid = new BidBookUpdateDecoder();
+    private final IncrementalBookUpdateDecoder incremental = new IncrementalBookUpdateDecoder();
+
+    public int lengthOf(final DirectBuffer buffer) {
+        return lengthOf(buffer, 0);
+    }
+
+    public int lengthOf(final DirectBuffer buffer, final int offset) {
+        header.wrap(buffer, offset);
+
+        final int schemaId = header.schemaId();
+        final int templateId = header.templateId();
+        final int actingBlockLength = header.blockLength();
+        final int actingVersion = header.version();
+        final int bodyOffset = offset + header.encodedLength();
+
+        //only the market data messages carry repeating groups, everything else is a fixed block.
+        if (schemaId == BookUpdateDecoder.SCHEMA_ID) {
+            if (templateId == BookUpdateDecoder.TEMPLATE_ID) {
+                book.wrap(buffer, bodyOffset, actingBlockLength, actingVersion);
+                book.sbeSkip();
+                return header.encodedLength() + book.encodedLength();
+            } else if (templateId == AskBookUpdateDecoder.TEMPLATE_ID) {
+                ask.wrap(buffer, bodyOffset, actingBlockLength, actingVersion);
+                ask.sbeSkip();
+                return header.encodedLength() + ask.encodedLength();
+            } else if (templateId == BidBookUpdateDecoder.TEMPLATE_ID) {
+                bid.wrap(buffer, bodyOffset, actingBlockLength, actingVersion);
+                bid.sbeSkip();
+                return header.encodedLength() + bid.encodedLength();
+            } else if (templateId == IncrementalBookUpdateDecoder.TEMPLATE_ID) {
+                incremental.wrap(buffer, bodyOffset, actingBlockLength, actingVersion);
+                incremental.sbeSkip();
+                return header.encodedLength() + incremental.encodedLength();
+            }
+        }
+
+        return header.encodedLength() + actingBlockLength;
+    }
+}
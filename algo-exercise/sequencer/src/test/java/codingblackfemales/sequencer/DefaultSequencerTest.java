@@ -0,0 +1,227 @@
+package codingblackfemales.sequencer;
+
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.Network;
+import codingblackfemales.sequencer.net.TestNetwork;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Venue;
+import messages.order.CreateOrderDecoder;
+import messages.order.CreateOrderEncoder;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultSequencerTest {
+
+    //enough that allocating even one small object per message would show, without slowing the build
+    private static final int MESSAGES = 1_000_000;
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final messages.order.MessageHeaderEncoder orderHeaderEncoder = new messages.order.MessageHeaderEncoder();
+    private final BookUpdateEncoder bookEncoder = new BookUpdateEncoder();
+    private final CreateOrderEncoder createOrderEncoder = new CreateOrderEncoder();
+
+    private final UnsafeBuffer bookBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+    private final UnsafeBuffer createBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+
+    private DirectBuffer bookUpdate() {
+        bookEncoder.wrapAndApplyHeader(bookBuffer, 0, headerEncoder);
+        bookEncoder.venue(Venue.XLON);
+        bookEncoder.instrumentId(1L);
+        bookEncoder.askBookCount(1).next().price(101L).size(100L);
+        bookEncoder.bidBookCount(1).next().price(99L).size(100L);
+        bookEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        return bookBuffer;
+    }
+
+    private DirectBuffer createOrder() {
+        createOrderEncoder.wrapAndApplyHeader(createBuffer, 0, orderHeaderEncoder);
+        createOrderEncoder.price(100L);
+        createOrderEncoder.quantity(50L);
+        createOrderEncoder.side(Side.BUY);
+        return createBuffer;
+    }
+
+    @Test
+    public void testStampsSequencerNumberInPlace() {
+        final List<Long> sequenced = new ArrayList<>();
+        final Network network = buffer -> sequenced.add(headerDecoder.wrap(buffer, 0).sequencerNumber());
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+
+        final DirectBuffer book = bookUpdate();
+        sequencer.onCommand(book);
+        sequencer.onCommand(book);
+
+        assertEquals(List.of(1L, 2L), sequenced);
+        assertEquals(2L, headerDecoder.wrap(book, 0).sequencerNumber());
+    }
+
+    @Test
+    public void testNestedCommandDoesNotOverwriteOuterDispatch() {
+        final TestNetwork network = new TestNetwork();
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+
+        final UnsafeBuffer nestedCreate = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        nestedCreate.putBytes(0, createOrder(), 0, 64);
+
+        final List<String> seen = new ArrayList<>();
+
+        //first consumer sends a child order back into the sequencer on every market data tick, the same way the
+        //algo container does
+        network.addConsumer(buffer -> {
+            final MessageHeaderDecoder header = new MessageHeaderDecoder().wrap(buffer, 0);
+            if (header.templateId() != CreateOrderDecoder.TEMPLATE_ID) {
+                sequencer.onCommand(nestedCreate);
+            }
+        });
+        network.addConsumer(buffer -> {
+            final MessageHeaderDecoder header = new MessageHeaderDecoder().wrap(buffer, 0);
+            seen.add(header.templateId() + ":" + header.sequencerNumber());
+        });
+
+        sequencer.onCommand(createOrder());
+        sequencer.onCommand(bookUpdate());
+
+        //the second consumer must still see the outer book update (seq 2) after the nested create order (seq 3)
+        assertEquals(List.of(CreateOrderDecoder.TEMPLATE_ID + ":1", CreateOrderDecoder.TEMPLATE_ID + ":3", "1:2"), seen);
+    }
+
+    @Test
+    public void testWhatATickLeadsToCarriesItsTimestamp() {
+        final TestNetwork network = new TestNetwork();
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+
+        final UnsafeBuffer nestedCreate = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        nestedCreate.putBytes(0, createOrder(), 0, 128);
+
+        final List<long[]> stamps = new ArrayList<>();
+        network.addConsumer(buffer -> {
+            final MessageHeaderDecoder header = new MessageHeaderDecoder().wrap(buffer, 0);
+            stamps.add(new long[]{header.timestamp(), header.originTimestamp()});
+            if (header.templateId() != CreateOrderDecoder.TEMPLATE_ID) {
+                sequencer.onCommand(nestedCreate);
+            }
+        });
+        network.addConsumer(new Consumer() {
+            @Override
+            public void onMessage(final DirectBuffer buffer) {
+            }
+
+            @Override
+            public void onEndOfBatch() {
+                if (stamps.size() < 3) {
+                    sequencer.onCommand(nestedCreate);
+                }
+            }
+        });
+
+        sequencer.onCommand(bookUpdate());
+        sequencer.onEndOfBatch();
+
+        assertEquals(3, stamps.size());
+        final long tick = stamps.get(0)[0];
+        assertEquals(tick, stamps.get(0)[1]);
+        //the order sent while the tick was dispatched, and the one sent at the end of its batch
+        assertTrue(stamps.get(1)[0] >= tick);
+        assertEquals(tick, stamps.get(1)[1]);
+        assertTrue(stamps.get(2)[0] >= stamps.get(1)[0]);
+        assertEquals(tick, stamps.get(2)[1]);
+
+        //the next message from outside is an origin of its own
+        sequencer.onCommand(createOrder());
+        assertEquals(stamps.get(3)[0], stamps.get(3)[1]);
+    }
+
+    @Test
+    public void testSequencesEachCommandInAFrame() {
+        final CreateOrderDecoder createOrderDecoder = new CreateOrderDecoder();
+        final List<String> seen = new ArrayList<>();
+        final Network network = buffer -> {
+            headerDecoder.wrap(buffer, 0);
+            if (headerDecoder.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+                createOrderDecoder.wrap(buffer, headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+                seen.add(headerDecoder.sequencerNumber() + ":create orderId=" + createOrderDecoder.orderId());
+            } else {
+                seen.add(headerDecoder.sequencerNumber() + ":book");
+            }
+        };
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+
+        //each command after its length, starting part way into the buffer
+        final UnsafeBuffer frame = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final int offset = 16;
+        int position = offset;
+        for (DirectBuffer command : List.of(createOrder(), bookUpdate(), createOrder())) {
+            frame.putInt(position, 128);
+            frame.putBytes(position + Sequencer.FRAME_LENGTH_PREFIX, command, 0, 128);
+            position += Sequencer.FRAME_LENGTH_PREFIX + 128;
+        }
+
+        sequencer.onCommandFrame(frame, offset, position - offset);
+
+        assertEquals(List.of("1:create orderId=2", "2:book", "3:create orderId=3"), seen);
+    }
+
+    @Test
+    public void testOrderFromBeforeOrderTypesIsSequencedWithoutThem() {
+        final CreateOrderDecoder createOrderDecoder = new CreateOrderDecoder();
+        final List<String> seen = new ArrayList<>();
+        final Network network = buffer -> {
+            headerDecoder.wrap(buffer, 0);
+            createOrderDecoder.wrap(buffer, headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+            seen.add(createOrderDecoder.quantity() + " " + createOrderDecoder.orderType() + " " + createOrderDecoder.timeInForce());
+        };
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+
+        //a version 0 CreateOrder, which ends before orderType and timeInForce
+        final UnsafeBuffer create = (UnsafeBuffer) createOrder();
+        orderHeaderEncoder.wrap(create, 0).version(0).blockLength(CreateOrderEncoder.orderTypeEncodingOffset());
+
+        sequencer.onCommand(create);
+
+        assertEquals(List.of("50 NULL_VAL NULL_VAL"), seen);
+    }
+
+    @Test
+    public void testDoesNotAllocatePerMessage() {
+        final long[] sink = new long[1];
+        final Network network = buffer -> sink[0] += buffer.capacity();
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+
+        final DirectBuffer book = bookUpdate();
+        final DirectBuffer create = createOrder();
+
+        //warm up so the measurement is of jit compiled code
+        for (int i = 0; i < 100_000; i++) {
+            sequencer.onCommand(book);
+            sequencer.onCommand(create);
+        }
+
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MESSAGES / 2; i++) {
+            sequencer.onCommand(book);
+            sequencer.onCommand(create);
+        }
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(sink[0] > 0);
+        assertTrue("allocated " + allocated + " bytes over " + MESSAGES + " messages", allocated < 64 * 1024);
+    }
+}
@@ -0,0 +1,146 @@
+package codingblackfemales.sequencer;
+
+import codingblackfemales.sequencer.journal.Journal;
+import codingblackfemales.sequencer.net.Network;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Venue;
+import messages.order.CreateOrderDecoder;
+import messages.order.CreateOrderEncoder;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RealSequencerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final messages.order.MessageHeaderEncoder orderHeaderEncoder = new messages.order.MessageHeaderEncoder();
+    private final BookUpdateEncoder bookEncoder = new BookUpdateEncoder();
+    private final CreateOrderEncoder createOrderEncoder = new CreateOrderEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final BookUpdateDecoder bookDecoder = new BookUpdateDecoder();
+    private final CreateOrderDecoder createOrderDecoder = new CreateOrderDecoder();
+
+    private DirectBuffer bookUpdate(final long instrumentId) {
+        bookEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        bookEncoder.venue(Venue.XLON);
+        bookEncoder.instrumentId(instrumentId);
+        bookEncoder.askBookCount(2)
+                .next().price(101L).size(100L)
+                .next().price(102L).size(200L);
+        bookEncoder.bidBookCount(1).next().price(99L).size(300L);
+        bookEncoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        return buffer;
+    }
+
+    private DirectBuffer createOrder() {
+        createOrderEncoder.wrapAndApplyHeader(buffer, 0, orderHeaderEncoder);
+        createOrderEncoder.price(100L);
+        createOrderEncoder.quantity(50L);
+        createOrderEncoder.side(Side.BUY);
+        return buffer;
+    }
+
+    private Path journalFile() {
+        return folder.getRoot().toPath().resolve("session.journal");
+    }
+
+    @Test
+    public void testReplaysFromAnySequenceNumber() {
+        final List<Long> live = new ArrayList<>();
+        final Network liveNetwork = message -> live.add(headerDecoder.wrap(message, 0).sequencerNumber());
+
+        try (RealSequencer sequencer = new RealSequencer(liveNetwork, Journal.open(journalFile(), 64 * 1024))) {
+            for (long i = 0; i < 100; i++) {
+                sequencer.onCommand(bookUpdate(i));
+            }
+
+            final List<Long> instruments = new ArrayList<>();
+            final long replayed = sequencer.replay(91, message -> {
+                bookDecoder.wrapAndApplyHeader(message, 0, headerDecoder);
+                instruments.add(bookDecoder.instrumentId());
+                bookDecoder.sbeSkip();
+            });
+
+            assertEquals(10, replayed);
+            assertEquals(List.of(90L, 91L, 92L, 93L, 94L, 95L, 96L, 97L, 98L, 99L), instruments);
+        }
+
+        assertEquals(100, live.size());
+    }
+
+    @Test
+    public void testRecoversSequenceAndOrderIdFromExistingJournal() {
+        try (RealSequencer sequencer = new RealSequencer(message -> { }, Journal.open(journalFile(), 64 * 1024))) {
+            sequencer.onCommand(bookUpdate(1L));
+            sequencer.onCommand(createOrder());
+            sequencer.onCommand(createOrder());
+            assertEquals(3, sequencer.getSequencerNumber());
+        }
+
+        final List<String> restarted = new ArrayList<>();
+        final Network network = message -> {
+            headerDecoder.wrap(message, 0);
+            createOrderDecoder.wrap(message, headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+            restarted.add(headerDecoder.sequencerNumber() + ":" + createOrderDecoder.orderId());
+        };
+
+        try (RealSequencer sequencer = new RealSequencer(network, Journal.open(journalFile(), 64 * 1024))) {
+            assertEquals(3, sequencer.getSequencerNumber());
+            sequencer.onCommand(createOrder());
+        }
+
+        //order ids 2 and 3 were handed out before the restart
+        assertEquals(List.of("4:4"), restarted);
+
+        try (Journal journal = Journal.open(journalFile())) {
+            assertEquals(4, journal.frames());
+        }
+    }
+
+    @Test
+    public void testRefusesAJournalWrittenWithAnOlderHeader() {
+        try (Journal journal = Journal.open(journalFile(), 64 * 1024)) {
+            final DirectBuffer book = bookUpdate(1L);
+            journal.append(book, 128);
+            //as a version 0 message, from before the header carried its timestamps
+            headerEncoder.wrap(buffer, 0).version(0);
+            journal.append(book, 128);
+        }
+
+        try (RealSequencer sequencer = new RealSequencer(message -> { }, Journal.open(journalFile(), 64 * 1024))) {
+            fail("recovered from a journal it cannot read, sequencerNumber=" + sequencer.getSequencerNumber());
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("version=[0]"));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsWhenJournalIsFull() {
+        try (RealSequencer sequencer = new RealSequencer(message -> { }, Journal.open(journalFile(), 256))) {
+            for (long i = 0; i < 100; i++) {
+                sequencer.onCommand(bookUpdate(i));
+            }
+        }
+    }
+}
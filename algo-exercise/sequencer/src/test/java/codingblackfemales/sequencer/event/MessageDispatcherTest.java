@@ -0,0 +1,134 @@
+package codingblackfemales.sequencer.event;
+
+import codingblackfemales.sequencer.net.Consumer;
+import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import messages.order.PartialFillOrderDecoder;
+import messages.order.PartialFillOrderEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageDispatcherTest {
+
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+    private final List<String> handled = new ArrayList<>();
+
+    private static UnsafeBuffer bookUpdate(final long sequencerNumber, final long... bids) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final MessageHeaderEncoder header = new MessageHeaderEncoder();
+        final BookUpdateEncoder encoder = new BookUpdateEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, header);
+        header.sequencerNumber(sequencerNumber);
+        encoder.instrumentId(123L).venue(Venue.XLON).instrumentStatus(InstrumentStatus.CONTINUOUS).source(Source.STREAM);
+        final BookUpdateEncoder.BidBookEncoder bidBook = encoder.bidBookCount(bids.length);
+        for (long price : bids) {
+            bidBook.next().price(price).size(100L);
+        }
+        encoder.askBookCount(0);
+        return buffer;
+    }
+
+    private static UnsafeBuffer partialFill(final long orderId) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        new PartialFillOrderEncoder().wrapAndApplyHeader(buffer, 0, new messages.order.MessageHeaderEncoder())
+                .orderId(orderId).quantity(50L).price(98L);
+        return buffer;
+    }
+
+    private static String bids(final BookUpdateDecoder bookUpdate) {
+        final StringBuilder bids = new StringBuilder();
+        for (BookUpdateDecoder.BidBookDecoder bid : bookUpdate.bidBook()) {
+            bids.append(bid.price()).append(' ');
+        }
+        return bids.toString().trim();
+    }
+
+    @Test
+    public void testHandlersAndConsumersAreCalledInTheOrderTheyWereAdded() {
+        dispatcher.on(BookUpdateDecoder::new, bookUpdate -> handled.add("book " + bids(bookUpdate)));
+        dispatcher.add(buffer -> handled.add("consumer"));
+        dispatcher.on(BookUpdateDecoder::new, bookUpdate -> handled.add("service " + bids(bookUpdate)));
+        dispatcher.on(PartialFillOrderDecoder::new, partialFill -> handled.add("partial fill " + partialFill.orderId()));
+
+        dispatcher.onMessage(bookUpdate(1L, 98L, 97L));
+        dispatcher.onMessage(partialFill(7L));
+
+        //the second handler is given the decoder re-wrapped, not left at the end of the group the first one walked
+        assertEquals(List.of("book 98 97", "consumer", "service 98 97", "consumer", "partial fill 7"), handled);
+    }
+
+    @Test
+    public void testTemplateIdsAreOnlyMatchedWithinTheirSchema() {
+        //both are template 9
+        dispatcher.on(BidBookUpdateDecoder::new, bidBook -> handled.add("bid book"));
+        dispatcher.on(PartialFillOrderDecoder::new, partialFill -> handled.add("partial fill " + partialFill.orderId()));
+
+        dispatcher.onMessage(partialFill(7L));
+
+        assertEquals(List.of("partial fill 7"), handled);
+    }
+
+    @Test
+    public void testSubscribersRegisterTheirOwnHandlers() {
+        dispatcher.add(new MessageSubscriberConsumer());
+
+        dispatcher.onMessage(bookUpdate(1L, 98L));
+        dispatcher.onMessage(partialFill(7L));
+
+        assertEquals(List.of("subscribed book 98"), handled);
+    }
+
+    @Test
+    public void testMessagesDispatchedFromAHandlerDoNotDisturbTheOneBeingHandled() {
+        final UnsafeBuffer inner = bookUpdate(2L, 90L);
+
+        dispatcher.on(BookUpdateDecoder::new, bookUpdate -> {
+            final StringBuilder bids = new StringBuilder("[" + dispatcher.sequencerNumber() + "]");
+            for (BookUpdateDecoder.BidBookDecoder bid : bookUpdate.bidBook()) {
+                bids.append(' ').append(bid.price());
+                //as the order book does when it publishes its own update part way through handling one
+                if (bookUpdate.instrumentId() == 123L && bid.price() == 98L) {
+                    dispatcher.onMessage(inner);
+                }
+            }
+            handled.add(bids + " [" + dispatcher.sequencerNumber() + "]");
+        });
+
+        dispatcher.onMessage(bookUpdate(1L, 98L, 97L));
+
+        assertEquals(List.of("[2] 90 [2]", "[1] 98 97 [1]"), handled);
+    }
+
+    @Test
+    public void testNothingIsBeingHandledOutsideADispatch() {
+        final MessageDispatcher dispatcher = new MessageDispatcher();
+
+        assertEquals(0L, dispatcher.sequencerNumber());
+        assertEquals(0L, dispatcher.originTimestamp());
+    }
+
+    private class MessageSubscriberConsumer implements Consumer, MessageSubscriber {
+
+        @Override
+        public void onMessage(final DirectBuffer buffer) {
+            handled.add("raw");
+        }
+
+        @Override
+        public void subscribe(final MessageDispatcher dispatcher) {
+            dispatcher.on(BookUpdateDecoder::new, bookUpdate -> handled.add("subscribed book " + bids(bookUpdate)));
+        }
+    }
+}
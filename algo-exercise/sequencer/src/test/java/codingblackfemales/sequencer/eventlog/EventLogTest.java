@@ -0,0 +1,84 @@
+package codingblackfemales.sequencer.eventlog;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import messages.order.Side;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventLogTest {
+
+    private static final EventLog.Event FILLED = EventLog.event(EventLogTest.class, "[TEST] Filled orderId={} {} {}@{}", null, side -> Side.get((byte) side));
+    private static final EventLog.Event STARTED = EventLog.event(EventLogTest.class, "[TEST] Started");
+
+    private final ch.qos.logback.classic.Logger testLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(EventLogTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @Before
+    public void setUp() {
+        appender.start();
+        testLogger.addAppender(appender);
+        testLogger.setAdditive(false);
+        testLogger.setLevel(Level.INFO);
+    }
+
+    @After
+    public void tearDown() {
+        testLogger.detachAppender(appender);
+        testLogger.setAdditive(true);
+        testLogger.setLevel(null);
+    }
+
+    private List<String> written() {
+        EventLog.flush();
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testEventsAreFormattedThroughTheOwnersLogger() {
+        STARTED.log();
+        FILLED.log(42L, Side.SELL.value(), 100L, 98L);
+
+        assertEquals(List.of("[TEST] Started", "[TEST] Filled orderId=42 SELL 100@98"), written());
+        assertEquals(EventLogTest.class.getName(), appender.list.get(0).getLoggerName());
+    }
+
+    @Test
+    public void testIsEnabledFollowsTheLoggersLevel() {
+        assertTrue(FILLED.isEnabled());
+        testLogger.setLevel(Level.WARN);
+        assertFalse(FILLED.isEnabled());
+    }
+
+    @Test
+    public void testLoggingDoesNotAllocateOnTheCallersThread() {
+        //warm up so the measurement is of jit compiled code
+        for (int i = 0; i < 20_000; i++) {
+            FILLED.log(i, Side.BUY.value(), 100L, 98L);
+        }
+        EventLog.flush();
+
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 20_000; i++) {
+            FILLED.log(i, Side.BUY.value(), 100L, 98L);
+        }
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+        assertEquals(40_000, written().size());
+    }
+}
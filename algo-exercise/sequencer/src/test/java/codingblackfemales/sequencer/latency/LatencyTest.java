@@ -0,0 +1,97 @@
+package codingblackfemales.sequencer.latency;
+
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.order.CreateOrderDecoder;
+import messages.order.CreateOrderEncoder;
+import messages.order.FillOrderEncoder;
+import messages.order.Side;
+import org.HdrHistogram.Histogram;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyTest {
+
+    @Before
+    public void setUp() {
+        Latency.reset();
+        Latency.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        Latency.setEnabled(false);
+        Latency.reset();
+    }
+
+    @Test
+    public void testPercentilesOfWhatEachStageRecorded() {
+        final long now = System.nanoTime();
+        for (int i = 1; i <= 1_000; i++) {
+            //i microseconds ago
+            Latency.record(Latency.Stage.EVALUATE, now - TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        //never sequenced, so not recorded
+        Latency.record(Latency.Stage.EVALUATE, 0L);
+
+        final Histogram evaluate = Latency.histogram(Latency.Stage.EVALUATE);
+        assertEquals(1_000, evaluate.getTotalCount());
+        assertTrue(evaluate.getValueAtPercentile(50) >= TimeUnit.MICROSECONDS.toNanos(500));
+        assertTrue(evaluate.getValueAtPercentile(99) >= TimeUnit.MICROSECONDS.toNanos(990));
+
+        //reading a stage does not clear it
+        assertEquals(1_000, Latency.histogram(Latency.Stage.EVALUATE).getTotalCount());
+        assertEquals(0, Latency.histogram(Latency.Stage.ORDER).getTotalCount());
+
+        final String[] summary = Latency.summary().split(System.lineSeparator());
+        assertEquals(1 + Latency.Stage.values().length, summary.length);
+        assertTrue(summary[2], summary[2].matches("tick-to-evaluate +1000 .*"));
+    }
+
+    @Test
+    public void testSequencerRecordsTheOrdersAndFillsATickLeadsTo() {
+        final TestNetwork network = new TestNetwork();
+        final DefaultSequencer sequencer = new DefaultSequencer(network);
+
+        final UnsafeBuffer create = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        new CreateOrderEncoder().wrapAndApplyHeader(create, 0, new messages.order.MessageHeaderEncoder())
+                .instrumentId(123L).price(98L).quantity(100L).side(Side.BUY);
+        final UnsafeBuffer fill = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        new FillOrderEncoder().wrapAndApplyHeader(fill, 0, new messages.order.MessageHeaderEncoder())
+                .orderId(2L).quantity(100L).price(98L);
+        final UnsafeBuffer tick = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final BookUpdateEncoder bookUpdate = new BookUpdateEncoder().wrapAndApplyHeader(tick, 0, new MessageHeaderEncoder()).instrumentId(123L);
+        bookUpdate.bidBookCount(0);
+        bookUpdate.askBookCount(0);
+
+        //an algo which sends an order on each tick, and a book which fills it straight away
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        network.addConsumer(buffer -> {
+            header.wrap(buffer, 0);
+            if (header.schemaId() == BookUpdateEncoder.SCHEMA_ID && header.templateId() == BookUpdateEncoder.TEMPLATE_ID) {
+                sequencer.onCommand(create);
+            } else if (header.schemaId() == CreateOrderDecoder.SCHEMA_ID && header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+                sequencer.onCommand(fill);
+            }
+        });
+
+        sequencer.onCommand(tick);
+        sequencer.onCommand(tick);
+        //an order from outside is not one a tick led to
+        sequencer.onCommand(create);
+
+        assertEquals(2, Latency.histogram(Latency.Stage.ORDER).getTotalCount());
+        assertEquals(3, Latency.histogram(Latency.Stage.FILL).getTotalCount());
+    }
+}
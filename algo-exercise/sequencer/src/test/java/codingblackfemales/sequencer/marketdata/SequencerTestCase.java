@@ -15,6 +15,17 @@ public abstract class SequencerTestCase {
 
     public void send(DirectBuffer buffer) throws Exception{
         getSequencerInternal().onCommand(buffer);
+        getSequencerInternal().onEndOfBatch();
+    }
+
+    /**
+     * Sends the buffers back to back as one batch, as a burst arriving from the network would be.
+     */
+    public void sendBatch(DirectBuffer... buffers) throws Exception{
+        for (DirectBuffer buffer : buffers) {
+            getSequencerInternal().onCommand(buffer);
+        }
+        getSequencerInternal().onEndOfBatch();
     }
 
 }
@@ -0,0 +1,179 @@
+package codingblackfemales.sequencer.net;
+
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Venue;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.YieldingIdleStrategy;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static codingblackfemales.sequencer.util.MessageUtil.bookUpdateToString;
+
+/**
+ * Compares TestNetwork with RingBufferNetwork for a million BookUpdate messages. Not picked up by the default
+ * surefire includes, run it with:
+ *
+ * mvn -pl sequencer -am test -Dtest=RingBufferNetworkBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ *
+ * The send time is stamped into the sequencerNumber header field, the latency is measured by the fast consumer
+ * (the one standing in for the OrderBook / AlgoContainer), the slow consumer formats every book like the
+ * LoggingConsumer does. Throughput is measured by sending as fast as possible, latency by pacing the sender at a
+ * rate both networks can sustain, otherwise it only measures how full the ring got.
+ */
+public class RingBufferNetworkBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(RingBufferNetworkBenchmark.class);
+
+    private static final int MESSAGES = 1_000_000;
+    private static final int WARMUP_MESSAGES = 200_000;
+    private static final long PACED_INTERVAL_NANOS = 10_000;
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder encoder = new BookUpdateEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    @Test
+    public void compareNetworks() {
+        run("TestNetwork", false, WARMUP_MESSAGES, 0);
+        run("RingBufferNetwork", false, WARMUP_MESSAGES, 0);
+
+        final String fastOnlyTest = run("TestNetwork", false, MESSAGES, 0);
+        final String fastOnlyRing = run("RingBufferNetwork", false, MESSAGES, 0);
+        final String withSlowTest = run("TestNetwork", true, MESSAGES, 0);
+        final String withSlowRing = run("RingBufferNetwork", true, MESSAGES, 0);
+        final String pacedTest = run("TestNetwork", true, MESSAGES, PACED_INTERVAL_NANOS);
+        final String pacedRing = run("RingBufferNetwork", true, MESSAGES, PACED_INTERVAL_NANOS);
+
+        logger.info("[BENCHMARK] fast consumer only, unpaced\n" + fastOnlyTest + "\n" + fastOnlyRing);
+        logger.info("[BENCHMARK] fast + slow (formatting) consumer, unpaced\n" + withSlowTest + "\n" + withSlowRing);
+        logger.info("[BENCHMARK] fast + slow (formatting) consumer, one message every " + PACED_INTERVAL_NANOS + "ns\n" + pacedTest + "\n" + pacedRing);
+    }
+
+    private String run(final String name, final boolean withSlowConsumer, final int messages, final long intervalNanos) {
+        final LatencyConsumer fast = new LatencyConsumer(messages);
+        final FormattingConsumer slow = new FormattingConsumer();
+
+        final long start;
+        final long end;
+
+        if (name.equals("TestNetwork")) {
+            final TestNetwork network = new TestNetwork();
+            if (withSlowConsumer) {
+                network.addConsumer(slow);
+            }
+            network.addConsumer(fast);
+
+            start = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                pace(start, i, intervalNanos);
+                network.dispatch(bookUpdate(i));
+            }
+            end = System.nanoTime();
+        } else {
+            try (RingBufferNetwork network = new RingBufferNetwork(RingBufferNetwork.DEFAULT_CAPACITY,
+                    RingBufferNetwork.DEFAULT_MAX_MESSAGE_LENGTH, YieldingIdleStrategy::new)) {
+                if (withSlowConsumer) {
+                    network.addConsumer(slow);
+                }
+                network.addConsumer(fast);
+                network.start();
+
+                start = System.nanoTime();
+                for (int i = 0; i < messages; i++) {
+                    pace(start, i, intervalNanos);
+                    network.dispatch(bookUpdate(i));
+                }
+                network.awaitConsumed();
+                end = System.nanoTime();
+            }
+        }
+
+        final long[] latencies = fast.latencies;
+        Arrays.sort(latencies, 0, fast.count);
+
+        final double seconds = (end - start) / 1_000_000_000d;
+        return String.format("%-18s throughput=%,.0f msg/s p50=%,dns p99=%,dns p99.9=%,dns (formatted %d)",
+                name, messages / seconds,
+                percentile(latencies, fast.count, 0.50),
+                percentile(latencies, fast.count, 0.99),
+                percentile(latencies, fast.count, 0.999),
+                slow.formatted);
+    }
+
+    private static void pace(final long start, final int i, final long intervalNanos) {
+        final long sendAt = start + i * intervalNanos;
+        while (System.nanoTime() < sendAt) {
+            Thread.yield();
+        }
+    }
+
+    private static long percentile(final long[] sorted, final int count, final double percentile) {
+        return sorted[Math.min(count - 1, (int) (count * percentile))];
+    }
+
+    private DirectBuffer bookUpdate(final int i) {
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        headerEncoder.sequencerNumber(System.nanoTime());
+        encoder.venue(Venue.XLON);
+        encoder.instrumentId(1L);
+        encoder.askBookCount(3)
+                .next().price(101L + (i & 7)).size(100L)
+                .next().price(102L + (i & 7)).size(200L)
+                .next().price(103L + (i & 7)).size(300L);
+        encoder.bidBookCount(3)
+                .next().price(99L - (i & 7)).size(100L)
+                .next().price(98L - (i & 7)).size(200L)
+                .next().price(97L - (i & 7)).size(300L);
+        encoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        return buffer;
+    }
+
+    private static class LatencyConsumer implements Consumer {
+
+        private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+        private final BookUpdateDecoder decoder = new BookUpdateDecoder();
+        private final long[] latencies;
+        private int count = 0;
+        private long sink = 0;
+
+        private LatencyConsumer(final int messages) {
+            this.latencies = new long[messages];
+        }
+
+        @Override
+        public void onMessage(final DirectBuffer buffer) {
+            decoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+            for (BookUpdateDecoder.AskBookDecoder ask : decoder.askBook()) {
+                sink += ask.price() * ask.size();
+            }
+            for (BookUpdateDecoder.BidBookDecoder bid : decoder.bidBook()) {
+                sink += bid.price() * bid.size();
+            }
+            latencies[count++] = System.nanoTime() - headerDecoder.sequencerNumber();
+        }
+    }
+
+    private static class FormattingConsumer implements Consumer {
+
+        private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+        private final BookUpdateDecoder decoder = new BookUpdateDecoder();
+        private int formatted = 0;
+
+        @Override
+        public void onMessage(final DirectBuffer buffer) {
+            decoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+            if (bookUpdateToString(decoder).length() > 0) {
+                formatted++;
+            }
+        }
+    }
+}
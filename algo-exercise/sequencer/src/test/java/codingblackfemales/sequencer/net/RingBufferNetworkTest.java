@@ -0,0 +1,166 @@
+package codingblackfemales.sequencer.net;
+
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Venue;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RingBufferNetworkTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final BookUpdateEncoder encoder = new BookUpdateEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private DirectBuffer bookUpdate(final long instrumentId) {
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.venue(Venue.XLON);
+        encoder.instrumentId(instrumentId);
+        encoder.askBookCount(2)
+                .next().price(101L).size(100L)
+                .next().price(102L).size(200L);
+        encoder.bidBookCount(1)
+                .next().price(99L).size(300L);
+        encoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        return buffer;
+    }
+
+    @Test
+    public void testEveryConsumerSeesEveryMessageInOrderAcrossWraps() {
+        final RecordingConsumer first = new RecordingConsumer();
+        final RecordingConsumer second = new RecordingConsumer();
+
+        try (RingBufferNetwork network = new RingBufferNetwork(8, 256)) {
+            network.addConsumer(first);
+            network.addConsumer(second);
+            network.start();
+
+            for (long i = 0; i < 1000; i++) {
+                network.dispatch(bookUpdate(i));
+            }
+            network.awaitConsumed();
+        }
+
+        assertEquals(1000, first.instrumentIds.size());
+        assertEquals(1000, second.instrumentIds.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (long) first.instrumentIds.get(i));
+            assertEquals(i, (long) second.instrumentIds.get(i));
+        }
+    }
+
+    @Test
+    public void testCopiesWholeMessageIncludingRepeatingGroups() {
+        final RecordingConsumer consumer = new RecordingConsumer();
+
+        try (RingBufferNetwork network = new RingBufferNetwork(4, 256)) {
+            network.addConsumer(consumer);
+            network.start();
+            network.dispatch(bookUpdate(7L));
+            network.awaitConsumed();
+        }
+
+        assertEquals(1, consumer.instrumentIds.size());
+        assertEquals(300L, consumer.lastBidSize);
+        assertEquals(InstrumentStatus.CONTINUOUS, consumer.lastStatus);
+    }
+
+    @Test
+    public void testDownstreamConsumerNeverOvertakesUpstream() {
+        final AtomicLong upstreamCount = new AtomicLong();
+        final Consumer upstream = message -> upstreamCount.incrementAndGet();
+
+        final AtomicLong downstreamCount = new AtomicLong();
+        final AtomicLong overtakes = new AtomicLong();
+        final Consumer downstream = message -> {
+            if (upstreamCount.get() <= downstreamCount.getAndIncrement()) {
+                overtakes.incrementAndGet();
+            }
+        };
+
+        try (RingBufferNetwork network = new RingBufferNetwork(16, 256)) {
+            network.addConsumer(upstream);
+            network.addConsumer(downstream, upstream);
+            network.start();
+
+            for (long i = 0; i < 10_000; i++) {
+                network.dispatch(bookUpdate(i));
+            }
+            network.awaitConsumed();
+        }
+
+        assertEquals(10_000, upstreamCount.get());
+        assertEquals(10_000, downstreamCount.get());
+        assertEquals(0, overtakes.get());
+    }
+
+    @Test
+    public void testCloseDrainsOutstandingMessages() {
+        final RecordingConsumer consumer = new RecordingConsumer();
+
+        final RingBufferNetwork network = new RingBufferNetwork(64, 256);
+        network.addConsumer(consumer);
+        network.start();
+        for (long i = 0; i < 500; i++) {
+            network.dispatch(bookUpdate(i));
+        }
+        network.close();
+
+        assertEquals(500, consumer.instrumentIds.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCannotDispatchBeforeStart() {
+        new RingBufferNetwork(8, 256).dispatch(bookUpdate(1L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsCapacityWhichIsNotAPowerOfTwo() {
+        new RingBufferNetwork(10, 256);
+    }
+
+    @Test
+    public void testRejectsMessageLargerThanSlot() {
+        try (RingBufferNetwork network = new RingBufferNetwork(8, 16)) {
+            network.start();
+            network.dispatch(bookUpdate(1L));
+            fail("expected message to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("maxMessageLength=[16]"));
+        }
+    }
+
+    private static class RecordingConsumer implements Consumer {
+
+        private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+        private final BookUpdateDecoder decoder = new BookUpdateDecoder();
+
+        private final List<Long> instrumentIds = new ArrayList<>();
+        private long lastBidSize;
+        private InstrumentStatus lastStatus;
+
+        @Override
+        public void onMessage(final DirectBuffer buffer) {
+            decoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+            instrumentIds.add(decoder.instrumentId());
+            decoder.askBook().forEach(ask -> { });
+            for (BookUpdateDecoder.BidBookDecoder bid : decoder.bidBook()) {
+                lastBidSize = bid.size();
+            }
+            lastStatus = decoder.instrumentStatus();
+        }
+    }
+}
@@ -5,11 +5,15 @@ import codingblackfemales.sequencer.net.Consumer;
 import codingblackfemales.sequencer.net.Network;
 import codingblackfemales.sequencer.net.TestNetwork;
 import codingblackfemales.service.MarketDataService;
+import codingblackfemales.sotw.marketdata.AbstractLevel;
 import codingblackfemales.sotw.marketdata.AskLevel;
 import codingblackfemales.sotw.marketdata.BidLevel;
 import messages.marketdata.AskBookUpdateDecoder;
 import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BookSide;
 import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.IncrementalBookUpdateDecoder;
+import messages.marketdata.UpdateAction;
 import org.agrona.DirectBuffer;
 import org.finos.toolbox.time.Clock;
 import org.finos.vuu.core.table.DataTable;
@@ -21,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 public class AlgoProvider extends MarketDataEventListener implements Provider {
 
@@ -267,6 +272,66 @@ public class AlgoProvider extends MarketDataEventListener implements Provider {
         debugBidOfferCross();
     }
 
+    /**
+     * Puts a changed level in its place in the book, or takes a deleted one out, levels past the 15 shown are dropped.
+     *
+     * @return the new number of levels.
+     */
+    private static <T extends AbstractLevel> int applyChange(final T[] levels, final int length, final boolean descending,
+                                                            final boolean delete, final long price, final long quantity,
+                                                            final Supplier<T> newLevel){
+        int index = 0;
+        while(index < length && (descending ? levels[index].price > price : levels[index].price < price)){
+            index++;
+        }
+        final boolean found = index < length && levels[index].price == price;
+
+        if(delete){
+            if(!found){
+                return length;
+            }
+            System.arraycopy(levels, index + 1, levels, index, length - index - 1);
+            levels[length - 1] = null;
+            return length - 1;
+        }
+
+        if(found){
+            levels[index].setQuantity(quantity);
+            return length;
+        }
+
+        if(index == levels.length){
+            return length;
+        }
+
+        final int kept = Math.min(length, levels.length - 1);
+        System.arraycopy(levels, index, levels, index + 1, kept - index);
+        final T level = newLevel.get();
+        level.setPrice(price);
+        level.setQuantity(quantity);
+        levels[index] = level;
+        return kept + 1;
+    }
+
+    @Override
+    public void onIncrementalBookUpdate(final IncrementalBookUpdateDecoder incrementalBookUpdate) {
+
+        instrumentId = incrementalBookUpdate.instrumentId();
+
+        for(IncrementalBookUpdateDecoder.EntriesDecoder entry : incrementalBookUpdate.entries()){
+            final boolean delete = entry.action() == UpdateAction.DELETE || entry.size() == 0;
+            if(entry.side() == BookSide.BID){
+                bidLength = applyChange(bidBook, bidLength, true, delete, entry.price(), entry.size(), BidLevel::new);
+            }else{
+                askLength = applyChange(askBook, askLength, false, delete, entry.price(), entry.size(), AskLevel::new);
+            }
+        }
+
+        updateBookTable();
+
+        debugBidOfferCross();
+    }
+
     @Override
     public void doStart() {
         network.addConsumer(this);